@@ -124,6 +124,12 @@ export class Session {
                     try {
                         let obj = JSON.parse(line);
 
+                        // Metrics are only logged, they aren't shown to the user
+                        if (obj.type === "metrics") {
+                            log.info("Conversion metrics: ", JSON.stringify(obj.metrics));
+                            continue;
+                        }
+
                         // If it's a progress message then it should continue listening for further updates
                         if (obj.type === "progress" || obj.type === "progress_state") {
                             obj.continue = true;
@@ -710,7 +716,11 @@ export class Session {
             skipBlockConnections: data.hasOwnProperty("blockConnections") && !data["blockConnections"],
             enableCompact: !data.hasOwnProperty("enableCompact") || data["enableCompact"],
             discardEmptyChunks: data.hasOwnProperty("discardEmptyChunks") && data["discardEmptyChunks"],
-            preventYBiomeBlending: data.hasOwnProperty("preventYBiomeBlending") && data["preventYBiomeBlending"]
+            preventYBiomeBlending: data.hasOwnProperty("preventYBiomeBlending") && data["preventYBiomeBlending"],
+            adaptiveConcurrency: data.hasOwnProperty("adaptiveConcurrency") && data["adaptiveConcurrency"],
+            collectMetrics: data.hasOwnProperty("collectMetrics") && data["collectMetrics"],
+            javaCompression: data.hasOwnProperty("javaCompression") ? data["javaCompression"] : null,
+            javaCompressionLevel: data.hasOwnProperty("javaCompressionLevel") ? data["javaCompressionLevel"] : null
         }
 
         // Send the convert version request
@@ -24,7 +24,10 @@ export class App extends Component {
         mapConversion: true,
         enableCompact: true,
         discardEmptyChunks: false,
-        preventYBiomeBlending: false
+        preventYBiomeBlending: false,
+        adaptiveConcurrency: false,
+        javaCompression: "ZLIB",
+        javaCompressionLevel: 1
     };
     state = {
         previewProgress: this.previewProgress.state,
@@ -62,6 +62,12 @@ export class ConverterSettingsTab extends Component {
                 "name": "preventYBiomeBlending",
                 "description": "Whether an empty chunk should be required at the top of each column to prevent vertical biome blending (Java only).",
                 "type": "Boolean"
+            },
+            {
+                "display": "Adaptive Worker Threads",
+                "name": "adaptiveConcurrency",
+                "description": "Whether the number of worker threads should adapt to your CPU and memory during conversion.",
+                "type": "Boolean"
             }
         ];
 
@@ -75,6 +81,40 @@ export class ConverterSettingsTab extends Component {
             });
         }
 
+        // If java output add region compression
+        if (this.app.state.outputType.id.startsWith("JAVA_")) {
+            normal = normal.concat({
+                "display": "Region Compression",
+                "name": "javaCompression",
+                "description": "The compression used for chunks in region files. LZ4 is faster to write but larger, it requires 1.20.5 or later. No compression requires 1.15 or later. Unsupported versions use ZLib.",
+                "type": "Radio",
+                "options": [
+                    {
+                        "name": "ZLib",
+                        "color": "green",
+                        "value": "ZLIB"
+                    },
+                    {
+                        "name": "LZ4",
+                        "color": "blue",
+                        "value": "LZ4"
+                    },
+                    {
+                        "name": "None",
+                        "color": "red",
+                        "value": "NONE"
+                    }
+                ]
+            }, {
+                "display": "ZLib Compression Level",
+                "name": "javaCompressionLevel",
+                "description": "The ZLib compression level from 0 (fastest) to 9 (smallest).",
+                "type": "Slider",
+                "min": 0,
+                "max": 9
+            });
+        }
+
         // Generate values (Falling back to defaults when not present)
         let app = this.app;
         normal.forEach(obj => {
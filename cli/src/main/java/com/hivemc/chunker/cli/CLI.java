@@ -11,6 +11,7 @@ import com.hivemc.chunker.conversion.encoding.EncodingType;
 import com.hivemc.chunker.conversion.encoding.base.Version;
 import com.hivemc.chunker.conversion.encoding.base.reader.LevelReader;
 import com.hivemc.chunker.conversion.encoding.base.writer.LevelWriter;
+import com.hivemc.chunker.conversion.encoding.java.JavaCompression;
 import com.hivemc.chunker.conversion.intermediate.world.Dimension;
 import com.hivemc.chunker.mapping.MappingsFile;
 import com.hivemc.chunker.mapping.resolver.MappingsFileResolvers;
@@ -18,6 +19,8 @@ import com.hivemc.chunker.mapping.parser.SimpleMappingsParser;
 import com.hivemc.chunker.mapping.LevelConvertMappings;
 import com.hivemc.chunker.mapping.parser.SimpleMappingsTemplateGenerator;
 import com.hivemc.chunker.pruning.PruningConfig;
+import com.hivemc.chunker.scheduling.TaskMetrics;
+import com.hivemc.chunker.scheduling.TaskMetricsReporter;
 import com.hivemc.chunker.scheduling.task.TrackedTask;
 import com.google.gson.JsonArray;
 import java.io.IOException;
@@ -32,7 +35,9 @@ import java.time.Duration;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.Deflater;
 
 /**
  * This class is the entry-point for the command-line version of Chunker.
@@ -153,6 +158,12 @@ public class CLI implements Runnable {
     )
     private boolean legacySimpleMappings;
 
+    @CommandLine.Option(
+            names = {"--metrics"},
+            description = "Write a JSON snapshot of per-task queue wait / execution time and throughput to the file while converting."
+    )
+    private File metricsFile;
+
     @CommandLine.Option(
             names = {"--debug"},
             description = "Enable verbose debug logging."
@@ -406,6 +417,10 @@ public class CLI implements Runnable {
                     boolean enableCompact = !parsedConverterSettings.has("enableCompact") || parsedConverterSettings.get("enableCompact").getAsBoolean();
                     boolean discardEmptyChunks = parsedConverterSettings.has("discardEmptyChunks") && parsedConverterSettings.get("discardEmptyChunks").getAsBoolean();
                     boolean preventYBiomeBlending = parsedConverterSettings.has("preventYBiomeBlending") && parsedConverterSettings.get("preventYBiomeBlending").getAsBoolean();
+                    boolean adaptiveConcurrency = parsedConverterSettings.has("adaptiveConcurrency") && parsedConverterSettings.get("adaptiveConcurrency").getAsBoolean();
+                    int maxInFlightRegions = parsedConverterSettings.has("maxInFlightRegions") ? parsedConverterSettings.get("maxInFlightRegions").getAsInt() : 0;
+                    JavaCompression javaCompression = parsedConverterSettings.has("javaCompression") ? JavaCompression.fromName(parsedConverterSettings.get("javaCompression").getAsString()) : JavaCompression.ZLIB;
+                    int javaCompressionLevel = parsedConverterSettings.has("javaCompressionLevel") ? parsedConverterSettings.get("javaCompressionLevel").getAsInt() : Deflater.BEST_SPEED;
 
                     // Apply the settings
                     worldConverter.setProcessMaps(!skipMaps);
@@ -415,6 +430,10 @@ public class CLI implements Runnable {
                     worldConverter.setLevelDBCompaction(enableCompact);
                     worldConverter.setDiscardEmptyChunks(discardEmptyChunks);
                     worldConverter.setPreventYBiomeBlending(preventYBiomeBlending);
+                    worldConverter.setAdaptiveConcurrency(adaptiveConcurrency);
+                    worldConverter.setMaxInFlightRegions(maxInFlightRegions);
+                    worldConverter.setJavaCompression(javaCompression);
+                    worldConverter.setJavaCompressionLevel(javaCompressionLevel);
                 } catch (Exception e) {
                     System.err.println("Failed to parse converter settings.");
                     throw new RuntimeException(e);
@@ -501,9 +520,35 @@ public class CLI implements Runnable {
                 }
             });
 
+            // Progress is reported after each range is compacted, so only print whole percentage changes
+            AtomicInteger compactionPercent = new AtomicInteger(-1);
+            worldConverter.setCompactionProgressSignal((progress) -> {
+                int percent = (int) (progress * 100D);
+                if (compactionPercent.getAndSet(percent) != percent) {
+                    System.out.printf("Compacting world %d%%%n", percent);
+                }
+            });
+
+            // Collect metrics if they should be written
+            worldConverter.setCollectMetrics(metricsFile != null);
+
             // Run the conversion
             TrackedTask<Void> conversionTask = worldConverter.convert(reader.get(), writer.get());
 
+            // Periodically replace the metrics file with the latest snapshot
+            TaskMetrics metrics = worldConverter.getMetrics();
+            TaskMetricsReporter metricsReporter = null;
+            if (metrics != null) {
+                metricsReporter = new TaskMetricsReporter(conversionTask, metrics, TaskMetricsReporter.DEFAULT_INTERVAL_MS, (snapshot) -> {
+                    try {
+                        Files.writeString(metricsFile.toPath(), GSON.toJson(snapshot));
+                    } catch (IOException e) {
+                        System.err.println("Failed to write metrics: " + e.getMessage());
+                    }
+                });
+                metricsReporter.start();
+            }
+
             // Redirect any failure to an atomic, so we can exit our loop
             AtomicReference<Throwable> failed = new AtomicReference<>();
             conversionTask.future().exceptionally((exception) -> {
@@ -525,6 +570,15 @@ public class CLI implements Runnable {
                 }
             }
 
+            // Wait for the final metrics to be written
+            if (metricsReporter != null) {
+                try {
+                    metricsReporter.join(TaskMetricsReporter.DEFAULT_INTERVAL_MS * 2);
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+
             // Handle result
             if (failed.get() != null) {
                 System.err.println("Failed with exception");
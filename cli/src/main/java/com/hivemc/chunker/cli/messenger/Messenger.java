@@ -6,6 +6,7 @@ import com.hivemc.chunker.cli.messenger.messaging.BasicMessage;
 import com.hivemc.chunker.cli.messenger.messaging.BasicMessageTypeAdapter;
 import com.hivemc.chunker.cli.messenger.messaging.request.*;
 import com.hivemc.chunker.cli.messenger.messaging.response.ErrorResponse;
+import com.hivemc.chunker.cli.messenger.messaging.response.MetricsResponse;
 import com.hivemc.chunker.cli.messenger.messaging.response.OutputResponse;
 import com.hivemc.chunker.cli.messenger.messaging.response.ProgressResponse;
 import com.hivemc.chunker.cli.messenger.messaging.response.ProgressStateResponse;
@@ -23,6 +24,8 @@ import com.hivemc.chunker.mapping.MappingsFile;
 import com.hivemc.chunker.mapping.resolver.MappingsFileResolvers;
 import com.hivemc.chunker.pruning.PruningConfig;
 import com.hivemc.chunker.scheduling.LoggedException;
+import com.hivemc.chunker.scheduling.TaskMetrics;
+import com.hivemc.chunker.scheduling.TaskMetricsReporter;
 import com.hivemc.chunker.scheduling.TaskMonitorThread;
 import com.hivemc.chunker.scheduling.task.TrackedTask;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
@@ -237,6 +240,14 @@ public class Messenger {
                         worldConverter.setDiscardEmptyChunks(convertRequest.isDiscardEmptyChunks());
                         worldConverter.setPreventYBiomeBlending(convertRequest.isPreventYBiomeBlending());
                         worldConverter.setCustomIdentifiers(convertRequest.isCustomIdentifiers());
+                        worldConverter.setAdaptiveConcurrency(convertRequest.isAdaptiveConcurrency());
+                        worldConverter.setCollectMetrics(convertRequest.isCollectMetrics());
+                        if (convertRequest.getJavaCompression() != null) {
+                            worldConverter.setJavaCompression(convertRequest.getJavaCompression());
+                        }
+                        if (convertRequest.getJavaCompressionLevel() != null) {
+                            worldConverter.setJavaCompressionLevel(convertRequest.getJavaCompressionLevel());
+                        }
 
                         // Add the handler for the compaction signal to let the UI know
                         worldConverter.setCompactionSignal((started) -> {
@@ -246,6 +257,11 @@ public class Messenger {
                                 write(new ProgressStateResponse(convertRequest.getRequestId(), null, false));
                             }
                         });
+                        worldConverter.setCompactionProgressSignal((progress) -> write(new ProgressStateResponse(
+                                convertRequest.getRequestId(),
+                                "Compacting output (" + Math.round(progress * 100D) + "%)",
+                                true
+                        )));
 
                         // Find the writer to use
                         Optional<? extends LevelWriter> writer = findWriter(convertRequest.getOutputType(), worldConverter, new File(convertRequest.getOutputPath()));
@@ -513,6 +529,14 @@ public class Messenger {
         // Start the monitor thread
         taskMonitorThread.start();
 
+        // Periodically send the metrics if they're being collected
+        TaskMetrics metrics = worldConverter.getMetrics();
+        if (metrics != null) {
+            TaskMetricsReporter metricsReporter = new TaskMetricsReporter(environment, metrics, TaskMetricsReporter.DEFAULT_INTERVAL_MS,
+                    (snapshot) -> write(new MetricsResponse(taskID, snapshot)));
+            metricsReporter.start();
+        }
+
         // Started
         return true;
     }
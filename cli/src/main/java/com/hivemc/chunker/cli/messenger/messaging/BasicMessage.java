@@ -3,6 +3,7 @@ package com.hivemc.chunker.cli.messenger.messaging;
 import com.google.gson.annotations.SerializedName;
 import com.hivemc.chunker.cli.messenger.messaging.request.*;
 import com.hivemc.chunker.cli.messenger.messaging.response.ErrorResponse;
+import com.hivemc.chunker.cli.messenger.messaging.response.MetricsResponse;
 import com.hivemc.chunker.cli.messenger.messaging.response.OutputResponse;
 import com.hivemc.chunker.cli.messenger.messaging.response.ProgressResponse;
 import com.hivemc.chunker.cli.messenger.messaging.response.ProgressStateResponse;
@@ -77,6 +78,8 @@ public abstract class BasicMessage {
         PROGRESS(ProgressResponse.class),
         @SerializedName("progress_state")
         PROGRESS_STATE(ProgressStateResponse.class),
+        @SerializedName("metrics")
+        METRICS(MetricsResponse.class),
         @SerializedName("error")
         ERROR(ErrorResponse.class);
 
@@ -5,6 +5,7 @@ import com.google.gson.JsonObject;
 import com.hivemc.chunker.cli.messenger.messaging.BasicMessage;
 import com.hivemc.chunker.cli.messenger.messaging.DimensionPruningList;
 import com.hivemc.chunker.cli.messenger.messaging.InvokesWorldConverterRequest;
+import com.hivemc.chunker.conversion.encoding.java.JavaCompression;
 import com.hivemc.chunker.conversion.intermediate.world.Dimension;
 import org.jetbrains.annotations.Nullable;
 
@@ -38,6 +39,12 @@ public class ConvertRequest extends BasicMessage implements InvokesWorldConverte
     private final boolean discardEmptyChunks;
     private final boolean preventYBiomeBlending;
     private final boolean customIdentifiers;
+    private final boolean adaptiveConcurrency;
+    private final boolean collectMetrics;
+    @Nullable
+    private final JavaCompression javaCompression;
+    @Nullable
+    private final Integer javaCompressionLevel;
 
     /**
      * Create a new conversion request.
@@ -61,8 +68,12 @@ public class ConvertRequest extends BasicMessage implements InvokesWorldConverte
      * @param enableCompact          whether the world should be compacted after conversion (Bedrock).
      * @param discardEmptyChunks     whether empty chunks should not be written.
      * @param preventYBiomeBlending  whether biomes should be prevented from blending (Java).
+     * @param adaptiveConcurrency    whether the number of worker threads should adapt while converting.
+     * @param collectMetrics         whether task metrics should be collected and sent while converting.
+     * @param javaCompression        the compression for Java region files, null to use the default.
+     * @param javaCompressionLevel   the ZLib level for Java region files, null to use the default.
      */
-    public ConvertRequest(UUID anonymousId, String inputPath, String outputPath, String outputType, @Nullable Map<Dimension, Dimension> inputToOutputDimension, @Nullable JsonObject mappings, @Nullable JsonObject nbtSettings, @Nullable JsonArray maps, boolean copyNbt, @Nullable DimensionPruningList pruningList, boolean skipMaps, boolean skipLootTables, boolean skipItemConversion, boolean customIdentifiers, boolean skipBlockConnections, boolean enableCompact, boolean discardEmptyChunks, boolean preventYBiomeBlending) {
+    public ConvertRequest(UUID anonymousId, String inputPath, String outputPath, String outputType, @Nullable Map<Dimension, Dimension> inputToOutputDimension, @Nullable JsonObject mappings, @Nullable JsonObject nbtSettings, @Nullable JsonArray maps, boolean copyNbt, @Nullable DimensionPruningList pruningList, boolean skipMaps, boolean skipLootTables, boolean skipItemConversion, boolean customIdentifiers, boolean skipBlockConnections, boolean enableCompact, boolean discardEmptyChunks, boolean preventYBiomeBlending, boolean adaptiveConcurrency, boolean collectMetrics, @Nullable JavaCompression javaCompression, @Nullable Integer javaCompressionLevel) {
         this.anonymousId = anonymousId;
         this.inputPath = inputPath;
         this.outputPath = outputPath;
@@ -81,6 +92,10 @@ public class ConvertRequest extends BasicMessage implements InvokesWorldConverte
         this.enableCompact = enableCompact;
         this.discardEmptyChunks = discardEmptyChunks;
         this.preventYBiomeBlending = preventYBiomeBlending;
+        this.adaptiveConcurrency = adaptiveConcurrency;
+        this.collectMetrics = collectMetrics;
+        this.javaCompression = javaCompression;
+        this.javaCompressionLevel = javaCompressionLevel;
     }
 
     /**
@@ -106,8 +121,12 @@ public class ConvertRequest extends BasicMessage implements InvokesWorldConverte
      * @param enableCompact          whether the world should be compacted after conversion (Bedrock).
      * @param discardEmptyChunks     whether empty chunks should not be written.
      * @param preventYBiomeBlending  whether biomes should be prevented from blending (Java).
+     * @param adaptiveConcurrency    whether the number of worker threads should adapt while converting.
+     * @param collectMetrics         whether task metrics should be collected and sent while converting.
+     * @param javaCompression        the compression for Java region files, null to use the default.
+     * @param javaCompressionLevel   the ZLib level for Java region files, null to use the default.
      */
-    public ConvertRequest(UUID requestId, UUID anonymousId, String inputPath, String outputPath, String outputType, @Nullable Map<Dimension, Dimension> inputToOutputDimension, @Nullable JsonObject mappings, @Nullable JsonObject nbtSettings, @Nullable JsonArray maps, boolean copyNbt, @Nullable DimensionPruningList pruningList, boolean skipMaps, boolean skipLootTables, boolean skipItemConversion, boolean customIdentifiers, boolean skipBlockConnections, boolean enableCompact, boolean discardEmptyChunks, boolean preventYBiomeBlending) {
+    public ConvertRequest(UUID requestId, UUID anonymousId, String inputPath, String outputPath, String outputType, @Nullable Map<Dimension, Dimension> inputToOutputDimension, @Nullable JsonObject mappings, @Nullable JsonObject nbtSettings, @Nullable JsonArray maps, boolean copyNbt, @Nullable DimensionPruningList pruningList, boolean skipMaps, boolean skipLootTables, boolean skipItemConversion, boolean customIdentifiers, boolean skipBlockConnections, boolean enableCompact, boolean discardEmptyChunks, boolean preventYBiomeBlending, boolean adaptiveConcurrency, boolean collectMetrics, @Nullable JavaCompression javaCompression, @Nullable Integer javaCompressionLevel) {
         super(requestId);
         this.anonymousId = anonymousId;
         this.inputPath = inputPath;
@@ -127,6 +146,10 @@ public class ConvertRequest extends BasicMessage implements InvokesWorldConverte
         this.enableCompact = enableCompact;
         this.discardEmptyChunks = discardEmptyChunks;
         this.preventYBiomeBlending = preventYBiomeBlending;
+        this.adaptiveConcurrency = adaptiveConcurrency;
+        this.collectMetrics = collectMetrics;
+        this.javaCompression = javaCompression;
+        this.javaCompressionLevel = javaCompressionLevel;
     }
 
     /**
@@ -298,4 +321,43 @@ public class ConvertRequest extends BasicMessage implements InvokesWorldConverte
     public boolean isPreventYBiomeBlending() {
         return preventYBiomeBlending;
     }
+
+    /**
+     * Whether the number of worker threads should adapt to the machine and the conversion while running.
+     *
+     * @return true if adaptive concurrency should be used.
+     */
+    public boolean isAdaptiveConcurrency() {
+        return adaptiveConcurrency;
+    }
+
+    /**
+     * Whether task metrics (queue wait, execution time and throughput) should be collected and sent periodically
+     * while converting.
+     *
+     * @return true if metrics should be collected.
+     */
+    public boolean isCollectMetrics() {
+        return collectMetrics;
+    }
+
+    /**
+     * The compression which should be used for columns written to Java region files.
+     *
+     * @return the compression or null if the default should be used.
+     */
+    @Nullable
+    public JavaCompression getJavaCompression() {
+        return javaCompression;
+    }
+
+    /**
+     * The ZLib level which should be used for columns written to Java region files.
+     *
+     * @return the level (0 to 9) or null if the default should be used.
+     */
+    @Nullable
+    public Integer getJavaCompressionLevel() {
+        return javaCompressionLevel;
+    }
 }
@@ -0,0 +1,33 @@
+package com.hivemc.chunker.cli.messenger.messaging.response;
+
+import com.google.gson.JsonObject;
+import com.hivemc.chunker.cli.messenger.messaging.BasicMessage;
+
+import java.util.UUID;
+
+/**
+ * A message containing a snapshot of the task metrics for a request.
+ */
+public class MetricsResponse extends BasicMessage {
+    private final JsonObject metrics;
+
+    /**
+     * Create a new metrics response message.
+     *
+     * @param requestId the request which this is in response to.
+     * @param metrics   the snapshot of the metrics.
+     */
+    public MetricsResponse(UUID requestId, JsonObject metrics) {
+        super(requestId);
+        this.metrics = metrics;
+    }
+
+    /**
+     * Get the snapshot of the metrics.
+     *
+     * @return the metrics as a JSON object.
+     */
+    public JsonObject getMetrics() {
+        return metrics;
+    }
+}
@@ -6,7 +6,9 @@ import com.google.common.collect.Multimaps;
 import com.google.gson.JsonObject;
 import com.hivemc.chunker.conversion.encoding.base.Converter;
 import com.hivemc.chunker.conversion.encoding.base.reader.LevelReader;
+import com.hivemc.chunker.conversion.encoding.base.reader.RegionAdmissionController;
 import com.hivemc.chunker.conversion.encoding.base.writer.LevelWriter;
+import com.hivemc.chunker.conversion.encoding.java.JavaCompression;
 import com.hivemc.chunker.conversion.handlers.ColumnConversionHandler;
 import com.hivemc.chunker.conversion.handlers.LevelConversionHandler;
 import com.hivemc.chunker.conversion.handlers.WorldConversionHandler;
@@ -14,6 +16,7 @@ import com.hivemc.chunker.conversion.handlers.pipeline.Pipeline;
 import com.hivemc.chunker.conversion.handlers.pretransform.ColumnPreTransformConversionHandler;
 import com.hivemc.chunker.conversion.handlers.pretransform.ColumnPreTransformWriterConversionHandler;
 import com.hivemc.chunker.conversion.handlers.writer.LevelWriterConversionHandler;
+import com.hivemc.chunker.conversion.intermediate.column.ChunkerColumn;
 import com.hivemc.chunker.conversion.intermediate.column.chunk.ChunkCoordPair;
 import com.hivemc.chunker.conversion.intermediate.column.chunk.RegionCoordPair;
 import com.hivemc.chunker.conversion.intermediate.level.ChunkerLevel;
@@ -24,10 +27,14 @@ import com.hivemc.chunker.conversion.intermediate.world.Dimension;
 import com.hivemc.chunker.mapping.resolver.MappingsFileResolvers;
 import com.hivemc.chunker.pruning.PruningConfig;
 import com.hivemc.chunker.pruning.PruningRegion;
+import com.hivemc.chunker.scheduling.AdaptiveConcurrencyController;
+import com.hivemc.chunker.scheduling.MemoryGovernor;
+import com.hivemc.chunker.scheduling.TaskMetrics;
 import com.hivemc.chunker.scheduling.task.Environment;
 import com.hivemc.chunker.scheduling.task.Task;
 import com.hivemc.chunker.scheduling.task.TaskWeight;
 import com.hivemc.chunker.scheduling.task.TrackedTask;
+import com.hivemc.chunker.scheduling.task.executor.WorkStealingTaskExecutor;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -39,7 +46,9 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
+import java.util.zip.Deflater;
 
 /**
  * A converter which allows a session to be created with settings and taking a reader and writer to use for conversion.
@@ -50,11 +59,23 @@ public class WorldConverter implements Converter {
      */
     public static final String SIGNAL_COMPACTION = "signal_compaction";
 
+    /**
+     * Signal used to indicate the progress of compaction, the value is a double between 0-1.
+     */
+    public static final String SIGNAL_COMPACTION_PROGRESS = "signal_compaction_progress";
+
+    /**
+     * The number of threads used for tasks which perform blocking I/O (reading / writing region files).
+     */
+    public static final int DEFAULT_IO_THREADS = 4;
+
     private final UUID sessionID;
     // State
     @Nullable
     protected Consumer<Boolean> compactionSignalConsumer;
     @Nullable
+    protected Consumer<Double> compactionProgressSignalConsumer;
+    @Nullable
     protected ChunkerLevel level;
     @Nullable
     protected LevelReader reader = null;
@@ -62,6 +83,12 @@ public class WorldConverter implements Converter {
     protected LevelWriter writer = null;
     @Nullable
     protected Environment environment = null;
+    @Nullable
+    protected AdaptiveConcurrencyController concurrencyController = null;
+    protected final LongAdder convertedColumns = new LongAdder();
+    @Nullable
+    protected TaskMetrics metrics = null;
+    protected RegionAdmissionController regionAdmissionController = RegionAdmissionController.UNBOUNDED;
     protected Multimap<Converter.MissingMappingType, String> missingIdentifiers = Multimaps.synchronizedSetMultimap(
             MultimapBuilder.enumKeys(Converter.MissingMappingType.class)
                     .hashSetValues()
@@ -94,6 +121,11 @@ public class WorldConverter implements Converter {
     private boolean notEnoughIDs = false;
     private boolean legacySimpleMappings = false;
     private boolean customIdentifiers = true;
+    private boolean adaptiveConcurrency = false;
+    private int maxInFlightRegions = 0;
+    private JavaCompression javaCompression = JavaCompression.ZLIB;
+    private int javaCompressionLevel = Deflater.BEST_SPEED;
+    private boolean collectMetrics = false;
     private boolean debug = false;
     @Nullable
     private java.io.PrintWriter logWriter;
@@ -120,6 +152,15 @@ public class WorldConverter implements Converter {
         this.compactionSignalConsumer = compactionSignalConsumer;
     }
 
+    /**
+     * Set the handler for the progress of compaction signalled by the converter.
+     *
+     * @param compactionProgressSignalConsumer a consumer which is called with the progress between 0-1.
+     */
+    public void setCompactionProgressSignal(@Nullable Consumer<Double> compactionProgressSignalConsumer) {
+        this.compactionProgressSignalConsumer = compactionProgressSignalConsumer;
+    }
+
     /**
      * Set the pruning configuration used for discarding columns from the input worlds.
      *
@@ -352,6 +393,116 @@ public class WorldConverter implements Converter {
         this.customIdentifiers = customIdentifiers;
     }
 
+    /**
+     * Set whether the number of worker threads should adapt to the machine and the conversion while running.
+     *
+     * @param adaptiveConcurrency true if the worker count should be adaptive, otherwise a fixed count is used.
+     */
+    public void setAdaptiveConcurrency(boolean adaptiveConcurrency) {
+        this.adaptiveConcurrency = adaptiveConcurrency;
+    }
+
+    /**
+     * Whether the number of worker threads adapts to the machine and the conversion while running.
+     *
+     * @return true if adaptive concurrency is enabled.
+     */
+    public boolean isAdaptiveConcurrency() {
+        return adaptiveConcurrency;
+    }
+
+    /**
+     * Set the maximum number of regions which can be read at once, a region stays in-flight until it has been flushed.
+     *
+     * @param maxInFlightRegions the maximum number of regions, 0 to derive the limit from the maximum heap or a
+     *                           negative value for no limit (admission is still paused while the heap is too full).
+     */
+    public void setMaxInFlightRegions(int maxInFlightRegions) {
+        this.maxInFlightRegions = maxInFlightRegions;
+    }
+
+    /**
+     * Get the maximum number of regions which can be read at once.
+     *
+     * @return the maximum number of regions, 0 if derived from the maximum heap or a negative value for no limit.
+     */
+    public int getMaxInFlightRegions() {
+        return maxInFlightRegions;
+    }
+
+    /**
+     * Set the compression used for columns written to Java region files.
+     *
+     * @param javaCompression the compression, writers fall back to ZLib if the output version doesn't support it.
+     */
+    public void setJavaCompression(JavaCompression javaCompression) {
+        this.javaCompression = javaCompression;
+    }
+
+    /**
+     * Set the level used when writing ZLib compressed columns to Java region files.
+     *
+     * @param javaCompressionLevel the level from 0 (no compression) to 9 (best compression).
+     */
+    public void setJavaCompressionLevel(int javaCompressionLevel) {
+        if (javaCompressionLevel < Deflater.NO_COMPRESSION || javaCompressionLevel > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Compression level must be between 0 and 9");
+        }
+        this.javaCompressionLevel = javaCompressionLevel;
+    }
+
+    /**
+     * Set whether per-task metrics (queue wait, execution time and throughput) should be collected while converting.
+     *
+     * @param collectMetrics true if metrics should be collected.
+     */
+    public void setCollectMetrics(boolean collectMetrics) {
+        this.collectMetrics = collectMetrics;
+    }
+
+    /**
+     * Whether per-task metrics are collected while converting.
+     *
+     * @return true if metrics are collected.
+     */
+    public boolean isCollectMetrics() {
+        return collectMetrics;
+    }
+
+    /**
+     * Get the metrics for the current conversion.
+     *
+     * @return the metrics, null if metrics aren't being collected or no conversion has been started.
+     */
+    @Nullable
+    public TaskMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public JavaCompression getJavaCompression() {
+        return javaCompression;
+    }
+
+    @Override
+    public int getJavaCompressionLevel() {
+        return javaCompressionLevel;
+    }
+
+    @Override
+    public RegionAdmissionController getRegionAdmissionController() {
+        return regionAdmissionController;
+    }
+
+    /**
+     * Get the number of columns which have been passed to the writer during the current conversion.
+     *
+     * @return the number of converted columns.
+     */
+    public long getConvertedColumns() {
+        return convertedColumns.sum();
+    }
+
     @Override
     public boolean shouldLevelDBCompaction() {
         return levelDBCompaction;
@@ -572,6 +723,9 @@ public class WorldConverter implements Converter {
         if (signalName.equals(SIGNAL_COMPACTION)) {
             if (compactionSignalConsumer == null) return;
             compactionSignalConsumer.accept((Boolean) signalValue);
+        } else if (signalName.equals(SIGNAL_COMPACTION_PROGRESS)) {
+            if (compactionProgressSignalConsumer == null) return;
+            compactionProgressSignalConsumer.accept((Double) signalValue);
         }
     }
 
@@ -645,7 +799,45 @@ public class WorldConverter implements Converter {
         cancelled = false;
         exceptions = false;
         missingIdentifiers.clear();
-        environment = Task.environment("World Conversion", 8, this::logFatalException, this::handleSignal);
+        convertedColumns.reset();
+
+        // Limit the regions which are in-flight, pausing while the heap is too full
+        MemoryGovernor memoryGovernor = new MemoryGovernor();
+        int regionLimit = maxInFlightRegions;
+        if (regionLimit == 0) {
+            regionLimit = RegionAdmissionController.getHeapDerivedLimit(Runtime.getRuntime().maxMemory());
+        }
+        regionAdmissionController = new RegionAdmissionController(regionLimit, memoryGovernor);
+        memoryGovernor.start();
+        metrics = collectMetrics ? new TaskMetrics() : null;
+        if (adaptiveConcurrency) {
+            // Start with a worker count suited to the machine, the controller adjusts it while running
+            int processors = Runtime.getRuntime().availableProcessors();
+            WorkStealingTaskExecutor executor = new WorkStealingTaskExecutor(
+                    AdaptiveConcurrencyController.getMaxWorkers(processors),
+                    AdaptiveConcurrencyController.getInitialWorkers(processors, Runtime.getRuntime().maxMemory()),
+                    DEFAULT_IO_THREADS,
+                    this::logFatalException,
+                    this::handleSignal
+            );
+            executor.setMetrics(metrics);
+            concurrencyController = new AdaptiveConcurrencyController(executor, convertedColumns::sum);
+            environment = Task.environment("World Conversion", executor);
+            concurrencyController.start();
+        } else {
+            // Blocking I/O has its own lane, so one CPU worker per processor keeps every core busy
+            concurrencyController = null;
+            int workerThreads = Runtime.getRuntime().availableProcessors();
+            WorkStealingTaskExecutor executor = new WorkStealingTaskExecutor(
+                    workerThreads,
+                    workerThreads,
+                    DEFAULT_IO_THREADS,
+                    this::logFatalException,
+                    this::handleSignal
+            );
+            executor.setMetrics(metrics);
+            environment = Task.environment("World Conversion", executor);
+        }
 
         try {
             // Create the handler that calls the writer
@@ -669,6 +861,7 @@ public class WorldConverter implements Converter {
                 // Add the pre-transform writer conversion handler, this ensures columns know which edges are needed
                 // Add pre-transform to the pipeline (this is required to handle processes that need adjacent chunks)
                 pipeline.columnHandlers(
+                        (delegate, world) -> new ColumnHandler(this, delegate),
                         (delegate, world) -> new ColumnPreTransformWriterConversionHandler(
                                 writer::getPreTransformManager,
                                 delegate,
@@ -679,6 +872,7 @@ public class WorldConverter implements Converter {
             } else {
                 // Add the writer handler, this ensures that the writer is still called just without connected chunks
                 pipeline.columnHandlers(
+                        (delegate, world) -> new ColumnHandler(this, delegate),
                         (delegate, world) -> new ColumnPreTransformWriterConversionHandler(
                                 writer::getPreTransformManager,
                                 delegate,
@@ -699,7 +893,18 @@ public class WorldConverter implements Converter {
             environment.close(); // Close indicates that we're done scheduling the base tasks
 
             // Ensure free is called for the reader & writer (always)
+            AdaptiveConcurrencyController controller = concurrencyController;
+            RegionAdmissionController admissionController = regionAdmissionController;
             environment.setFreeCallback(() -> {
+                // Stop adjusting the workers
+                if (controller != null) {
+                    controller.interrupt();
+                }
+
+                // Stop watching memory
+                memoryGovernor.stop();
+                logDebug("Region admission was throttled " + admissionController.getThrottledAdmissions() + " times due to memory, " + memoryGovernor.getGCRequestCount() + " GC requests");
+
                 // Free reader
                 try {
                     reader.free();
@@ -746,6 +951,41 @@ public class WorldConverter implements Converter {
         }
     }
 
+    /**
+     * ColumnConversionHandler which records the columns being passed to the writer.
+     */
+    static class ColumnHandler implements ColumnConversionHandler {
+        private final WorldConverter worldConverter;
+        private final ColumnConversionHandler delegate;
+
+        public ColumnHandler(WorldConverter worldConverter, ColumnConversionHandler delegate) {
+            this.worldConverter = worldConverter;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void convertColumn(ChunkerColumn column) {
+            worldConverter.convertedColumns.increment();
+            if (worldConverter.metrics != null) {
+                worldConverter.metrics.recordColumn();
+            }
+            delegate.convertColumn(column);
+        }
+
+        @Override
+        public void flushRegion(RegionCoordPair regionCoordPair) {
+            if (worldConverter.metrics != null) {
+                worldConverter.metrics.recordRegion();
+            }
+            delegate.flushRegion(regionCoordPair);
+        }
+
+        @Override
+        public void flushColumns() {
+            delegate.flushColumns();
+        }
+    }
+
     /**
      * WorldConversionHandler which applies dimension remapping.
      */
@@ -1,6 +1,8 @@
 package com.hivemc.chunker.conversion.encoding.base;
 
 import com.google.common.base.CaseFormat;
+import com.hivemc.chunker.conversion.encoding.base.reader.RegionAdmissionController;
+import com.hivemc.chunker.conversion.encoding.java.JavaCompression;
 import com.hivemc.chunker.conversion.intermediate.column.chunk.ChunkCoordPair;
 import com.hivemc.chunker.conversion.intermediate.column.chunk.RegionCoordPair;
 import com.hivemc.chunker.conversion.intermediate.level.ChunkerLevel;
@@ -9,6 +11,7 @@ import com.hivemc.chunker.mapping.resolver.MappingsFileResolvers;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Optional;
+import java.util.zip.Deflater;
 
 /**
  * A converter is an interface for converter settings / feeding information back to the user.
@@ -195,6 +198,34 @@ public interface Converter {
         return false;
     }
 
+    /**
+     * Get the compression which should be used for columns written to region files. Java only, writers fall back to
+     * ZLib if the output version doesn't support the compression.
+     *
+     * @return the compression to use, by default ZLib.
+     */
+    default JavaCompression getJavaCompression() {
+        return JavaCompression.ZLIB;
+    }
+
+    /**
+     * Get the level used when writing ZLib compressed columns to region files. Java only.
+     *
+     * @return the level from 0 (no compression) to 9 (best compression), by default the fastest level is used.
+     */
+    default int getJavaCompressionLevel() {
+        return Deflater.BEST_SPEED;
+    }
+
+    /**
+     * Get the controller which limits how many regions readers can have in-flight at once.
+     *
+     * @return the admission controller, by default regions are admitted without a limit.
+     */
+    default RegionAdmissionController getRegionAdmissionController() {
+        return RegionAdmissionController.UNBOUNDED;
+    }
+
     /**
      * Get the dimension mapping given an input.
      *
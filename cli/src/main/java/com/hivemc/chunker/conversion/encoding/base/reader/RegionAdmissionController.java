@@ -0,0 +1,156 @@
+package com.hivemc.chunker.conversion.encoding.base.reader;
+
+import com.hivemc.chunker.scheduling.MemoryGovernor;
+import com.hivemc.chunker.scheduling.task.executor.TaskExecutor;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits how many regions a reader can have in-flight at once. A region is in-flight from when it's admitted for
+ * reading until it has been flushed, this keeps the memory used by decoded / pre-transform / pending write columns
+ * proportional to the limit rather than to the size of the world.
+ * <p>
+ * If a memory governor is present, admission is also paused while the heap is too full, as long as there is at least
+ * one region in-flight which will free memory when it completes.
+ */
+public class RegionAdmissionController {
+    /**
+     * A controller which admits every region without waiting.
+     */
+    public static final RegionAdmissionController UNBOUNDED = new RegionAdmissionController(0, null);
+
+    /**
+     * The amount of heap which each in-flight region is expected to need, used for the heap derived limit.
+     */
+    public static final long HEAP_PER_REGION = 128L * 1024L * 1024L;
+
+    /**
+     * The minimum limit used when deriving the limit from the heap.
+     */
+    public static final int MINIMUM_LIMIT = 2;
+
+    private static final long WAIT_MS = 10;
+    private final int limit;
+    @Nullable
+    private final Semaphore permits;
+    @Nullable
+    private final MemoryGovernor memoryGovernor;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder throttledAdmissions = new LongAdder();
+
+    /**
+     * Create a new region admission controller.
+     *
+     * @param limit the maximum number of in-flight regions, 0 or lower for no limit.
+     */
+    public RegionAdmissionController(int limit) {
+        this(limit, null);
+    }
+
+    /**
+     * Create a new region admission controller.
+     *
+     * @param limit          the maximum number of in-flight regions, 0 or lower for no limit.
+     * @param memoryGovernor the governor used to pause admission while the heap is too full, null if not used.
+     */
+    public RegionAdmissionController(int limit, @Nullable MemoryGovernor memoryGovernor) {
+        this.limit = Math.max(0, limit);
+        this.memoryGovernor = memoryGovernor;
+        permits = this.limit == 0 ? null : new Semaphore(this.limit);
+    }
+
+    /**
+     * Get a limit for the number of in-flight regions based on the maximum heap.
+     *
+     * @param maxHeap the maximum heap size in bytes.
+     * @return the limit, at least {@link #MINIMUM_LIMIT}.
+     */
+    public static int getHeapDerivedLimit(long maxHeap) {
+        if (maxHeap == Long.MAX_VALUE) return 0; // No maximum heap, so we can't derive a limit
+        return (int) Math.max(MINIMUM_LIMIT, Math.min(Integer.MAX_VALUE, maxHeap / HEAP_PER_REGION));
+    }
+
+    /**
+     * Wait until a region can be admitted. While waiting the calling thread runs other queued tasks so that the
+     * in-flight regions continue to make progress even if this is the only worker.
+     *
+     * @throws InterruptedException if the thread was interrupted while waiting (e.g. the conversion was cancelled).
+     */
+    public void acquire() throws InterruptedException {
+        if (permits == null && memoryGovernor == null) return;
+        TaskExecutor executor = TaskExecutor.currentExecutor();
+
+        // Wait for memory to be freed, at least one region has to be in-flight otherwise nothing would free memory
+        if (memoryGovernor != null && inFlight.get() > 0 && memoryGovernor.shouldThrottle()) {
+            throttledAdmissions.increment();
+            do {
+                if (!executor.runPendingTask()) {
+                    Thread.sleep(WAIT_MS);
+                }
+            } while (inFlight.get() > 0 && memoryGovernor.shouldThrottle());
+        }
+
+        // Help run other tasks until a region has been flushed
+        if (permits != null) {
+            while (!permits.tryAcquire()) {
+                if (executor.runPendingTask()) continue;
+
+                // Nothing to run, wait for a permit
+                if (permits.tryAcquire(WAIT_MS, TimeUnit.MILLISECONDS)) break;
+            }
+        }
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * Release a region which was admitted, this should be called once the region has been flushed.
+     */
+    public void release() {
+        if (permits == null && memoryGovernor == null) return;
+        inFlight.decrementAndGet();
+        if (permits != null) {
+            permits.release();
+        }
+    }
+
+    /**
+     * Get the maximum number of in-flight regions.
+     *
+     * @return the limit, 0 if there is no limit.
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Get the number of regions which are currently in-flight.
+     *
+     * @return the number of admitted regions which haven't been released, always 0 if admission isn't controlled.
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Get the number of admissions which were delayed by the memory governor.
+     *
+     * @return the number of throttled admissions.
+     */
+    public long getThrottledAdmissions() {
+        return throttledAdmissions.sum();
+    }
+
+    /**
+     * Get the memory governor used by this controller.
+     *
+     * @return the memory governor or null if admission isn't paused based on memory.
+     */
+    @Nullable
+    public MemoryGovernor getMemoryGovernor() {
+        return memoryGovernor;
+    }
+}
@@ -17,6 +17,16 @@ public interface ColumnWriter {
      */
     void writeColumn(ChunkerColumn chunkerColumn) throws Exception;
 
+    /**
+     * Called when a column has been queued for writing, {@link #writeColumn(ChunkerColumn)} is called for it
+     * asynchronously afterwards. This is always called before the region of the column is flushed.
+     *
+     * @param chunkerColumn the column that has been queued.
+     */
+    default void queueColumn(ChunkerColumn chunkerColumn) {
+        // It isn't required to handle this method, it can be useful for knowing which columns a region is waiting on
+    }
+
     /**
      * Called when all the column writing has completed.
      *
@@ -201,7 +201,7 @@ public class BedrockDataVersion implements Comparable<BedrockDataVersion> {
      */
     public static Optional<BedrockDataVersion> detect(File directory) {
         try {
-            CompoundTag level = Objects.requireNonNull(Tag.readBedrockNBT(new File(directory, "level.dat")));
+            CompoundTag level = Objects.requireNonNull(Tag.readLazyBedrockNBT(new File(directory, "level.dat")));
 
             // Find DataVersion tag
             List<Integer> versionTag = level.getListValues("lastOpenedWithVersion", IntTag.class, null);
@@ -4,7 +4,7 @@ import com.hivemc.chunker.conversion.encoding.base.Converter;
 import com.hivemc.chunker.conversion.encoding.base.reader.ColumnReader;
 import com.hivemc.chunker.conversion.encoding.bedrock.base.resolver.BedrockResolvers;
 import com.hivemc.chunker.conversion.encoding.bedrock.util.LevelDBChunkType;
-import com.hivemc.chunker.conversion.encoding.bedrock.util.LevelDBKey;
+import com.hivemc.chunker.conversion.encoding.bedrock.util.LevelDBColumnRecords;
 import com.hivemc.chunker.conversion.encoding.bedrock.util.PaletteUtil;
 import com.hivemc.chunker.conversion.handlers.ColumnConversionHandler;
 import com.hivemc.chunker.conversion.intermediate.column.ChunkerColumn;
@@ -23,12 +23,12 @@ import com.hivemc.chunker.nbt.io.Reader;
 import com.hivemc.chunker.nbt.tags.Tag;
 import com.hivemc.chunker.nbt.tags.TagWithName;
 import com.hivemc.chunker.nbt.tags.collection.CompoundTag;
+import com.hivemc.chunker.scheduling.function.ThrowableRunnable;
 import com.hivemc.chunker.scheduling.task.Task;
 import com.hivemc.chunker.scheduling.task.TaskWeight;
 import org.iq80.leveldb.DB;
 
-import java.io.ByteArrayInputStream;
-import java.io.DataInputStream;
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.ArrayList;
@@ -39,11 +39,16 @@ import java.util.Optional;
  * A reader for Bedrock columns.
  */
 public class BedrockColumnReader implements ColumnReader {
+    /**
+     * The weight of reading a single chunk, the combined weight of creating the chunk reader and reading the chunk.
+     */
+    protected static final TaskWeight CHUNK_READ_WEIGHT = TaskWeight.combine(TaskWeight.LOW, TaskWeight.HIGHER);
     protected final BedrockResolvers resolvers;
     protected final Converter converter;
     protected final Dimension dimension;
     protected final DB database;
     protected final ChunkCoordPair columnCoords;
+    protected LevelDBColumnRecords records;
 
     /**
      * Create a new bedrock column reader.
@@ -67,6 +72,20 @@ public class BedrockColumnReader implements ColumnReader {
         // Create the column and start parsing
         ChunkerColumn column = new ChunkerColumn(columnCoords);
 
+        // The records are read on the I/O lane, the parts of the column are then decoded by the workers
+        Task.asyncIO("Reading Column Records", TaskWeight.HIGHER, this::readRecords)
+                .thenUnwrap("Reading Column", TaskWeight.NORMAL, () -> readParts(column))
+                .then("Post-processing column", TaskWeight.HIGH, this::postProcess, column)
+                .thenConsume("Submitting column", TaskWeight.LOW, columnConversionHandler::convertColumn);
+    }
+
+    /**
+     * Read the parts of the column from the records.
+     *
+     * @param column the column being read.
+     * @return a task which completes when every part has been read.
+     */
+    protected Task<List<Void>> readParts(ChunkerColumn column) {
         // Load other parts of the column
         ArrayList<Task<Void>> processing = new ArrayList<>();
         if (converter.shouldProcessHeightMap() || converter.shouldProcessBiomes()) {
@@ -79,11 +98,18 @@ public class BedrockColumnReader implements ColumnReader {
             processing.add(Task.asyncConsume("Reading Block Entities", TaskWeight.HIGH, this::readBlockEntities, column));
         }
         processing.add(Task.asyncConsume("Reading Chunks", TaskWeight.HIGHER, this::readChunks, column));
+        return Task.join(processing);
+    }
 
-        // When they're done apply post-processing
-        Task.join(processing)
-                .then("Post-processing column", TaskWeight.HIGH, this::postProcess, column)
-                .thenConsume("Submitting column", TaskWeight.LOW, columnConversionHandler::convertColumn);
+    /**
+     * Read the records of the column with a single seek, as the keys of a column are next to each other this avoids
+     * a separate lookup for each key.
+     *
+     * @throws IOException if it failed to read the records.
+     */
+    protected void readRecords() throws IOException {
+        // The types which are read are all between Data3D and entities
+        records = LevelDBColumnRecords.read(database, dimension, columnCoords, LevelDBChunkType.DATA_3D, LevelDBChunkType.ENTITY);
     }
 
     /**
@@ -94,7 +120,7 @@ public class BedrockColumnReader implements ColumnReader {
     protected void readBiomeHeightMap(ChunkerColumn column) {
         try {
             // Read Data2D
-            byte[] value = database.get(LevelDBKey.key(dimension, column.getPosition(), LevelDBChunkType.DATA_2D));
+            byte[] value = records.get(LevelDBChunkType.DATA_2D);
             if (value != null) {
                 ByteBuffer buffer = ByteBuffer.wrap(value).order(ByteOrder.LITTLE_ENDIAN);
                 if (converter.shouldProcessHeightMap()) {
@@ -184,23 +210,21 @@ public class BedrockColumnReader implements ColumnReader {
      * @throws Exception if it failed to read the entity data.
      */
     protected void readEntities(ChunkerColumn column) throws Exception {
-        byte[] value = database.get(LevelDBKey.key(dimension, column.getPosition(), LevelDBChunkType.ENTITY));
+        byte[] value = records.get(LevelDBChunkType.ENTITY);
         if (value == null) return;
 
         // While there is bytes loop and read the entities
-        try (ByteArrayInputStream fileInputStream = new ByteArrayInputStream(value);
-             DataInputStream readerStream = new DataInputStream(fileInputStream)) {
-            Reader reader = Reader.toBedrockReader(readerStream);
-            while (fileInputStream.available() > 0) {
-                TagWithName<CompoundTag> pair = Tag.decodeNamed(reader, CompoundTag.class);
-                if (pair == null) break;
-
-                try {
-                    // Process the tag
-                    readEntity(column, pair.tag());
-                } catch (Exception e) {
-                    converter.logNonFatalException(new Exception("Failed to process Entity " + pair.tag(), e));
-                }
+        ByteBuffer buffer = ByteBuffer.wrap(value);
+        Reader reader = Reader.toBedrockReader(buffer);
+        while (buffer.hasRemaining()) {
+            TagWithName<CompoundTag> pair = Tag.decodeNamed(reader, CompoundTag.class);
+            if (pair == null) break;
+
+            try {
+                // Process the tag
+                readEntity(column, pair.tag());
+            } catch (Exception e) {
+                converter.logNonFatalException(new Exception("Failed to process Entity " + pair.tag(), e));
             }
         }
     }
@@ -228,23 +252,21 @@ public class BedrockColumnReader implements ColumnReader {
      * @throws Exception if it failed to read the block entity data.
      */
     protected void readBlockEntities(ChunkerColumn column) throws Exception {
-        byte[] value = database.get(LevelDBKey.key(dimension, column.getPosition(), LevelDBChunkType.BLOCK_ENTITY));
+        byte[] value = records.get(LevelDBChunkType.BLOCK_ENTITY);
         if (value == null) return;
 
         // While there is bytes loop and read the block entities
-        try (ByteArrayInputStream fileInputStream = new ByteArrayInputStream(value);
-             DataInputStream readerStream = new DataInputStream(fileInputStream)) {
-            Reader reader = Reader.toBedrockReader(readerStream);
-            while (fileInputStream.available() > 0) {
-                TagWithName<CompoundTag> pair = Tag.decodeNamed(reader, CompoundTag.class);
-                if (pair == null) break;
-
-                try {
-                    // Process the tag
-                    readBlockEntity(column, pair.tag());
-                } catch (Exception e) {
-                    converter.logNonFatalException(new Exception("Failed to process BlockEntity " + pair.tag(), e));
-                }
+        ByteBuffer buffer = ByteBuffer.wrap(value);
+        Reader reader = Reader.toBedrockReader(buffer);
+        while (buffer.hasRemaining()) {
+            TagWithName<CompoundTag> pair = Tag.decodeNamed(reader, CompoundTag.class);
+            if (pair == null) break;
+
+            try {
+                // Process the tag
+                readBlockEntity(column, pair.tag());
+            } catch (Exception e) {
+                converter.logNonFatalException(new Exception("Failed to process BlockEntity " + pair.tag(), e));
             }
         }
     }
@@ -271,29 +293,25 @@ public class BedrockColumnReader implements ColumnReader {
      * @param column the column being read.
      */
     protected void readChunks(ChunkerColumn column) {
-        // Create a list of the tasks
-        List<Task<ChunkerChunk>> tasks = new ArrayList<>();
+        // Create a list of the chunks and the units which read them
+        List<ChunkerChunk> chunks = new ArrayList<>();
+        List<ThrowableRunnable> units = new ArrayList<>();
 
-        // Create a reusable key that can be used for each sub-chunk lookup
-        byte[] key = LevelDBKey.key(dimension, column.getPosition(), (byte) 0, LevelDBChunkType.SUB_CHUNK_PREFIX);
         for (byte y = -64; y < 64; y++) {
-            key[key.length - 1] = y; // The last byte is the Y
-
-            // Lookup the chunk
-            byte[] value = database.get(key);
+            // Lookup the chunk, every sub-chunk of the column was collected with the records
+            byte[] value = records.getSubChunk(y);
             if (value == null) continue; // Skip if the chunk doesn't exist
 
             // Create the chunk and add it to the column
             ChunkerChunk chunk = new ChunkerChunk(y);
+            chunks.add(chunk);
 
-            // Start the task
-            tasks.add(Task.async("Creating Chunk Reader", TaskWeight.LOW, this::createChunkReader, chunk)
-                    .thenConsume("Reading Chunk", TaskWeight.HIGHER, (chunkReader) -> chunkReader.readChunk(value))
-                    .then(chunk));
+            // Creating the reader is cheap, so it's done as part of the batch (the palette is read as a separate task)
+            units.add(() -> createChunkReader(chunk).readChunk(value));
         }
 
-        // Set the chunks on the column when they're done
-        Task.join(tasks).thenConsume("Adding chunks to column", TaskWeight.LOW, (chunks) -> {
+        // Read the chunks as one task and set them on the column when they're done
+        Task.asyncBatch("Reading Chunks", CHUNK_READ_WEIGHT, units).then("Adding chunks to column", TaskWeight.LOW, () -> {
             for (ChunkerChunk chunk : chunks) {
                 column.getChunks().put(chunk.getY(), chunk);
             }
@@ -15,7 +15,6 @@ import com.hivemc.chunker.conversion.intermediate.column.chunk.itemstack.Chunker
 import com.hivemc.chunker.conversion.intermediate.level.*;
 import com.hivemc.chunker.conversion.intermediate.level.map.ChunkerMap;
 import com.hivemc.chunker.conversion.intermediate.world.Dimension;
-import com.hivemc.chunker.nbt.io.Reader;
 import com.hivemc.chunker.nbt.tags.Tag;
 import com.hivemc.chunker.nbt.tags.collection.CompoundTag;
 import com.hivemc.chunker.nbt.tags.collection.ListTag;
@@ -33,8 +32,6 @@ import org.iq80.leveldb.table.BloomFilterPolicy;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.io.ByteArrayInputStream;
-import java.io.DataInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.util.*;
@@ -117,78 +114,8 @@ public class BedrockLevelReader implements LevelReader, BedrockReaderWriter {
         // Collect level data
         FutureTask<WorldConversionHandler> levelDataCollection = Task.asyncUnwrap("Collecting Level Data", TaskWeight.MEDIUM, this::collectLevelData, levelConversionHandler);
 
-        Task<EnumMap<Dimension, Map<RegionCoordPair, Set<ChunkCoordPair>>>> usedRegions = Task.async("Collecting Used Regions", TaskWeight.MEDIUM, () -> {
-            // Create a lookup for each dimension and region present
-            EnumMap<Dimension, Map<RegionCoordPair, Set<ChunkCoordPair>>> dimensionLookup = new EnumMap<>(Dimension.class);
-            // Scan the database for valid chunks
-            try (DBIterator iterator = database.iterator()) {
-                while (iterator.hasNext()) {
-                    Map.Entry<byte[], byte[]> entry = iterator.next();
-                    byte[] key = entry.getKey();
-                    int keyLength = key.length;
-
-                    // The keys we're looking for are (9, 10, 13, 14) depending on if they have sub chunk / dimension
-                    boolean containsSubChunk = keyLength == 14 || keyLength == 10;
-                    boolean containsDimension = keyLength == 14 || keyLength == 13;
-
-                    // If not 9 (both false) or any of the others then skip this entry
-                    if (keyLength != 9 && !containsSubChunk && !containsDimension) continue;
-
-                    // Skip local player
-                    if (Arrays.equals(key, LevelDBKey.LOCAL_PLAYER)) {
-                        continue;
-                    }
-
-                    try (ByteArrayInputStream inputStream = new ByteArrayInputStream(key);
-                         DataInputStream dataInputStream = new DataInputStream(inputStream)) {
-                        Reader reader = Reader.toBedrockReader(dataInputStream);
-
-                        // Read co-ordinates
-                        int x = reader.readInt();
-                        int z = reader.readInt();
-
-                        // Read dimension
-                        Dimension dimension = Dimension.OVERWORLD;
-                        if (containsDimension) {
-                            int dimensionID = reader.readInt();
-                            dimension = Dimension.fromBedrock((byte) dimensionID, null);
-
-                            // If unknown report an issue
-                            if (dimension == null) {
-                                converter.logNonFatalException(new Exception("Unknown dimension key " + dimensionID));
-                                continue;
-                            }
-                        }
-
-                        // Read subChunk Y
-                        if (containsSubChunk) {
-                            reader.readByte();
-                        }
-
-                        // Read type
-                        byte type = reader.readByte();
-
-                        // Ensure the chunk either has: biome/height data, chunk data, block entity/entity data
-                        if (type != LevelDBChunkType.DATA_2D.getId() && type != LevelDBChunkType.DATA_3D.getId()
-                                && type != LevelDBChunkType.SUB_CHUNK_PREFIX.getId()
-                                && type != LevelDBChunkType.ENTITY.getId() && type != LevelDBChunkType.BLOCK_ENTITY.getId()) {
-                            continue;
-                        }
-
-                        // Create the pairs used for adding to the lookup
-                        ChunkCoordPair chunkCoordPair = new ChunkCoordPair(x, z);
-                        RegionCoordPair regionCoordPair = chunkCoordPair.getRegion();
-
-                        // Add to lookup
-                        Map<RegionCoordPair, Set<ChunkCoordPair>> regionLookup = dimensionLookup.computeIfAbsent(dimension, (ignored) -> new Object2ObjectOpenHashMap<>());
-                        Set<ChunkCoordPair> columns = regionLookup.computeIfAbsent(regionCoordPair, (ignored) -> new ObjectOpenHashSet<>());
-                        columns.add(chunkCoordPair);
-                    }
-                }
-            }
-
-            return dimensionLookup;
-        });
+        // Scan the keys for the columns present in each dimension
+        Task<EnumMap<Dimension, Map<RegionCoordPair, Set<ChunkCoordPair>>>> usedRegions = Task.async("Collecting Used Regions", TaskWeight.MEDIUM, this::collectUsedRegions);
 
         // When we've collected the level data and present chunks, go through each world and call the reading process
         ProgressiveTask<Void> worldReading = levelDataCollection.thenConsume("Reading Worlds", TaskWeight.HIGHEST, (worldConversionHandler) -> {
@@ -215,6 +142,85 @@ public class BedrockLevelReader implements LevelReader, BedrockReaderWriter {
         worldReading.then("Flushing Level", TaskWeight.MEDIUM, levelConversionHandler::flushLevel);
     }
 
+    /**
+     * Collect the columns present in each dimension by scanning the keys of the database, the values are never read.
+     *
+     * @return the columns present in each region of each dimension.
+     * @throws IOException if it failed to close the iterator.
+     */
+    protected EnumMap<Dimension, Map<RegionCoordPair, Set<ChunkCoordPair>>> collectUsedRegions() throws IOException {
+        EnumMap<Dimension, Map<RegionCoordPair, Set<ChunkCoordPair>>> dimensionLookup = new EnumMap<>(Dimension.class);
+
+        // Keys are sorted so every key for a column is next to each other, the last column is kept to skip the lookups
+        Dimension lastDimension = null;
+        int lastX = 0;
+        int lastZ = 0;
+
+        // Scan the database for valid chunks, the blocks are only read once so they aren't cached
+        try (DBIterator iterator = database.iterator(new ReadOptions().fillCache(false))) {
+            while (iterator.hasNext()) {
+                byte[] key = iterator.next().getKey();
+                int keyLength = key.length;
+
+                // The keys we're looking for are (9, 10, 13, 14) depending on if they have sub chunk / dimension
+                boolean containsSubChunk = keyLength == 14 || keyLength == 10;
+                boolean containsDimension = keyLength == 14 || keyLength == 13;
+
+                // If not 9 (both false) or any of the others then skip this entry
+                if (keyLength != 9 && !containsSubChunk && !containsDimension) continue;
+
+                // Skip local player
+                if (Arrays.equals(key, LevelDBKey.LOCAL_PLAYER)) {
+                    continue;
+                }
+
+                // Read the type (followed by the sub-chunk Y if present)
+                byte type = key[containsSubChunk ? keyLength - 2 : keyLength - 1];
+
+                // Ensure the chunk either has: biome/height data, chunk data, block entity/entity data
+                if (type != LevelDBChunkType.DATA_2D.getId() && type != LevelDBChunkType.DATA_3D.getId()
+                        && type != LevelDBChunkType.SUB_CHUNK_PREFIX.getId()
+                        && type != LevelDBChunkType.ENTITY.getId() && type != LevelDBChunkType.BLOCK_ENTITY.getId()) {
+                    continue;
+                }
+
+                // Read co-ordinates
+                int x = LevelDBKey.getInt(key, 0);
+                int z = LevelDBKey.getInt(key, 4);
+
+                // Read dimension
+                Dimension dimension = Dimension.OVERWORLD;
+                if (containsDimension) {
+                    int dimensionID = LevelDBKey.getInt(key, 8);
+                    dimension = Dimension.fromBedrock((byte) dimensionID, null);
+
+                    // If unknown report an issue
+                    if (dimension == null) {
+                        converter.logNonFatalException(new Exception("Unknown dimension key " + dimensionID));
+                        continue;
+                    }
+                }
+
+                // Add the column unless it's the same as the last key
+                if (dimension != lastDimension || x != lastX || z != lastZ) {
+                    // Create the pairs used for adding to the lookup
+                    ChunkCoordPair chunkCoordPair = new ChunkCoordPair(x, z);
+                    RegionCoordPair regionCoordPair = chunkCoordPair.getRegion();
+
+                    // Add to lookup
+                    Map<RegionCoordPair, Set<ChunkCoordPair>> regionLookup = dimensionLookup.computeIfAbsent(dimension, (ignored) -> new Object2ObjectOpenHashMap<>());
+                    Set<ChunkCoordPair> columns = regionLookup.computeIfAbsent(regionCoordPair, (ignored) -> new ObjectOpenHashSet<>());
+                    columns.add(chunkCoordPair);
+                    lastDimension = dimension;
+                    lastX = x;
+                    lastZ = z;
+                }
+            }
+        }
+
+        return dimensionLookup;
+    }
+
     /**
      * Collect all the data required for ChunkerLevel and submit it.
      *
@@ -240,7 +246,7 @@ public class BedrockLevelReader implements LevelReader, BedrockReaderWriter {
      * @throws Exception if it failed to parse the level.dat
      */
     protected void parseLevelSettings(ChunkerLevel output) throws Exception {
-        CompoundTag level = Tag.readBedrockNBT(new File(inputDirectory, "level.dat"));
+        CompoundTag level = Tag.readLazyBedrockNBT(new File(inputDirectory, "level.dat"));
         output.setSettings(ChunkerLevelSettings.fromNBT(Objects.requireNonNull(level), this, converter));
         output.setOriginalLevelData(level);
     }
@@ -326,7 +332,7 @@ public class BedrockLevelReader implements LevelReader, BedrockReaderWriter {
         if (bytes == null) return; // No local player
         try {
             // Parse the NBT
-            CompoundTag player = Objects.requireNonNull(Tag.readBedrockNBT(bytes));
+            CompoundTag player = Objects.requireNonNull(Tag.readLazyBedrockNBT(bytes));
 
             // Read the position data
             List<Float> positions = player.getListValues("Pos", FloatTag.class, List.of(0F, 0F, 0F));
@@ -468,7 +474,7 @@ public class BedrockLevelReader implements LevelReader, BedrockReaderWriter {
     protected ChunkerMap parseMap(long id, byte[] data) {
         try {
             // Read the data
-            CompoundTag mapCompound = Objects.requireNonNull(Tag.readBedrockNBT(data));
+            CompoundTag mapCompound = Objects.requireNonNull(Tag.readLazyBedrockNBT(data));
 
             // Create a nice ChunkerMap with all the properties we need (and defaults)
             return new ChunkerMap(
@@ -1,6 +1,7 @@
 package com.hivemc.chunker.conversion.encoding.bedrock.base.reader;
 
 import com.hivemc.chunker.conversion.encoding.base.Converter;
+import com.hivemc.chunker.conversion.encoding.base.reader.RegionAdmissionController;
 import com.hivemc.chunker.conversion.encoding.base.reader.WorldReader;
 import com.hivemc.chunker.conversion.encoding.bedrock.base.resolver.BedrockResolvers;
 import com.hivemc.chunker.conversion.handlers.ColumnConversionHandler;
@@ -76,15 +77,21 @@ public class BedrockWorldReader implements WorldReader {
      *
      * @param regions                 the regions to read.
      * @param columnConversionHandler the handler to submit the read columns to.
+     * @throws InterruptedException if the thread was interrupted while waiting for a region to be admitted.
      */
-    public void readRegions(Map<RegionCoordPair, Set<ChunkCoordPair>> regions, ColumnConversionHandler columnConversionHandler) {
+    public void readRegions(Map<RegionCoordPair, Set<ChunkCoordPair>> regions, ColumnConversionHandler columnConversionHandler) throws InterruptedException {
+        RegionAdmissionController admissionController = converter.getRegionAdmissionController();
         for (Map.Entry<RegionCoordPair, Set<ChunkCoordPair>> region : regions.entrySet()) {
             if (converter.shouldProcessRegion(dimension, region.getKey())) {
-                // Read the region then perform GC, this ensures in systems where the Java process is not bound
-                // we do not consume too much memory and keep it fair to other processes
-                Task.async("Reading region", TaskWeight.NORMAL, () -> readRegion(region, columnConversionHandler))
-                        .then("Region - Flushing", TaskWeight.MEDIUM, () -> columnConversionHandler.flushRegion(region.getKey()))
-                        .then("Region - System::GC", TaskWeight.NONE, System::gc);
+                // Wait until there is room for another region to be in-flight (and the heap isn't too full)
+                admissionController.acquire();
+
+                // Read the region then flush it, memory is kept bounded by the admission controller rather than GC
+                ProgressiveTask<Void> flushing = Task.async("Reading region", TaskWeight.NORMAL, () -> readRegion(region, columnConversionHandler))
+                        .then("Region - Flushing", TaskWeight.MEDIUM, () -> columnConversionHandler.flushRegion(region.getKey()));
+
+                // Allow another region once this one has been flushed (or failed)
+                flushing.future().whenComplete((ignored, throwable) -> admissionController.release());
             }
         }
     }
@@ -3,6 +3,7 @@ package com.hivemc.chunker.conversion.encoding.bedrock.base.writer;
 import com.hivemc.chunker.conversion.encoding.base.Converter;
 import com.hivemc.chunker.conversion.encoding.bedrock.base.resolver.BedrockResolvers;
 import com.hivemc.chunker.conversion.encoding.bedrock.base.resolver.identifier.BedrockBlockCompoundTag;
+import com.hivemc.chunker.conversion.encoding.bedrock.util.LevelDBBatchWriter;
 import com.hivemc.chunker.conversion.encoding.bedrock.util.LevelDBChunkType;
 import com.hivemc.chunker.conversion.encoding.bedrock.util.LevelDBKey;
 import com.hivemc.chunker.conversion.encoding.bedrock.util.PaletteUtil;
@@ -21,7 +22,6 @@ import com.hivemc.chunker.nbt.tags.Tag;
 import com.hivemc.chunker.scheduling.function.ThrowableConsumer;
 import com.hivemc.chunker.scheduling.task.Task;
 import com.hivemc.chunker.scheduling.task.TaskWeight;
-import org.iq80.leveldb.DB;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.ByteArrayOutputStream;
@@ -35,7 +35,7 @@ import java.util.Map;
  */
 public class BedrockChunkWriter {
     protected final BedrockResolvers resolvers;
-    protected final DB database;
+    protected final LevelDBBatchWriter batchWriter;
     protected final Converter converter;
     protected final Dimension dimension;
     protected final ChunkerColumn chunkerColumn;
@@ -45,13 +45,13 @@ public class BedrockChunkWriter {
      *
      * @param converter     the converter instance.
      * @param resolvers     the resolvers being used.
-     * @param database      the LevelDB database.
+     * @param batchWriter   the writer which batches the LevelDB writes.
      * @param dimension     the dimension of the chunk.
      * @param chunkerColumn the column being written.
      */
-    public BedrockChunkWriter(Converter converter, BedrockResolvers resolvers, DB database, Dimension dimension, ChunkerColumn chunkerColumn) {
+    public BedrockChunkWriter(Converter converter, BedrockResolvers resolvers, LevelDBBatchWriter batchWriter, Dimension dimension, ChunkerColumn chunkerColumn) {
         this.resolvers = resolvers;
-        this.database = database;
+        this.batchWriter = batchWriter;
         this.converter = converter;
         this.dimension = dimension;
         this.chunkerColumn = chunkerColumn;
@@ -135,7 +135,7 @@ public class BedrockChunkWriter {
     protected void writeChunkBytes(ChunkerChunk chunk, byte[] bytes) {
         // Write the entry
         byte subChunkY = chunk.getY();
-        database.put(LevelDBKey.key(dimension, chunkerColumn.getPosition(), subChunkY, LevelDBChunkType.SUB_CHUNK_PREFIX), bytes);
+        batchWriter.put(LevelDBKey.key(dimension, chunkerColumn.getPosition(), subChunkY, LevelDBChunkType.SUB_CHUNK_PREFIX), bytes);
     }
 
     /**
@@ -4,6 +4,7 @@ import com.hivemc.chunker.conversion.encoding.base.Converter;
 import com.hivemc.chunker.conversion.encoding.base.writer.ColumnWriter;
 import com.hivemc.chunker.conversion.encoding.bedrock.base.resolver.BedrockResolvers;
 import com.hivemc.chunker.conversion.encoding.bedrock.util.ColumnUtil;
+import com.hivemc.chunker.conversion.encoding.bedrock.util.LevelDBBatchWriter;
 import com.hivemc.chunker.conversion.encoding.bedrock.util.LevelDBChunkType;
 import com.hivemc.chunker.conversion.encoding.bedrock.util.LevelDBKey;
 import com.hivemc.chunker.conversion.handlers.pretransform.manager.PreTransformManager;
@@ -21,13 +22,10 @@ import com.hivemc.chunker.nbt.tags.Tag;
 import com.hivemc.chunker.nbt.tags.collection.CompoundTag;
 import com.hivemc.chunker.scheduling.task.Task;
 import com.hivemc.chunker.scheduling.task.TaskWeight;
-import org.iq80.leveldb.DB;
-import org.iq80.leveldb.WriteBatch;
 import org.jetbrains.annotations.Nullable;
 
-import java.io.BufferedOutputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -37,26 +35,38 @@ import java.util.OptionalInt;
  * A writer for Bedrock columns.
  */
 public class BedrockColumnWriter implements ColumnWriter {
+    /**
+     * The weight of writing the column, the combined weight of the metadata, height map / biomes, entities, block
+     * entities and chunks.
+     */
+    protected static final TaskWeight WRITING_COLUMN_WEIGHT = TaskWeight.combine(
+            TaskWeight.LOW,
+            TaskWeight.NORMAL,
+            TaskWeight.HIGH,
+            TaskWeight.HIGH,
+            TaskWeight.HIGHER
+    );
+
     protected final BedrockWorldWriter parent;
     protected final Converter converter;
     protected final BedrockResolvers resolvers;
-    protected final DB database;
+    protected final LevelDBBatchWriter batchWriter;
     protected final Dimension dimension;
 
     /**
      * Create a new column writer.
      *
-     * @param parent    the parent world writer.
-     * @param converter the converter instance.
-     * @param resolvers the resolvers being used.
-     * @param database  the LevelDB database.
-     * @param dimension the dimension of the column.
+     * @param parent      the parent world writer.
+     * @param converter   the converter instance.
+     * @param resolvers   the resolvers being used.
+     * @param batchWriter the writer which batches the LevelDB writes.
+     * @param dimension   the dimension of the column.
      */
-    public BedrockColumnWriter(BedrockWorldWriter parent, Converter converter, BedrockResolvers resolvers, DB database, Dimension dimension) {
+    public BedrockColumnWriter(BedrockWorldWriter parent, Converter converter, BedrockResolvers resolvers, LevelDBBatchWriter batchWriter, Dimension dimension) {
         this.parent = parent;
         this.converter = converter;
         this.resolvers = resolvers;
-        this.database = database;
+        this.batchWriter = batchWriter;
         this.dimension = dimension;
     }
 
@@ -70,16 +80,14 @@ public class BedrockColumnWriter implements ColumnWriter {
             chunk.setPalette(chunk.getPalette().compact(ChunkerBlockIdentifier.AIR));
         });
 
-        // Write the chunk to NBT
-        ArrayList<Task<Void>> processing = new ArrayList<>();
-        processing.add(Task.asyncConsume("Writing Metadata", TaskWeight.LOW, this::writeMetadata, chunkerColumn));
-        processing.add(Task.asyncConsume("Writing HeightMap/Biomes", TaskWeight.NORMAL, this::writeHeightMapBiomes, chunkerColumn));
-        processing.add(Task.asyncConsume("Writing Entities", TaskWeight.HIGH, this::writeEntities, chunkerColumn));
-        processing.add(Task.asyncConsume("Writing Block Entities", TaskWeight.HIGH, this::writeBlockEntities, chunkerColumn));
-        processing.add(Task.asyncConsume("Writing Chunks", TaskWeight.HIGHER, this::writeChunks, chunkerColumn));
-
-        // When they're done apply post-processing
-        Task.join(processing).then("Post-processing column", TaskWeight.HIGH, () -> postProcessColumn(chunkerColumn));
+        // Write the chunk, the parts are small so they're written as one task (the chunks are still async)
+        Task.async("Writing Column", WRITING_COLUMN_WEIGHT, () -> {
+            writeMetadata(chunkerColumn);
+            writeHeightMapBiomes(chunkerColumn);
+            writeEntities(chunkerColumn);
+            writeBlockEntities(chunkerColumn);
+            writeChunks(chunkerColumn);
+        }).then("Post-processing column", TaskWeight.HIGH, () -> postProcessColumn(chunkerColumn));
     }
 
     @Override
@@ -88,19 +96,17 @@ public class BedrockColumnWriter implements ColumnWriter {
     }
 
     /**
-     * Write any version metadata for the column.
+     * Write any version metadata for the column, if there is more than one record they should be written using
+     * {@link LevelDBBatchWriter#putAll(LevelDBBatchWriter.Puts)} so they're committed together.
+     * Note: The other records of the column may be committed in a different batch, this is fine as the database isn't
+     * read until the level has been flushed and a failed commit fails the whole conversion.
      *
      * @param chunkerColumn the column being written.
      * @throws Exception if it failed to write the metadata.
      */
     protected void writeMetadata(ChunkerColumn chunkerColumn) throws Exception {
-        try (WriteBatch writeBatch = database.createWriteBatch()) {
-            // Save Version (0x76)
-            writeBatch.put(LevelDBKey.key(dimension, chunkerColumn.getPosition(), LevelDBChunkType.LEGACY_VERSION), new byte[]{7});
-
-            // Write the batch
-            database.write(writeBatch);
-        }
+        // Save Version (0x76)
+        batchWriter.put(LevelDBKey.key(dimension, chunkerColumn.getPosition(), LevelDBChunkType.LEGACY_VERSION), new byte[]{7});
     }
 
     /**
@@ -227,39 +233,34 @@ public class BedrockColumnWriter implements ColumnWriter {
             heightMap = bedrockHeightMap;
         }
 
-        // Write Data2D
-        byte[] bytes;
-        try (ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-             DataOutputStream dataOutputStream = new DataOutputStream(byteArrayOutputStream)) {
-            Writer writer = Writer.toBedrockWriter(dataOutputStream);
-            short[][] heightMapValues = heightMap.getHeightMap();
+        // Write Data2D (256 shorts and 256 bytes)
+        byte[] bytes = new byte[768];
+        Writer writer = Writer.toBedrockWriter(ByteBuffer.wrap(bytes));
+        short[][] heightMapValues = heightMap.getHeightMap();
 
-            // Write height map (LE Short)
-            for (int z = 0; z < 16; z++) {
-                for (int x = 0; x < 16; x++) {
-                    writer.writeShort(heightMapValues[x][z]);
-                }
+        // Write height map (LE Short)
+        for (int z = 0; z < 16; z++) {
+            for (int x = 0; x < 16; x++) {
+                writer.writeShort(heightMapValues[x][z]);
             }
+        }
 
-            // Write biome ids (byte) if present
-            if (column.getBiomes() != null) {
-                ChunkerBiome[] biomes = column.getBiomes().asColumn(resolvers.getFallbackBiome(dimension));
-                for (ChunkerBiome chunkerBiome : biomes) {
-                    writer.writeByte(resolvers.writeBiomeID(chunkerBiome, dimension));
-                }
-            } else {
-                // Use the fallback biome
-                ChunkerBiome fallbackBiome = resolvers.getFallbackBiome(dimension);
-                for (int i = 0; i < 256; i++) {
-                    writer.writeByte(resolvers.writeBiomeID(fallbackBiome, dimension));
-                }
+        // Write biome ids (byte) if present
+        if (column.getBiomes() != null) {
+            ChunkerBiome[] biomes = column.getBiomes().asColumn(resolvers.getFallbackBiome(dimension));
+            for (ChunkerBiome chunkerBiome : biomes) {
+                writer.writeByte(resolvers.writeBiomeID(chunkerBiome, dimension));
+            }
+        } else {
+            // Use the fallback biome
+            ChunkerBiome fallbackBiome = resolvers.getFallbackBiome(dimension);
+            for (int i = 0; i < 256; i++) {
+                writer.writeByte(resolvers.writeBiomeID(fallbackBiome, dimension));
             }
-
-            bytes = byteArrayOutputStream.toByteArray();
         }
 
         // Save Data2D (0x2D) - Heightmap / Biome
-        database.put(LevelDBKey.key(dimension, column.getPosition(), LevelDBChunkType.DATA_2D), bytes);
+        batchWriter.put(LevelDBKey.key(dimension, column.getPosition(), LevelDBChunkType.DATA_2D), bytes);
     }
 
     /**
@@ -269,28 +270,21 @@ public class BedrockColumnWriter implements ColumnWriter {
      * @throws Exception if it failed to write the entities.
      */
     protected void writeEntities(ChunkerColumn column) throws Exception {
-        // Write entities
-        try (ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(1024)) {
-            try (BufferedOutputStream bufferedOutputStream = new BufferedOutputStream(byteArrayOutputStream);
-                 DataOutputStream writerStream = new DataOutputStream(bufferedOutputStream)) {
-                // Write each entity as a separate tag
-                for (Entity entity : column.getEntities()) {
-                    try {
-                        // Process the tag
-                        CompoundTag tag = writeEntity(column, entity);
-                        if (tag != null) {
-                            // Encode
-                            Tag.encodeNamed(Writer.toBedrockWriter(writerStream), "", tag);
-                        }
-                    } catch (Exception e) {
-                        converter.logNonFatalException(new Exception("Failed to process Entity " + entity, e));
-                    }
+        // Process each entity as a separate tag
+        List<CompoundTag> tags = new ArrayList<>(column.getEntities().size());
+        for (Entity entity : column.getEntities()) {
+            try {
+                CompoundTag tag = writeEntity(column, entity);
+                if (tag != null) {
+                    tags.add(tag);
                 }
+            } catch (Exception e) {
+                converter.logNonFatalException(new Exception("Failed to process Entity " + entity, e));
             }
-
-            // Write the byte array to the key
-            database.put(LevelDBKey.key(dimension, column.getPosition(), LevelDBChunkType.ENTITY), byteArrayOutputStream.toByteArray());
         }
+
+        // Write the byte array to the key
+        batchWriter.put(LevelDBKey.key(dimension, column.getPosition(), LevelDBChunkType.ENTITY), encodeTags(tags));
     }
 
     /**
@@ -319,28 +313,43 @@ public class BedrockColumnWriter implements ColumnWriter {
      * @throws Exception if it failed to write the block entities.
      */
     protected void writeBlockEntities(ChunkerColumn column) throws Exception {
-        // Write block entities
-        try (ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(1024)) {
-            try (BufferedOutputStream bufferedOutputStream = new BufferedOutputStream(byteArrayOutputStream);
-                 DataOutputStream writerStream = new DataOutputStream(bufferedOutputStream)) {
-                // Write each block entity as a separate tag
-                for (BlockEntity blockEntity : column.getBlockEntities()) {
-                    try {
-                        // Process the tag
-                        CompoundTag tag = writeBlockEntity(column, blockEntity);
-                        if (tag != null) {
-                            // Encode
-                            Tag.encodeNamed(Writer.toBedrockWriter(writerStream), "", tag);
-                        }
-                    } catch (Exception e) {
-                        converter.logNonFatalException(new Exception("Failed to process BlockEntity " + blockEntity, e));
-                    }
+        // Process each block entity as a separate tag
+        List<CompoundTag> tags = new ArrayList<>(column.getBlockEntities().size());
+        for (BlockEntity blockEntity : column.getBlockEntities()) {
+            try {
+                CompoundTag tag = writeBlockEntity(column, blockEntity);
+                if (tag != null) {
+                    tags.add(tag);
                 }
+            } catch (Exception e) {
+                converter.logNonFatalException(new Exception("Failed to process BlockEntity " + blockEntity, e));
             }
+        }
+
+        // Write the byte array to the key
+        batchWriter.put(LevelDBKey.key(dimension, column.getPosition(), LevelDBChunkType.BLOCK_ENTITY), encodeTags(tags));
+    }
+
+    /**
+     * Encode tags one after another into an exactly sized array, used for the entity and block entity keys.
+     *
+     * @param tags the tags to encode.
+     * @return the encoded bytes.
+     * @throws IOException if it failed to encode a tag.
+     */
+    protected byte[] encodeTags(List<CompoundTag> tags) throws IOException {
+        int size = 0;
+        for (CompoundTag tag : tags) {
+            size += Tag.getEncodedSize("", tag);
+        }
 
-            // Write the byte array to the key
-            database.put(LevelDBKey.key(dimension, column.getPosition(), LevelDBChunkType.BLOCK_ENTITY), byteArrayOutputStream.toByteArray());
+        // Encode straight into the array
+        byte[] bytes = new byte[size];
+        Writer writer = Writer.toBedrockWriter(ByteBuffer.wrap(bytes));
+        for (CompoundTag tag : tags) {
+            Tag.encodeNamed(writer, "", tag);
         }
+        return bytes;
     }
 
     /**
@@ -382,6 +391,6 @@ public class BedrockColumnWriter implements ColumnWriter {
      * @return the newly created chunk writer.
      */
     public BedrockChunkWriter createChunkWriter(ChunkerColumn column) {
-        return new BedrockChunkWriter(converter, resolvers, database, dimension, column);
+        return new BedrockChunkWriter(converter, resolvers, batchWriter, dimension, column);
     }
 }
@@ -8,6 +8,9 @@ import com.hivemc.chunker.conversion.encoding.base.writer.WorldWriter;
 import com.hivemc.chunker.conversion.encoding.bedrock.base.BedrockReaderWriter;
 import com.hivemc.chunker.conversion.encoding.bedrock.base.reader.BedrockLevelReader;
 import com.hivemc.chunker.conversion.encoding.bedrock.base.resolver.BedrockResolvers;
+import com.hivemc.chunker.conversion.encoding.bedrock.util.LevelDBBatchWriter;
+import com.hivemc.chunker.conversion.encoding.bedrock.util.LevelDBBulkLoader;
+import com.hivemc.chunker.conversion.encoding.bedrock.util.LevelDBCompactionScheduler;
 import com.hivemc.chunker.conversion.encoding.bedrock.util.LevelDBKey;
 import com.hivemc.chunker.conversion.handlers.pretransform.manager.PreTransformManager;
 import com.hivemc.chunker.conversion.intermediate.column.chunk.ChunkCoordPair;
@@ -35,6 +38,7 @@ import java.io.DataInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.time.Instant;
 import java.util.*;
 
@@ -61,6 +65,9 @@ public class BedrockLevelWriter implements LevelWriter, BedrockReaderWriter {
     protected final Converter converter;
     protected final BedrockResolvers resolvers;
     protected DB database;
+    protected LevelDBBatchWriter batchWriter;
+    @Nullable
+    protected LevelDBCompactionScheduler compactionScheduler;
 
     /**
      * Create a new level writer.
@@ -88,6 +95,9 @@ public class BedrockLevelWriter implements LevelWriter, BedrockReaderWriter {
         // Delete LOCK file (as it may have been left behind by a bad abort / corrupted DB)
         new File(databaseDirectory, "LOCK").delete();
 
+        // A database without a CURRENT file hasn't been created yet
+        boolean newDatabase = !new File(databaseDirectory, "CURRENT").exists();
+
         // LevelDB Options
         Options options = new Options();
         options.compressionType(CompressionType.ZLIB_RAW);
@@ -103,6 +113,23 @@ public class BedrockLevelWriter implements LevelWriter, BedrockReaderWriter {
         if (converter.shouldAllowNBTCopying()) {
             remapExistingDB();
         }
+
+        // Columns are written through shared batches which are committed by a separate thread
+        if (converter.shouldLevelDBCompaction()) {
+            compactionScheduler = new LevelDBCompactionScheduler(database::compactRange);
+            compactionScheduler.start();
+        }
+        if (newDatabase) {
+            // New databases are bulk loaded in key order, the sorted runs are about as large as the database so they're
+            // kept next to it (on the same volume) rather than in the system temporary directory. Each range is
+            // compacted in the background once the bulk load has moved past it.
+            File runDirectory = Files.createTempDirectory(outputFolder.toPath(), "db-runs").toFile();
+            batchWriter = new LevelDBBulkLoader(database, runDirectory, compactionScheduler);
+        } else {
+            // Existing databases are written in column order, which doesn't finish any range before the end
+            batchWriter = new LevelDBBatchWriter(database);
+        }
+        batchWriter.start();
     }
 
     /**
@@ -197,24 +224,64 @@ public class BedrockLevelWriter implements LevelWriter, BedrockReaderWriter {
 
     @Override
     public void free() throws Exception {
-        if (database != null) {
+        try {
+            if (batchWriter != null) {
+                try {
+                    batchWriter.close();
+                } finally {
+                    batchWriter = null;
+                }
+            }
+        } finally {
             try {
-                database.close();
+                if (compactionScheduler != null) {
+                    try {
+                        compactionScheduler.close();
+                    } finally {
+                        compactionScheduler = null;
+                    }
+                }
             } finally {
-                database = null;
+                if (database != null) {
+                    try {
+                        database.close();
+                    } finally {
+                        database = null;
+                    }
+                }
             }
         }
     }
 
     @Override
-    public void flushLevel() {
-        // Compact database
-        if (converter.shouldLevelDBCompaction()) {
+    public void flushLevel() throws IOException {
+        // Commit any batched writes, bulk loaded databases are written while flushing so it is reported as compaction
+        boolean bulkLoaded = batchWriter instanceof LevelDBBulkLoader;
+        if (bulkLoaded) {
+            Task.signal(WorldConverter.SIGNAL_COMPACTION, true);
+        }
+        try {
+            batchWriter.flush();
+        } finally {
+            if (bulkLoaded) {
+                Task.signal(WorldConverter.SIGNAL_COMPACTION, false);
+            }
+        }
+        converter.logDebug("Committed " + batchWriter.getCommittedWrites() + " LevelDB writes in batches (" + Math.round(batchWriter.getWritesPerSecond()) + " writes/s)");
+        if (batchWriter instanceof LevelDBBulkLoader bulkLoader) {
+            converter.logDebug("Bulk loaded LevelDB, rewriting " + bulkLoader.getRewrittenBytes() + " bytes while merging runs");
+        }
+
+        // Compact the ranges which weren't compacted in the background while bulk loading
+        if (compactionScheduler != null) {
             // Signal the converter to indicate compaction has started
             Task.signal(WorldConverter.SIGNAL_COMPACTION, true);
 
-            // Call compaction
-            database.compactRange(null, null);
+            // Compact the remaining ranges, reporting the progress after each one
+            LevelDBCompactionScheduler scheduler = compactionScheduler;
+            compactionScheduler = null;
+            int compacted = scheduler.compactRemaining((progress) -> Task.signal(WorldConverter.SIGNAL_COMPACTION_PROGRESS, progress));
+            converter.logDebug("Compacted " + scheduler.getBackgroundCompactions() + " LevelDB ranges in the background and " + compacted + " after writing");
 
             // Signal the converter to indicate compaction has ended
             Task.signal(WorldConverter.SIGNAL_COMPACTION, false);
@@ -309,7 +376,7 @@ public class BedrockLevelWriter implements LevelWriter, BedrockReaderWriter {
 
         // Write to DB
         byte[] value = Tag.writeBedrockNBT(mapData);
-        database.put(("map_" + chunkerMap.getId()).getBytes(StandardCharsets.UTF_8), value);
+        batchWriter.put(("map_" + chunkerMap.getId()).getBytes(StandardCharsets.UTF_8), value);
     }
 
     /**
@@ -345,7 +412,7 @@ public class BedrockLevelWriter implements LevelWriter, BedrockReaderWriter {
 
         // Write to field
         byte[] value = Tag.writeBedrockNBT(data);
-        database.put(LevelDBKey.PORTALS, value);
+        batchWriter.put(LevelDBKey.PORTALS, value);
     }
 
     @Override
@@ -616,7 +683,7 @@ public class BedrockLevelWriter implements LevelWriter, BedrockReaderWriter {
 
         // Write to field
         byte[] value = Tag.writeBedrockNBT(playerTag);
-        database.put(LevelDBKey.LOCAL_PLAYER, value);
+        batchWriter.put(LevelDBKey.LOCAL_PLAYER, value);
     }
 
     @Override
@@ -635,6 +702,6 @@ public class BedrockLevelWriter implements LevelWriter, BedrockReaderWriter {
      * @return a new world writer.
      */
     public BedrockWorldWriter createWorldWriter() {
-        return new BedrockWorldWriter(outputFolder, converter, resolvers, database);
+        return new BedrockWorldWriter(outputFolder, converter, resolvers, batchWriter);
     }
 }
@@ -4,9 +4,9 @@ import com.hivemc.chunker.conversion.encoding.base.Converter;
 import com.hivemc.chunker.conversion.encoding.base.writer.ColumnWriter;
 import com.hivemc.chunker.conversion.encoding.base.writer.WorldWriter;
 import com.hivemc.chunker.conversion.encoding.bedrock.base.resolver.BedrockResolvers;
+import com.hivemc.chunker.conversion.encoding.bedrock.util.LevelDBBatchWriter;
 import com.hivemc.chunker.conversion.intermediate.world.ChunkerWorld;
 import com.hivemc.chunker.conversion.intermediate.world.Dimension;
-import org.iq80.leveldb.DB;
 
 import java.io.File;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -18,7 +18,7 @@ public class BedrockWorldWriter implements WorldWriter {
     protected final File outputFolder;
     protected final Converter converter;
     protected final BedrockResolvers resolvers;
-    protected final DB database;
+    protected final LevelDBBatchWriter batchWriter;
     protected final AtomicInteger entityID = new AtomicInteger(0);
 
     /**
@@ -27,13 +27,13 @@ public class BedrockWorldWriter implements WorldWriter {
      * @param outputFolder the output folder where the world is written.
      * @param converter    the converter instance.
      * @param resolvers    the resolvers to use.
-     * @param database     the LevelDB database.
+     * @param batchWriter  the writer which batches the LevelDB writes.
      */
-    public BedrockWorldWriter(File outputFolder, Converter converter, BedrockResolvers resolvers, DB database) {
+    public BedrockWorldWriter(File outputFolder, Converter converter, BedrockResolvers resolvers, LevelDBBatchWriter batchWriter) {
         this.outputFolder = outputFolder;
         this.converter = converter;
         this.resolvers = resolvers;
-        this.database = database;
+        this.batchWriter = batchWriter;
     }
 
     @Override
@@ -49,7 +49,7 @@ public class BedrockWorldWriter implements WorldWriter {
      * @return a newly created column writer.
      */
     public BedrockColumnWriter createColumnWriter(Dimension dimension) {
-        return new BedrockColumnWriter(this, converter, resolvers, database, dimension);
+        return new BedrockColumnWriter(this, converter, resolvers, batchWriter, dimension);
     }
 
     /**
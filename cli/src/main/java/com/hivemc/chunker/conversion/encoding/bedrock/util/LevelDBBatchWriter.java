@@ -0,0 +1,349 @@
+package com.hivemc.chunker.conversion.encoding.bedrock.util;
+
+import org.iq80.leveldb.DB;
+import org.iq80.leveldb.DBException;
+import org.iq80.leveldb.WriteBatch;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * A writer which collects the puts from every column into shared batches, the batches are committed to LevelDB by a
+ * dedicated thread. This avoids each put from the worker threads having to take the database write lock.
+ * <p>
+ * Writes are only visible in the database once they have been flushed, {@link #flush()} should be called before
+ * reading back from the database or compacting it. Puts are committed in the order they were added, but separate puts
+ * may be committed in different batches, {@link #putAll(Puts)} should be used for records which have to be committed
+ * together.
+ */
+public class LevelDBBatchWriter implements AutoCloseable {
+    /**
+     * The default number of bytes (keys and values) collected before a batch is handed to the committer.
+     */
+    public static final int DEFAULT_BATCH_BYTES = 4 << 20;
+    /**
+     * The default number of full batches which can wait for the committer before writers are blocked.
+     */
+    public static final int DEFAULT_MAX_PENDING_BATCHES = 4;
+    protected final DB database;
+    private final int batchBytes;
+    private final BlockingQueue<PendingBatch> pending;
+    private final Thread committer;
+    private final Object enqueueLock = new Object();
+    private List<byte[]> keys = new ArrayList<>();
+    private List<byte[]> values = new ArrayList<>();
+    private int batchSize;
+    private long swappedBatches;
+    private long enqueuedBatches;
+    private volatile long committedWrites;
+    private volatile long commitNanos;
+    private volatile Throwable failure;
+    private boolean started;
+    private boolean closed;
+
+    /**
+     * Create a new batch writer, {@link #start()} should be called before writing.
+     *
+     * @param database          the database to write to.
+     * @param batchBytes        the number of bytes to collect before committing a batch.
+     * @param maxPendingBatches the number of full batches which can wait for the committer.
+     */
+    public LevelDBBatchWriter(DB database, int batchBytes, int maxPendingBatches) {
+        this.database = database;
+        this.batchBytes = batchBytes;
+        pending = new ArrayBlockingQueue<>(maxPendingBatches);
+        committer = new Thread(this::commitLoop, "LevelDB Batch Committer");
+        committer.setDaemon(true);
+    }
+
+    /**
+     * Create a new batch writer using the default batch size, {@link #start()} should be called before writing.
+     *
+     * @param database the database to write to.
+     */
+    public LevelDBBatchWriter(DB database) {
+        this(database, DEFAULT_BATCH_BYTES, DEFAULT_MAX_PENDING_BATCHES);
+    }
+
+    /**
+     * Start the committer thread.
+     */
+    public synchronized void start() {
+        started = true;
+        committer.start();
+    }
+
+    /**
+     * Add a put to the current batch, the batch is handed to the committer once it's full.
+     *
+     * @param key   the key to write.
+     * @param value the value to write.
+     * @throws DBException if the writer wasn't started, a previous batch failed to commit or the writer was closed.
+     */
+    public void put(byte[] key, byte[] value) {
+        PendingBatch full;
+        synchronized (this) {
+            checkOpen();
+            add(key, value);
+            full = batchSize >= batchBytes ? swapBatch(null) : null;
+        }
+
+        // Queue the batch outside the lock, so other writers can fill the next batch while this waits for the committer
+        if (full != null) {
+            enqueue(full);
+        }
+    }
+
+    /**
+     * Add a group of puts to the current batch, the group is never split between batches so the puts are committed
+     * together.
+     *
+     * @param puts the puts to write.
+     * @throws DBException if the writer wasn't started, a previous batch failed to commit or the writer was closed.
+     */
+    public void putAll(Puts puts) {
+        PendingBatch full;
+        synchronized (this) {
+            checkOpen();
+            for (int i = 0; i < puts.keys.size(); i++) {
+                add(puts.keys.get(i), puts.values.get(i));
+            }
+            full = batchSize >= batchBytes ? swapBatch(null) : null;
+        }
+
+        // Queue the batch outside the lock, so other writers can fill the next batch while this waits for the committer
+        if (full != null) {
+            enqueue(full);
+        }
+    }
+
+    /**
+     * Commit any collected puts and wait for every batch to be written to the database.
+     *
+     * @throws IOException if a batch failed to commit.
+     */
+    public void flush() throws IOException {
+        CountDownLatch committed = new CountDownLatch(1);
+        PendingBatch flushing;
+        synchronized (this) {
+            // Nothing can have been put if the writer wasn't started
+            if (closed || !started) return;
+            flushing = swapBatch(committed);
+        }
+        enqueue(flushing);
+
+        // Batches are committed in order, so once this one is done all the others are too
+        try {
+            committed.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while flushing LevelDB batches", e);
+        }
+        if (failure != null) {
+            throw new IOException("Failed to commit LevelDB batch", failure);
+        }
+    }
+
+    /**
+     * Get the number of puts which have been committed.
+     *
+     * @return the number of committed puts.
+     */
+    public long getCommittedWrites() {
+        return committedWrites;
+    }
+
+    /**
+     * Get the rate puts have been committed at, only counting the time spent committing.
+     *
+     * @return the number of puts committed per second.
+     */
+    public double getWritesPerSecond() {
+        long nanos = commitNanos;
+        return nanos == 0 ? 0 : committedWrites * 1_000_000_000D / nanos;
+    }
+
+    /**
+     * Flush any collected puts and stop the committer thread.
+     *
+     * @throws IOException if a batch failed to commit.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            stopCommitter();
+        }
+    }
+
+    /**
+     * Commit a full batch, called on the committer thread in the order the batches were filled.
+     *
+     * @param keys   the keys of the batch in the order they were put.
+     * @param values the values for each key.
+     * @throws IOException if it failed to commit the batch.
+     */
+    protected void commit(List<byte[]> keys, List<byte[]> values) throws IOException {
+        try (WriteBatch writeBatch = database.createWriteBatch()) {
+            for (int i = 0; i < keys.size(); i++) {
+                writeBatch.put(keys.get(i), values.get(i));
+            }
+            database.write(writeBatch);
+        }
+    }
+
+    /**
+     * Called on the committer thread when flushing, after every batch has been committed.
+     *
+     * @throws IOException if it failed to finish writing to the database.
+     */
+    protected void finish() throws IOException {
+        // Batches are already in the database
+    }
+
+    /**
+     * Reject any further puts and stop the committer thread, batches which haven't been committed yet are dropped.
+     */
+    protected void stopCommitter() {
+        synchronized (this) {
+            closed = true;
+        }
+        committer.interrupt();
+
+        // Wait for the committer to stop, so nothing is committed once this returns
+        try {
+            committer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void checkOpen() {
+        if (!started) throw new DBException("Batch writer hasn't been started");
+        if (closed) throw new DBException("Batch writer is closed");
+        if (failure != null) throw new DBException("Failed to commit LevelDB batch", failure);
+    }
+
+    private void add(byte[] key, byte[] value) {
+        keys.add(key);
+        values.add(value);
+        batchSize += key.length + value.length;
+    }
+
+    private PendingBatch swapBatch(@Nullable CountDownLatch committed) {
+        PendingBatch full = new PendingBatch(swappedBatches++, keys, values, committed);
+        keys = new ArrayList<>();
+        values = new ArrayList<>();
+        batchSize = 0;
+        return full;
+    }
+
+    private void enqueue(PendingBatch pendingBatch) {
+        synchronized (enqueueLock) {
+            // Wait for the batches swapped before this one, so the batches are committed in the order they were filled
+            boolean interrupted = false;
+            while (enqueuedBatches != pendingBatch.sequence()) {
+                try {
+                    enqueueLock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+
+            try {
+                // This blocks the writer if the committer is behind
+                pending.put(pendingBatch);
+            } catch (InterruptedException e) {
+                // The batch is lost, so fail the writer rather than silently dropping the puts
+                if (failure == null) {
+                    failure = e;
+                }
+                if (pendingBatch.committed() != null) {
+                    pendingBatch.committed().countDown();
+                }
+                interrupted = true;
+                throw new DBException("Interrupted while queueing LevelDB batch", e);
+            } finally {
+                enqueuedBatches++;
+                enqueueLock.notifyAll();
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    private void commitLoop() {
+        while (true) {
+            PendingBatch pendingBatch;
+            try {
+                pendingBatch = pending.take();
+            } catch (InterruptedException e) {
+                return; // Closed
+            }
+
+            try {
+                // Once a batch has failed the rest are dropped, the failure is reported to the writers
+                if (failure == null && !pendingBatch.keys().isEmpty()) {
+                    long start = System.nanoTime();
+                    commit(pendingBatch.keys(), pendingBatch.values());
+
+                    // Only this thread updates the counters
+                    commitNanos += System.nanoTime() - start;
+                    committedWrites += pendingBatch.keys().size();
+                }
+                if (failure == null && pendingBatch.committed() != null) {
+                    finish();
+                }
+            } catch (Throwable e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            } finally {
+                if (pendingBatch.committed() != null) {
+                    pendingBatch.committed().countDown();
+                }
+            }
+        }
+    }
+
+    /**
+     * A group of puts which are always added to the same batch, used for records which should be committed together
+     * (such as the version records of a column).
+     */
+    public static class Puts {
+        private final List<byte[]> keys = new ArrayList<>();
+        private final List<byte[]> values = new ArrayList<>();
+
+        /**
+         * Add a put to the group.
+         *
+         * @param key   the key to write.
+         * @param value the value to write.
+         * @return this group.
+         */
+        public Puts put(byte[] key, byte[] value) {
+            keys.add(key);
+            values.add(value);
+            return this;
+        }
+    }
+
+    /**
+     * A batch waiting to be committed.
+     *
+     * @param sequence  the order the batch was filled in, batches are queued in this order.
+     * @param keys      the keys to write.
+     * @param values    the value for each key.
+     * @param committed a latch to count down once the batch has been committed, null if nothing is waiting.
+     */
+    private record PendingBatch(long sequence, List<byte[]> keys, List<byte[]> values,
+                                @Nullable CountDownLatch committed) {
+    }
+}
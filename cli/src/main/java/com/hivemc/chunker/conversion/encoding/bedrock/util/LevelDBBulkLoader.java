@@ -0,0 +1,325 @@
+package com.hivemc.chunker.conversion.encoding.bedrock.util;
+
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import org.iq80.leveldb.DB;
+import org.iq80.leveldb.WriteBatch;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * A batch writer for new databases which sorts every put before it reaches LevelDB. As the puts are written to LevelDB
+ * in key order, each table written by LevelDB covers a separate range of keys.
+ * <p>
+ * Each batch is sorted and spilled to a run file in a temporary directory, the runs are merged into the database when
+ * flushing. If the same key is put more than once the last value is kept. Runs are merged in tiers to limit the number
+ * of open files, once there are {@link #MERGE_RUNS} runs of the same tier they're merged into a single run of the next
+ * tier, so each entry is only rewritten once per tier. The temporary directory is deleted when the loader is closed,
+ * closing without flushing discards the puts without writing them to the database.
+ * <p>
+ * As the runs are merged in key order, each range of the compaction scheduler is marked as finished once the merge has
+ * moved past it, so it can be compacted while the rest of the database is written.
+ */
+public class LevelDBBulkLoader extends LevelDBBatchWriter {
+    /**
+     * The number of bytes (keys and values) collected before a batch is sorted and spilled to a run.
+     */
+    public static final int RUN_BYTES = 32 << 20;
+    /**
+     * The number of runs of the same tier which are merged into a single run of the next tier.
+     */
+    public static final int MERGE_RUNS = 16;
+    private static final int IO_BUFFER_SIZE = 1 << 16;
+    private final File runDirectory;
+    @Nullable
+    private final LevelDBCompactionScheduler compactionScheduler;
+    private final List<Run> runs = new ArrayList<>();
+    private int nextRunID;
+    private long rewrittenBytes;
+
+    /**
+     * Create a new bulk loader, {@link #start()} should be called before writing.
+     *
+     * @param database            the database to write to, this should be empty.
+     * @param runDirectory        the temporary directory used for the sorted runs, this is deleted when closing.
+     * @param compactionScheduler the scheduler to mark ranges as finished with while flushing, null if the database
+     *                            isn't being compacted.
+     */
+    public LevelDBBulkLoader(DB database, File runDirectory, @Nullable LevelDBCompactionScheduler compactionScheduler) {
+        this(database, runDirectory, RUN_BYTES, compactionScheduler);
+    }
+
+    /**
+     * Create a new bulk loader, {@link #start()} should be called before writing.
+     *
+     * @param database            the database to write to, this should be empty.
+     * @param runDirectory        the temporary directory used for the sorted runs, this is deleted when closing.
+     * @param runBytes            the number of bytes to collect before spilling a run.
+     * @param compactionScheduler the scheduler to mark ranges as finished with while flushing, null if the database
+     *                            isn't being compacted.
+     */
+    public LevelDBBulkLoader(DB database, File runDirectory, int runBytes, @Nullable LevelDBCompactionScheduler compactionScheduler) {
+        // Only one run is queued as they're large
+        super(database, runBytes, 1);
+        this.runDirectory = runDirectory;
+        this.compactionScheduler = compactionScheduler;
+    }
+
+    @Override
+    protected void commit(List<byte[]> keys, List<byte[]> values) throws IOException {
+        // Sort the batch by key, the sort is stable so the last put of a key is after the others
+        int[] order = new int[keys.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        IntArrays.mergeSort(order, (a, b) -> Arrays.compareUnsigned(keys.get(a), keys.get(b)));
+
+        // Spill the sorted batch, skipping any values which are replaced
+        File run = createRunFile();
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(run), IO_BUFFER_SIZE))) {
+            for (int i = 0; i < order.length; i++) {
+                byte[] key = keys.get(order[i]);
+                if (i + 1 < order.length && Arrays.equals(key, keys.get(order[i + 1]))) continue;
+                writeEntry(output, key, values.get(order[i]));
+            }
+            output.writeInt(-1); // End of run
+        }
+        runs.add(new Run(run, 0));
+
+        // The runs are ordered oldest first and the tiers never increase, so the newest runs are always the ones to merge
+        while (runs.size() >= MERGE_RUNS) {
+            List<Run> newest = runs.subList(runs.size() - MERGE_RUNS, runs.size());
+            int tier = newest.get(0).tier();
+            if (newest.get(MERGE_RUNS - 1).tier() != tier) break;
+
+            // Merge the tier into a single run of the next tier
+            File merged = createRunFile();
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(merged), IO_BUFFER_SIZE))) {
+                mergeRuns(newest, (key, value) -> {
+                    writeEntry(output, key, value);
+                    rewrittenBytes += key.length + value.length;
+                });
+                output.writeInt(-1); // End of run
+            }
+            deleteRuns(newest);
+            runs.add(new Run(merged, tier + 1));
+        }
+    }
+
+    @Override
+    protected void finish() throws IOException {
+        if (runs.isEmpty()) return;
+
+        // Write the merged runs to the database in key order
+        WriteBatch[] writeBatch = {database.createWriteBatch()};
+        int[] batchSize = {0};
+        int[] range = {0};
+        try {
+            mergeRuns(runs, (key, value) -> {
+                // Once the merge moves past a range nothing else is written to it, so write the batch and let the
+                // scheduler compact it
+                int keyRange = LevelDBCompactionScheduler.getRange(key);
+                if (compactionScheduler != null && keyRange != range[0]) {
+                    database.write(writeBatch[0]);
+                    writeBatch[0].close();
+                    writeBatch[0] = database.createWriteBatch();
+                    batchSize[0] = 0;
+                    for (; range[0] < keyRange; range[0]++) {
+                        compactionScheduler.markFinished(range[0]);
+                    }
+                }
+
+                writeBatch[0].put(key, value);
+                batchSize[0] += key.length + value.length;
+
+                // Write the batch once it's full
+                if (batchSize[0] >= DEFAULT_BATCH_BYTES) {
+                    database.write(writeBatch[0]);
+                    writeBatch[0].close();
+                    writeBatch[0] = database.createWriteBatch();
+                    batchSize[0] = 0;
+                }
+            });
+            database.write(writeBatch[0]);
+        } finally {
+            writeBatch[0].close();
+        }
+
+        // The runs are no longer needed
+        deleteRuns(runs);
+    }
+
+    /**
+     * Get the number of bytes (keys and values) which were rewritten by merging runs before flushing.
+     *
+     * @return the number of bytes rewritten.
+     */
+    public long getRewrittenBytes() {
+        return rewrittenBytes;
+    }
+
+    /**
+     * Stop the committer thread and delete the run directory. Unlike other batch writers nothing is committed when
+     * closing, the runs are only merged into the database by {@link #flush()}, so a cancelled conversion doesn't have
+     * to wait for them to be written.
+     */
+    @Override
+    public void close() {
+        try {
+            stopCommitter();
+        } finally {
+            // Delete every file as a run may have been partly written when a commit failed
+            File[] files = runDirectory.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+            runDirectory.delete();
+            runs.clear();
+        }
+    }
+
+    private File createRunFile() throws IOException {
+        if (!runDirectory.isDirectory() && !runDirectory.mkdirs()) {
+            throw new IOException("Failed to create bulk load directory " + runDirectory);
+        }
+        return new File(runDirectory, "run-" + nextRunID++ + ".bin");
+    }
+
+    private static void deleteRuns(List<Run> runs) {
+        for (Run run : runs) {
+            run.file().delete();
+        }
+        runs.clear();
+    }
+
+    private static void writeEntry(DataOutputStream output, byte[] key, byte[] value) throws IOException {
+        output.writeInt(key.length);
+        output.write(key);
+        output.writeInt(value.length);
+        output.write(value);
+    }
+
+    /**
+     * Merge runs in key order, if a key is in more than one run only the value from the newest run is used.
+     *
+     * @param runs     the runs to merge, ordered oldest first.
+     * @param consumer the consumer to call with each key and value.
+     * @throws IOException if it failed to read the runs or the consumer failed.
+     */
+    private static void mergeRuns(List<Run> runs, EntryConsumer consumer) throws IOException {
+        PriorityQueue<RunReader> queue = new PriorityQueue<>(runs.size());
+        List<RunReader> readers = new ArrayList<>(runs.size());
+        try {
+            for (int i = 0; i < runs.size(); i++) {
+                RunReader reader = new RunReader(runs.get(i).file(), i);
+                readers.add(reader);
+                if (reader.next()) {
+                    queue.add(reader);
+                }
+            }
+
+            while (!queue.isEmpty()) {
+                RunReader reader = queue.poll();
+                byte[] key = reader.key;
+                byte[] value = reader.value;
+
+                // Newer runs are polled first for the same key, so any other runs with the key have older values
+                while (!queue.isEmpty() && Arrays.equals(queue.peek().key, key)) {
+                    RunReader older = queue.poll();
+                    if (older.next()) {
+                        queue.add(older);
+                    }
+                }
+                consumer.accept(key, value);
+
+                // Move onto the next entry of the run
+                if (reader.next()) {
+                    queue.add(reader);
+                }
+            }
+        } finally {
+            for (RunReader reader : readers) {
+                reader.close();
+            }
+        }
+    }
+
+    /**
+     * A sorted run which has been spilled.
+     *
+     * @param file the file of the run.
+     * @param tier the number of times the entries of the run have been merged.
+     */
+    private record Run(File file, int tier) {
+    }
+
+    /**
+     * A consumer of the merged entries.
+     */
+    @FunctionalInterface
+    private interface EntryConsumer {
+        /**
+         * Accept the next entry.
+         *
+         * @param key   the key of the entry.
+         * @param value the value of the entry.
+         * @throws IOException if it failed to write the entry.
+         */
+        void accept(byte[] key, byte[] value) throws IOException;
+    }
+
+    /**
+     * A reader for the entries of a sorted run, ordered by the current key and then newest run first.
+     */
+    private static class RunReader implements Comparable<RunReader>, Closeable {
+        private final DataInputStream input;
+        private final int index;
+        private byte[] key;
+        private byte[] value;
+
+        /**
+         * Open a run for reading.
+         *
+         * @param file  the run file.
+         * @param index the index of the run, higher indexes are newer.
+         * @throws IOException if it failed to open the run.
+         */
+        public RunReader(File file, int index) throws IOException {
+            input = new DataInputStream(new BufferedInputStream(new FileInputStream(file), IO_BUFFER_SIZE));
+            this.index = index;
+        }
+
+        /**
+         * Read the next entry of the run.
+         *
+         * @return true if an entry was read, false if the run has ended.
+         * @throws IOException if it failed to read the run.
+         */
+        public boolean next() throws IOException {
+            int keyLength = input.readInt();
+            if (keyLength < 0) return false;
+            key = new byte[keyLength];
+            input.readFully(key);
+            value = new byte[input.readInt()];
+            input.readFully(value);
+            return true;
+        }
+
+        @Override
+        public int compareTo(RunReader other) {
+            int compare = Arrays.compareUnsigned(key, other.key);
+            return compare != 0 ? compare : Integer.compare(other.index, index);
+        }
+
+        @Override
+        public void close() throws IOException {
+            input.close();
+        }
+    }
+}
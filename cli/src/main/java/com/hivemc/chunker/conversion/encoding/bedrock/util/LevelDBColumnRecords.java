@@ -0,0 +1,82 @@
+package com.hivemc.chunker.conversion.encoding.bedrock.util;
+
+import com.hivemc.chunker.conversion.intermediate.column.chunk.ChunkCoordPair;
+import com.hivemc.chunker.conversion.intermediate.world.Dimension;
+import org.iq80.leveldb.DB;
+import org.iq80.leveldb.DBIterator;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * The values of the records for a column, read in key order using a single iterator seek rather than looking up each
+ * key separately.
+ */
+public class LevelDBColumnRecords {
+    private final byte[][] values = new byte[256][];
+    private final byte[][] subChunks = new byte[256][];
+
+    /**
+     * Read the records of a column which have a type between the first and last type.
+     * Note: The keys of a column are sorted by the type ID, so only the records between the types are visited.
+     *
+     * @param database       the LevelDB database.
+     * @param dimension      the dimension the column is inside.
+     * @param chunkCoordPair the co-ordinates of the column.
+     * @param first          the type with the lowest ID to read.
+     * @param last           the type with the highest ID to read.
+     * @return the records which were read.
+     * @throws IOException if it failed to close the iterator.
+     */
+    public static LevelDBColumnRecords read(DB database, Dimension dimension, ChunkCoordPair chunkCoordPair, LevelDBChunkType first, LevelDBChunkType last) throws IOException {
+        LevelDBColumnRecords records = new LevelDBColumnRecords();
+
+        // The key of the first type is used to seek, everything before the type is the prefix of the column
+        byte[] start = LevelDBKey.key(dimension, chunkCoordPair, first);
+        int prefixLength = start.length - 1;
+        int lastType = last.getId() & 0xFF;
+        try (DBIterator iterator = database.iterator()) {
+            iterator.seek(start);
+            while (iterator.hasNext()) {
+                Map.Entry<byte[], byte[]> entry = iterator.next();
+                byte[] key = entry.getKey();
+
+                // Stop once the keys are for a different column or past the last type
+                if (key.length <= prefixLength || !LevelDBKey.startsWith(key, start, prefixLength)) break;
+                int type = key[prefixLength] & 0xFF;
+                if (type > lastType) break;
+
+                // Record the value, any keys which aren't a type or sub-chunk are skipped
+                if (key.length == prefixLength + 1) {
+                    records.values[type] = entry.getValue();
+                } else if (key.length == prefixLength + 2 && type == LevelDBChunkType.SUB_CHUNK_PREFIX.getId()) {
+                    records.subChunks[key[prefixLength + 1] + 128] = entry.getValue();
+                }
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Get the value of a record.
+     *
+     * @param type the type of the record.
+     * @return the value or null if it wasn't present.
+     */
+    @Nullable
+    public byte[] get(LevelDBChunkType type) {
+        return values[type.getId() & 0xFF];
+    }
+
+    /**
+     * Get the value of a sub-chunk record.
+     *
+     * @param y the Y of the sub-chunk.
+     * @return the value or null if it wasn't present.
+     */
+    @Nullable
+    public byte[] getSubChunk(byte y) {
+        return subChunks[y + 128];
+    }
+}
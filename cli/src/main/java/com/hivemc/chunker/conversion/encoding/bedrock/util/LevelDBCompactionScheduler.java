@@ -0,0 +1,183 @@
+package com.hivemc.chunker.conversion.encoding.bedrock.util;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.function.DoubleConsumer;
+
+/**
+ * A scheduler which compacts a LevelDB database in ranges of keys on a background thread while it's being written to,
+ * rather than compacting the whole database once writing has finished.
+ * <p>
+ * The key space is split into ranges by the first byte of the key (the low byte of the column X for chunk keys). As
+ * the columns of a region are spread over many ranges, a range is only compacted in the background once the writer
+ * reports that it's finished with {@link #markFinished(int)}, such as when writing keys in order. Any ranges which
+ * weren't finished are compacted when calling {@link #compactRemaining(DoubleConsumer)}.
+ */
+public class LevelDBCompactionScheduler implements AutoCloseable {
+    /**
+     * The number of ranges the key space is split into, one for each value of the first byte.
+     */
+    public static final int RANGES = 256;
+    private final RangeCompactor rangeCompactor;
+    private final Thread compactor;
+    private final BitSet pending = new BitSet(RANGES);
+    private final BitSet finished = new BitSet(RANGES);
+    private volatile int backgroundCompactions;
+    private volatile Throwable failure;
+    private boolean closed;
+
+    /**
+     * Create a new compaction scheduler, {@link #start()} should be called to compact ranges in the background.
+     * Note: Every range starts pending as the database may already contain keys.
+     *
+     * @param rangeCompactor the compaction to run for each range, usually the compactRange of the database.
+     */
+    public LevelDBCompactionScheduler(RangeCompactor rangeCompactor) {
+        this.rangeCompactor = rangeCompactor;
+        pending.set(0, RANGES);
+        compactor = new Thread(this::compactLoop, "LevelDB Compactor");
+        compactor.setDaemon(true);
+    }
+
+    /**
+     * Start the background compactor thread.
+     */
+    public void start() {
+        compactor.start();
+    }
+
+    /**
+     * Get the range which a key is inside.
+     *
+     * @param key the key.
+     * @return the index of the range.
+     */
+    public static int getRange(byte[] key) {
+        return key.length == 0 ? 0 : key[0] & 0xFF;
+    }
+
+    /**
+     * Mark a range as finished, the range is compacted in the background as nothing else will be written to it.
+     * Note: The writes to the range should already be in the database.
+     *
+     * @param range the index of the range.
+     */
+    public synchronized void markFinished(int range) {
+        pending.set(range);
+        finished.set(range);
+
+        // Wake up the compactor to compact the range
+        notifyAll();
+    }
+
+    /**
+     * Get the number of ranges which were compacted on the background thread.
+     *
+     * @return the number of background compactions.
+     */
+    public int getBackgroundCompactions() {
+        return backgroundCompactions;
+    }
+
+    /**
+     * Stop the background compactor (if it was started) and compact every range which is still pending.
+     *
+     * @param progress a consumer called after each range with the progress between 0-1.
+     * @return the number of ranges which were compacted.
+     * @throws IOException if a compaction failed or it was interrupted.
+     */
+    public int compactRemaining(DoubleConsumer progress) throws IOException {
+        close();
+
+        // The pending ranges are no longer modified once the compactor has stopped
+        int count = pending.cardinality();
+        int compacted = 0;
+        for (int range = pending.nextSetBit(0); range >= 0; range = pending.nextSetBit(range + 1)) {
+            compact(range);
+            pending.clear(range);
+            progress.accept(++compacted / (double) count);
+        }
+        return compacted;
+    }
+
+    /**
+     * Stop the background compactor, waiting for any range being compacted to finish.
+     *
+     * @throws IOException if a background compaction failed or it was interrupted.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+
+        // Compactions can't be interrupted, so wait for the current one
+        try {
+            compactor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for LevelDB compaction", e);
+        }
+        if (failure != null) {
+            throw new IOException("Failed to compact LevelDB range", failure);
+        }
+    }
+
+    private void compact(int range) {
+        byte[] begin = {(byte) range};
+        byte[] end = range == RANGES - 1 ? null : new byte[]{(byte) (range + 1)};
+        rangeCompactor.compactRange(begin, end);
+    }
+
+    private int nextFinishedRange() {
+        int range = finished.nextSetBit(0);
+        if (range >= 0) {
+            finished.clear(range);
+        }
+        return range;
+    }
+
+    private void compactLoop() {
+        while (true) {
+            int range = -1;
+            synchronized (this) {
+                try {
+                    while (!closed && (range = nextFinishedRange()) == -1) {
+                        wait();
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (closed) return;
+
+                // Finishing the range again during the compaction marks it as pending again
+                pending.clear(range);
+            }
+
+            try {
+                compact(range);
+                backgroundCompactions++;
+            } catch (Throwable e) {
+                failure = e;
+                return;
+            }
+        }
+    }
+
+    /**
+     * The compaction of a range of keys.
+     */
+    @FunctionalInterface
+    public interface RangeCompactor {
+        /**
+         * Compact the keys between begin and end.
+         *
+         * @param begin the first key of the range.
+         * @param end   the key after the range, null if the range continues to the end of the database.
+         */
+        void compactRange(byte[] begin, @Nullable byte[] end);
+    }
+}
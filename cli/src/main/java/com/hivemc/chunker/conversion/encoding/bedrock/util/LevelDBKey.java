@@ -26,8 +26,20 @@ public class LevelDBKey {
      * @return true if the first bytes match the startsWith parameter.
      */
     public static boolean startsWith(byte[] input, byte[] startsWith) {
-        if (input.length < startsWith.length) return false;
-        for (int i = 0; i < startsWith.length; i++) {
+        return startsWith(input, startsWith, startsWith.length);
+    }
+
+    /**
+     * Check if a key starts with the first bytes of a prefix.
+     *
+     * @param input      the input.
+     * @param startsWith the prefix.
+     * @param length     the number of bytes of the prefix to check.
+     * @return true if the first bytes match the first bytes of the startsWith parameter.
+     */
+    public static boolean startsWith(byte[] input, byte[] startsWith, int length) {
+        if (input.length < length) return false;
+        for (int i = 0; i < length; i++) {
             if (input[i] != startsWith[i]) return false;
         }
 
@@ -46,6 +58,17 @@ public class LevelDBKey {
         return new String(input, prefix.length, input.length - prefix.length, StandardCharsets.UTF_8);
     }
 
+    /**
+     * Read a little endian integer from a key.
+     *
+     * @param key   the key to read from.
+     * @param index the index of the first byte.
+     * @return the integer.
+     */
+    public static int getInt(byte[] key, int index) {
+        return (key[index] & 0xFF) | (key[index + 1] & 0xFF) << 8 | (key[index + 2] & 0xFF) << 16 | key[index + 3] << 24;
+    }
+
     /**
      * Create a sub-chunk based key with a type.
      *
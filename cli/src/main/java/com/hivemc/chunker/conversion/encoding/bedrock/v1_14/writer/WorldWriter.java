@@ -3,18 +3,18 @@ package com.hivemc.chunker.conversion.encoding.bedrock.v1_14.writer;
 import com.hivemc.chunker.conversion.encoding.base.Converter;
 import com.hivemc.chunker.conversion.encoding.bedrock.base.resolver.BedrockResolvers;
 import com.hivemc.chunker.conversion.encoding.bedrock.base.writer.BedrockColumnWriter;
+import com.hivemc.chunker.conversion.encoding.bedrock.util.LevelDBBatchWriter;
 import com.hivemc.chunker.conversion.intermediate.world.Dimension;
-import org.iq80.leveldb.DB;
 
 import java.io.File;
 
 public class WorldWriter extends com.hivemc.chunker.conversion.encoding.bedrock.v1_13.writer.WorldWriter {
-    public WorldWriter(File outputFolder, Converter converter, BedrockResolvers resolvers, DB database) {
-        super(outputFolder, converter, resolvers, database);
+    public WorldWriter(File outputFolder, Converter converter, BedrockResolvers resolvers, LevelDBBatchWriter batchWriter) {
+        super(outputFolder, converter, resolvers, batchWriter);
     }
 
     @Override
     public BedrockColumnWriter createColumnWriter(Dimension dimension) {
-        return new ColumnWriter(this, converter, resolvers, database, dimension);
+        return new ColumnWriter(this, converter, resolvers, batchWriter, dimension);
     }
 }
@@ -4,7 +4,6 @@ import com.hivemc.chunker.conversion.encoding.base.Converter;
 import com.hivemc.chunker.conversion.encoding.bedrock.base.reader.BedrockChunkReader;
 import com.hivemc.chunker.conversion.encoding.bedrock.base.resolver.BedrockResolvers;
 import com.hivemc.chunker.conversion.encoding.bedrock.util.LevelDBChunkType;
-import com.hivemc.chunker.conversion.encoding.bedrock.util.LevelDBKey;
 import com.hivemc.chunker.conversion.intermediate.column.ChunkerColumn;
 import com.hivemc.chunker.conversion.intermediate.column.chunk.ChunkCoordPair;
 import com.hivemc.chunker.conversion.intermediate.column.chunk.ChunkerChunk;
@@ -23,7 +22,7 @@ public class ColumnReader extends com.hivemc.chunker.conversion.encoding.bedrock
     protected void readBiomeHeightMap(ChunkerColumn column) {
         try {
             // Read Data3D first (1.18+)
-            byte[] value = database.get(LevelDBKey.key(dimension, column.getPosition(), LevelDBChunkType.DATA_3D));
+            byte[] value = records.get(LevelDBChunkType.DATA_3D);
             if (value != null) {
                 ByteBuffer buffer = ByteBuffer.wrap(value).order(ByteOrder.LITTLE_ENDIAN);
                 if (converter.shouldProcessHeightMap()) {
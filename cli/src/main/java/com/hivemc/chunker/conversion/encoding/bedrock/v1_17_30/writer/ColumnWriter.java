@@ -4,6 +4,7 @@ import com.hivemc.chunker.conversion.encoding.base.Converter;
 import com.hivemc.chunker.conversion.encoding.bedrock.base.resolver.BedrockResolvers;
 import com.hivemc.chunker.conversion.encoding.bedrock.base.writer.BedrockChunkWriter;
 import com.hivemc.chunker.conversion.encoding.bedrock.base.writer.BedrockWorldWriter;
+import com.hivemc.chunker.conversion.encoding.bedrock.util.LevelDBBatchWriter;
 import com.hivemc.chunker.conversion.encoding.bedrock.util.LevelDBChunkType;
 import com.hivemc.chunker.conversion.encoding.bedrock.util.LevelDBKey;
 import com.hivemc.chunker.conversion.encoding.bedrock.util.PaletteUtil;
@@ -15,7 +16,6 @@ import com.hivemc.chunker.conversion.intermediate.column.chunk.palette.SingleVal
 import com.hivemc.chunker.conversion.intermediate.column.heightmap.BedrockHeightMap;
 import com.hivemc.chunker.conversion.intermediate.world.Dimension;
 import com.hivemc.chunker.nbt.io.Writer;
-import org.iq80.leveldb.DB;
 
 import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
@@ -23,8 +23,8 @@ import java.util.Collections;
 import java.util.List;
 
 public class ColumnWriter extends com.hivemc.chunker.conversion.encoding.bedrock.v1_17.writer.ColumnWriter {
-    public ColumnWriter(BedrockWorldWriter parent, Converter converter, BedrockResolvers resolvers, DB database, Dimension dimension) {
-        super(parent, converter, resolvers, database, dimension);
+    public ColumnWriter(BedrockWorldWriter parent, Converter converter, BedrockResolvers resolvers, LevelDBBatchWriter batchWriter, Dimension dimension) {
+        super(parent, converter, resolvers, batchWriter, dimension);
     }
 
     @Override
@@ -106,12 +106,12 @@ public class ColumnWriter extends com.hivemc.chunker.conversion.encoding.bedrock
         }
 
         // Save Data3D (0x2B) - Heightmap / Biome
-        database.put(LevelDBKey.key(dimension, column.getPosition(), LevelDBChunkType.DATA_3D), bytes);
+        batchWriter.put(LevelDBKey.key(dimension, column.getPosition(), LevelDBChunkType.DATA_3D), bytes);
     }
 
     @Override
     public BedrockChunkWriter createChunkWriter(ChunkerColumn column) {
-        return new ChunkWriter(converter, resolvers, database, dimension, column);
+        return new ChunkWriter(converter, resolvers, batchWriter, dimension, column);
     }
 
     /**
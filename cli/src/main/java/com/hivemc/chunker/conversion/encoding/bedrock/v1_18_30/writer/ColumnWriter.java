@@ -4,6 +4,7 @@ import com.hivemc.chunker.conversion.encoding.base.Converter;
 import com.hivemc.chunker.conversion.encoding.bedrock.base.resolver.BedrockResolvers;
 import com.hivemc.chunker.conversion.encoding.bedrock.base.writer.BedrockChunkWriter;
 import com.hivemc.chunker.conversion.encoding.bedrock.base.writer.BedrockWorldWriter;
+import com.hivemc.chunker.conversion.encoding.bedrock.util.LevelDBBatchWriter;
 import com.hivemc.chunker.conversion.encoding.bedrock.util.LevelDBChunkType;
 import com.hivemc.chunker.conversion.encoding.bedrock.util.LevelDBKey;
 import com.hivemc.chunker.conversion.intermediate.column.ChunkerColumn;
@@ -12,8 +13,6 @@ import com.hivemc.chunker.conversion.intermediate.world.Dimension;
 import com.hivemc.chunker.nbt.io.Writer;
 import com.hivemc.chunker.nbt.tags.Tag;
 import com.hivemc.chunker.nbt.tags.collection.CompoundTag;
-import org.iq80.leveldb.DB;
-import org.iq80.leveldb.WriteBatch;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.BufferedOutputStream;
@@ -23,8 +22,8 @@ import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 
 public class ColumnWriter extends com.hivemc.chunker.conversion.encoding.bedrock.v1_18.writer.ColumnWriter {
-    public ColumnWriter(BedrockWorldWriter parent, Converter converter, BedrockResolvers resolvers, DB database, Dimension dimension) {
-        super(parent, converter, resolvers, database, dimension);
+    public ColumnWriter(BedrockWorldWriter parent, Converter converter, BedrockResolvers resolvers, LevelDBBatchWriter batchWriter, Dimension dimension) {
+        super(parent, converter, resolvers, batchWriter, dimension);
     }
 
     public static byte[] generateStorageKeyForEntity(long uniqueEntityID) {
@@ -61,7 +60,7 @@ public class ColumnWriter extends com.hivemc.chunker.conversion.encoding.bedrock
             }
 
             // Write the byte array to the key
-            database.put(LevelDBKey.key(LevelDBKey.DIGP_PREFIX, dimension, column.getPosition()), byteArrayOutputStream.toByteArray());
+            batchWriter.put(LevelDBKey.key(LevelDBKey.DIGP_PREFIX, dimension, column.getPosition()), byteArrayOutputStream.toByteArray());
         }
     }
 
@@ -92,7 +91,7 @@ public class ColumnWriter extends com.hivemc.chunker.conversion.encoding.bedrock
 
             // Write the byte array to the actor prefix + key
             if (key != null) {
-                database.put(LevelDBKey.key(LevelDBKey.ACTOR_PREFIX, key), byteArrayOutputStream.toByteArray());
+                batchWriter.put(LevelDBKey.key(LevelDBKey.ACTOR_PREFIX, key), byteArrayOutputStream.toByteArray());
             }
 
             return key;
@@ -109,28 +108,27 @@ public class ColumnWriter extends com.hivemc.chunker.conversion.encoding.bedrock
 
     @Override
     protected void writeMetadata(ChunkerColumn chunkerColumn) throws Exception {
-        try (WriteBatch writeBatch = database.createWriteBatch()) {
-            if (isWriteBlendingData()) {
-                // Save Caves and Cliffs Blending (0x3d) (legacy)
-                writeBatch.put(LevelDBKey.key(dimension, chunkerColumn.getPosition(), LevelDBChunkType.GENERATED_PRE_CAVES_AND_CLIFFS_BLENDING), new byte[]{0});
+        LevelDBBatchWriter.Puts puts = new LevelDBBatchWriter.Puts();
+        if (isWriteBlendingData()) {
+            // Save Caves and Cliffs Blending (0x3d) (legacy)
+            puts.put(LevelDBKey.key(dimension, chunkerColumn.getPosition(), LevelDBChunkType.GENERATED_PRE_CAVES_AND_CLIFFS_BLENDING), new byte[]{0});
 
-                // Save new version (40) - New entity storage
-                writeBatch.put(LevelDBKey.key(dimension, chunkerColumn.getPosition(), LevelDBChunkType.VERSION), new byte[]{getChunkVersion()});
+            // Save new version (40) - New entity storage
+            puts.put(LevelDBKey.key(dimension, chunkerColumn.getPosition(), LevelDBChunkType.VERSION), new byte[]{getChunkVersion()});
 
-                // Save BlendingVersion (0x40) - If not correctly versioned, this will cause the map to generate badly made edges
-                writeBatch.put(LevelDBKey.key(dimension, chunkerColumn.getPosition(), LevelDBChunkType.BLENDING_DATA), new byte[]{0, getBlendingVersion()});
-            }
+            // Save BlendingVersion (0x40) - If not correctly versioned, this will cause the map to generate badly made edges
+            puts.put(LevelDBKey.key(dimension, chunkerColumn.getPosition(), LevelDBChunkType.BLENDING_DATA), new byte[]{0, getBlendingVersion()});
+        }
 
-            // Save legacy version
-            writeBatch.put(LevelDBKey.key(dimension, chunkerColumn.getPosition(), LevelDBChunkType.LEGACY_VERSION), new byte[]{7});
+        // Save legacy version
+        puts.put(LevelDBKey.key(dimension, chunkerColumn.getPosition(), LevelDBChunkType.LEGACY_VERSION), new byte[]{7});
 
-            // Write the batch
-            database.write(writeBatch);
-        }
+        // The versions are committed together so the column is never left with only some of them
+        batchWriter.putAll(puts);
     }
 
     @Override
     public BedrockChunkWriter createChunkWriter(ChunkerColumn column) {
-        return new ChunkWriter(converter, resolvers, database, dimension, column);
+        return new ChunkWriter(converter, resolvers, batchWriter, dimension, column);
     }
 }
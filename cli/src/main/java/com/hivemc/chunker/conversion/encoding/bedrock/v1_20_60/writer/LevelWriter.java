@@ -29,6 +29,6 @@ public class LevelWriter extends com.hivemc.chunker.conversion.encoding.bedrock.
 
     @Override
     public BedrockWorldWriter createWorldWriter() {
-        return new WorldWriter(outputFolder, converter, resolvers, database);
+        return new WorldWriter(outputFolder, converter, resolvers, batchWriter);
     }
 }
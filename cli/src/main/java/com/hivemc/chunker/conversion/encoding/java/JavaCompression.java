@@ -0,0 +1,47 @@
+package com.hivemc.chunker.conversion.encoding.java;
+
+import java.util.Locale;
+
+/**
+ * The compression used for columns written to Java region files.
+ */
+public enum JavaCompression {
+    /**
+     * ZLib compression, supported by every version which uses region files.
+     */
+    ZLIB(2),
+    /**
+     * No compression, supported from 1.15.
+     */
+    NONE(3),
+    /**
+     * LZ4 compression, supported from 1.20.5.
+     */
+    LZ4(4);
+
+    private final int id;
+
+    JavaCompression(int id) {
+        this.id = id;
+    }
+
+    /**
+     * Get the compression type ID which is written before each column in a region file.
+     *
+     * @return the compression type ID.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Get a compression by its name (case-insensitive).
+     *
+     * @param name the name of the compression, e.g. "zlib", "lz4" or "none".
+     * @return the compression.
+     * @throws IllegalArgumentException if the name isn't a valid compression.
+     */
+    public static JavaCompression fromName(String name) {
+        return valueOf(name.toUpperCase(Locale.ROOT));
+    }
+}
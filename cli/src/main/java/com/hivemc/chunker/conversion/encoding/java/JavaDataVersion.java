@@ -195,7 +195,7 @@ public class JavaDataVersion implements Comparable<JavaDataVersion> {
      */
     public static Optional<JavaDataVersion> detect(File directory) {
         try {
-            CompoundTag level = Tag.readGZipJavaNBT(new File(directory, "level.dat"));
+            CompoundTag level = Tag.readLazyGZipJavaNBT(new File(directory, "level.dat"));
 
             // Find DataVersion tag
             CompoundTag versionTag = Objects.requireNonNull(level).getCompound("Version");
@@ -13,12 +13,14 @@ import com.hivemc.chunker.conversion.intermediate.column.chunk.ChunkerChunk;
 import com.hivemc.chunker.conversion.intermediate.column.entity.Entity;
 import com.hivemc.chunker.conversion.intermediate.column.heightmap.JavaLegacyHeightMap;
 import com.hivemc.chunker.conversion.intermediate.world.Dimension;
+import com.hivemc.chunker.nbt.TagFilter;
 import com.hivemc.chunker.nbt.tags.Tag;
 import com.hivemc.chunker.nbt.tags.array.ByteArrayTag;
 import com.hivemc.chunker.nbt.tags.collection.CompoundTag;
 import com.hivemc.chunker.nbt.tags.collection.ListTag;
 import com.hivemc.chunker.nbt.tags.primitive.ByteTag;
 import com.hivemc.chunker.nbt.tags.primitive.IntTag;
+import com.hivemc.chunker.scheduling.function.ThrowableRunnable;
 import com.hivemc.chunker.scheduling.task.Task;
 import com.hivemc.chunker.scheduling.task.TaskWeight;
 
@@ -28,6 +30,11 @@ import java.util.*;
  * A reader for Java columns.
  */
 public class JavaColumnReader implements ColumnReader {
+    /**
+     * The weight of reading a single chunk, the combined weight of creating the chunk reader and reading the chunk.
+     */
+    protected static final TaskWeight CHUNK_READ_WEIGHT = TaskWeight.combine(TaskWeight.LOW, TaskWeight.HIGHER);
+
     /**
      * A list of chunk statuses which are counted as incomplete and should be ignored.
      */
@@ -50,6 +57,20 @@ public class JavaColumnReader implements ColumnReader {
             "minecraft:liquid_carvers"
     );
 
+    /**
+     * Keys of column data which is never read (in both the root and the "Level" tag), these are skipped when decoding.
+     */
+    private static final List<String> UNUSED_KEYS = List.of(
+            "Heightmaps",
+            "Structures",
+            "structures",
+            "PostProcessing",
+            "TileTicks",
+            "LiquidTicks",
+            "block_ticks",
+            "fluid_ticks"
+    );
+
     protected final Converter converter;
     protected final JavaResolvers resolvers;
     protected final Dimension dimension;
@@ -73,6 +94,43 @@ public class JavaColumnReader implements ColumnReader {
         this.columnNBT = columnNBT;
     }
 
+    /**
+     * Create a filter for decoding column NBT which skips the parts of the column that won't be read, based on what
+     * the converter is set to process.
+     *
+     * @param converter the converter instance.
+     * @return the filter to use for the root of the column NBT.
+     */
+    public static TagFilter createColumnFilter(Converter converter) {
+        List<String> excludedKeys = new ArrayList<>(UNUSED_KEYS);
+        if (!converter.shouldProcessHeightMap()) {
+            excludedKeys.add("HeightMap");
+        }
+        if (!converter.shouldProcessBiomes()) {
+            excludedKeys.add("Biomes");
+        }
+        if (!converter.shouldProcessEntities()) {
+            excludedKeys.add("Entities");
+        }
+        if (!converter.shouldProcessBlockEntities()) {
+            excludedKeys.add("TileEntities");
+            excludedKeys.add("block_entities");
+        }
+
+        // Exclude the keys at the root (1.18+ and the entities files) and inside the Level tag (below 1.18)
+        TagFilter.Builder builder = TagFilter.builder();
+        for (String key : excludedKeys) {
+            builder.exclude(key);
+            builder.exclude("Level", key);
+        }
+
+        // Biomes are stored in each section from 1.18
+        if (!converter.shouldProcessBiomes()) {
+            builder.exclude("sections", "biomes");
+        }
+        return builder.build();
+    }
+
     @Override
     public void readColumn(ColumnConversionHandler columnConversionHandler) {
         if (columnNBT == null) return; // Ignore invalid chunks
@@ -250,8 +308,9 @@ public class JavaColumnReader implements ColumnReader {
             }
         }
 
-        // Create a list of the tasks
-        List<Task<ChunkerChunk>> tasks = new ArrayList<>(sections.size());
+        // Create a list of the chunks and the units which read them
+        List<ChunkerChunk> chunks = new ArrayList<>(sections.size());
+        List<ThrowableRunnable> units = new ArrayList<>(sections.size());
 
         // Loop through each chunk in the column
         for (CompoundTag section : sections) {
@@ -271,15 +330,14 @@ public class JavaColumnReader implements ColumnReader {
 
             // Create the chunk and add it to the column
             ChunkerChunk chunk = new ChunkerChunk(y);
+            chunks.add(chunk);
 
-            // Start the task
-            tasks.add(Task.async("Creating Chunk Reader", TaskWeight.LOW, () -> createChunkReader(column, chunk))
-                    .thenConsume("Reading Chunk", TaskWeight.HIGHER, (chunkReader) -> chunkReader.readChunk(section))
-                    .then(chunk));
+            // Creating the reader is cheap, so it's done as part of the batch (the palette is read as a separate task)
+            units.add(() -> createChunkReader(column, chunk).readChunk(section));
         }
 
-        // Set the chunks on the column when they're done
-        Task.join(tasks).thenConsume("Adding chunks to column", TaskWeight.LOW, (chunks) -> {
+        // Read the chunks as one task and set them on the column when they're done
+        Task.asyncBatch("Reading Chunks", CHUNK_READ_WEIGHT, units).then("Adding chunks to column", TaskWeight.LOW, () -> {
             for (ChunkerChunk chunk : chunks) {
                 column.getChunks().put(chunk.getY(), chunk);
             }
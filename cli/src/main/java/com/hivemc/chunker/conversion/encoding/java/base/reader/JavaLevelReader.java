@@ -329,7 +329,7 @@ public class JavaLevelReader implements LevelReader, JavaReaderWriter {
      * @throws Exception if it failed to parse the level.dat.
      */
     protected void parseLevelSettings(ChunkerLevel output) throws Exception {
-        CompoundTag level = Tag.readGZipJavaNBT(new File(inputDirectory, "level.dat"));
+        CompoundTag level = Tag.readLazyGZipJavaNBT(new File(inputDirectory, "level.dat"));
 
         // Parse settings
         output.setSettings(ChunkerLevelSettings.fromNBT(Objects.requireNonNull(level), this, converter));
@@ -1,6 +1,7 @@
 package com.hivemc.chunker.conversion.encoding.java.base.reader;
 
 import com.hivemc.chunker.conversion.encoding.base.Converter;
+import com.hivemc.chunker.conversion.encoding.base.reader.RegionAdmissionController;
 import com.hivemc.chunker.conversion.encoding.base.reader.WorldReader;
 import com.hivemc.chunker.conversion.encoding.java.base.reader.util.MCAReader;
 import com.hivemc.chunker.conversion.encoding.java.base.resolver.JavaResolvers;
@@ -10,6 +11,7 @@ import com.hivemc.chunker.conversion.intermediate.column.chunk.ChunkCoordPair;
 import com.hivemc.chunker.conversion.intermediate.column.chunk.RegionCoordPair;
 import com.hivemc.chunker.conversion.intermediate.world.ChunkerWorld;
 import com.hivemc.chunker.conversion.intermediate.world.Dimension;
+import com.hivemc.chunker.nbt.TagFilter;
 import com.hivemc.chunker.nbt.tags.collection.CompoundTag;
 import com.hivemc.chunker.scheduling.task.ProgressiveTask;
 import com.hivemc.chunker.scheduling.task.Task;
@@ -23,6 +25,7 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -35,6 +38,7 @@ public class JavaWorldReader implements WorldReader {
     protected final JavaResolvers resolvers;
     protected final File dimensionFolder;
     protected final Dimension dimension;
+    protected final TagFilter columnFilter;
 
     /**
      * Create a new world reader.
@@ -49,6 +53,9 @@ public class JavaWorldReader implements WorldReader {
         this.resolvers = resolvers;
         this.dimensionFolder = dimensionFolder;
         this.dimension = dimension;
+
+        // Only decode the parts of each column which will be read
+        columnFilter = JavaColumnReader.createColumnFilter(converter);
     }
 
     @Override
@@ -114,19 +121,27 @@ public class JavaWorldReader implements WorldReader {
      * @param regions                 the region co-ordinates to read.
      * @param knownRegionFiles        a set of files which can be valid .mca files (exist and are bigger than 4096 bytes)
      * @param columnConversionHandler the handler to submit the columns to.
+     * @throws InterruptedException if the thread was interrupted while waiting for a region to be admitted.
      */
-    protected void readRegionFiles(Set<RegionCoordPair> regions, Set<String> knownRegionFiles, ColumnConversionHandler columnConversionHandler) {
+    protected void readRegionFiles(Set<RegionCoordPair> regions, Set<String> knownRegionFiles, ColumnConversionHandler columnConversionHandler) throws InterruptedException {
+        RegionAdmissionController admissionController = converter.getRegionAdmissionController();
+
         // Process regions
         for (RegionCoordPair region : regions) {
             if (converter.shouldProcessRegion(dimension, region)) {
                 // Multiple region files can be handled by later versions, so it's abstracted here
                 File[] regionFiles = getRegionFiles(region, knownRegionFiles);
 
-                // Read the region file then perform GC, this ensures in systems where the Java process is not bound
-                // we do not consume too much memory and keep it fair to other processes
-                Task.async("Reading region file", TaskWeight.NORMAL, () -> readRegion(regionFiles, region, columnConversionHandler))
-                        .then("Region - Flushing", TaskWeight.MEDIUM, () -> columnConversionHandler.flushRegion(region))
-                        .then("Region - System::GC", TaskWeight.NONE, System::gc);
+                // Wait until there is room for another region to be in-flight (and the heap isn't too full)
+                admissionController.acquire();
+
+                // Read the region then flush it, memory is kept bounded by the admission controller rather than GC
+                // Reading is done on the I/O lane, decompression is scheduled onto the workers
+                ProgressiveTask<Void> flushing = Task.asyncIO("Reading region file", TaskWeight.NORMAL, () -> readRegion(regionFiles, region, columnConversionHandler))
+                        .then("Region - Flushing", TaskWeight.MEDIUM, () -> columnConversionHandler.flushRegion(region));
+
+                // Allow another region once this one has been flushed (or failed)
+                flushing.future().whenComplete((ignored, throwable) -> admissionController.release());
             }
         }
     }
@@ -189,9 +204,9 @@ public class JavaWorldReader implements WorldReader {
                 // Skip if the file doesn't exist / is invalid
                 if (file == null) continue;
 
-                // Otherwise open a random access file
+                // Otherwise map the file (falls back to a random access file)
                 try {
-                    mcaReaders[i] = new MCAReader(converter, file);
+                    mcaReaders[i] = new MCAReader(converter, file, true, columnFilter);
                     foundValidFile = true;
                 } catch (FileNotFoundException e) {
                     // Ignored, it'll be null if this happens
@@ -227,17 +242,49 @@ public class JavaWorldReader implements WorldReader {
                 }
             }
 
-            // Stage 2. Iterate found regions, lookup each one and combine the results
+            // Stage 2. Sort the columns which should be processed by where they are stored (rather than the header order)
+            long[] sortedColumns = new long[positionsToOffsets.size()];
+            int columnCount = 0;
             for (Int2ObjectMap.Entry<int[]> columnOffsets : positionsToOffsets.int2ObjectEntrySet()) {
-                ChunkCoordPair localCoords = new ChunkCoordPair(
-                        columnOffsets.getIntKey() & 31,
-                        columnOffsets.getIntKey() >> 5
-                );
-                ChunkCoordPair columnsCoords = region.getChunk(localCoords.chunkX(), localCoords.chunkZ());
+                int columnIndex = columnOffsets.getIntKey();
+                ChunkCoordPair columnsCoords = region.getChunk(columnIndex & 31, columnIndex >> 5);
 
                 // Ignore if this column shouldn't be processed
                 if (!converter.shouldProcessColumn(dimension, columnsCoords)) continue;
 
+                // Sort by the offset in the first file containing the column, followed by the index
+                int sortOffset = 0;
+                for (int offset : columnOffsets.getValue()) {
+                    if (offset > 0) {
+                        sortOffset = offset;
+                        break;
+                    }
+                }
+                sortedColumns[columnCount++] = ((long) sortOffset << 10) | columnIndex;
+            }
+            Arrays.sort(sortedColumns, 0, columnCount);
+            int[] columnIndexes = new int[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                columnIndexes[i] = (int) (sortedColumns[i] & 1023);
+            }
+
+            // Stage 3. Read ahead the sectors used by the columns as large sequential reads
+            for (MCAReader mcaReader : mcaReaders) {
+                if (mcaReader == null) continue;
+
+                try {
+                    mcaReader.readAhead(columnIndexes);
+                } catch (Exception e) {
+                    // Not fatal as the columns are read individually if they weren't read ahead
+                    converter.logNonFatalException(e);
+                }
+            }
+
+            // Stage 4. Iterate found columns in storage order, lookup each one and combine the results
+            for (int columnIndex : columnIndexes) {
+                int[] columnOffsets = positionsToOffsets.get(columnIndex);
+                ChunkCoordPair columnsCoords = region.getChunk(columnIndex & 31, columnIndex >> 5);
+
                 // Iterate through each region file
                 List<Task<CompoundTag>> decompressingTasks = new ArrayList<>(regionFilesCount);
                 List<Integer> decompressingTasksIndexes = new ArrayList<>(regionFilesCount);
@@ -247,7 +294,7 @@ public class JavaWorldReader implements WorldReader {
                     if (mcaReader == null) continue;
 
                     // Get the column offset specific for this region file
-                    int offset = columnOffsets.getValue()[regionFileIndex];
+                    int offset = columnOffsets[regionFileIndex];
                     if (offset <= 0) continue; // Skip if it's 0 or less as that indicates it's not used in this file
 
                     try {
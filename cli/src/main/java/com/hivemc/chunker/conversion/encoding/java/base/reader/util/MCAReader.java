@@ -2,26 +2,63 @@ package com.hivemc.chunker.conversion.encoding.java.base.reader.util;
 
 import com.hivemc.chunker.conversion.encoding.base.Converter;
 import com.hivemc.chunker.conversion.intermediate.column.chunk.ChunkCoordPair;
+import com.hivemc.chunker.nbt.TagFilter;
 import com.hivemc.chunker.nbt.io.Reader;
 import com.hivemc.chunker.nbt.tags.Tag;
 import com.hivemc.chunker.nbt.tags.collection.CompoundTag;
 import com.hivemc.chunker.scheduling.task.Task;
 import com.hivemc.chunker.scheduling.task.TaskWeight;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 
 /**
  * Utility for reading Java .mca files.
+ * <p>
+ * The file can either be read using seeks on a RandomAccessFile or be memory-mapped. When memory-mapped, each column is
+ * handed to the decompressor as a slice of the mapping, so no seeks or copies are needed and columns can be sliced in
+ * parallel.
+ * <p>
+ * Columns are stored in the order they were written rather than the header order, so {@link #readAhead(int[])} can be
+ * used before reading the columns to fetch them in sector order, merging adjacent sectors into large sequential reads.
  */
 public class MCAReader implements AutoCloseable {
+    /**
+     * The maximum number of sectors to read at once when reading ahead (1MiB).
+     */
+    public static final int MAX_READ_AHEAD_SECTORS = 256;
+
+    /**
+     * The maximum number of unused sectors between two columns for them to be merged into one read.
+     */
+    public static final int MAX_READ_AHEAD_GAP_SECTORS = 2;
+
     private final Converter converter;
+    @Nullable
+    private final TagFilter filter;
     private final File folder;
+    @Nullable
     private final RandomAccessFile randomAccessFile;
+    @Nullable
     private final Reader reader;
+    @Nullable
+    private final MappedByteBuffer mapped;
+    private final int[] offsets = new int[1024];
+    private final int[] sectorCounts = new int[1024];
+    private final Int2ObjectMap<ByteBuffer> readAheadColumns = new Int2ObjectOpenHashMap<>();
+    private int readOperations;
 
     /**
      * Create a new MCAReader (must be closed after).
@@ -32,9 +69,93 @@ public class MCAReader implements AutoCloseable {
      */
     public MCAReader(Converter converter, File file) throws FileNotFoundException {
         this.converter = converter;
+        filter = null;
         folder = file.getParentFile();
         randomAccessFile = new RandomAccessFile(file, "r");
         reader = Reader.toJavaReader(randomAccessFile);
+        mapped = null;
+    }
+
+    /**
+     * Create a new MCAReader (must be closed after).
+     *
+     * @param converter    the converter instance.
+     * @param file         the mca file to read.
+     * @param memoryMapped whether the file should be memory-mapped, if mapping fails the file is read using seeks.
+     * @throws FileNotFoundException if the file wasn't present.
+     */
+    public MCAReader(Converter converter, File file, boolean memoryMapped) throws FileNotFoundException {
+        this(converter, file, memoryMapped, null);
+    }
+
+    /**
+     * Create a new MCAReader (must be closed after).
+     *
+     * @param converter    the converter instance.
+     * @param file         the mca file to read.
+     * @param memoryMapped whether the file should be memory-mapped, if mapping fails the file is read using seeks.
+     * @param filter       the filter used when decoding columns to skip unused tags, null to decode everything.
+     * @throws FileNotFoundException if the file wasn't present.
+     */
+    public MCAReader(Converter converter, File file, boolean memoryMapped, @Nullable TagFilter filter) throws FileNotFoundException {
+        this.converter = converter;
+        this.filter = filter;
+        folder = file.getParentFile();
+
+        // Try to map the file, the mapping stays valid after the channel is closed
+        MappedByteBuffer mappedFile = null;
+        if (memoryMapped) {
+            mappedFile = map(file);
+        }
+
+        // Fallback to using a RandomAccessFile
+        if (mappedFile == null) {
+            randomAccessFile = new RandomAccessFile(file, "r");
+            reader = Reader.toJavaReader(randomAccessFile);
+        } else {
+            randomAccessFile = null;
+            reader = null;
+        }
+        mapped = mappedFile;
+    }
+
+    /**
+     * Memory-map a whole region file, the used sectors are loaded by {@link #readAhead(int[])}.
+     *
+     * @param file the file to map.
+     * @return the mapped buffer or null if the file couldn't be mapped.
+     * @throws FileNotFoundException if the file wasn't present.
+     */
+    @Nullable
+    private static MappedByteBuffer map(File file) throws FileNotFoundException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) return null; // Too big to map as one buffer
+
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        } catch (NoSuchFileException e) {
+            throw new FileNotFoundException(file.getPath());
+        } catch (IOException | UnsupportedOperationException e) {
+            return null; // Mapping isn't available, the caller falls back to seeking
+        }
+    }
+
+    /**
+     * Whether this reader is reading from a memory-mapped file.
+     *
+     * @return true if memory-mapped.
+     */
+    public boolean isMemoryMapped() {
+        return mapped != null;
+    }
+
+    /**
+     * Get the number of reads which have been issued to the file (seeking mode only).
+     *
+     * @return the number of reads.
+     */
+    public int getReadOperations() {
+        return readOperations;
     }
 
     /**
@@ -44,11 +165,15 @@ public class MCAReader implements AutoCloseable {
      * @throws IOException if it failed to read the offset table.
      */
     public int[] readOffsetTable() throws IOException {
-        int[] offsets = new int[1024];
-
         // Read into temporary buffer
         byte[] temp = new byte[4096];
-        reader.readBytes(temp);
+        if (mapped != null) {
+            if (mapped.capacity() < temp.length) throw new IOException("Region file is smaller than the header");
+            mapped.get(0, temp);
+        } else {
+            reader.readBytes(temp);
+            readOperations++;
+        }
 
         // Read the header which contains the chunk offsets
         for (int i = 0; i < 1024; i++) {
@@ -56,15 +181,107 @@ public class MCAReader implements AutoCloseable {
             int offset = ((temp[tempIndex] & 0xFF) << 16) |
                     ((temp[tempIndex + 1] & 0xFF) << 8) |
                     (temp[tempIndex + 2] & 0xFF);
-            // Skip sector count byte (unused, we can validate without it)
+            int sectorCount = temp[tempIndex + 3] & 0xFF;
 
             // Only record the offset if it's more than 0, the first 4096 is the header, so it's invalid to be there
             if (offset > 0) {
                 offsets[i] = offset;
+                sectorCounts[i] = sectorCount;
+            } else {
+                offsets[i] = 0;
+                sectorCounts[i] = 0;
             }
         }
 
-        return offsets;
+        return offsets.clone();
+    }
+
+    /**
+     * Read the sectors of the specified columns ahead of {@link #readColumn(ChunkCoordPair, int)}. The columns are
+     * sorted by their sector offset and adjacent (or nearly adjacent) columns are merged into a single sequential read
+     * of up to {@link #MAX_READ_AHEAD_SECTORS}. When memory-mapped, the pages are touched in the same order so page
+     * faults happen on the calling thread rather than on the threads decompressing the columns.
+     * <p>
+     * The offset table must have been read first, columns which weren't read ahead are read when requested.
+     *
+     * @param columnIndexes the indexes of the columns in the offset table (0-1023).
+     * @throws IOException if it failed to read the file.
+     */
+    public void readAhead(int[] columnIndexes) throws IOException {
+        // Pack the offset and sector count so sorting orders by offset
+        long[] ranges = new long[columnIndexes.length];
+        int count = 0;
+        for (int columnIndex : columnIndexes) {
+            int offset = offsets[columnIndex];
+            int sectorCount = sectorCounts[columnIndex];
+
+            // Oversized columns only use one sector, anything without a count is read when requested
+            if (offset <= 0 || sectorCount <= 0) continue;
+            ranges[count++] = ((long) offset << 32) | sectorCount;
+        }
+        Arrays.sort(ranges, 0, count);
+
+        // Merge the ranges and read them
+        int i = 0;
+        while (i < count) {
+            int start = (int) (ranges[i] >>> 32);
+            int end = start + (int) ranges[i];
+            int next = i + 1;
+            while (next < count) {
+                int nextStart = (int) (ranges[next] >>> 32);
+                int nextEnd = nextStart + (int) ranges[next];
+
+                // Stop merging if there is a large gap or the read would be too big
+                if (nextStart > end + MAX_READ_AHEAD_GAP_SECTORS || Math.max(end, nextEnd) - start > MAX_READ_AHEAD_SECTORS) {
+                    break;
+                }
+                end = Math.max(end, nextEnd);
+                next++;
+            }
+
+            // Read the range and slice each column out of it
+            ByteBuffer range = readSectors(start, end);
+            for (int j = i; j < next; j++) {
+                int columnStart = (int) (ranges[j] >>> 32);
+                int position = (columnStart - start) << 12;
+                if (position >= range.capacity()) continue; // Truncated file, let readColumn report it
+
+                int length = Math.min((int) ranges[j] << 12, range.capacity() - position);
+                readAheadColumns.put(columnStart, range.slice(position, length));
+            }
+            i = next;
+        }
+    }
+
+    /**
+     * Read a range of sectors from the file, the range is shortened if the file ends before the end.
+     *
+     * @param start the first sector.
+     * @param end   the sector after the last sector.
+     * @return a buffer containing the sectors.
+     * @throws IOException if it failed to read the file.
+     */
+    private ByteBuffer readSectors(int start, int end) throws IOException {
+        long position = start * 4096L;
+        if (mapped != null) {
+            int length = (int) Math.max(0, Math.min(end * 4096L, mapped.capacity()) - position);
+
+            if (length == 0) return ByteBuffer.allocate(0);
+
+            // Load the pages of the range in order
+            MappedByteBuffer sectors = mapped.slice((int) position, length);
+            sectors.load();
+            return sectors;
+        } else {
+            int length = (int) Math.max(0, Math.min(end * 4096L, randomAccessFile.length()) - position);
+            byte[] bytes = new byte[length];
+            if (length > 0) {
+                randomAccessFile.seek(position);
+                randomAccessFile.readFully(bytes);
+                readOperations++;
+            }
+            return ByteBuffer.wrap(bytes);
+        }
     }
 
     /**
@@ -76,35 +293,88 @@ public class MCAReader implements AutoCloseable {
      * @throws IOException if it failed to read the .mca file.
      */
     public Task<CompoundTag> readColumn(ChunkCoordPair columnCoordPair, int offset) throws IOException {
-        // Seek to the location of the column (4096 sized chunks)
-        randomAccessFile.seek(offset * 4096L);
+        long position = offset * 4096L;
+        int chunkLength;
+        byte rawType;
+        ByteBuffer compressedColumn;
+        ByteBuffer sectors = readAheadColumns.remove(offset);
+
+        // The sector count in the header may be wrong, in which case the column is read without it
+        if (sectors != null && !containsColumn(sectors)) {
+            sectors = null;
+        }
+        if (sectors == null && mapped != null) {
+            // Validate the column is inside the file
+            if (position + 5 > mapped.capacity()) {
+                throw new IOException("Column %s is outside of the region file".formatted(columnCoordPair));
+            }
+            sectors = mapped.slice((int) position, mapped.capacity() - (int) position);
+            if (!containsColumn(sectors)) {
+                throw new IOException("Column %s has an invalid length %d".formatted(columnCoordPair, sectors.getInt(0) - 1));
+            }
+        }
+
+        // Slice the column from the read ahead / mapped sectors
+        if (sectors != null) {
+            chunkLength = sectors.getInt(0) - 1; // Minus 1 as it includes compression type
+            rawType = sectors.get(4);
 
-        int chunkLength = reader.readInt() - 1; // Minus 1 as it includes compression type
+            // Slice the column, this doesn't copy any data
+            if ((rawType & 0x80) == 0) {
+                if (chunkLength < 0) {
+                    throw new IOException("Column %s has an invalid length %d".formatted(columnCoordPair, chunkLength));
+                }
+                compressedColumn = sectors.slice(5, chunkLength);
+            } else {
+                compressedColumn = null;
+            }
+        } else {
+            // Seek to the location of the column (4096 sized chunks)
+            randomAccessFile.seek(position);
+            readOperations++;
+            chunkLength = reader.readInt() - 1; // Minus 1 as it includes compression type
+            rawType = reader.readByte();
+
+            // Read bytes for later processing
+            if ((rawType & 0x80) == 0) {
+                byte[] bytes = new byte[chunkLength];
+                reader.readBytes(bytes);
+                compressedColumn = ByteBuffer.wrap(bytes);
+            } else {
+                compressedColumn = null;
+            }
+        }
 
         // Check compression type
-        byte rawType = reader.readByte();
         byte compressionType = (byte) (rawType & ~0x80);
 
-        byte[] compressedColumn;
         // Check for oversized chunks (external files)
-        if ((rawType & 0x80) != 0) {
+        if (compressedColumn == null) {
             // Read the external file
             File file = new File(folder, "c." + columnCoordPair.chunkX() + "." + columnCoordPair.chunkZ() + ".mcc");
-            compressedColumn = Files.readAllBytes(file.toPath());
-        } else {
-            // Read bytes for later processing
-            compressedColumn = new byte[chunkLength];
-            reader.readBytes(compressedColumn);
+            compressedColumn = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
         }
 
         // Make a task to do the decompression, this is allowed async as we don't need to do any more sync operations
+        ByteBuffer column = compressedColumn;
         return Task.async(
                 "Decompressing column data",
                 TaskWeight.HIGH,
-                () -> decompressColumn(columnCoordPair, compressionType, compressedColumn)
+                () -> decompressColumn(columnCoordPair, compressionType, column)
         );
     }
 
+    /**
+     * Check whether a buffer starting at a column contains all the data for the column.
+     *
+     * @param sectors the sectors starting with the column.
+     * @return true if the column length fits inside the buffer (or it's stored in an external file).
+     */
+    private static boolean containsColumn(ByteBuffer sectors) {
+        if (sectors.capacity() < 5) return false;
+        return (sectors.get(4) & 0x80) != 0 || sectors.getInt(0) - 1 <= sectors.capacity() - 5;
+    }
+
     /**
      * Decompress a column.
      *
@@ -114,15 +384,12 @@ public class MCAReader implements AutoCloseable {
      * @return the decompressed compound tag.
      * @throws IOException if it failed to decompress / read.
      */
-    protected CompoundTag decompressColumn(ChunkCoordPair chunkCoordPair, byte compressionType, byte[] compressedColumn) throws IOException {
+    protected CompoundTag decompressColumn(ChunkCoordPair chunkCoordPair, byte compressionType, ByteBuffer compressedColumn) throws IOException {
         try {
             // LZ4 was added in 1.20.5, but there is no harm supporting it here
             return switch (compressionType) {
                 case 0 -> null; // Empty
-                case 1 -> Tag.readGZipJavaNBT(compressedColumn); // GZip
-                case 2 -> Tag.readZLibJavaNBT(compressedColumn); // Deflate - Default
-                case 3 -> Tag.readUncompressedJavaNBT(compressedColumn);// Uncompressed
-                case 4 -> Tag.readLZ4JavaNBT(compressedColumn); // LZ4
+                case 1, 2, 3, 4 -> Tag.readCompressedJavaNBT(compressionType, compressedColumn, filter); // GZip, Deflate, Uncompressed, LZ4
                 default -> {
                     converter.logNonFatalException(new Exception("Unsupported Chunk Compression Type " + compressionType));
                     yield null;
@@ -135,6 +402,9 @@ public class MCAReader implements AutoCloseable {
 
     @Override
     public void close() throws IOException {
-        randomAccessFile.close();
+        // Mapped files are released when the buffer (and any slices still being decompressed) are garbage collected
+        if (randomAccessFile != null) {
+            randomAccessFile.close();
+        }
     }
 }
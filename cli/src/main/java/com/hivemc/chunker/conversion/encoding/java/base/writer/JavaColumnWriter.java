@@ -9,6 +9,7 @@ import com.hivemc.chunker.conversion.intermediate.column.ChunkerColumn;
 import com.hivemc.chunker.conversion.intermediate.column.biome.ChunkerBiome;
 import com.hivemc.chunker.conversion.intermediate.column.blockentity.BlockEntity;
 import com.hivemc.chunker.conversion.intermediate.column.chunk.ChunkerChunk;
+import com.hivemc.chunker.conversion.intermediate.column.chunk.RegionCoordPair;
 import com.hivemc.chunker.conversion.intermediate.column.chunk.identifier.ChunkerBlockIdentifier;
 import com.hivemc.chunker.conversion.intermediate.column.chunk.identifier.type.block.ChunkerVanillaBlockType;
 import com.hivemc.chunker.conversion.intermediate.column.entity.Entity;
@@ -25,6 +26,7 @@ import com.hivemc.chunker.nbt.tags.array.IntArrayTag;
 import com.hivemc.chunker.nbt.tags.collection.CompoundTag;
 import com.hivemc.chunker.nbt.tags.collection.ListTag;
 import com.hivemc.chunker.scheduling.task.FutureTask;
+import com.hivemc.chunker.scheduling.task.ProgressiveTask;
 import com.hivemc.chunker.scheduling.task.Task;
 import com.hivemc.chunker.scheduling.task.TaskWeight;
 import com.hivemc.chunker.util.BlockPosition;
@@ -38,6 +40,18 @@ import java.util.*;
  * A java column writer.
  */
 public class JavaColumnWriter implements ColumnWriter {
+    /**
+     * The weight of writing the column NBT, the combined weight of the height map, biomes, entities, block entities and
+     * chunks.
+     */
+    protected static final TaskWeight WRITING_NBT_WEIGHT = TaskWeight.combine(
+            TaskWeight.NORMAL,
+            TaskWeight.NORMAL,
+            TaskWeight.HIGH,
+            TaskWeight.HIGH,
+            TaskWeight.HIGHER
+    );
+
     protected final JavaWorldWriter parent;
     protected final Converter converter;
     protected final JavaResolvers resolvers;
@@ -58,6 +72,18 @@ public class JavaColumnWriter implements ColumnWriter {
         this.dimension = dimension;
     }
 
+    @Override
+    public void flushRegion(RegionCoordPair regionCoordPair) {
+        // Write the assembled region files
+        parent.flushRegion(dimension, regionCoordPair);
+    }
+
+    @Override
+    public void queueColumn(ChunkerColumn chunkerColumn) {
+        // The column and the POI are written separately, the region is only flushed once both are done
+        parent.addQueuedWrites(dimension, chunkerColumn.getPosition().getRegion(), 2);
+    }
+
     @Override
     public void writeColumn(ChunkerColumn chunkerColumn) throws Exception {
         CompoundTag root = new CompoundTag();
@@ -78,22 +104,36 @@ public class JavaColumnWriter implements ColumnWriter {
             chunk.setPalette(chunk.getPalette().compact(ChunkerBlockIdentifier.AIR));
         });
 
-        // Write the chunk to NBT
-        ArrayList<Task<TagWithName<?>>> processing = new ArrayList<>();
-        processing.add(Task.async("Writing HeightMap", TaskWeight.NORMAL, this::writeHeightMap, chunkerColumn));
-        processing.add(Task.async("Writing Biomes", TaskWeight.NORMAL, this::writeBiomes, chunkerColumn));
-        processing.add(Task.async("Writing Entities", TaskWeight.HIGH, this::writeEntities, chunkerColumn));
-        processing.add(Task.async("Writing Block Entities", TaskWeight.HIGH, this::writeBlockEntities, chunkerColumn));
-        processing.add(Task.async("Writing Chunks", TaskWeight.HIGHER, this::writeChunks, chunkerColumn));
+        // Write the chunk to NBT, the parts are small so they're written as one task (the chunks are still async)
+        ProgressiveTask<List<TagWithName<?>>> processing = Task.async("Writing Column NBT", WRITING_NBT_WEIGHT, () -> Arrays.asList(
+                writeHeightMap(chunkerColumn),
+                writeBiomes(chunkerColumn),
+                writeEntities(chunkerColumn),
+                writeBlockEntities(chunkerColumn),
+                writeChunks(chunkerColumn)
+        ));
 
         // Write POI
-        Task.asyncConsume("Writing POI", TaskWeight.LOW, this::writePOI, chunkerColumn);
+        RegionCoordPair region = chunkerColumn.getPosition().getRegion();
+        Task.async("Writing POI", TaskWeight.LOW, () -> {
+            try {
+                writePOI(chunkerColumn);
+            } finally {
+                parent.completeQueuedWrite(dimension, region);
+            }
+        });
 
         // When they're done apply post-processing
-        Task.join(processing)
+        processing
                 .thenConsume("Combining NBT", TaskWeight.LOW, (result) -> combineNBT(root, result))
                 .then("Post-processing column", TaskWeight.HIGH, () -> postProcessColumn(chunkerColumn, root))
-                .then("Writing column NBT", TaskWeight.LOW, () -> writeNBT(chunkerColumn, root));
+                .then("Writing column NBT", TaskWeight.LOW, () -> {
+                    try {
+                        writeNBT(chunkerColumn, root);
+                    } finally {
+                        parent.completeQueuedWrite(dimension, region);
+                    }
+                });
     }
 
     @Override
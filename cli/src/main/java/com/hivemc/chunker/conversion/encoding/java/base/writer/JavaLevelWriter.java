@@ -45,6 +45,8 @@ public class JavaLevelWriter implements LevelWriter, JavaReaderWriter {
     protected final Converter converter;
     protected final JavaResolvers resolvers;
     protected final File dataFolder;
+    @Nullable
+    protected volatile JavaWorldWriter worldWriter;
 
     /**
      * Create a new java level writer.
@@ -81,7 +83,18 @@ public class JavaLevelWriter implements LevelWriter, JavaReaderWriter {
         Task.asyncConsume("Writing Level Data", TaskWeight.NORMAL, this::writeLevelData, chunkerLevel);
 
         // Create a new world writer with the created worldData
-        return createWorldWriter();
+        worldWriter = createWorldWriter();
+        return worldWriter;
+    }
+
+    @Override
+    public void free() throws Exception {
+        // Ensure the region files are closed, even if the conversion was cancelled
+        JavaWorldWriter worldWriter = this.worldWriter;
+        if (worldWriter != null) {
+            this.worldWriter = null;
+            worldWriter.free();
+        }
     }
 
     /**
@@ -3,32 +3,56 @@ package com.hivemc.chunker.conversion.encoding.java.base.writer;
 import com.hivemc.chunker.conversion.encoding.base.Converter;
 import com.hivemc.chunker.conversion.encoding.base.writer.ColumnWriter;
 import com.hivemc.chunker.conversion.encoding.base.writer.WorldWriter;
+import com.hivemc.chunker.conversion.encoding.java.JavaCompression;
 import com.hivemc.chunker.conversion.encoding.java.base.reader.JavaLevelReader;
 import com.hivemc.chunker.conversion.encoding.java.base.resolver.JavaResolvers;
+import com.hivemc.chunker.conversion.encoding.java.base.writer.util.MCAWriter;
+import com.hivemc.chunker.conversion.encoding.java.base.writer.util.RegionFileCache;
 import com.hivemc.chunker.conversion.intermediate.column.chunk.ChunkCoordPair;
+import com.hivemc.chunker.conversion.intermediate.column.chunk.RegionCoordPair;
 import com.hivemc.chunker.conversion.intermediate.world.ChunkerWorld;
 import com.hivemc.chunker.conversion.intermediate.world.Dimension;
 import com.hivemc.chunker.nbt.io.Writer;
 import com.hivemc.chunker.nbt.tags.Tag;
 import com.hivemc.chunker.nbt.tags.collection.CompoundTag;
+import com.hivemc.chunker.scheduling.task.Task;
+import com.hivemc.chunker.scheduling.task.TaskWeight;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
 
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.file.Files;
+import java.util.Comparator;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * A writer for Java worlds.
  */
 public class JavaWorldWriter implements WorldWriter {
     public static final int OVERSIZED_THRESHOLD = 4096 * 256;
+    /**
+     * The maximum number of compressed bytes to hold for regions which haven't been flushed, once reached the largest
+     * region is written early and any later columns for it are appended to the file.
+     */
+    public static final long MAX_PENDING_BYTES = 256L << 20;
     protected final File outputFolder;
     protected final Converter converter;
     protected final JavaResolvers resolvers;
-    protected final Map<File, RandomAccessFile> mcaFiles = new ConcurrentHashMap<>();
+    protected final JavaCompression compression;
+    protected final int compressionLevel;
+    protected final RegionFileCache mcaFiles = new RegionFileCache(RegionFileCache.DEFAULT_MAX_OPEN_FILES);
+    protected final Map<File, MCAWriter> pendingRegions = new ConcurrentHashMap<>();
+    private final AtomicLong pendingBytes = new AtomicLong();
+    // The number of column writes each region is waiting on and the regions which were flushed while still waiting
+    private final Object2IntMap<QueuedRegion> queuedWrites = new Object2IntOpenHashMap<>();
+    private final Set<QueuedRegion> deferredFlushes = new ObjectOpenHashSet<>();
+    private final Object[] fileLocks = new Object[64];
 
     /**
      * Create a new java writer.
@@ -41,6 +65,38 @@ public class JavaWorldWriter implements WorldWriter {
         this.outputFolder = outputFolder;
         this.converter = converter;
         this.resolvers = resolvers;
+
+        // Use the requested compression if the output version can read it
+        JavaCompression compression = converter.getJavaCompression();
+        if (!supportsCompression(compression)) {
+            converter.logDebug("Output version doesn't support " + compression + " compression, using ZLIB");
+            compression = JavaCompression.ZLIB;
+        }
+        this.compression = compression;
+        this.compressionLevel = converter.getJavaCompressionLevel();
+
+        for (int i = 0; i < fileLocks.length; i++) {
+            fileLocks[i] = new Object();
+        }
+    }
+
+    /**
+     * Whether the output version can read region files using a compression.
+     *
+     * @param compression the compression to check.
+     * @return true if the compression is supported, only ZLib is supported by default.
+     */
+    protected boolean supportsCompression(JavaCompression compression) {
+        return compression == JavaCompression.ZLIB;
+    }
+
+    /**
+     * Get the compression which is used for columns written to region files.
+     *
+     * @return the compression.
+     */
+    public JavaCompression getCompression() {
+        return compression;
     }
 
     @Override
@@ -60,14 +116,35 @@ public class JavaWorldWriter implements WorldWriter {
 
     @Override
     public void flushWorlds() throws IOException {
-        for (RandomAccessFile randomAccessFile : mcaFiles.values()) {
-            try {
-                randomAccessFile.close();
-            } catch (Exception e) {
-                // Log it but not much we can do
-                converter.logNonFatalException(e);
-            }
+        // Write any regions which were never flushed
+        for (MCAWriter mcaWriter : pendingRegions.values()) {
+            if (!pendingRegions.remove(mcaWriter.getFile(), mcaWriter)) continue;
+            pendingBytes.addAndGet(-mcaWriter.getSize());
+            writeRegion(mcaWriter);
+        }
+
+        try {
+            mcaFiles.close();
+        } catch (Exception e) {
+            // Log it but not much we can do
+            converter.logNonFatalException(e);
+        }
+    }
+
+    /**
+     * Release any resources held by the writer, this is called when the conversion completes or is cancelled.
+     * Regions which haven't been flushed are discarded.
+     *
+     * @throws IOException if it failed to close a region file.
+     */
+    public void free() throws IOException {
+        synchronized (queuedWrites) {
+            queuedWrites.clear();
+            deferredFlushes.clear();
         }
+        pendingRegions.clear();
+        pendingBytes.set(0);
+        mcaFiles.close();
     }
 
     /**
@@ -113,11 +190,147 @@ public class JavaWorldWriter implements WorldWriter {
      * @throws Exception if it failed to write the data.
      */
     protected void writeMCAData(File file, ChunkCoordPair chunkCoordPair, CompoundTag chunkData) throws Exception {
-        // TODO: Close MCA files on crash to prevent holding resources
+        // Compress the chunk (CPU work is done on the current worker)
+        byte[] bytes = Tag.writeCompressedJavaNBT(compression.getId(), compressionLevel, chunkData);
+
+        // Add the bytes to the region being assembled, it's written when the region is flushed
+        long[] added = new long[1];
+        pendingRegions.compute(file, (target, mcaWriter) -> {
+            if (mcaWriter == null) {
+                mcaWriter = new MCAWriter(target, chunkCoordPair.getRegion(), compression.getId());
+            }
+            added[0] = mcaWriter.addColumn(chunkCoordPair, bytes);
+            return mcaWriter;
+        });
 
-        // Convert the chunk to zlib bytes
-        byte[] bytes = Tag.writeZLibJavaNBT(chunkData);
-        long columnLookupOffset = ((chunkCoordPair.chunkX() & 31) + ((chunkCoordPair.chunkZ() & 31) << 5)) << 2;
+        // Write the largest region early if too much is being held
+        if (pendingBytes.addAndGet(added[0]) > MAX_PENDING_BYTES) {
+            pendingRegions.values().stream()
+                    .max(Comparator.comparingLong(MCAWriter::getSize))
+                    .ifPresent(this::scheduleRegionWrite);
+        }
+    }
+
+    /**
+     * Add column writes which a region should wait for before it is flushed.
+     *
+     * @param dimension the dimension of the region.
+     * @param region    the region co-ordinates.
+     * @param writes    the number of writes to wait for, each should be completed with
+     *                  {@link #completeQueuedWrite(Dimension, RegionCoordPair)}.
+     */
+    public void addQueuedWrites(Dimension dimension, RegionCoordPair region, int writes) {
+        synchronized (queuedWrites) {
+            queuedWrites.mergeInt(new QueuedRegion(dimension, region), writes, Integer::sum);
+        }
+    }
+
+    /**
+     * Mark a queued column write as complete, if the region was flushed while waiting on it and this was the last
+     * write the region is now flushed.
+     *
+     * @param dimension the dimension of the region.
+     * @param region    the region co-ordinates.
+     */
+    public void completeQueuedWrite(Dimension dimension, RegionCoordPair region) {
+        QueuedRegion queuedRegion = new QueuedRegion(dimension, region);
+        synchronized (queuedWrites) {
+            int remaining = queuedWrites.mergeInt(queuedRegion, -1, Integer::sum);
+            if (remaining > 0) return;
+
+            queuedWrites.removeInt(queuedRegion);
+            if (!deferredFlushes.remove(queuedRegion)) return;
+        }
+        writeAssembledRegions(dimension, region);
+    }
+
+    /**
+     * Flush the regions which have been assembled for a region co-ordinate in a dimension. If column writes are still
+     * queued for the region, the regions are written once the last of them completes.
+     *
+     * @param dimension the dimension of the region.
+     * @param region    the region co-ordinates.
+     */
+    public void flushRegion(Dimension dimension, RegionCoordPair region) {
+        QueuedRegion queuedRegion = new QueuedRegion(dimension, region);
+        synchronized (queuedWrites) {
+            if (queuedWrites.containsKey(queuedRegion)) {
+                deferredFlushes.add(queuedRegion);
+                return;
+            }
+        }
+        writeAssembledRegions(dimension, region);
+    }
+
+    /**
+     * Write the regions which have been assembled for a region co-ordinate in a dimension.
+     *
+     * @param dimension the dimension of the region.
+     * @param region    the region co-ordinates.
+     */
+    protected void writeAssembledRegions(Dimension dimension, RegionCoordPair region) {
+        File baseDirectory = JavaLevelReader.getDimensionBaseDirectory(outputFolder, dimension);
+        for (MCAWriter mcaWriter : pendingRegions.values()) {
+            // Region files are always in a sub-folder of the dimension (e.g. region, entities, poi)
+            if (!mcaWriter.getRegion().equals(region)) continue;
+            if (!baseDirectory.equals(mcaWriter.getFile().getParentFile().getParentFile())) continue;
+
+            scheduleRegionWrite(mcaWriter);
+        }
+    }
+
+    /**
+     * Remove an assembled region from the pending regions and write it using the I/O lane.
+     *
+     * @param mcaWriter the assembled region.
+     */
+    protected void scheduleRegionWrite(MCAWriter mcaWriter) {
+        // Only schedule if this call removed it, another thread may already be writing it
+        if (!pendingRegions.remove(mcaWriter.getFile(), mcaWriter)) return;
+        pendingBytes.addAndGet(-mcaWriter.getSize());
+        Task.asyncIO("Writing region file", TaskWeight.LOW, () -> writeRegion(mcaWriter));
+    }
+
+    /**
+     * Write an assembled region to the disk. If the file already exists (e.g. the region was written early) the
+     * columns are appended to it instead.
+     *
+     * @param mcaWriter the assembled region.
+     * @throws IOException if it failed to write the data.
+     */
+    protected void writeRegion(MCAWriter mcaWriter) throws IOException {
+        File file = mcaWriter.getFile();
+        synchronized (fileLocks[Math.floorMod(file.hashCode(), fileLocks.length)]) {
+            if (!file.exists()) {
+                mcaWriter.write();
+                return;
+            }
+
+            // Append each column to the existing file
+            try {
+                for (int i = 0; i < 1024; i++) {
+                    byte[] bytes = mcaWriter.getColumn(i);
+                    if (bytes == null) continue;
+                    writeMCABytes(file, mcaWriter.getRegion().getChunk(i & 31, i >> 5), mcaWriter.getCompressionType(), bytes);
+                }
+            } finally {
+                // The region is done, so don't hold the file open
+                mcaFiles.close(file);
+            }
+        }
+    }
+
+    /**
+     * Append compressed MCA data to an existing file on the disk.
+     *
+     * @param file            file to write data to.
+     * @param chunkCoordPair  the chunk being written.
+     * @param compressionType the compression type of the bytes (2 = ZLib, 3 = Uncompressed, 4 = LZ4).
+     * @param bytes           the compressed NBT for the chunk.
+     * @throws IOException if it failed to write the data.
+     */
+    protected void writeMCABytes(File file, ChunkCoordPair chunkCoordPair, int compressionType, byte[] bytes) throws IOException {
+        long columnLookupOffset = MCAWriter.getIndex(chunkCoordPair) << 2;
 
         // Check whether an oversized file should be used
         boolean oversized = bytes.length >= OVERSIZED_THRESHOLD;
@@ -132,43 +345,42 @@ public class JavaWorldWriter implements WorldWriter {
         // sectorCount = bytes.length + length header + compression type
         int sectorCount = oversized ? 1 : (int) Math.ceil((bytes.length + 5) / 4096D);
 
-        // Compute the file
-        RandomAccessFile randomAccessFile = mcaFiles.computeIfAbsent(file, (target) -> {
-            try {
-                return new RandomAccessFile(target, "rw");
-            } catch (FileNotFoundException e) {
-                throw new RuntimeException(e);
-            }
-        });
+        // Get the open file, retrying if it was closed by the cache before the lock was acquired
+        while (true) {
+            RandomAccessFile randomAccessFile = mcaFiles.open(file);
 
-        // We'll need to use locks to ensure we're not writing two columns at once
-        synchronized (randomAccessFile) {
-            Writer writer = Writer.toJavaWriter(randomAccessFile);
-
-            // Start by writing the data at the end (ensure we don't write in the header space)
-            randomAccessFile.seek(Math.max(8192, randomAccessFile.length()));
-
-            // Get the current position, so it can be used to know the sector
-            long position = randomAccessFile.getFilePointer();
-            int sectorPosition = (int) (position >> 12);
-
-            // Write the data with length/type
-            if (oversized) {
-                writer.writeInt(1); // 1 for compression type
-                writer.writeByte(0x80 | 2); // External file byte + ZLib compression = 2
-            } else {
-                writer.writeInt(bytes.length + 1); // size + 1 for compression type
-                writer.writeByte(2); // ZLib compression = 2
-                writer.writeBytes(bytes);
-            }
+            // We'll need to use locks to ensure we're not writing two columns at once
+            synchronized (randomAccessFile) {
+                if (!randomAccessFile.getChannel().isOpen()) continue;
+
+                Writer writer = Writer.toJavaWriter(randomAccessFile);
+
+                // Start by writing the data at the end (ensure we don't write in the header space)
+                randomAccessFile.seek(Math.max(8192, randomAccessFile.length()));
 
-            // Write any needed padding so file can be looked up in 4kb sectors
-            randomAccessFile.setLength((long) (sectorPosition + sectorCount) << 12);
+                // Get the current position, so it can be used to know the sector
+                long position = randomAccessFile.getFilePointer();
+                int sectorPosition = (int) (position >> 12);
 
-            // Write the location of our data + sector count to the right place
-            randomAccessFile.seek(columnLookupOffset);
-            writer.writeUnsignedInt24(sectorPosition);
-            writer.writeByte(sectorCount);
+                // Write the data with length/type
+                if (oversized) {
+                    writer.writeInt(1); // 1 for compression type
+                    writer.writeByte(0x80 | compressionType); // External file byte + compression type
+                } else {
+                    writer.writeInt(bytes.length + 1); // size + 1 for compression type
+                    writer.writeByte(compressionType);
+                    writer.writeBytes(bytes);
+                }
+
+                // Write any needed padding so file can be looked up in 4kb sectors
+                randomAccessFile.setLength((long) (sectorPosition + sectorCount) << 12);
+
+                // Write the location of our data + sector count to the right place
+                randomAccessFile.seek(columnLookupOffset);
+                writer.writeUnsignedInt24(sectorPosition);
+                writer.writeByte(Math.min(sectorCount, 255));
+                return;
+            }
         }
     }
 
@@ -181,4 +393,13 @@ public class JavaWorldWriter implements WorldWriter {
     public JavaColumnWriter createColumnWriter(Dimension dimension) {
         return new JavaColumnWriter(this, converter, resolvers, dimension);
     }
+
+    /**
+     * A region in a dimension which has queued column writes.
+     *
+     * @param dimension the dimension of the region.
+     * @param region    the region co-ordinates.
+     */
+    private record QueuedRegion(Dimension dimension, RegionCoordPair region) {
+    }
 }
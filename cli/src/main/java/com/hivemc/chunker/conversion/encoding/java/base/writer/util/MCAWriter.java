@@ -0,0 +1,184 @@
+package com.hivemc.chunker.conversion.encoding.java.base.writer.util;
+
+import com.hivemc.chunker.conversion.encoding.java.base.writer.JavaWorldWriter;
+import com.hivemc.chunker.conversion.intermediate.column.chunk.ChunkCoordPair;
+import com.hivemc.chunker.conversion.intermediate.column.chunk.RegionCoordPair;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utility for assembling a Java .mca file in memory. Compressed columns are collected as they are written and the
+ * whole file (header, timestamps and packed sectors) is written using a single sequential gathering write.
+ */
+public class MCAWriter {
+    private static final byte[] PADDING = new byte[4096];
+    private final File file;
+    private final RegionCoordPair region;
+    private final int compressionType;
+    private final byte[][] columns = new byte[1024][];
+    private final int[] timestamps = new int[1024];
+    private long size;
+
+    /**
+     * Create a new MCAWriter.
+     *
+     * @param file            the .mca file which will be written.
+     * @param region          the region the file is for.
+     * @param compressionType the compression type of the columns (2 = ZLib, 3 = Uncompressed, 4 = LZ4).
+     */
+    public MCAWriter(File file, RegionCoordPair region, int compressionType) {
+        this.file = file;
+        this.region = region;
+        this.compressionType = compressionType;
+    }
+
+    /**
+     * Get the file which will be written.
+     *
+     * @return the .mca file.
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Get the region which is being assembled.
+     *
+     * @return the region co-ordinates.
+     */
+    public RegionCoordPair getRegion() {
+        return region;
+    }
+
+    /**
+     * Get the compression type used by the columns.
+     *
+     * @return the region file compression type.
+     */
+    public int getCompressionType() {
+        return compressionType;
+    }
+
+    /**
+     * Get the number of compressed bytes collected so far.
+     *
+     * @return the size in bytes.
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    /**
+     * Add a compressed column, replacing any column previously added at the same position.
+     *
+     * @param chunkCoordPair the chunk being written.
+     * @param bytes          the compressed NBT for the chunk.
+     * @return the change in the number of bytes collected.
+     */
+    public synchronized long addColumn(ChunkCoordPair chunkCoordPair, byte[] bytes) {
+        int index = getIndex(chunkCoordPair);
+        byte[] previous = columns[index];
+        columns[index] = bytes;
+        timestamps[index] = (int) (System.currentTimeMillis() / 1000);
+
+        long delta = bytes.length - (previous == null ? 0 : previous.length);
+        size += delta;
+        return delta;
+    }
+
+    /**
+     * Get a column which has been added.
+     *
+     * @param index the index of the column inside the region (x + z * 32).
+     * @return the compressed NBT or null if the column wasn't added.
+     */
+    @Nullable
+    public synchronized byte[] getColumn(int index) {
+        return columns[index];
+    }
+
+    /**
+     * Write the assembled region, replacing the file if it already exists.
+     *
+     * @throws IOException if it failed to write the file.
+     */
+    public synchronized void write() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(8192);
+        List<ByteBuffer> buffers = new ArrayList<>();
+        buffers.add(header);
+
+        // Lay out the columns in index order after the header
+        int sector = 2;
+        long length = header.capacity();
+        for (int i = 0; i < columns.length; i++) {
+            byte[] bytes = columns[i];
+            if (bytes == null) continue;
+
+            // Write the oversized file data
+            boolean oversized = bytes.length >= JavaWorldWriter.OVERSIZED_THRESHOLD;
+            if (oversized) {
+                ChunkCoordPair chunkCoordPair = region.getChunk(i & 31, i >> 5);
+                File oversizedFile = new File(file.getParent(), "c." + chunkCoordPair.chunkX() + "." + chunkCoordPair.chunkZ() + ".mcc");
+                Files.write(oversizedFile.toPath(), bytes);
+            }
+
+            // Sectors are 4KB blocks
+            // sectorCount = bytes.length + length header + compression type
+            int used = oversized ? 5 : bytes.length + 5;
+            int sectorCount = (used + 4095) >> 12;
+
+            // Write the data with length/type
+            ByteBuffer prefix = ByteBuffer.allocate(5);
+            if (oversized) {
+                prefix.putInt(1); // 1 for compression type
+                prefix.put((byte) (0x80 | compressionType)); // External file byte + compression type
+            } else {
+                prefix.putInt(bytes.length + 1); // size + 1 for compression type
+                prefix.put((byte) compressionType);
+            }
+            buffers.add(prefix.flip());
+            if (!oversized) {
+                buffers.add(ByteBuffer.wrap(bytes));
+            }
+
+            // Pad the column to the end of the sector
+            int padding = (sectorCount << 12) - used;
+            if (padding > 0) {
+                buffers.add(ByteBuffer.wrap(PADDING, 0, padding));
+            }
+
+            // Write the location of our data + sector count (the count is capped as it's a single byte)
+            header.putInt(i << 2, (sector << 8) | Math.min(sectorCount, 255));
+            header.putInt(4096 + (i << 2), timestamps[i]);
+            sector += sectorCount;
+            length += (long) sectorCount << 12;
+        }
+
+        // Write the whole file in one go
+        ByteBuffer[] sources = buffers.toArray(new ByteBuffer[0]);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long written = 0;
+            while (written < length) {
+                written += channel.write(sources);
+            }
+        }
+    }
+
+    /**
+     * Get the index of a column inside the region.
+     *
+     * @param chunkCoordPair the chunk co-ordinates.
+     * @return the index (x + z * 32).
+     */
+    public static int getIndex(ChunkCoordPair chunkCoordPair) {
+        return (chunkCoordPair.chunkX() & 31) + ((chunkCoordPair.chunkZ() & 31) << 5);
+    }
+}
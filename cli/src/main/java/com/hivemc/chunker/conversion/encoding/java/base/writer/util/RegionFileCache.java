@@ -0,0 +1,124 @@
+package com.hivemc.chunker.conversion.encoding.java.base.writer.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * A bounded cache of open region files. When the limit is reached the least recently used file is closed, so the
+ * number of open file descriptors stays constant no matter how many regions are written.
+ * <p>
+ * Files are closed while holding the lock of the RandomAccessFile, so callers should synchronize on the returned file
+ * while using it and check it's still open (as it may have been evicted before the lock was acquired).
+ */
+public class RegionFileCache implements AutoCloseable {
+    /**
+     * The default number of region files which can be open at once.
+     */
+    public static final int DEFAULT_MAX_OPEN_FILES = 32;
+    private final int maxOpenFiles;
+    private final LinkedHashMap<File, RandomAccessFile> files = new LinkedHashMap<>(16, 0.75F, true);
+    private boolean closed;
+
+    /**
+     * Create a new region file cache.
+     *
+     * @param maxOpenFiles the maximum number of files which can be open at once.
+     */
+    public RegionFileCache(int maxOpenFiles) {
+        if (maxOpenFiles < 1) throw new IllegalArgumentException("maxOpenFiles must be at least 1");
+        this.maxOpenFiles = maxOpenFiles;
+    }
+
+    /**
+     * Get the open handle for a file, opening it for reading and writing if needed.
+     *
+     * @param file the file to open.
+     * @return the open RandomAccessFile.
+     * @throws IOException if the file couldn't be opened or the cache has been closed.
+     */
+    public synchronized RandomAccessFile open(File file) throws IOException {
+        if (closed) throw new IOException("Region file cache has been closed");
+
+        RandomAccessFile randomAccessFile = files.get(file);
+        if (randomAccessFile != null) return randomAccessFile;
+
+        // Close the least recently used file if there are too many open
+        if (files.size() >= maxOpenFiles) {
+            Iterator<RandomAccessFile> iterator = files.values().iterator();
+            RandomAccessFile eldest = iterator.next();
+            iterator.remove();
+            close(eldest);
+        }
+
+        randomAccessFile = new RandomAccessFile(file, "rw");
+        files.put(file, randomAccessFile);
+        return randomAccessFile;
+    }
+
+    /**
+     * Close a file if it's open.
+     *
+     * @param file the file to close.
+     * @throws IOException if it failed to close the file.
+     */
+    public void close(File file) throws IOException {
+        RandomAccessFile randomAccessFile;
+        synchronized (this) {
+            randomAccessFile = files.remove(file);
+        }
+        if (randomAccessFile != null) {
+            close(randomAccessFile);
+        }
+    }
+
+    /**
+     * Get the number of files which are currently open.
+     *
+     * @return the number of open files.
+     */
+    public synchronized int getOpenFiles() {
+        return files.size();
+    }
+
+    /**
+     * Close all the open files, any further calls to open will fail.
+     *
+     * @throws IOException if it failed to close a file (all files are still attempted).
+     */
+    @Override
+    public void close() throws IOException {
+        List<RandomAccessFile> openFiles;
+        synchronized (this) {
+            closed = true;
+            openFiles = new ArrayList<>(files.values());
+            files.clear();
+        }
+
+        // Close each file, reporting the first exception
+        IOException exception = null;
+        for (RandomAccessFile randomAccessFile : openFiles) {
+            try {
+                close(randomAccessFile);
+            } catch (IOException e) {
+                if (exception == null) {
+                    exception = e;
+                } else {
+                    exception.addSuppressed(e);
+                }
+            }
+        }
+        if (exception != null) throw exception;
+    }
+
+    private static void close(RandomAccessFile randomAccessFile) throws IOException {
+        // Wait for any write which is using the file to finish
+        synchronized (randomAccessFile) {
+            randomAccessFile.close();
+        }
+    }
+}
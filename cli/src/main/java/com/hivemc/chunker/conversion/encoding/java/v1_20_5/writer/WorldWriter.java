@@ -1,6 +1,7 @@
 package com.hivemc.chunker.conversion.encoding.java.v1_20_5.writer;
 
 import com.hivemc.chunker.conversion.encoding.base.Converter;
+import com.hivemc.chunker.conversion.encoding.java.JavaCompression;
 import com.hivemc.chunker.conversion.encoding.java.base.resolver.JavaResolvers;
 import com.hivemc.chunker.conversion.encoding.java.base.writer.JavaColumnWriter;
 import com.hivemc.chunker.conversion.intermediate.world.Dimension;
@@ -12,6 +13,11 @@ public class WorldWriter extends com.hivemc.chunker.conversion.encoding.java.v1_
         super(outputFolder, converter, resolvers);
     }
 
+    @Override
+    protected boolean supportsCompression(JavaCompression compression) {
+        return compression == JavaCompression.LZ4 || super.supportsCompression(compression);
+    }
+
     @Override
     public JavaColumnWriter createColumnWriter(Dimension dimension) {
         return new ColumnWriter(this, converter, resolvers, dimension);
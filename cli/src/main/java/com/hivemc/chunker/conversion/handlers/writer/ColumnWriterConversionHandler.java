@@ -24,6 +24,8 @@ public class ColumnWriterConversionHandler implements ColumnConversionHandler {
 
     @Override
     public void convertColumn(ChunkerColumn column) {
+        // Queue the column before writing, as the region may be flushed before the write task starts
+        writer.queueColumn(column);
         Task.asyncConsume("Writing Column", TaskWeight.NORMAL, writer::writeColumn, column);
     }
 
@@ -0,0 +1,109 @@
+package com.hivemc.chunker.nbt;
+
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+
+/**
+ * A filter which is used while decoding NBT to skip subtrees which won't be used, excluded tags are skipped over
+ * without being decoded. Paths are made of compound keys starting from the root compound, lists are transparent so
+ * a path applies to every compound inside a list (e.g. "sections", "biomes" skips the biomes of every section).
+ */
+public final class TagFilter {
+    private static final TagFilter EXCLUDED = new TagFilter(Map.of());
+    private final Map<String, TagFilter> children;
+
+    private TagFilter(Map<String, TagFilter> children) {
+        this.children = children;
+    }
+
+    /**
+     * Create a new builder for a filter.
+     *
+     * @return a new empty builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Get the filter to use for a child of the compound this filter applies to.
+     *
+     * @param key the key of the child.
+     * @return the filter to use for the child, null if the child should be decoded without filtering.
+     */
+    @Nullable
+    public TagFilter getChild(String key) {
+        return children.get(key);
+    }
+
+    /**
+     * Whether the tag this filter applies to should be skipped.
+     *
+     * @return true if the tag should be skipped rather than decoded.
+     */
+    public boolean isExcluded() {
+        return this == EXCLUDED;
+    }
+
+    /**
+     * Whether the filter doesn't exclude anything.
+     *
+     * @return true if there are no excluded paths.
+     */
+    public boolean isEmpty() {
+        return children.isEmpty() && !isExcluded();
+    }
+
+    @Override
+    public String toString() {
+        return isExcluded() ? "Excluded" : children.toString();
+    }
+
+    /**
+     * A builder for the paths which should be excluded.
+     */
+    public static class Builder {
+        private final Map<String, Object> root = new Object2ObjectOpenHashMap<>();
+
+        /**
+         * Exclude a path from being decoded.
+         *
+         * @param path the compound keys leading to the excluded tag.
+         * @return this builder.
+         */
+        @SuppressWarnings("unchecked")
+        public Builder exclude(String... path) {
+            if (path.length == 0) throw new IllegalArgumentException("Cannot exclude the root tag");
+            Map<String, Object> current = root;
+            for (int i = 0; i < path.length - 1; i++) {
+                Object child = current.computeIfAbsent(path[i], (ignored) -> new Object2ObjectOpenHashMap<>());
+
+                // The parent has already been excluded
+                if (child == EXCLUDED) return this;
+                current = (Map<String, Object>) child;
+            }
+            current.put(path[path.length - 1], EXCLUDED);
+            return this;
+        }
+
+        /**
+         * Build the filter.
+         *
+         * @return the filter for the root compound.
+         */
+        public TagFilter build() {
+            return build(root);
+        }
+
+        @SuppressWarnings("unchecked")
+        private static TagFilter build(Map<String, Object> node) {
+            Map<String, TagFilter> children = new Object2ObjectOpenHashMap<>(node.size());
+            for (Map.Entry<String, Object> entry : node.entrySet()) {
+                children.put(entry.getKey(), entry.getValue() == EXCLUDED ? EXCLUDED : build((Map<String, Object>) entry.getValue()));
+            }
+            return new TagFilter(children);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.hivemc.chunker.nbt.io;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Implements a reader which decodes straight from a heap or direct ByteBuffer using bulk getters. The position of the
+ * buffer is advanced as values are read, the byte order of the buffer itself is left unchanged.
+ */
+class ByteBufferReader implements Reader {
+    private final ByteBuffer buffer;
+    private final ByteOrder order;
+    private final boolean reverse;
+    private byte[] keyBuffer;
+
+    protected ByteBufferReader(ByteBuffer buffer, ByteOrder order) {
+        this.buffer = buffer;
+        this.order = order;
+
+        // Swap the bytes of values rather than changing the order of the caller's buffer
+        this.reverse = buffer.order() != order;
+    }
+
+    @Override
+    public short readShort() throws IOException {
+        ensureRemaining(2);
+        short value = buffer.getShort();
+        return reverse ? Short.reverseBytes(value) : value;
+    }
+
+    @Override
+    public void readBytes(byte @NotNull [] array) throws IOException {
+        ensureRemaining(array.length);
+        buffer.get(array);
+    }
+
+    @Override
+    public void skipBytes(int length) throws IOException {
+        ensureRemaining(length);
+        buffer.position(buffer.position() + length);
+    }
+
+    @Override
+    public byte readByte() throws IOException {
+        ensureRemaining(1);
+        return buffer.get();
+    }
+
+    @Override
+    public int readUnsignedByte() throws IOException {
+        return readByte() & 0xFF;
+    }
+
+    @Override
+    public int readInt() throws IOException {
+        ensureRemaining(4);
+        int value = buffer.getInt();
+        return reverse ? Integer.reverseBytes(value) : value;
+    }
+
+    @Override
+    public int readUnsignedInt24() throws IOException {
+        ensureRemaining(3);
+        int byte1 = buffer.get() & 0xFF;
+        int byte2 = buffer.get() & 0xFF;
+        int byte3 = buffer.get() & 0xFF;
+        return order == ByteOrder.BIG_ENDIAN ? byte1 << 16 | byte2 << 8 | byte3 : byte3 << 16 | byte2 << 8 | byte1;
+    }
+
+    @Override
+    public long readLong() throws IOException {
+        ensureRemaining(8);
+        long value = buffer.getLong();
+        return reverse ? Long.reverseBytes(value) : value;
+    }
+
+    @Override
+    public float readFloat() throws IOException {
+        return Float.intBitsToFloat(readInt()); // Use our Int method to do this
+    }
+
+    @Override
+    public double readDouble() throws IOException {
+        return Double.longBitsToDouble(readLong()); // Use our Long method to do this
+    }
+
+    @NotNull
+    @Override
+    public String readString(int maxLength) throws IOException {
+        if (!buffer.hasArray()) return Reader.super.readString(maxLength);
+
+        // Decode straight from the backing array rather than copying the bytes first
+        int length = readShort();
+        if (length < 0 || length > maxLength)
+            throw new IllegalArgumentException("Could not read String with length " + length);
+        ensureRemaining(length);
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    @NotNull
+    @Override
+    public String readKey(int maxLength) throws IOException {
+        int length = readShort();
+        if (length < 0 || length > maxLength)
+            throw new IllegalArgumentException("Could not read String with length " + length);
+        ensureRemaining(length);
+
+        // Match the key against the pool using the backing array, direct buffers are copied to a reused array first
+        String value;
+        if (buffer.hasArray()) {
+            value = CompoundKeyPool.get(buffer.array(), buffer.arrayOffset() + buffer.position(), length);
+        } else {
+            if (keyBuffer == null || keyBuffer.length < length) {
+                keyBuffer = new byte[Math.max(length, CompoundKeyPool.MAX_POOLED_LENGTH)];
+            }
+            buffer.get(buffer.position(), keyBuffer, 0, length);
+            value = CompoundKeyPool.get(keyBuffer, 0, length);
+        }
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private void ensureRemaining(int length) throws EOFException {
+        if (buffer.remaining() < length) {
+            throw new EOFException("Needed " + length + " bytes but only " + buffer.remaining() + " remain");
+        }
+    }
+}
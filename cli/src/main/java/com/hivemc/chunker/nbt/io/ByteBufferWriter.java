@@ -0,0 +1,126 @@
+package com.hivemc.chunker.nbt.io;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Implements a writer which encodes straight into a heap or direct ByteBuffer using bulk setters. The position of the
+ * buffer is advanced as values are written, the byte order of the buffer itself is left unchanged.
+ */
+class ByteBufferWriter implements Writer {
+    private final ByteBuffer buffer;
+    private final ByteOrder order;
+    private final boolean reverse;
+
+    protected ByteBufferWriter(ByteBuffer buffer, ByteOrder order) {
+        this.buffer = buffer;
+        this.order = order;
+
+        // Swap the bytes of values rather than changing the order of the caller's buffer
+        this.reverse = buffer.order() != order;
+    }
+
+    @Override
+    public ByteOrder getByteOrder() {
+        return order;
+    }
+
+    @Override
+    public void writeString(@NotNull String value) throws IOException {
+        int length = value.length();
+        if (length > Short.MAX_VALUE) {
+            Writer.super.writeString(value);
+            return;
+        }
+
+        // Write ASCII strings without encoding them to an intermediate array
+        ensureRemaining(2 + length);
+        int start = buffer.position();
+        buffer.position(start + 2);
+        for (int i = 0; i < length; i++) {
+            char character = value.charAt(i);
+            if (character >= 0x80) {
+                // Not ASCII, go back and encode the whole string
+                buffer.position(start);
+                Writer.super.writeString(value);
+                return;
+            }
+            buffer.put((byte) character);
+        }
+        buffer.putShort(start, reverse ? Short.reverseBytes((short) length) : (short) length);
+    }
+
+    @Override
+    public void writeShort(short value) throws IOException {
+        ensureRemaining(2);
+        buffer.putShort(reverse ? Short.reverseBytes(value) : value);
+    }
+
+    @Override
+    public void writeBytes(byte[] value) throws IOException {
+        ensureRemaining(value.length);
+        buffer.put(value);
+    }
+
+    @Override
+    public void writeBytes(byte[] value, int offset, int length) throws IOException {
+        ensureRemaining(length);
+        buffer.put(value, offset, length);
+    }
+
+    @Override
+    public void writeByte(byte value) throws IOException {
+        ensureRemaining(1);
+        buffer.put(value);
+    }
+
+    @Override
+    public void writeByte(int value) throws IOException {
+        writeByte((byte) value);
+    }
+
+    @Override
+    public void writeInt(int value) throws IOException {
+        ensureRemaining(4);
+        buffer.putInt(reverse ? Integer.reverseBytes(value) : value);
+    }
+
+    @Override
+    public void writeUnsignedInt24(int value) throws IOException {
+        ensureRemaining(3);
+        if (order == ByteOrder.BIG_ENDIAN) {
+            buffer.put((byte) (value >> 16));
+            buffer.put((byte) (value >> 8));
+            buffer.put((byte) value);
+        } else {
+            buffer.put((byte) value);
+            buffer.put((byte) (value >> 8));
+            buffer.put((byte) (value >> 16));
+        }
+    }
+
+    @Override
+    public void writeLong(long value) throws IOException {
+        ensureRemaining(8);
+        buffer.putLong(reverse ? Long.reverseBytes(value) : value);
+    }
+
+    @Override
+    public void writeFloat(float value) throws IOException {
+        writeInt(Float.floatToIntBits(value)); // Use our Int method to do this
+    }
+
+    @Override
+    public void writeDouble(double value) throws IOException {
+        writeLong(Double.doubleToLongBits(value)); // Use our Long method to do this
+    }
+
+    private void ensureRemaining(int length) throws IOException {
+        if (buffer.remaining() < length) {
+            throw new IOException("Needed " + length + " bytes but only " + buffer.remaining() + " remain");
+        }
+    }
+}
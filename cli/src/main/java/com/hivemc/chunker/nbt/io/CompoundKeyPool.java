@@ -0,0 +1,70 @@
+package com.hivemc.chunker.nbt.io;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A shared pool of compound keys which matches the raw UTF-8 bytes of a key against keys which have been decoded
+ * before, so common keys such as "Name" or "states" are returned as the same String instance rather than being
+ * decoded again for every compound.
+ * <p>
+ * The pool is a fixed size two-way hash table which replaces entries when it's full, it can be used by multiple threads
+ * without locking as entries are immutable and a lost update only results in a key being decoded again.
+ */
+final class CompoundKeyPool {
+    /**
+     * The longest key (in bytes) which is pooled, longer keys are usually unique so are always decoded.
+     */
+    public static final int MAX_POOLED_LENGTH = 64;
+    private static final int SIZE = 4096;
+    private static final Entry[] ENTRIES = new Entry[SIZE];
+
+    private CompoundKeyPool() {
+    }
+
+    /**
+     * Get the String for a key.
+     *
+     * @param bytes  the array containing the UTF-8 bytes of the key.
+     * @param offset the offset of the key in the array.
+     * @param length the number of bytes in the key.
+     * @return a shared String if the key has been seen before, otherwise a newly decoded String.
+     */
+    @NotNull
+    public static String get(byte[] bytes, int offset, int length) {
+        if (length > MAX_POOLED_LENGTH) return new String(bytes, offset, length, StandardCharsets.UTF_8);
+
+        // Hash the raw bytes
+        int hash = 1;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        int slot = (hash ^ hash >>> 16) & (SIZE - 2);
+
+        // Check both entries of the slot
+        Entry first = ENTRIES[slot];
+        if (first != null && first.matches(bytes, offset, length)) return first.value;
+        Entry second = ENTRIES[slot + 1];
+        if (second != null && second.matches(bytes, offset, length)) return second.value;
+
+        // Decode the key and add it to the pool, the most recent key is put first
+        String value = new String(bytes, offset, length, StandardCharsets.UTF_8);
+        ENTRIES[slot + 1] = first;
+        ENTRIES[slot] = new Entry(Arrays.copyOfRange(bytes, offset, offset + length), value);
+        return value;
+    }
+
+    /**
+     * An immutable pooled key.
+     *
+     * @param bytes the UTF-8 bytes of the key.
+     * @param value the decoded key.
+     */
+    private record Entry(byte[] bytes, String value) {
+        private boolean matches(byte[] other, int offset, int length) {
+            return Arrays.equals(bytes, 0, bytes.length, other, offset, offset + length);
+        }
+    }
+}
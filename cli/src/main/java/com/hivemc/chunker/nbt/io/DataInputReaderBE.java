@@ -10,6 +10,7 @@ import java.io.IOException;
  */
 class DataInputReaderBE implements Reader {
     private final DataInput dataInput;
+    private byte[] keyBuffer = new byte[CompoundKeyPool.MAX_POOLED_LENGTH];
 
     protected DataInputReaderBE(DataInput dataInput) {
         this.dataInput = dataInput;
@@ -25,6 +26,20 @@ class DataInputReaderBE implements Reader {
         dataInput.readFully(array);
     }
 
+    @Override
+    public void skipBytes(int length) throws IOException {
+        while (length > 0) {
+            int skipped = dataInput.skipBytes(length);
+
+            // Reading a byte causes an EOFException if the input has ended
+            if (skipped <= 0) {
+                dataInput.readByte();
+                skipped = 1;
+            }
+            length -= skipped;
+        }
+    }
+
     @Override
     public byte readByte() throws IOException {
         return dataInput.readByte();
@@ -62,4 +77,19 @@ class DataInputReaderBE implements Reader {
     public double readDouble() throws IOException {
         return dataInput.readDouble();
     }
+
+    @NotNull
+    @Override
+    public String readKey(int maxLength) throws IOException {
+        int length = readShort();
+        if (length < 0 || length > maxLength)
+            throw new IllegalArgumentException("Could not read String with length " + length);
+
+        // Read into a reused array so only unseen keys are allocated
+        if (keyBuffer.length < length) {
+            keyBuffer = new byte[Math.max(length, keyBuffer.length << 1)];
+        }
+        dataInput.readFully(keyBuffer, 0, length);
+        return CompoundKeyPool.get(keyBuffer, 0, length);
+    }
 }
@@ -10,6 +10,7 @@ import java.io.IOException;
  */
 class DataInputReaderLE implements Reader {
     private final DataInput dataInput;
+    private byte[] keyBuffer = new byte[CompoundKeyPool.MAX_POOLED_LENGTH];
 
     protected DataInputReaderLE(DataInput dataInput) {
         this.dataInput = dataInput;
@@ -27,6 +28,20 @@ class DataInputReaderLE implements Reader {
         dataInput.readFully(array);
     }
 
+    @Override
+    public void skipBytes(int length) throws IOException {
+        while (length > 0) {
+            int skipped = dataInput.skipBytes(length);
+
+            // Reading a byte causes an EOFException if the input has ended
+            if (skipped <= 0) {
+                dataInput.readByte();
+                skipped = 1;
+            }
+            length -= skipped;
+        }
+    }
+
     @Override
     public byte readByte() throws IOException {
         return dataInput.readByte();
@@ -84,4 +99,19 @@ class DataInputReaderLE implements Reader {
     public double readDouble() throws IOException {
         return Double.longBitsToDouble(readLong()); // Use our Long method to do this
     }
+
+    @NotNull
+    @Override
+    public String readKey(int maxLength) throws IOException {
+        int length = readShort();
+        if (length < 0 || length > maxLength)
+            throw new IllegalArgumentException("Could not read String with length " + length);
+
+        // Read into a reused array so only unseen keys are allocated
+        if (keyBuffer.length < length) {
+            keyBuffer = new byte[Math.max(length, keyBuffer.length << 1)];
+        }
+        dataInput.readFully(keyBuffer, 0, length);
+        return CompoundKeyPool.get(keyBuffer, 0, length);
+    }
 }
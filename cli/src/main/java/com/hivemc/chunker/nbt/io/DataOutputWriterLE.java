@@ -2,6 +2,7 @@ package com.hivemc.chunker.nbt.io;
 
 import java.io.DataOutput;
 import java.io.IOException;
+import java.nio.ByteOrder;
 
 /**
  * Implements a DataOutput based writer which encodes using little endian.
@@ -19,11 +20,21 @@ class DataOutputWriterLE implements Writer {
         dataOutput.writeByte((value >> 8));
     }
 
+    @Override
+    public ByteOrder getByteOrder() {
+        return ByteOrder.LITTLE_ENDIAN;
+    }
+
     @Override
     public void writeBytes(byte[] value) throws IOException {
         dataOutput.write(value);
     }
 
+    @Override
+    public void writeBytes(byte[] value, int offset, int length) throws IOException {
+        dataOutput.write(value, offset, length);
+    }
+
     @Override
     public void writeByte(byte value) throws IOException {
         dataOutput.write(value);
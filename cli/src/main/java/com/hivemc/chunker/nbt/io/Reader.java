@@ -4,6 +4,8 @@ import org.jetbrains.annotations.NotNull;
 
 import java.io.DataInput;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
 
 /**
@@ -50,6 +52,46 @@ public interface Reader {
         return toLittleEndianReader(dataInput); // Bedrock uses Little Endian
     }
 
+    /**
+     * Create a big endian based reader which reads straight from a ByteBuffer.
+     *
+     * @param buffer the buffer to read from, the position is advanced as values are read.
+     * @return a reader which wraps the ByteBuffer.
+     */
+    static Reader toBigEndianReader(ByteBuffer buffer) {
+        return new ByteBufferReader(buffer, ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Create a Java edition based reader which reads straight from a ByteBuffer.
+     *
+     * @param buffer the buffer to read from, the position is advanced as values are read.
+     * @return a reader which wraps the ByteBuffer.
+     */
+    static Reader toJavaReader(ByteBuffer buffer) {
+        return toBigEndianReader(buffer); // Java uses Big Endian
+    }
+
+    /**
+     * Create a little endian based reader which reads straight from a ByteBuffer.
+     *
+     * @param buffer the buffer to read from, the position is advanced as values are read.
+     * @return a reader which wraps the ByteBuffer.
+     */
+    static Reader toLittleEndianReader(ByteBuffer buffer) {
+        return new ByteBufferReader(buffer, ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Create a Bedrock edition based reader which reads straight from a ByteBuffer.
+     *
+     * @param buffer the buffer to read from, the position is advanced as values are read.
+     * @return a reader which wraps the ByteBuffer.
+     */
+    static Reader toBedrockReader(ByteBuffer buffer) {
+        return toLittleEndianReader(buffer); // Bedrock uses Little Endian
+    }
+
     /**
      * Read a short-length based byte[] from the buffer.
      *
@@ -83,6 +125,20 @@ public interface Reader {
         return new String(readShortPrefixedBytes(maxLength), StandardCharsets.UTF_8);
     }
 
+    /**
+     * Read a short-length based String which is used as the key of a compound, keys which have been read before are
+     * returned as a shared instance rather than being decoded again.
+     *
+     * @param maxLength the maximum accepting length for the String.
+     * @return the String value which was read.
+     * @throws IOException an exception if it failed to read from the underlying buffer.
+     */
+    @NotNull
+    default String readKey(int maxLength) throws IOException {
+        byte[] bytes = readShortPrefixedBytes(maxLength);
+        return CompoundKeyPool.get(bytes, 0, bytes.length);
+    }
+
     /**
      * Read a short from the buffer.
      *
@@ -99,6 +155,16 @@ public interface Reader {
      */
     void readBytes(byte @NotNull [] array) throws IOException;
 
+    /**
+     * Skip over bytes in the buffer without decoding them.
+     *
+     * @param length the number of bytes to skip.
+     * @throws IOException if there weren't enough bytes to skip.
+     */
+    default void skipBytes(int length) throws IOException {
+        readBytes(new byte[length]);
+    }
+
     /**
      * Read a byte from the buffer.
      *
@@ -4,6 +4,8 @@ import org.jetbrains.annotations.NotNull;
 
 import java.io.DataOutput;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
 
 /**
@@ -50,6 +52,53 @@ public interface Writer {
         return toLittleEndianWriter(dataOutput); // Bedrock uses Little Endian
     }
 
+    /**
+     * Create a big endian based writer which writes straight into a ByteBuffer.
+     *
+     * @param buffer the buffer to write to, the position is advanced as values are written.
+     * @return a writer which wraps the ByteBuffer.
+     */
+    static Writer toBigEndianWriter(ByteBuffer buffer) {
+        return new ByteBufferWriter(buffer, ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Create a Java edition based writer which writes straight into a ByteBuffer.
+     *
+     * @param buffer the buffer to write to, the position is advanced as values are written.
+     * @return a writer which wraps the ByteBuffer.
+     */
+    static Writer toJavaWriter(ByteBuffer buffer) {
+        return toBigEndianWriter(buffer); // Java uses Big Endian
+    }
+
+    /**
+     * Create a little endian based writer which writes straight into a ByteBuffer.
+     *
+     * @param buffer the buffer to write to, the position is advanced as values are written.
+     * @return a writer which wraps the ByteBuffer.
+     */
+    static Writer toLittleEndianWriter(ByteBuffer buffer) {
+        return new ByteBufferWriter(buffer, ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Create a Bedrock edition based writer which writes straight into a ByteBuffer.
+     *
+     * @param buffer the buffer to write to, the position is advanced as values are written.
+     * @return a writer which wraps the ByteBuffer.
+     */
+    static Writer toBedrockWriter(ByteBuffer buffer) {
+        return toLittleEndianWriter(buffer); // Bedrock uses Little Endian
+    }
+
+    /**
+     * Get the byte order which values are encoded with.
+     *
+     * @return the byte order of the output.
+     */
+    ByteOrder getByteOrder();
+
     /**
      * Write a short-length based byte array to the buffer.
      *
@@ -88,6 +137,16 @@ public interface Writer {
      */
     void writeBytes(byte[] value) throws IOException;
 
+    /**
+     * Write part of a byte array to the buffer.
+     *
+     * @param value  the array containing the bytes to write.
+     * @param offset the index of the first byte to write.
+     * @param length the number of bytes to write.
+     * @throws IOException if the writing fails or there is an encoding error.
+     */
+    void writeBytes(byte[] value, int offset, int length) throws IOException;
+
     /**
      * Write a byte to the buffer.
      *
@@ -1,9 +1,17 @@
 package com.hivemc.chunker.nbt.tags;
 
+import com.hivemc.chunker.nbt.TagFilter;
 import com.hivemc.chunker.nbt.TagType;
 import com.hivemc.chunker.nbt.io.Reader;
 import com.hivemc.chunker.nbt.io.Writer;
+import com.hivemc.chunker.nbt.tags.array.ByteArrayTag;
+import com.hivemc.chunker.nbt.tags.array.IntArrayTag;
+import com.hivemc.chunker.nbt.tags.array.LongArrayTag;
 import com.hivemc.chunker.nbt.tags.collection.CompoundTag;
+import com.hivemc.chunker.nbt.tags.collection.LazyCompoundTag;
+import com.hivemc.chunker.nbt.tags.collection.ListTag;
+import com.hivemc.chunker.nbt.tags.primitive.StringTag;
+import com.hivemc.chunker.util.CompressionContext;
 import com.hivemc.chunker.util.ByteBufferInputStream;
 import net.jpountz.lz4.LZ4BlockInputStream;
 import net.jpountz.lz4.LZ4BlockOutputStream;
@@ -12,6 +20,8 @@ import org.jetbrains.annotations.Nullable;
 
 import java.io.*;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
 import java.util.Objects;
 import java.util.function.Supplier;
 import java.util.zip.*;
@@ -30,16 +40,10 @@ public abstract class Tag<T> {
      * @throws IOException if it failed to write the file or compound.
      */
     public static byte[] writeBedrockNBT(CompoundTag root) throws IOException {
-        try (ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(1024)) {
-            try (BufferedOutputStream bufferedOutputStream = new BufferedOutputStream(byteArrayOutputStream);
-                 DataOutputStream writerStream = new DataOutputStream(bufferedOutputStream)) {
-                // Encode
-                Tag.encodeNamed(Writer.toBedrockWriter(writerStream), "", root);
-            }
-
-            // Return byte array
-            return byteArrayOutputStream.toByteArray();
-        }
+        // Encode straight into an exactly sized array
+        byte[] bytes = new byte[getEncodedSize("", root)];
+        Tag.encodeNamed(Writer.toBedrockWriter(ByteBuffer.wrap(bytes)), "", root);
+        return bytes;
     }
 
     /**
@@ -87,16 +91,12 @@ public abstract class Tag<T> {
      * @throws IOException if it failed to write the file or compound.
      */
     public static byte[] writeGZipJavaNBT(CompoundTag root) throws IOException {
-        try (ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(1024)) {
-            try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(byteArrayOutputStream);
-                 BufferedOutputStream bufferedOutputStream = new BufferedOutputStream(gzipOutputStream);
-                 DataOutputStream writerStream = new DataOutputStream(bufferedOutputStream)) {
-                // Encode
-                Tag.encodeNamed(Writer.toJavaWriter(writerStream), "", root);
-            }
+        try (CompressionContext context = CompressionContext.acquire()) {
+            // Encode into the reusable buffer
+            Tag.encodeNamed(Writer.toJavaWriter(context.startOutput(getEncodedSize("", root))), "", root);
 
-            // Return byte array
-            return byteArrayOutputStream.toByteArray();
+            // Return the compressed byte array
+            return context.finishGZip();
         }
     }
 
@@ -126,15 +126,10 @@ public abstract class Tag<T> {
      * @throws IOException if it failed to write the file or compound.
      */
     public static byte[] writeUncompressedJavaNBT(CompoundTag root) throws IOException {
-        try (ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(1024)) {
-            try (BufferedOutputStream bufferedOutputStream = new BufferedOutputStream(byteArrayOutputStream);
-                 DataOutputStream writerStream = new DataOutputStream(bufferedOutputStream)) {
-                // Encode
-                Tag.encodeNamed(Writer.toJavaWriter(writerStream), "", root);
-            }
-            // Return byte array
-            return byteArrayOutputStream.toByteArray();
-        }
+        // Encode straight into an exactly sized array
+        byte[] bytes = new byte[getEncodedSize("", root)];
+        Tag.encodeNamed(Writer.toJavaWriter(ByteBuffer.wrap(bytes)), "", root);
+        return bytes;
     }
 
     /**
@@ -145,16 +140,24 @@ public abstract class Tag<T> {
      * @throws IOException if it failed to write the file or compound.
      */
     public static byte[] writeZLibJavaNBT(CompoundTag root) throws IOException {
-        try (ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(1024)) {
-            try (DeflaterOutputStream deflaterOutputStream = new DeflaterOutputStream(byteArrayOutputStream, new Deflater(Deflater.BEST_SPEED));
-                 BufferedOutputStream bufferedOutputStream = new BufferedOutputStream(deflaterOutputStream);
-                 DataOutputStream writerStream = new DataOutputStream(bufferedOutputStream)) {
-                // Encode
-                Tag.encodeNamed(Writer.toJavaWriter(writerStream), "", root);
-            }
+        return writeZLibJavaNBT(root, Deflater.BEST_SPEED);
+    }
 
-            // Return byte array
-            return byteArrayOutputStream.toByteArray();
+    /**
+     * Write a Java edition based ZLIB NBT byte array using a specific compression level.
+     *
+     * @param root  the root of the tag containing "data" / "Data" depending on version.
+     * @param level the compression level from 0 (no compression) to 9 (best compression).
+     * @return the output bytes which have been written to.
+     * @throws IOException if it failed to write the file or compound.
+     */
+    public static byte[] writeZLibJavaNBT(CompoundTag root, int level) throws IOException {
+        try (CompressionContext context = CompressionContext.acquire()) {
+            // Encode into the reusable buffer, then compress it in one go with the thread's deflater
+            Tag.encodeNamed(Writer.toJavaWriter(context.startOutput(getEncodedSize("", root))), "", root);
+
+            // Return the compressed byte array
+            return context.finishZLib(level);
         }
     }
 
@@ -179,6 +182,25 @@ public abstract class Tag<T> {
         }
     }
 
+    /**
+     * Write a Java edition based NBT byte array with a compression type used by region files.
+     *
+     * @param compressionType the region file compression type (1 = GZip, 2 = ZLib, 3 = Uncompressed, 4 = LZ4).
+     * @param level           the compression level used for ZLib (0 to 9).
+     * @param root            the root of the tag containing "data" / "Data" depending on version.
+     * @return the output bytes which have been written to.
+     * @throws IOException if it failed to write the compound or the compression type isn't supported.
+     */
+    public static byte[] writeCompressedJavaNBT(int compressionType, int level, CompoundTag root) throws IOException {
+        return switch (compressionType) {
+            case 1 -> writeGZipJavaNBT(root);
+            case 2 -> writeZLibJavaNBT(root, level);
+            case 3 -> writeUncompressedJavaNBT(root);
+            case 4 -> writeLZ4JavaNBT(root);
+            default -> throw new IOException("Unsupported compression type " + compressionType);
+        };
+    }
+
     /**
      * Write a Java edition based ZLIB NBT file (likely ending with .dat).
      *
@@ -187,13 +209,8 @@ public abstract class Tag<T> {
      * @throws IOException if it failed to write the file or compound.
      */
     public static void writeZLibJavaNBT(File file, CompoundTag root) throws IOException {
-        try (FileOutputStream fileOutputStream = new FileOutputStream(file);
-             DeflaterOutputStream deflaterOutputStream = new DeflaterOutputStream(fileOutputStream, new Deflater(Deflater.BEST_SPEED));
-             BufferedOutputStream bufferedOutputStream = new BufferedOutputStream(deflaterOutputStream);
-             DataOutputStream writerStream = new DataOutputStream(bufferedOutputStream)) {
-            // Encode
-            Tag.encodeNamed(Writer.toJavaWriter(writerStream), "", root);
-        }
+        // Compress using the thread's deflater rather than one which is only released when it's cleaned up
+        Files.write(file.toPath(), writeZLibJavaNBT(root));
     }
 
     /**
@@ -232,6 +249,47 @@ public abstract class Tag<T> {
         }
     }
 
+    /**
+     * Get the number of bytes which {@link #encodeNamed(Writer, String, Tag)} will write, used to encode into an
+     * exactly sized array rather than a growing buffer.
+     *
+     * @param name the name of the tag.
+     * @param tag  the tag which will be written, if null it's the size of the end tag.
+     * @return the encoded size in bytes.
+     */
+    public static int getEncodedSize(String name, @Nullable Tag<?> tag) {
+        if (tag == null) return 1;
+        return 1 + getEncodedStringSize(name == null ? "" : name) + tag.getEncodedValueSize();
+    }
+
+    /**
+     * Get the number of bytes a String is encoded to by {@link Writer#writeString(String)}, this includes the length
+     * prefix.
+     *
+     * @param value the String to measure.
+     * @return the encoded size in bytes.
+     */
+    public static int getEncodedStringSize(String value) {
+        int length = value.length();
+        int size = length;
+        for (int i = 0; i < length; i++) {
+            char character = value.charAt(i);
+            if (character >= 0x800) {
+                if (Character.isHighSurrogate(character) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    // A pair of surrogates is encoded as 4 bytes
+                    size += 2;
+                    i++;
+                } else if (!Character.isSurrogate(character)) {
+                    size += 2;
+                }
+                // Unpaired surrogates are replaced with a single '?'
+            } else if (character >= 0x80) {
+                size += 1;
+            }
+        }
+        return 2 + size;
+    }
+
     /**
      * Read a Bedrock edition based NBT file (likely ending with .dat), skipping past the header and reading the
      * contents.
@@ -256,6 +314,38 @@ public abstract class Tag<T> {
         }
     }
 
+    /**
+     * Read a Bedrock edition based NBT file (likely ending with .dat) lazily, skipping past the header. Children are
+     * only decoded when they are accessed.
+     *
+     * @param file the input file to read from.
+     * @return the lazy CompoundTag or null if there isn't any data to read.
+     * @throws IOException if it failed to read the file or compound.
+     */
+    @Nullable
+    public static CompoundTag readLazyBedrockNBT(File file) throws IOException {
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        if (bytes.length < 8) throw new EOFException("Missing header in " + file);
+
+        // Skip header
+        TagWithName<LazyCompoundTag> pair = LazyCompoundTag.decodeNamed(bytes, 8, bytes.length - 8, ByteOrder.LITTLE_ENDIAN);
+        return pair == null ? null : pair.tag();
+    }
+
+    /**
+     * Read a Bedrock edition NBT bytes (without any header / size prefix) lazily. Children are only decoded when they
+     * are accessed.
+     *
+     * @param input the input bytes to read from, these must not be modified afterwards.
+     * @return the lazy CompoundTag or null if there isn't any data to read.
+     * @throws IOException if it failed to read the bytes or compound.
+     */
+    @Nullable
+    public static CompoundTag readLazyBedrockNBT(byte[] input) throws IOException {
+        TagWithName<LazyCompoundTag> pair = LazyCompoundTag.decodeNamed(input, 0, input.length, ByteOrder.LITTLE_ENDIAN);
+        return pair == null ? null : pair.tag();
+    }
+
     /**
      * Read a Bedrock edition NBT bytes (without any header / size prefix).
      *
@@ -265,14 +355,7 @@ public abstract class Tag<T> {
      */
     @Nullable
     public static CompoundTag readBedrockNBT(byte[] input) throws IOException {
-        try (ByteArrayInputStream fileInputStream = new ByteArrayInputStream(input);
-             DataInputStream readerStream = new DataInputStream(fileInputStream)) {
-            TagWithName<CompoundTag> pair = Tag.decodeNamed(Reader.toBedrockReader(readerStream), CompoundTag.class);
-            if (pair == null) return null;
-
-            // Return the tag if it wasn't null
-            return pair.tag();
-        }
+        return readBedrockNBT(ByteBuffer.wrap(input));
     }
 
     /**
@@ -284,14 +367,11 @@ public abstract class Tag<T> {
      */
     @Nullable
     public static CompoundTag readBedrockNBT(ByteBuffer input) throws IOException {
-        try (ByteBufferInputStream fileInputStream = new ByteBufferInputStream(input);
-             DataInputStream readerStream = new DataInputStream(fileInputStream)) {
-            TagWithName<CompoundTag> pair = Tag.decodeNamed(Reader.toBedrockReader(readerStream), CompoundTag.class);
-            if (pair == null) return null;
+        TagWithName<CompoundTag> pair = Tag.decodeNamed(Reader.toBedrockReader(input), CompoundTag.class);
+        if (pair == null) return null;
 
-            // Return the tag if it wasn't null
-            return pair.tag();
-        }
+        // Return the tag if it wasn't null
+        return pair.tag();
     }
 
     /**
@@ -303,28 +383,7 @@ public abstract class Tag<T> {
      */
     @Nullable
     public static CompoundTag readUncompressedJavaNBT(byte[] input) throws IOException {
-        try (ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(input);
-             BufferedInputStream bufferedInputStream = new BufferedInputStream(byteArrayInputStream);
-             DataInputStream readerStream = new DataInputStream(bufferedInputStream)) {
-            TagWithName<CompoundTag> pair = Tag.decodeNamed(Reader.toJavaReader(readerStream), CompoundTag.class);
-
-            // Check pair isn't null
-            if (pair == null) return null;
-
-            // Grab the value (naming isn't important here)
-            CompoundTag root = pair.tag();
-
-            // Try lowercase data
-            CompoundTag data = root.getCompound("data");
-            if (data != null) return data;
-
-            // Try uppercase data
-            data = root.getCompound("Data");
-            if (data != null) return data;
-
-            // Otherwise return root
-            return root;
-        }
+        return readJavaRoot(Reader.toJavaReader(ByteBuffer.wrap(input)), null);
     }
 
     /**
@@ -406,28 +465,8 @@ public abstract class Tag<T> {
      */
     @Nullable
     public static CompoundTag readGZipJavaNBT(byte[] input) throws IOException {
-        try (ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(input);
-             GZIPInputStream gzipInputStream = new GZIPInputStream(byteArrayInputStream);
-             BufferedInputStream bufferedInputStream = new BufferedInputStream(gzipInputStream);
-             DataInputStream readerStream = new DataInputStream(bufferedInputStream)) {
-            TagWithName<CompoundTag> pair = Tag.decodeNamed(Reader.toJavaReader(readerStream), CompoundTag.class);
-
-            // Check pair isn't null
-            if (pair == null) return null;
-
-            // Grab the value (naming isn't important here)
-            CompoundTag root = pair.tag();
-
-            // Try lowercase data
-            CompoundTag data = root.getCompound("data");
-            if (data != null) return data;
-
-            // Try uppercase data
-            data = root.getCompound("Data");
-            if (data != null) return data;
-
-            // Otherwise return root
-            return root;
+        try (CompressionContext context = CompressionContext.acquire()) {
+            return readJavaRoot(Reader.toJavaReader(context.inflateGZip(ByteBuffer.wrap(input))), null);
         }
     }
 
@@ -466,6 +505,43 @@ public abstract class Tag<T> {
         }
     }
 
+    /**
+     * Read a Java edition based GZIP NBT file (likely ending with .dat) lazily automatically removing the nested "data"
+     * tag if present. Children are only decoded when they are accessed.
+     *
+     * @param file the input file to read from.
+     * @return the lazy CompoundTag or null if there isn't any data to read.
+     * @throws IOException if it failed to read the file or compound.
+     */
+    @Nullable
+    public static CompoundTag readLazyGZipJavaNBT(File file) throws IOException {
+        byte[] bytes;
+        try (CompressionContext context = CompressionContext.acquire()) {
+            // Copy out of the context as the lazy tag keeps the bytes
+            ByteBuffer inflated = context.inflateGZip(ByteBuffer.wrap(Files.readAllBytes(file.toPath())));
+            bytes = new byte[inflated.remaining()];
+            inflated.get(bytes);
+        }
+        TagWithName<LazyCompoundTag> pair = LazyCompoundTag.decodeNamed(bytes, 0, bytes.length, ByteOrder.BIG_ENDIAN);
+
+        // Check pair isn't null
+        if (pair == null) return null;
+
+        // Grab the value (naming isn't important here)
+        CompoundTag root = pair.tag();
+
+        // Try lowercase data
+        CompoundTag data = root.getCompound("data");
+        if (data != null) return data;
+
+        // Try uppercase data
+        data = root.getCompound("Data");
+        if (data != null) return data;
+
+        // Otherwise return root
+        return root;
+    }
+
     /**
      * Read a Java edition based NBT file which may use GZip (likely ending with .dat) automatically removing the nested "data" tag if
      * present.
@@ -532,28 +608,8 @@ public abstract class Tag<T> {
      */
     @Nullable
     public static CompoundTag readZLibJavaNBT(byte[] input) throws IOException {
-        try (ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(input);
-             InflaterInputStream inflaterInputStream = new InflaterInputStream(byteArrayInputStream);
-             BufferedInputStream bufferedInputStream = new BufferedInputStream(inflaterInputStream);
-             DataInputStream readerStream = new DataInputStream(bufferedInputStream)) {
-            TagWithName<CompoundTag> pair = Tag.decodeNamed(Reader.toJavaReader(readerStream), CompoundTag.class);
-
-            // Check pair isn't null
-            if (pair == null) return null;
-
-            // Grab the value (naming isn't important here)
-            CompoundTag root = pair.tag();
-
-            // Try lowercase data
-            CompoundTag data = root.getCompound("data");
-            if (data != null) return data;
-
-            // Try uppercase data
-            data = root.getCompound("Data");
-            if (data != null) return data;
-
-            // Otherwise return root
-            return root;
+        try (CompressionContext context = CompressionContext.acquire()) {
+            return readJavaRoot(Reader.toJavaReader(context.inflateZLib(ByteBuffer.wrap(input))), null);
         }
     }
 
@@ -592,6 +648,83 @@ public abstract class Tag<T> {
         }
     }
 
+    /**
+     * Read a Java edition based NBT from a buffer with a compression type used by region files, automatically removing
+     * the nested "data" tag if present. The bytes are read straight from the buffer without copying, so this can be
+     * used with slices of a memory-mapped file.
+     *
+     * @param compressionType the region file compression type (1 = GZip, 2 = ZLib, 3 = Uncompressed, 4 = LZ4).
+     * @param input           the input buffer to read from (from the current position to the limit).
+     * @return the parsed CompoundTag or null if there isn't any data to read.
+     * @throws IOException if it failed to read the compound or the compression type isn't supported.
+     */
+    @Nullable
+    public static CompoundTag readCompressedJavaNBT(int compressionType, ByteBuffer input) throws IOException {
+        return readCompressedJavaNBT(compressionType, input, null);
+    }
+
+    /**
+     * Read a Java edition based NBT from a buffer with a compression type used by region files, automatically removing
+     * the nested "data" tag if present. Tags excluded by the filter are skipped rather than decoded.
+     *
+     * @param compressionType the region file compression type (1 = GZip, 2 = ZLib, 3 = Uncompressed, 4 = LZ4).
+     * @param input           the input buffer to read from (from the current position to the limit).
+     * @param filter          the filter for the root compound, null to decode everything.
+     * @return the parsed CompoundTag or null if there isn't any data to read.
+     * @throws IOException if it failed to read the compound or the compression type isn't supported.
+     */
+    @Nullable
+    public static CompoundTag readCompressedJavaNBT(int compressionType, ByteBuffer input, @Nullable TagFilter filter) throws IOException {
+        // GZip and ZLib are inflated into the reusable buffer of the thread
+        if (compressionType == 1 || compressionType == 2) {
+            try (CompressionContext context = CompressionContext.acquire()) {
+                return readJavaRoot(Reader.toJavaReader(compressionType == 1 ? context.inflateGZip(input) : context.inflateZLib(input)), filter);
+            }
+        }
+
+        // Uncompressed data can be read straight from the buffer
+        if (compressionType == 3) {
+            return readJavaRoot(Reader.toJavaReader(input), filter);
+        }
+
+        if (compressionType != 4) throw new IOException("Unsupported compression type " + compressionType);
+        try (LZ4BlockInputStream lz4InputStream = new LZ4BlockInputStream(new ByteBufferInputStream(input));
+             BufferedInputStream bufferedInputStream = new BufferedInputStream(lz4InputStream);
+             DataInputStream readerStream = new DataInputStream(bufferedInputStream)) {
+            return readJavaRoot(Reader.toJavaReader(readerStream), filter);
+        }
+    }
+
+    /**
+     * Read a Java edition based NBT root, automatically removing the nested "data" tag if present.
+     *
+     * @param reader the reader for the uncompressed input.
+     * @param filter the filter for the root compound, null to decode everything.
+     * @return the parsed CompoundTag or null if there isn't any data to read.
+     * @throws IOException if it failed to read the compound.
+     */
+    @Nullable
+    private static CompoundTag readJavaRoot(Reader reader, @Nullable TagFilter filter) throws IOException {
+        TagWithName<CompoundTag> pair = Tag.decodeNamed(reader, CompoundTag.class, filter);
+
+        // Check pair isn't null
+        if (pair == null) return null;
+
+        // Grab the value (naming isn't important here)
+        CompoundTag root = pair.tag();
+
+        // Try lowercase data
+        CompoundTag data = root.getCompound("data");
+        if (data != null) return data;
+
+        // Try uppercase data
+        data = root.getCompound("Data");
+        if (data != null) return data;
+
+        // Otherwise return root
+        return root;
+    }
+
     /**
      * Decode a named tag from a reader.
      *
@@ -615,13 +748,28 @@ public abstract class Tag<T> {
      */
     @Nullable
     public static <T extends Tag<?>> TagWithName<T> decodeNamed(Reader reader, Class<T> clazz) throws IOException {
+        return decodeNamed(reader, clazz, null);
+    }
+
+    /**
+     * Decode a named tag from a reader, skipping any children excluded by a filter.
+     *
+     * @param reader the reader which bytes should be read from.
+     * @param clazz  the class which is desired to be read (will cause a ClassCastException if not matched).
+     * @param filter the filter to apply to the tag, null to decode everything.
+     * @param <T>    the tag type which is to be read.
+     * @return the tag with name if it was read and the right class, null if it was an end tag.
+     * @throws IOException an exception if it failed to read the type or construct the class.
+     */
+    @Nullable
+    public static <T extends Tag<?>> TagWithName<T> decodeNamed(Reader reader, Class<T> clazz, @Nullable TagFilter filter) throws IOException {
         T tag = decodeTagClass(reader, clazz);
         String name = null;
 
         // Decode the tag
         if (tag != null) {
             name = reader.readString(CompoundTag.MAX_NAME_LENGTH);
-            tag.decodeValue(reader);
+            tag.decodeValue(reader, filter);
         }
 
         // Return the tag
@@ -700,6 +848,79 @@ public abstract class Tag<T> {
         return clazz.cast(tag);
     }
 
+    /**
+     * Skip over the value of a tag without decoding it.
+     *
+     * @param reader  the reader which bytes should be skipped from.
+     * @param tagType the type of the tag being skipped.
+     * @throws IOException an exception if it failed to read the lengths or there weren't enough bytes.
+     */
+    public static void skipValue(Reader reader, TagType<?, ?> tagType) throws IOException {
+        int fixedSize = getFixedSize(tagType);
+        if (fixedSize > 0) {
+            reader.skipBytes(fixedSize);
+        } else if (tagType == TagType.STRING) {
+            reader.skipBytes(readLength(reader.readShort(), StringTag.MAX_STRING_LENGTH));
+        } else if (tagType == TagType.BYTE_ARRAY) {
+            reader.skipBytes(readLength(reader.readInt(), ByteArrayTag.MAX_ARRAY_LENGTH));
+        } else if (tagType == TagType.INT_ARRAY) {
+            reader.skipBytes(readLength(reader.readInt(), IntArrayTag.MAX_ARRAY_LENGTH) * Integer.BYTES);
+        } else if (tagType == TagType.LONG_ARRAY) {
+            reader.skipBytes(readLength(reader.readInt(), LongArrayTag.MAX_ARRAY_LENGTH) * Long.BYTES);
+        } else if (tagType == TagType.LIST) {
+            TagType<?, ?> listType = TagType.getById(reader.readUnsignedByte());
+            int length = readLength(reader.readInt(), ListTag.MAX_LIST_LENGTH);
+            if (listType == TagType.END) return;
+
+            // Lists of fixed size values can be skipped in one go
+            int listFixedSize = getFixedSize(listType);
+            if (listFixedSize > 0) {
+                reader.skipBytes(length * listFixedSize);
+            } else {
+                for (int i = 0; i < length; i++) {
+                    skipValue(reader, listType);
+                }
+            }
+        } else if (tagType == TagType.COMPOUND) {
+            TagType<?, ?> childType;
+            while ((childType = TagType.getById(reader.readUnsignedByte())) != TagType.END) {
+                reader.skipBytes(readLength(reader.readShort(), CompoundTag.MAX_NAME_LENGTH));
+                skipValue(reader, childType);
+            }
+        } else {
+            throw new IllegalArgumentException("Cannot skip tag type " + tagType.getId());
+        }
+    }
+
+    /**
+     * Get the size of a tag type which has a fixed size value.
+     *
+     * @param tagType the tag type.
+     * @return the number of bytes used by the value or -1 if it isn't a fixed size.
+     */
+    private static int getFixedSize(TagType<?, ?> tagType) {
+        if (tagType == TagType.BYTE) return Byte.BYTES;
+        if (tagType == TagType.SHORT) return Short.BYTES;
+        if (tagType == TagType.INT) return Integer.BYTES;
+        if (tagType == TagType.LONG) return Long.BYTES;
+        if (tagType == TagType.FLOAT) return Float.BYTES;
+        if (tagType == TagType.DOUBLE) return Double.BYTES;
+        return -1;
+    }
+
+    /**
+     * Validate a length which was read before skipping.
+     *
+     * @param length    the length which was read.
+     * @param maxLength the maximum valid length.
+     * @return the length.
+     */
+    private static int readLength(int length, int maxLength) {
+        if (length < 0 || length > maxLength)
+            throw new IllegalArgumentException("Could not skip value with length " + length);
+        return length;
+    }
+
     /**
      * Get the tag type represented by this class.
      *
@@ -717,7 +938,8 @@ public abstract class Tag<T> {
     @Override
     public final boolean equals(Object obj) {
         if (this == obj) return true;
-        if (obj == null || obj.getClass() != getClass()) return false;
+        // Compare by type so that lazy / specialised implementations equal the plain tag
+        if (!(obj instanceof Tag<?> other) || other.getType() != getType()) return false;
 
         Tag<T> tag = (Tag<T>) obj;
 
@@ -777,6 +999,13 @@ public abstract class Tag<T> {
      */
     public abstract void encodeValue(Writer writer) throws IOException;
 
+    /**
+     * Get the number of bytes which {@link #encodeValue(Writer)} will write (not including the type).
+     *
+     * @return the encoded size of the value in bytes.
+     */
+    public abstract int getEncodedValueSize();
+
     /**
      * Decode the value from a reader (not including the type).
      *
@@ -785,6 +1014,18 @@ public abstract class Tag<T> {
      */
     public abstract void decodeValue(Reader Reader) throws IOException;
 
+    /**
+     * Decode the value from a reader (not including the type), skipping any children excluded by a filter.
+     *
+     * @param reader the reader which data should be read from.
+     * @param filter the filter to apply to the value, null to decode everything.
+     * @throws IOException if a fault occurs parsing the data, e.g. mismatched length, malformed data, unexpected end.
+     */
+    public void decodeValue(Reader reader, @Nullable TagFilter filter) throws IOException {
+        // Only collections have children which can be filtered
+        decodeValue(reader);
+    }
+
     /**
      * Get the current tag as the SNBT equivalent.
      *
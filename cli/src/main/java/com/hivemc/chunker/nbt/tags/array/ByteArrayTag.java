@@ -76,6 +76,11 @@ public class ByteArrayTag extends Tag<byte[]> {
         }
     }
 
+    @Override
+    public int getEncodedValueSize() {
+        return 4 + (value == null ? 0 : value.length);
+    }
+
     @Override
     public void decodeValue(Reader reader) throws IOException {
         int length = reader.readInt();
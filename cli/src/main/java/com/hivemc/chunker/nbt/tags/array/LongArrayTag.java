@@ -78,6 +78,11 @@ public class LongArrayTag extends Tag<long[]> {
         }
     }
 
+    @Override
+    public int getEncodedValueSize() {
+        return 4 + (value == null ? 0 : value.length * 8);
+    }
+
     @Override
     public void decodeValue(Reader reader) throws IOException {
         int length = reader.readInt();
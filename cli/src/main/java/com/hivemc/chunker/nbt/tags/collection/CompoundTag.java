@@ -1,5 +1,6 @@
 package com.hivemc.chunker.nbt.tags.collection;
 
+import com.hivemc.chunker.nbt.TagFilter;
 import com.hivemc.chunker.nbt.TagType;
 import com.hivemc.chunker.nbt.io.Reader;
 import com.hivemc.chunker.nbt.io.Writer;
@@ -87,29 +88,50 @@ public class CompoundTag extends Tag<Map<String, Tag<?>>> implements Iterable<Ma
         Tag.encode(writer, null);
     }
 
+    @Override
+    public int getEncodedValueSize() {
+        int size = 1; // End tag
+        if (value != null) {
+            for (Map.Entry<String, Tag<?>> namedPair : value.entrySet()) {
+                size += Tag.getEncodedSize(namedPair.getKey(), namedPair.getValue());
+            }
+        }
+        return size;
+    }
+
     @Override
     public void decodeValue(Reader reader) throws IOException {
-        Tag<?> lastTag;
+        decodeValue(reader, null);
+    }
+
+    @Override
+    public void decodeValue(Reader reader, @Nullable TagFilter filter) throws IOException {
+        TagType<?, ?> tagType;
         value = new Object2ObjectLinkedOpenHashMap<>(8);
 
-        do {
-            lastTag = Tag.decodeTagClass(reader);
-            if (lastTag != null) {
-                // Read the name
-                String name = reader.readString(MAX_NAME_LENGTH);
+        while ((tagType = TagType.getById(reader.readUnsignedByte())) != TagType.END) {
+            // Read the name
+            String name = reader.readKey(MAX_NAME_LENGTH);
 
-                // Decode value
-                lastTag.decodeValue(reader);
+            // Skip the value if it's excluded
+            TagFilter childFilter = filter == null ? null : filter.getChild(name);
+            if (childFilter != null && childFilter.isExcluded()) {
+                Tag.skipValue(reader, tagType);
+                continue;
+            }
 
-                // Add to our storage
-                value.put(name, lastTag);
+            // Decode value
+            Tag<?> tag = Objects.requireNonNull(tagType.getConstructor()).get();
+            tag.decodeValue(reader, childFilter);
 
-                // Validate if the storage is now too big
-                if (value.size() > MAX_COMPOUND_LENGTH) {
-                    throw new IllegalArgumentException("Could not read array with length above " + value.size() + " for " + name);
-                }
+            // Add to our storage
+            value.put(name, tag);
+
+            // Validate if the storage is now too big
+            if (value.size() > MAX_COMPOUND_LENGTH) {
+                throw new IllegalArgumentException("Could not read array with length above " + value.size() + " for " + name);
             }
-        } while (lastTag != null);
+        }
     }
 
     @Override
@@ -0,0 +1,295 @@
+package com.hivemc.chunker.nbt.tags.collection;
+
+import com.hivemc.chunker.nbt.TagFilter;
+import com.hivemc.chunker.nbt.TagType;
+import com.hivemc.chunker.nbt.io.Reader;
+import com.hivemc.chunker.nbt.io.Writer;
+import com.hivemc.chunker.nbt.tags.Tag;
+import com.hivemc.chunker.nbt.tags.TagWithName;
+import it.unimi.dsi.fastutil.objects.Object2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A CompoundTag which only records where each child is in the encoded bytes, children are decoded the first time they
+ * are accessed. Children which were never accessed are copied straight from the original bytes when encoding with the
+ * same byte order. Nested compounds are also lazy and share the same bytes.
+ * Note: Modifying the compound (put / remove) or accessing the whole map decodes every child first.
+ */
+public class LazyCompoundTag extends CompoundTag {
+    @Nullable
+    private byte[] bytes;
+    @Nullable
+    private ByteOrder order;
+    @Nullable
+    private Map<String, Child> children;
+
+    /**
+     * Create a lazy compound from the encoded entries of a compound.
+     *
+     * @param bytes    the bytes holding the entries, these must not be modified after creating the tag.
+     * @param order    the byte order the entries are encoded with.
+     * @param children the position of each child inside the bytes.
+     */
+    private LazyCompoundTag(byte[] bytes, ByteOrder order, Map<String, Child> children) {
+        super(null);
+        this.bytes = bytes;
+        this.order = order;
+        this.children = children;
+    }
+
+    /**
+     * Read a named compound lazily from bytes, only the positions of the children are read.
+     *
+     * @param bytes  the bytes to read from, these must not be modified after reading.
+     * @param offset the offset of the named tag in the bytes.
+     * @param length the number of bytes which can be read.
+     * @param order  the byte order the tag is encoded with.
+     * @return the tag with name if it was read, null if it was an end tag.
+     * @throws IOException if the bytes were truncated, malformed or the root wasn't a compound.
+     */
+    @Nullable
+    public static TagWithName<LazyCompoundTag> decodeNamed(byte[] bytes, int offset, int length, ByteOrder order) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, length);
+        Reader reader = createReader(buffer, order);
+
+        // Check the root is a compound
+        if (Tag.decodeTagClass(reader, CompoundTag.class) == null) return null;
+        String name = reader.readString(MAX_NAME_LENGTH);
+
+        // Index the value
+        return new TagWithName<>(name, index(bytes, buffer, order));
+    }
+
+    /**
+     * Read the value of a compound lazily from bytes, only the positions of the children are read.
+     *
+     * @param bytes  the bytes to read from, these must not be modified after reading.
+     * @param offset the offset of the first entry of the compound in the bytes.
+     * @param length the number of bytes which can be read.
+     * @param order  the byte order the tag is encoded with.
+     * @return the lazy compound.
+     * @throws IOException if the bytes were truncated or malformed.
+     */
+    public static LazyCompoundTag decodeValue(byte[] bytes, int offset, int length, ByteOrder order) throws IOException {
+        return index(bytes, ByteBuffer.wrap(bytes, offset, length), order);
+    }
+
+    private static LazyCompoundTag index(byte[] bytes, ByteBuffer buffer, ByteOrder order) throws IOException {
+        Reader reader = createReader(buffer, order);
+        Map<String, Child> children = new Object2ObjectLinkedOpenHashMap<>(8);
+        TagType<?, ?> tagType;
+        int entryStart = buffer.position();
+        while ((tagType = TagType.getById(reader.readUnsignedByte())) != TagType.END) {
+            String name = reader.readKey(MAX_NAME_LENGTH);
+
+            // Skip over the value, recording where it was
+            int valueStart = buffer.position();
+            Tag.skipValue(reader, tagType);
+            children.put(name, new Child(tagType, entryStart, valueStart, buffer.position()));
+
+            // Validate if the storage is now too big
+            if (children.size() > MAX_COMPOUND_LENGTH) {
+                throw new IllegalArgumentException("Could not read array with length above " + children.size() + " for " + name);
+            }
+            entryStart = buffer.position();
+        }
+        return new LazyCompoundTag(bytes, order, children);
+    }
+
+    private static Reader createReader(ByteBuffer buffer, ByteOrder order) {
+        return order == ByteOrder.BIG_ENDIAN ? Reader.toBigEndianReader(buffer) : Reader.toLittleEndianReader(buffer);
+    }
+
+    /**
+     * Decode a child from the original bytes.
+     *
+     * @param child the position of the child.
+     * @return the decoded tag, compounds are returned as another lazy tag.
+     */
+    private Tag<?> decodeChild(Child child) {
+        byte[] bytes = Objects.requireNonNull(this.bytes);
+        ByteOrder order = Objects.requireNonNull(this.order);
+        try {
+            if (child.type() == TagType.COMPOUND) {
+                return decodeValue(bytes, child.valueStart(), child.end() - child.valueStart(), order);
+            }
+            Tag<?> tag = Objects.requireNonNull(child.type().getConstructor()).get();
+            tag.decodeValue(createReader(ByteBuffer.wrap(bytes, child.valueStart(), child.end() - child.valueStart()), order));
+            return tag;
+        } catch (IOException e) {
+            // The bytes were already validated when skipping over them
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Decode every child which hasn't been accessed yet and drop the original bytes, after this the tag behaves the
+     * same as a normal CompoundTag.
+     */
+    private void materialize() {
+        if (children == null) return;
+        Map<String, Tag<?>> map = new Object2ObjectLinkedOpenHashMap<>(children.size());
+        for (Map.Entry<String, Child> entry : children.entrySet()) {
+            Tag<?> tag = value == null ? null : value.get(entry.getKey());
+            map.put(entry.getKey(), tag != null ? tag : decodeChild(entry.getValue()));
+        }
+        value = map;
+        children = null;
+        bytes = null;
+        order = null;
+    }
+
+    @Override
+    public boolean valueEquals(Map<String, Tag<?>> boxedValue) {
+        materialize();
+        return super.valueEquals(boxedValue);
+    }
+
+    @Override
+    public CompoundTag clone() {
+        if (children == null) return super.clone();
+
+        // The bytes and positions are never modified so they can be shared with the copy
+        LazyCompoundTag copy = new LazyCompoundTag(Objects.requireNonNull(bytes), Objects.requireNonNull(order), children);
+        if (value != null) {
+            copy.value = new Object2ObjectOpenHashMap<>(value.size());
+            for (Map.Entry<String, Tag<?>> namedPair : value.entrySet()) {
+                copy.value.put(namedPair.getKey(), namedPair.getValue().clone());
+            }
+        }
+        return copy;
+    }
+
+    @Override
+    public void encodeValue(Writer writer) throws IOException {
+        if (children == null) {
+            super.encodeValue(writer);
+            return;
+        }
+
+        byte[] bytes = Objects.requireNonNull(this.bytes);
+        for (Map.Entry<String, Child> entry : children.entrySet()) {
+            Tag<?> tag = value == null ? null : value.get(entry.getKey());
+            Child child = entry.getValue();
+            if (tag != null) {
+                // The child may have been modified after it was accessed
+                Tag.encodeNamed(writer, entry.getKey(), tag);
+            } else if (writer.getByteOrder() == order) {
+                // Copy the type, name and value without decoding
+                writer.writeBytes(bytes, child.entryStart(), child.end() - child.entryStart());
+            } else {
+                Tag.encodeNamed(writer, entry.getKey(), decodeChild(child));
+            }
+        }
+
+        // Write end tag
+        Tag.encode(writer, null);
+    }
+
+    @Override
+    public int getEncodedValueSize() {
+        if (children == null) return super.getEncodedValueSize();
+
+        int size = 1; // End tag
+        for (Map.Entry<String, Child> entry : children.entrySet()) {
+            Tag<?> tag = value == null ? null : value.get(entry.getKey());
+            Child child = entry.getValue();
+
+            // Untouched children are the same size in either byte order
+            size += tag != null ? Tag.getEncodedSize(entry.getKey(), tag) : child.end() - child.entryStart();
+        }
+        return size;
+    }
+
+    @Override
+    public void decodeValue(Reader reader, @Nullable TagFilter filter) throws IOException {
+        // Decoding from a reader replaces the lazy value
+        children = null;
+        bytes = null;
+        order = null;
+        super.decodeValue(reader, filter);
+    }
+
+    @Override
+    public String toSNBT() {
+        materialize();
+        return super.toSNBT();
+    }
+
+    @Override
+    public Tag<?> put(@NotNull String name, @NotNull Tag<?> tag) {
+        materialize();
+        return super.put(name, tag);
+    }
+
+    @Override
+    public boolean contains(String name) {
+        return children == null ? super.contains(name) : children.containsKey(name);
+    }
+
+    @Override
+    public Tag<?> remove(String name) {
+        materialize();
+        return super.remove(name);
+    }
+
+    @Nullable
+    @Override
+    public <T extends Tag<?>> T get(String name, Class<T> clazz) {
+        if (children == null) return super.get(name, clazz);
+
+        // Use the child if it was already decoded
+        Tag<?> tag = value == null ? null : value.get(name);
+        if (tag == null) {
+            Child child = children.get(name);
+            if (child == null) return null;
+
+            // Decode and keep the child so changes to it are encoded
+            tag = decodeChild(child);
+            if (value == null) {
+                value = new Object2ObjectOpenHashMap<>(4);
+            }
+            value.put(name, tag);
+        }
+        return clazz.cast(tag);
+    }
+
+    @Override
+    public Map<String, Tag<?>> getValue() {
+        materialize();
+        return super.getValue();
+    }
+
+    @Override
+    public int size() {
+        return children == null ? super.size() : children.size();
+    }
+
+    @NotNull
+    @Override
+    public Iterator<Map.Entry<String, Tag<?>>> iterator() {
+        materialize();
+        return super.iterator();
+    }
+
+    /**
+     * The position of an encoded child.
+     *
+     * @param type       the type of the child.
+     * @param entryStart the index of the type byte of the child.
+     * @param valueStart the index of the value of the child (after the name).
+     * @param end        the index after the last byte of the child.
+     */
+    private record Child(TagType<?, ?> type, int entryStart, int valueStart, int end) {
+    }
+}
@@ -1,5 +1,6 @@
 package com.hivemc.chunker.nbt.tags.collection;
 
+import com.hivemc.chunker.nbt.TagFilter;
 import com.hivemc.chunker.nbt.TagType;
 import com.hivemc.chunker.nbt.io.Reader;
 import com.hivemc.chunker.nbt.io.Writer;
@@ -13,7 +14,8 @@ import java.util.*;
 import java.util.function.Function;
 
 /**
- * Represents a list of a specific tag.
+ * Represents a list of a specific tag. Lists of numeric tags are stored in a primitive array, the tags of these lists
+ * are created when accessed so they should be replaced using {@link #set(int, Tag)} rather than modified.
  *
  * @param <T> The type of tag in the list.
  * @param <V> The boxed value type held by the tags in the list.
@@ -71,7 +73,7 @@ public class ListTag<T extends Tag<V>, V> extends Tag<List<T>> implements Iterab
      */
     public static <T extends Tag<V>, V> ListTag<T, V> fromValues(TagType<T, V> type, List<V> values) {
         // Turn the values into tags
-        List<T> newList = new ArrayList<>(values.size());
+        List<T> newList = PrimitiveTagList.createList(type, values.size());
         Function<V, T> tagConstructor = type.getValueConstructor();
         for (V value : values) {
             newList.add(tagConstructor.apply(value));
@@ -110,7 +112,10 @@ public class ListTag<T extends Tag<V>, V> extends Tag<List<T>> implements Iterab
     @SuppressWarnings("unchecked")
     @Override
     public ListTag<T, V> clone() {
-        if (value != null) {
+        if (value instanceof PrimitiveTagList<T, ?> primitiveList) {
+            // Primitive values don't need to be cloned individually
+            return new ListTag<>(getListType(), primitiveList.copy());
+        } else if (value != null) {
             List<T> copy = new ObjectArrayList<>(value.size());
             for (T entry : value) {
                 copy.add((T) entry.clone());
@@ -126,16 +131,36 @@ public class ListTag<T extends Tag<V>, V> extends Tag<List<T>> implements Iterab
         writer.writeByte((listType == null ? TagType.END : listType).getId());
         writer.writeInt(value == null ? 0 : value.size());
 
-        if (listType != null && value != null && listType != TagType.END) {
+        if (value instanceof PrimitiveTagList<T, ?> primitiveList) {
+            primitiveList.encode(writer);
+        } else if (listType != null && value != null && listType != TagType.END) {
             for (T tag : value) {
                 tag.encodeValue(writer);
             }
         }
     }
 
-    @SuppressWarnings("unchecked")
+    @Override
+    public int getEncodedValueSize() {
+        int size = 5; // Type and length
+        if (value instanceof PrimitiveTagList<T, ?> primitiveList) {
+            size += primitiveList.getEncodedSize();
+        } else if (listType != null && value != null && listType != TagType.END) {
+            for (T tag : value) {
+                size += tag.getEncodedValueSize();
+            }
+        }
+        return size;
+    }
+
     @Override
     public void decodeValue(Reader reader) throws IOException {
+        decodeValue(reader, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void decodeValue(Reader reader, @Nullable TagFilter filter) throws IOException {
         // Read tag id
         int tagId = reader.readUnsignedByte();
         listType = (TagType<T, V>) TagType.getById(tagId);
@@ -147,12 +172,16 @@ public class ListTag<T extends Tag<V>, V> extends Tag<List<T>> implements Iterab
 
         // Start reading
         if (listType != TagType.END && length > 0) {
-            // Allocate array
-            value = new ObjectArrayList<>(length);
+            // Allocate array, numeric types are decoded straight into a primitive array
+            value = PrimitiveTagList.createList(listType, length);
+            if (value instanceof PrimitiveTagList<T, ?> primitiveList) {
+                primitiveList.decode(reader, length);
+                return;
+            }
 
             for (int i = 0; i < length; i++) {
                 T tag = Objects.requireNonNull(Objects.requireNonNull(listType).getConstructor()).get();
-                tag.decodeValue(reader);
+                tag.decodeValue(reader, filter); // Lists are transparent to the filter
                 value.add(tag);
             }
         } else {
@@ -235,8 +264,8 @@ public class ListTag<T extends Tag<V>, V> extends Tag<List<T>> implements Iterab
     @SuppressWarnings("unchecked")
     public boolean add(T value) {
         if (this.value == null) {
-            this.value = new ObjectArrayList<>(1);
             listType = (TagType<T, V>) value.getType();
+            this.value = PrimitiveTagList.createList(listType, 1);
         }
         return this.value.add(value);
     }
@@ -276,8 +305,10 @@ public class ListTag<T extends Tag<V>, V> extends Tag<List<T>> implements Iterab
      * @return a new list of the boxed values, may be an unmodifiable empty list if the underlying value is empty or
      * null.
      */
+    @SuppressWarnings("unchecked")
     public List<V> toList() {
         if (value == null || value.isEmpty()) return Collections.emptyList();
+        if (value instanceof PrimitiveTagList<T, ?> primitiveList) return (List<V>) primitiveList.toValues();
 
         // Map each tag to the boxed value
         List<V> output = new ArrayList<>(value.size());
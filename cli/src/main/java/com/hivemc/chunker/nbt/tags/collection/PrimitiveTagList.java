@@ -0,0 +1,687 @@
+package com.hivemc.chunker.nbt.tags.collection;
+
+import com.hivemc.chunker.nbt.TagType;
+import com.hivemc.chunker.nbt.io.Reader;
+import com.hivemc.chunker.nbt.io.Writer;
+import com.hivemc.chunker.nbt.tags.Tag;
+import com.hivemc.chunker.nbt.tags.primitive.*;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * A list of numeric tags which is backed by a primitive array rather than one tag object per element, used by ListTag
+ * for lists of bytes, shorts, ints, longs, floats and doubles.
+ * Note: Tags returned by the list are created on access, so changing the value of a returned tag doesn't change the
+ * list, use {@link #set(int, Object)} instead.
+ *
+ * @param <T> the type of tag in the list.
+ * @param <V> the boxed value type held by the tags in the list.
+ */
+abstract class PrimitiveTagList<T extends Tag<V>, V> extends AbstractList<T> implements RandomAccess {
+    private static final int DEFAULT_CAPACITY = 4;
+    protected int size;
+
+    /**
+     * Create the backing list to use for a type of tag.
+     *
+     * @param type     the type of tag the list will hold.
+     * @param capacity the initial capacity of the list.
+     * @param <T>      the type of tag in the list.
+     * @param <V>      the boxed value type held by the tags in the list.
+     * @return a primitive backed list if the type is numeric, otherwise a list of tag objects.
+     */
+    @SuppressWarnings("unchecked")
+    static <T extends Tag<V>, V> List<T> createList(TagType<T, V> type, int capacity) {
+        if (type == TagType.BYTE) return (List<T>) new ByteTagList(capacity);
+        if (type == TagType.SHORT) return (List<T>) new ShortTagList(capacity);
+        if (type == TagType.INT) return (List<T>) new IntTagList(capacity);
+        if (type == TagType.LONG) return (List<T>) new LongTagList(capacity);
+        if (type == TagType.FLOAT) return (List<T>) new FloatTagList(capacity);
+        if (type == TagType.DOUBLE) return (List<T>) new DoubleTagList(capacity);
+        return new ObjectArrayList<>(capacity);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Make room for a new element, shifting the elements after it.
+     *
+     * @param index the index the element will be inserted at.
+     */
+    protected void insert(int index) {
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        if (size == capacity()) {
+            resize(Math.max(DEFAULT_CAPACITY, size + (size >> 1)));
+        }
+        System.arraycopy(array(), index, array(), index + 1, size - index);
+        size++;
+        modCount++;
+    }
+
+    /**
+     * Remove an element, shifting the elements after it.
+     *
+     * @param index the index of the element to remove.
+     */
+    protected void delete(int index) {
+        Objects.checkIndex(index, size);
+        System.arraycopy(array(), index + 1, array(), index, size - index - 1);
+        size--;
+        modCount++;
+    }
+
+    /**
+     * Get the backing array.
+     *
+     * @return the primitive array holding the values.
+     */
+    protected abstract Object array();
+
+    /**
+     * Get the length of the backing array.
+     *
+     * @return the number of values which can be held without resizing.
+     */
+    protected abstract int capacity();
+
+    /**
+     * Resize the backing array.
+     *
+     * @param capacity the new length of the array.
+     */
+    protected abstract void resize(int capacity);
+
+    /**
+     * Replace the contents of the list with values decoded from a reader.
+     *
+     * @param reader the reader to read the values from.
+     * @param length the number of values to read.
+     * @throws IOException if a fault occurs reading the values.
+     */
+    abstract void decode(Reader reader, int length) throws IOException;
+
+    /**
+     * Encode the values of the list to a writer (not including the type or length).
+     *
+     * @param writer the writer to write the values to.
+     * @throws IOException if a fault occurs writing the values.
+     */
+    abstract void encode(Writer writer) throws IOException;
+
+    /**
+     * Get the number of bytes the values of the list are encoded to.
+     *
+     * @return the encoded size in bytes.
+     */
+    int getEncodedSize() {
+        return size * getElementSize();
+    }
+
+    /**
+     * Get the number of bytes each value is encoded to.
+     *
+     * @return the encoded size of a value in bytes.
+     */
+    protected abstract int getElementSize();
+
+    /**
+     * Create a list of the boxed values without creating tags.
+     *
+     * @return a new list of the values.
+     */
+    abstract List<V> toValues();
+
+    /**
+     * Create a copy of the list which doesn't share the backing array.
+     *
+     * @return the copy.
+     */
+    abstract PrimitiveTagList<T, V> copy();
+
+    /**
+     * A list of ByteTag backed by a byte[].
+     */
+    static final class ByteTagList extends PrimitiveTagList<ByteTag, Byte> {
+        private byte[] values;
+
+        ByteTagList(int capacity) {
+            values = new byte[capacity];
+        }
+
+        @Override
+        public ByteTag get(int index) {
+            Objects.checkIndex(index, size);
+            return new ByteTag(values[index]);
+        }
+
+        @Override
+        public ByteTag set(int index, ByteTag tag) {
+            ByteTag previous = get(index);
+            values[index] = tag.getValue();
+            return previous;
+        }
+
+        @Override
+        public void add(int index, ByteTag tag) {
+            byte value = tag.getValue();
+            insert(index);
+            values[index] = value;
+        }
+
+        @Override
+        public ByteTag remove(int index) {
+            ByteTag previous = get(index);
+            delete(index);
+            return previous;
+        }
+
+        @Override
+        protected int getElementSize() {
+            return 1;
+        }
+
+        @Override
+        protected Object array() {
+            return values;
+        }
+
+        @Override
+        protected int capacity() {
+            return values.length;
+        }
+
+        @Override
+        protected void resize(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        void decode(Reader reader, int length) throws IOException {
+            values = new byte[length];
+            reader.readBytes(values);
+            size = length;
+        }
+
+        @Override
+        void encode(Writer writer) throws IOException {
+            writer.writeBytes(values, 0, size);
+        }
+
+        @Override
+        List<Byte> toValues() {
+            List<Byte> output = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                output.add(values[i]);
+            }
+            return output;
+        }
+
+        @Override
+        ByteTagList copy() {
+            ByteTagList copy = new ByteTagList(0);
+            copy.values = Arrays.copyOf(values, size);
+            copy.size = size;
+            return copy;
+        }
+    }
+
+    /**
+     * A list of ShortTag backed by a short[].
+     */
+    static final class ShortTagList extends PrimitiveTagList<ShortTag, Short> {
+        private short[] values;
+
+        ShortTagList(int capacity) {
+            values = new short[capacity];
+        }
+
+        @Override
+        public ShortTag get(int index) {
+            Objects.checkIndex(index, size);
+            return new ShortTag(values[index]);
+        }
+
+        @Override
+        public ShortTag set(int index, ShortTag tag) {
+            ShortTag previous = get(index);
+            values[index] = tag.getValue();
+            return previous;
+        }
+
+        @Override
+        public void add(int index, ShortTag tag) {
+            short value = tag.getValue();
+            insert(index);
+            values[index] = value;
+        }
+
+        @Override
+        public ShortTag remove(int index) {
+            ShortTag previous = get(index);
+            delete(index);
+            return previous;
+        }
+
+        @Override
+        protected int getElementSize() {
+            return 2;
+        }
+
+        @Override
+        protected Object array() {
+            return values;
+        }
+
+        @Override
+        protected int capacity() {
+            return values.length;
+        }
+
+        @Override
+        protected void resize(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        void decode(Reader reader, int length) throws IOException {
+            values = new short[length];
+            for (int i = 0; i < length; i++) {
+                values[i] = reader.readShort();
+            }
+            size = length;
+        }
+
+        @Override
+        void encode(Writer writer) throws IOException {
+            for (int i = 0; i < size; i++) {
+                writer.writeShort(values[i]);
+            }
+        }
+
+        @Override
+        List<Short> toValues() {
+            List<Short> output = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                output.add(values[i]);
+            }
+            return output;
+        }
+
+        @Override
+        ShortTagList copy() {
+            ShortTagList copy = new ShortTagList(0);
+            copy.values = Arrays.copyOf(values, size);
+            copy.size = size;
+            return copy;
+        }
+    }
+
+    /**
+     * A list of IntTag backed by an int[].
+     */
+    static final class IntTagList extends PrimitiveTagList<IntTag, Integer> {
+        private int[] values;
+
+        IntTagList(int capacity) {
+            values = new int[capacity];
+        }
+
+        @Override
+        public IntTag get(int index) {
+            Objects.checkIndex(index, size);
+            return new IntTag(values[index]);
+        }
+
+        @Override
+        public IntTag set(int index, IntTag tag) {
+            IntTag previous = get(index);
+            values[index] = tag.getValue();
+            return previous;
+        }
+
+        @Override
+        public void add(int index, IntTag tag) {
+            int value = tag.getValue();
+            insert(index);
+            values[index] = value;
+        }
+
+        @Override
+        public IntTag remove(int index) {
+            IntTag previous = get(index);
+            delete(index);
+            return previous;
+        }
+
+        @Override
+        protected int getElementSize() {
+            return 4;
+        }
+
+        @Override
+        protected Object array() {
+            return values;
+        }
+
+        @Override
+        protected int capacity() {
+            return values.length;
+        }
+
+        @Override
+        protected void resize(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        void decode(Reader reader, int length) throws IOException {
+            values = new int[length];
+            for (int i = 0; i < length; i++) {
+                values[i] = reader.readInt();
+            }
+            size = length;
+        }
+
+        @Override
+        void encode(Writer writer) throws IOException {
+            for (int i = 0; i < size; i++) {
+                writer.writeInt(values[i]);
+            }
+        }
+
+        @Override
+        List<Integer> toValues() {
+            List<Integer> output = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                output.add(values[i]);
+            }
+            return output;
+        }
+
+        @Override
+        IntTagList copy() {
+            IntTagList copy = new IntTagList(0);
+            copy.values = Arrays.copyOf(values, size);
+            copy.size = size;
+            return copy;
+        }
+    }
+
+    /**
+     * A list of LongTag backed by a long[].
+     */
+    static final class LongTagList extends PrimitiveTagList<LongTag, Long> {
+        private long[] values;
+
+        LongTagList(int capacity) {
+            values = new long[capacity];
+        }
+
+        @Override
+        public LongTag get(int index) {
+            Objects.checkIndex(index, size);
+            return new LongTag(values[index]);
+        }
+
+        @Override
+        public LongTag set(int index, LongTag tag) {
+            LongTag previous = get(index);
+            values[index] = tag.getValue();
+            return previous;
+        }
+
+        @Override
+        public void add(int index, LongTag tag) {
+            long value = tag.getValue();
+            insert(index);
+            values[index] = value;
+        }
+
+        @Override
+        public LongTag remove(int index) {
+            LongTag previous = get(index);
+            delete(index);
+            return previous;
+        }
+
+        @Override
+        protected int getElementSize() {
+            return 8;
+        }
+
+        @Override
+        protected Object array() {
+            return values;
+        }
+
+        @Override
+        protected int capacity() {
+            return values.length;
+        }
+
+        @Override
+        protected void resize(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        void decode(Reader reader, int length) throws IOException {
+            values = new long[length];
+            for (int i = 0; i < length; i++) {
+                values[i] = reader.readLong();
+            }
+            size = length;
+        }
+
+        @Override
+        void encode(Writer writer) throws IOException {
+            for (int i = 0; i < size; i++) {
+                writer.writeLong(values[i]);
+            }
+        }
+
+        @Override
+        List<Long> toValues() {
+            List<Long> output = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                output.add(values[i]);
+            }
+            return output;
+        }
+
+        @Override
+        LongTagList copy() {
+            LongTagList copy = new LongTagList(0);
+            copy.values = Arrays.copyOf(values, size);
+            copy.size = size;
+            return copy;
+        }
+    }
+
+    /**
+     * A list of FloatTag backed by a float[].
+     */
+    static final class FloatTagList extends PrimitiveTagList<FloatTag, Float> {
+        private float[] values;
+
+        FloatTagList(int capacity) {
+            values = new float[capacity];
+        }
+
+        @Override
+        public FloatTag get(int index) {
+            Objects.checkIndex(index, size);
+            return new FloatTag(values[index]);
+        }
+
+        @Override
+        public FloatTag set(int index, FloatTag tag) {
+            FloatTag previous = get(index);
+            values[index] = tag.getValue();
+            return previous;
+        }
+
+        @Override
+        public void add(int index, FloatTag tag) {
+            float value = tag.getValue();
+            insert(index);
+            values[index] = value;
+        }
+
+        @Override
+        public FloatTag remove(int index) {
+            FloatTag previous = get(index);
+            delete(index);
+            return previous;
+        }
+
+        @Override
+        protected int getElementSize() {
+            return 4;
+        }
+
+        @Override
+        protected Object array() {
+            return values;
+        }
+
+        @Override
+        protected int capacity() {
+            return values.length;
+        }
+
+        @Override
+        protected void resize(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        void decode(Reader reader, int length) throws IOException {
+            values = new float[length];
+            for (int i = 0; i < length; i++) {
+                values[i] = reader.readFloat();
+            }
+            size = length;
+        }
+
+        @Override
+        void encode(Writer writer) throws IOException {
+            for (int i = 0; i < size; i++) {
+                writer.writeFloat(values[i]);
+            }
+        }
+
+        @Override
+        List<Float> toValues() {
+            List<Float> output = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                output.add(values[i]);
+            }
+            return output;
+        }
+
+        @Override
+        FloatTagList copy() {
+            FloatTagList copy = new FloatTagList(0);
+            copy.values = Arrays.copyOf(values, size);
+            copy.size = size;
+            return copy;
+        }
+    }
+
+    /**
+     * A list of DoubleTag backed by a double[].
+     */
+    static final class DoubleTagList extends PrimitiveTagList<DoubleTag, Double> {
+        private double[] values;
+
+        DoubleTagList(int capacity) {
+            values = new double[capacity];
+        }
+
+        @Override
+        public DoubleTag get(int index) {
+            Objects.checkIndex(index, size);
+            return new DoubleTag(values[index]);
+        }
+
+        @Override
+        public DoubleTag set(int index, DoubleTag tag) {
+            DoubleTag previous = get(index);
+            values[index] = tag.getValue();
+            return previous;
+        }
+
+        @Override
+        public void add(int index, DoubleTag tag) {
+            double value = tag.getValue();
+            insert(index);
+            values[index] = value;
+        }
+
+        @Override
+        public DoubleTag remove(int index) {
+            DoubleTag previous = get(index);
+            delete(index);
+            return previous;
+        }
+
+        @Override
+        protected int getElementSize() {
+            return 8;
+        }
+
+        @Override
+        protected Object array() {
+            return values;
+        }
+
+        @Override
+        protected int capacity() {
+            return values.length;
+        }
+
+        @Override
+        protected void resize(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        void decode(Reader reader, int length) throws IOException {
+            values = new double[length];
+            for (int i = 0; i < length; i++) {
+                values[i] = reader.readDouble();
+            }
+            size = length;
+        }
+
+        @Override
+        void encode(Writer writer) throws IOException {
+            for (int i = 0; i < size; i++) {
+                writer.writeDouble(values[i]);
+            }
+        }
+
+        @Override
+        List<Double> toValues() {
+            List<Double> output = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                output.add(values[i]);
+            }
+            return output;
+        }
+
+        @Override
+        DoubleTagList copy() {
+            DoubleTagList copy = new DoubleTagList(0);
+            copy.values = Arrays.copyOf(values, size);
+            copy.size = size;
+            return copy;
+        }
+    }
+}
@@ -58,6 +58,11 @@ public class ByteTag extends Tag<Byte> {
         writer.writeByte(value);
     }
 
+    @Override
+    public int getEncodedValueSize() {
+        return 1;
+    }
+
     @Override
     public void decodeValue(Reader reader) throws IOException {
         value = reader.readByte();
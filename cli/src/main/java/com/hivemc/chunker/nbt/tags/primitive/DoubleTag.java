@@ -58,6 +58,11 @@ public class DoubleTag extends Tag<Double> {
         writer.writeDouble(value);
     }
 
+    @Override
+    public int getEncodedValueSize() {
+        return 8;
+    }
+
     @Override
     public void decodeValue(Reader reader) throws IOException {
         value = reader.readDouble();
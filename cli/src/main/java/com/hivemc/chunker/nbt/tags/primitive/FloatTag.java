@@ -58,6 +58,11 @@ public class FloatTag extends Tag<Float> {
         writer.writeFloat(value);
     }
 
+    @Override
+    public int getEncodedValueSize() {
+        return 4;
+    }
+
     @Override
     public void decodeValue(Reader reader) throws IOException {
         value = reader.readFloat();
@@ -58,6 +58,11 @@ public class IntTag extends Tag<Integer> {
         writer.writeInt(value);
     }
 
+    @Override
+    public int getEncodedValueSize() {
+        return 4;
+    }
+
     @Override
     public void decodeValue(Reader reader) throws IOException {
         value = reader.readInt();
@@ -58,6 +58,11 @@ public class LongTag extends Tag<Long> {
         writer.writeLong(value);
     }
 
+    @Override
+    public int getEncodedValueSize() {
+        return 8;
+    }
+
     @Override
     public void decodeValue(Reader reader) throws IOException {
         value = reader.readLong();
@@ -58,6 +58,11 @@ public class ShortTag extends Tag<Short> {
         writer.writeShort(value);
     }
 
+    @Override
+    public int getEncodedValueSize() {
+        return 2;
+    }
+
     @Override
     public void decodeValue(Reader reader) throws IOException {
         value = reader.readShort();
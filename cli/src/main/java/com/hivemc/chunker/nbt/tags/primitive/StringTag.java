@@ -88,6 +88,11 @@ public class StringTag extends Tag<String> {
         writer.writeShortPrefixedBytes(value);
     }
 
+    @Override
+    public int getEncodedValueSize() {
+        return 2 + value.length;
+    }
+
     @Override
     public void decodeValue(Reader reader) throws IOException {
         stringCache = null;
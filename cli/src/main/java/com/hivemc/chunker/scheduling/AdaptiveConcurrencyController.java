@@ -0,0 +1,176 @@
+package com.hivemc.chunker.scheduling;
+
+import com.hivemc.chunker.scheduling.task.executor.WorkStealingTaskExecutor;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Thread which adjusts the number of active workers of an executor while tasks are running.
+ * <p>
+ * Workers are added while there is a backlog of queued tasks and adding workers doesn't reduce throughput, workers
+ * are removed when the heap is still mostly full after garbage collection or when the last added worker made
+ * throughput worse.
+ */
+public class AdaptiveConcurrencyController extends Thread {
+    /**
+     * The amount of heap which each worker is expected to need, used for the initial worker count.
+     */
+    public static final long HEAP_PER_WORKER = 512L * 1024L * 1024L;
+
+    /**
+     * The fraction of a heap pool which when still used after a collection indicates GC pressure.
+     */
+    public static final double GC_PRESSURE_THRESHOLD = 0.85D;
+
+    private static final long SAMPLE_INTERVAL_MS = 2000;
+    private static final int QUEUED_TASKS_PER_WORKER = 4;
+    private static final int HOLD_SAMPLES = 5;
+    private final WorkStealingTaskExecutor executor;
+    private final LongSupplier completedCounter;
+    private final List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+    private long lastCompleted;
+    private double lastThroughput;
+    private int lastChange;
+    private int holdSamples;
+
+    /**
+     * Create a new controller (not automatically started).
+     *
+     * @param executor         the executor to control, it should be created with {@link #getMaxWorkers(int)} threads.
+     * @param completedCounter a counter of completed units of work (e.g. columns) used to measure throughput.
+     */
+    public AdaptiveConcurrencyController(WorkStealingTaskExecutor executor, LongSupplier completedCounter) {
+        super("Adaptive Concurrency Controller");
+        setDaemon(true);
+        this.executor = executor;
+        this.completedCounter = completedCounter;
+
+        // Find the heap pools which report their usage after a collection
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() != MemoryType.HEAP || !pool.isCollectionUsageThresholdSupported()) continue;
+            long max = pool.getUsage().getMax();
+            if (max <= 0) continue; // Pools without a maximum (e.g. eden) don't indicate pressure
+            heapPools.add(pool);
+        }
+    }
+
+    /**
+     * Get the number of workers to start with based on the available processors and the maximum heap size.
+     *
+     * @param processors the number of available processors.
+     * @param maxHeap    the maximum heap size in bytes.
+     * @return the number of workers, at least 1.
+     */
+    public static int getInitialWorkers(int processors, long maxHeap) {
+        long heapWorkers = maxHeap == Long.MAX_VALUE ? processors : maxHeap / HEAP_PER_WORKER;
+        return (int) Math.max(1, Math.min(processors, heapWorkers));
+    }
+
+    /**
+     * Get the maximum number of workers which the controller may grow to.
+     *
+     * @param processors the number of available processors.
+     * @return the maximum number of workers, allowing extra workers for when tasks are blocked on I/O.
+     */
+    public static int getMaxWorkers(int processors) {
+        return Math.max(2, processors * 2);
+    }
+
+    @Override
+    public void run() {
+        // The thresholds are global to the JVM, so they're only changed while the controller is running
+        long[] previousThresholds = applyThresholds();
+        try {
+            lastCompleted = completedCounter.getAsLong();
+            while (!isInterrupted()) {
+                try {
+                    Thread.sleep(SAMPLE_INTERVAL_MS);
+                } catch (InterruptedException e) {
+                    return; // Interrupted, the environment has finished
+                }
+
+                adjust();
+            }
+        } finally {
+            restoreThresholds(previousThresholds);
+        }
+    }
+
+    /**
+     * Set the collection usage threshold of the heap pools which don't already have one.
+     *
+     * @return the previous threshold of each heap pool.
+     */
+    protected long[] applyThresholds() {
+        long[] previousThresholds = new long[heapPools.size()];
+        for (int i = 0; i < heapPools.size(); i++) {
+            MemoryPoolMXBean pool = heapPools.get(i);
+            previousThresholds[i] = pool.getCollectionUsageThreshold();
+
+            // Only set a threshold if one isn't already in use
+            if (previousThresholds[i] == 0) {
+                pool.setCollectionUsageThreshold((long) (pool.getUsage().getMax() * GC_PRESSURE_THRESHOLD));
+            }
+        }
+        return previousThresholds;
+    }
+
+    /**
+     * Restore the collection usage threshold of each heap pool.
+     *
+     * @param previousThresholds the thresholds returned by {@link #applyThresholds()}.
+     */
+    protected void restoreThresholds(long[] previousThresholds) {
+        for (int i = 0; i < heapPools.size(); i++) {
+            heapPools.get(i).setCollectionUsageThreshold(previousThresholds[i]);
+        }
+    }
+
+    /**
+     * Take a sample and adjust the number of active workers.
+     */
+    protected void adjust() {
+        long completed = completedCounter.getAsLong();
+        double throughput = (completed - lastCompleted) * 1000D / SAMPLE_INTERVAL_MS;
+        lastCompleted = completed;
+
+        int active = executor.getActiveWorkers();
+        int target = active;
+        if (isUnderGCPressure()) {
+            // Reduce memory usage by running fewer tasks at once
+            target = active - 1;
+            holdSamples = HOLD_SAMPLES;
+        } else if (lastChange > 0 && throughput < lastThroughput * 0.9D) {
+            // The last worker made things slower (e.g. contention on I/O), undo it and wait before growing again
+            target = active - 1;
+            holdSamples = HOLD_SAMPLES;
+        } else if (holdSamples > 0) {
+            holdSamples--;
+        } else if (executor.getQueuedTaskCount() > active * QUEUED_TASKS_PER_WORKER) {
+            // There is a backlog so try another worker
+            target = active + 1;
+        }
+
+        // Apply the change
+        executor.setActiveWorkers(target);
+        lastChange = executor.getActiveWorkers() - active;
+        lastThroughput = throughput;
+    }
+
+    /**
+     * Check whether the heap is still mostly full after the last garbage collection.
+     *
+     * @return true if any heap pool exceeded the threshold after a collection.
+     */
+    protected boolean isUnderGCPressure() {
+        for (MemoryPoolMXBean pool : heapPools) {
+            if (pool.isCollectionUsageThresholdExceeded()) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,161 @@
+package com.hivemc.chunker.scheduling;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Watches heap occupancy to decide when new work should be held back, replacing explicit garbage collection after
+ * every unit of work.
+ * <p>
+ * The occupancy after each garbage collection is recorded when the collectors notify the governor, work is throttled
+ * while it is above the throttle threshold. Garbage collection is only requested while throttled and either the heap
+ * is critically full or no collection has happened recently (so the recorded occupancy may be out of date).
+ */
+public class MemoryGovernor implements NotificationListener {
+    /**
+     * The default fraction of the heap which when still used after a collection causes throttling.
+     */
+    public static final double DEFAULT_THROTTLE_THRESHOLD = 0.75D;
+
+    /**
+     * The default fraction of the heap which when currently used is considered critical.
+     */
+    public static final double DEFAULT_CRITICAL_THRESHOLD = 0.9D;
+
+    private static final long GC_REQUEST_INTERVAL_MS = 5000;
+    private final MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+    private final List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+    private final List<NotificationEmitter> emitters = new ArrayList<>();
+    private final double throttleThreshold;
+    private final double criticalThreshold;
+    private final AtomicLong lastGCRequest = new AtomicLong();
+    private final LongAdder gcRequestCount = new LongAdder();
+    private volatile double occupancy;
+    private volatile long lastCollection;
+
+    /**
+     * Create a new memory governor using the default thresholds, {@link #start()} should be called to begin listening
+     * for collections.
+     */
+    public MemoryGovernor() {
+        this(DEFAULT_THROTTLE_THRESHOLD, DEFAULT_CRITICAL_THRESHOLD);
+    }
+
+    /**
+     * Create a new memory governor, {@link #start()} should be called to begin listening for collections.
+     *
+     * @param throttleThreshold the fraction of the heap used after a collection which causes throttling.
+     * @param criticalThreshold the fraction of the heap currently used which is considered critical.
+     */
+    public MemoryGovernor(double throttleThreshold, double criticalThreshold) {
+        this.throttleThreshold = throttleThreshold;
+        this.criticalThreshold = criticalThreshold;
+
+        // Only long-lived pools (e.g. old gen) support usage thresholds, these are the ones which indicate live data
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() != MemoryType.HEAP || !pool.isUsageThresholdSupported()) continue;
+            if (pool.getUsage().getMax() <= 0) continue;
+            heapPools.add(pool);
+        }
+    }
+
+    /**
+     * Start listening for garbage collections.
+     */
+    public void start() {
+        lastCollection = System.currentTimeMillis();
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (collector instanceof NotificationEmitter emitter) {
+                emitter.addNotificationListener(this, null, null);
+                emitters.add(emitter);
+            }
+        }
+    }
+
+    /**
+     * Stop listening for garbage collections.
+     */
+    public void stop() {
+        for (NotificationEmitter emitter : emitters) {
+            try {
+                emitter.removeNotificationListener(this);
+            } catch (Exception e) {
+                // Ignored, the listener wasn't registered
+            }
+        }
+        emitters.clear();
+    }
+
+    @Override
+    public void handleNotification(Notification notification, Object handback) {
+        // A collection finished, record how full the heap was afterwards
+        double max = 0D;
+        for (MemoryPoolMXBean pool : heapPools) {
+            MemoryUsage usage = pool.getCollectionUsage();
+            if (usage == null || usage.getMax() <= 0) continue;
+            max = Math.max(max, usage.getUsed() / (double) usage.getMax());
+        }
+        occupancy = max;
+        lastCollection = System.currentTimeMillis();
+    }
+
+    /**
+     * Check whether new work should be held back, requesting a garbage collection if the heap is critical.
+     * Note: This should be called periodically while waiting so that a collection can be requested.
+     *
+     * @return true if the heap was still too full after the last collection.
+     */
+    public boolean shouldThrottle() {
+        if (occupancy < throttleThreshold) return false;
+
+        // We're throttling, request a collection if it's critical or our information is old
+        long now = System.currentTimeMillis();
+        if (getHeapUsage() >= criticalThreshold || now - lastCollection >= GC_REQUEST_INTERVAL_MS) {
+            long last = lastGCRequest.get();
+            if (now - last >= GC_REQUEST_INTERVAL_MS && lastGCRequest.compareAndSet(last, now)) {
+                gcRequestCount.increment();
+                System.gc();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the fraction of the heap which is currently used (including garbage which has not been collected).
+     *
+     * @return the current heap usage between 0-1.
+     */
+    public double getHeapUsage() {
+        MemoryUsage usage = memoryBean.getHeapMemoryUsage();
+        return usage.getMax() <= 0 ? 0D : usage.getUsed() / (double) usage.getMax();
+    }
+
+    /**
+     * Get the fraction of the long-lived heap pools which were still used after the last collection.
+     *
+     * @return the occupancy between 0-1.
+     */
+    public double getOccupancy() {
+        return occupancy;
+    }
+
+    /**
+     * Get the number of times a garbage collection was requested.
+     *
+     * @return the number of garbage collection requests.
+     */
+    public long getGCRequestCount() {
+        return gcRequestCount.sum();
+    }
+}
@@ -0,0 +1,243 @@
+package com.hivemc.chunker.scheduling;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics for the tasks run by an executor, grouped by task name. For each name the time spent waiting in the queue
+ * and the time spent executing is recorded as a histogram, along with counters for the columns / regions processed.
+ * <p>
+ * The metrics are only collected when set on the executor, a snapshot can be taken at any time using
+ * {@link #snapshot()}.
+ */
+public class TaskMetrics {
+    /**
+     * The maximum number of task names to record separately, any others are recorded under {@link #OTHER_STAGE}.
+     */
+    public static final int MAX_STAGES = 256;
+
+    /**
+     * The name used for tasks after {@link #MAX_STAGES} has been reached.
+     */
+    public static final String OTHER_STAGE = "Other";
+
+    private final Map<String, Stage> stages = new ConcurrentHashMap<>();
+    private final LongAdder columns = new LongAdder();
+    private final LongAdder regions = new LongAdder();
+    private final long startTime = System.nanoTime();
+    private long lastSnapshotTime = startTime;
+    private long lastSnapshotColumns;
+    private long lastSnapshotRegions;
+
+    /**
+     * Get the stage used for a task name, creating it if needed.
+     *
+     * @param name the name of the task.
+     * @return the stage to record to.
+     */
+    private Stage getStage(String name) {
+        Stage stage = stages.get(name);
+        if (stage != null) return stage;
+
+        // Limit the number of stages in case names are generated
+        if (stages.size() >= MAX_STAGES) {
+            return stages.computeIfAbsent(OTHER_STAGE, (ignored) -> new Stage());
+        }
+        return stages.computeIfAbsent(name, (ignored) -> new Stage());
+    }
+
+    /**
+     * Record the time a task spent queued before it started executing.
+     *
+     * @param name      the name of the task.
+     * @param waitNanos the time in nanoseconds the task was queued.
+     */
+    public void recordQueueWait(String name, long waitNanos) {
+        getStage(name).queueWait.record(waitNanos);
+    }
+
+    /**
+     * Record the time a task spent executing (not including its children).
+     *
+     * @param name     the name of the task.
+     * @param runNanos the time in nanoseconds the task was executing.
+     */
+    public void recordExecution(String name, long runNanos) {
+        getStage(name).execution.record(runNanos);
+    }
+
+    /**
+     * Record that a column was processed.
+     */
+    public void recordColumn() {
+        columns.increment();
+    }
+
+    /**
+     * Record that a region was processed.
+     */
+    public void recordRegion() {
+        regions.increment();
+    }
+
+    /**
+     * Get the number of columns which have been recorded.
+     *
+     * @return the number of columns.
+     */
+    public long getColumns() {
+        return columns.sum();
+    }
+
+    /**
+     * Get the number of regions which have been recorded.
+     *
+     * @return the number of regions.
+     */
+    public long getRegions() {
+        return regions.sum();
+    }
+
+    /**
+     * Create a JSON snapshot of the metrics. The throughput is reported for the whole conversion and for the period
+     * since the last snapshot.
+     *
+     * @return a new JSON object containing the metrics.
+     */
+    public synchronized JsonObject snapshot() {
+        long now = System.nanoTime();
+        long columnCount = columns.sum();
+        long regionCount = regions.sum();
+        double elapsedSeconds = (now - startTime) / 1_000_000_000D;
+        double intervalSeconds = (now - lastSnapshotTime) / 1_000_000_000D;
+
+        JsonObject snapshot = new JsonObject();
+        snapshot.addProperty("elapsedMs", TimeUnit.NANOSECONDS.toMillis(now - startTime));
+        snapshot.addProperty("columns", columnCount);
+        snapshot.addProperty("regions", regionCount);
+        snapshot.addProperty("columnsPerSecond", rate(columnCount, elapsedSeconds));
+        snapshot.addProperty("regionsPerSecond", rate(regionCount, elapsedSeconds));
+        snapshot.addProperty("recentColumnsPerSecond", rate(columnCount - lastSnapshotColumns, intervalSeconds));
+        snapshot.addProperty("recentRegionsPerSecond", rate(regionCount - lastSnapshotRegions, intervalSeconds));
+
+        // Add each stage sorted by name so snapshots are easy to compare
+        JsonObject stagesObject = new JsonObject();
+        for (Map.Entry<String, Stage> entry : new TreeMap<>(stages).entrySet()) {
+            JsonObject stageObject = new JsonObject();
+            stageObject.add("queueWait", entry.getValue().queueWait.toJson());
+            stageObject.add("execution", entry.getValue().execution.toJson());
+            stagesObject.add(entry.getKey(), stageObject);
+        }
+        snapshot.add("stages", stagesObject);
+
+        // Record the values used for the next interval
+        lastSnapshotTime = now;
+        lastSnapshotColumns = columnCount;
+        lastSnapshotRegions = regionCount;
+        return snapshot;
+    }
+
+    private static double rate(long count, double seconds) {
+        return seconds <= 0D ? 0D : count / seconds;
+    }
+
+    /**
+     * The metrics recorded for a single task name.
+     */
+    private static class Stage {
+        private final Histogram queueWait = new Histogram();
+        private final Histogram execution = new Histogram();
+    }
+
+    /**
+     * A histogram of durations using power of two microsecond buckets, bucket i counts durations below 2^i
+     * microseconds (and at least 2^(i-1)). Recording is lock-free.
+     */
+    public static class Histogram {
+        private static final int BUCKETS = 40;
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        /**
+         * Record a duration.
+         *
+         * @param nanos the duration in nanoseconds.
+         */
+        public void record(long nanos) {
+            long micros = Math.max(0, nanos / 1000);
+            int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+            buckets.incrementAndGet(bucket);
+            count.increment();
+            total.add(nanos);
+            max.accumulate(nanos);
+        }
+
+        /**
+         * Get the number of durations recorded.
+         *
+         * @return the count.
+         */
+        public long getCount() {
+            return count.sum();
+        }
+
+        /**
+         * Estimate a percentile using the upper bound of the bucket it falls in (limited to the maximum recorded).
+         *
+         * @param percentile the percentile between 0-1.
+         * @return the estimated duration in milliseconds.
+         */
+        public double getPercentileMs(double percentile) {
+            double maxMs = max.get() / 1_000_000D;
+            long target = (long) Math.ceil(count.sum() * percentile);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets.get(i);
+                if (seen >= target && seen > 0) {
+                    return Math.min(maxMs, (1L << i) / 1000D);
+                }
+            }
+            return maxMs;
+        }
+
+        /**
+         * Create a JSON representation of the histogram, trailing empty buckets are not included.
+         *
+         * @return a new JSON object containing the histogram.
+         */
+        public JsonObject toJson() {
+            JsonObject object = new JsonObject();
+            long countValue = count.sum();
+            long totalValue = total.sum();
+            object.addProperty("count", countValue);
+            object.addProperty("totalMs", totalValue / 1_000_000D);
+            object.addProperty("meanMs", countValue == 0 ? 0D : totalValue / (double) countValue / 1_000_000D);
+            object.addProperty("p50Ms", getPercentileMs(0.5D));
+            object.addProperty("p90Ms", getPercentileMs(0.9D));
+            object.addProperty("p99Ms", getPercentileMs(0.99D));
+            object.addProperty("maxMs", max.get() / 1_000_000D);
+
+            // Only include the buckets up to the last one used
+            int last = BUCKETS - 1;
+            while (last >= 0 && buckets.get(last) == 0) {
+                last--;
+            }
+            JsonArray bucketsArray = new JsonArray(last + 1);
+            for (int i = 0; i <= last; i++) {
+                bucketsArray.add(buckets.get(i));
+            }
+            object.add("buckets", bucketsArray);
+            return object;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.hivemc.chunker.scheduling;
+
+import com.google.gson.JsonObject;
+import com.hivemc.chunker.scheduling.task.ProgressiveTask;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Thread to periodically report a snapshot of the task metrics while a task is running, a final snapshot is reported
+ * when the task completes.
+ */
+public class TaskMetricsReporter extends Thread {
+    /**
+     * The default interval between snapshots.
+     */
+    public static final long DEFAULT_INTERVAL_MS = 1000;
+
+    private final TaskMetrics metrics;
+    private final long intervalMs;
+    private final Consumer<JsonObject> snapshotHandler;
+    private final CompletableFuture<?> taskFuture;
+
+    /**
+     * Create the new reporter thread (not automatically started).
+     *
+     * @param task            the task which the metrics are for (the future should be ready to use).
+     * @param metrics         the metrics to report.
+     * @param intervalMs      the milliseconds between each snapshot.
+     * @param snapshotHandler the consumer to call with each snapshot.
+     */
+    public TaskMetricsReporter(ProgressiveTask<?> task, TaskMetrics metrics, long intervalMs, Consumer<JsonObject> snapshotHandler) {
+        super("Task Metrics Thread");
+        this.metrics = metrics;
+        this.intervalMs = intervalMs;
+        this.snapshotHandler = snapshotHandler;
+        taskFuture = task.future();
+        setDaemon(true);
+    }
+
+    @Override
+    public void run() {
+        while (true) {
+            try {
+                Thread.sleep(intervalMs);
+            } catch (InterruptedException e) {
+                return; // Interrupted, cancel
+            }
+
+            // Stop once the task is done so the final snapshot is only reported once
+            if (taskFuture.isDone()) break;
+            snapshotHandler.accept(metrics.snapshot());
+        }
+
+        // Report the final values
+        snapshotHandler.accept(metrics.snapshot());
+    }
+}
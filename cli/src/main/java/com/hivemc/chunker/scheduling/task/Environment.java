@@ -2,6 +2,7 @@ package com.hivemc.chunker.scheduling.task;
 
 import com.google.common.base.Preconditions;
 import com.hivemc.chunker.scheduling.task.executor.TaskExecutor;
+import com.hivemc.chunker.scheduling.task.executor.WorkStealingTaskExecutor;
 import com.hivemc.chunker.util.SneakyThrows;
 import org.jetbrains.annotations.Nullable;
 
@@ -28,8 +29,18 @@ public class Environment extends TrackedTask<Void> implements Closeable {
      * @param signalConsumer   a consumer which can accept signals from tasks.
      */
     public Environment(String name, int threads, Consumer<Throwable> exceptionHandler, @Nullable BiConsumer<String, Object> signalConsumer) {
+        this(name, new WorkStealingTaskExecutor(threads, exceptionHandler, signalConsumer));
+    }
+
+    /**
+     * Create an environment which uses an already started executor.
+     *
+     * @param name     the name of the environment used for the task.
+     * @param executor the executor to use for execution of tasks, this is shutdown when the environment is freed.
+     */
+    public Environment(String name, TaskExecutor executor) {
         super(name, TaskWeight.NONE);
-        executor = new TaskExecutor(threads, exceptionHandler, signalConsumer);
+        this.executor = executor;
     }
 
     @Override
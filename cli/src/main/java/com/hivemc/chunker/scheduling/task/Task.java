@@ -141,6 +141,45 @@ public interface Task<O> {
         return task;
     }
 
+    /**
+     * Create and run an asynchronous task which performs blocking I/O as a child of the current task. The task is run
+     * using the I/O lane of the executor, tasks scheduled from inside it are run using the normal workers.
+     *
+     * @param name     the name for the task.
+     * @param weight   the weight of the task relative to its siblings.
+     * @param runnable the runnable to execute asynchronously.
+     * @return a progressive task wrapping the runnable.
+     */
+    static ProgressiveTask<Void> asyncIO(String name, TaskWeight weight, ThrowableRunnable runnable) {
+        WrappedTask<Object, Void> task = new WrappedTask<>(name, weight, runnable);
+        task.setupParent(); // Setup parent before it's possible for the task to be run
+
+        // Schedule the task
+        TaskExecutor taskExecutor = TaskExecutor.currentExecutor();
+        task.setupFuture(taskExecutor.executeIO(task, task.getPriority()));
+        return task;
+    }
+
+    /**
+     * Create and run an asynchronous task which performs blocking I/O as a child of the current task. The task is run
+     * using the I/O lane of the executor, tasks scheduled from inside it are run using the normal workers.
+     *
+     * @param name     the name for the task.
+     * @param weight   the weight of the task relative to its siblings.
+     * @param supplier the supplier to execute asynchronously.
+     * @param <T>      the type which is returned by the supplier.
+     * @return a progressive task wrapping the supplier.
+     */
+    static <T> ProgressiveTask<T> asyncIO(String name, TaskWeight weight, ThrowableSupplier<T> supplier) {
+        WrappedTask<Object, T> task = new WrappedTask<>(name, weight, supplier);
+        task.setupParent(); // Setup parent before it's possible for the task to be run
+
+        // Schedule the task
+        TaskExecutor taskExecutor = TaskExecutor.currentExecutor();
+        task.setupFuture(taskExecutor.executeIO(task, task.getPriority()));
+        return task;
+    }
+
     /**
      * Create and run an asynchronous task as a child of the current task.
      *
@@ -271,6 +310,24 @@ public interface Task<O> {
         return new FutureTask<>(join(tasks).future().thenApply((results) -> results.toArray(arrayConstructor)));
     }
 
+    /**
+     * Create and run a batch of small units as a single asynchronous task, the units are run in order on the same
+     * thread. This avoids scheduling a task for each unit when the units are too small to benefit from running in
+     * parallel, any tasks created by the units are children of the batch.
+     *
+     * @param name       the name for the task.
+     * @param unitWeight the weight of each unit, the batch has the combined weight of all the units.
+     * @param units      the units to run.
+     * @return a progressive task which is completed when all the units (and their children) have completed.
+     */
+    static ProgressiveTask<Void> asyncBatch(String name, TaskWeight unitWeight, Collection<? extends ThrowableRunnable> units) {
+        return async(name, unitWeight.multiply(units.size()), () -> {
+            for (ThrowableRunnable unit : units) {
+                unit.run();
+            }
+        });
+    }
+
     /**
      * Create and run an asynchronous task as a child of the current task.
      *
@@ -330,6 +387,24 @@ public interface Task<O> {
         return environment;
     }
 
+    /**
+     * Create a new environment for scheduling tasks using a specific executor also setting the executor for the
+     * current thread.
+     *
+     * @param name     the name to use for the environment.
+     * @param executor the executor to use for running tasks.
+     * @return the new environment which has been started.
+     */
+    static Environment environment(String name, TaskExecutor executor) {
+        Environment environment = new Environment(name, executor);
+
+        // Start the environment (this isn't a real task)
+        environment.start();
+
+        // When the try-catch is over, it should call free
+        return environment;
+    }
+
     /**
      * Get the future which is backing this task, it is recommended to only use this when the behaviour is not otherwise
      * provided as other methods of Task can provide functionality like progress tracking and scheduling.
@@ -37,6 +37,31 @@ public class TaskWeight {
         this.weight = weight;
     }
 
+    /**
+     * Create a TaskWeight which is the sum of several weights, this is used when several units of work are run as a
+     * single task.
+     *
+     * @param weights the weights to combine.
+     * @return a new TaskWeight with the total of the weights.
+     */
+    public static TaskWeight combine(TaskWeight... weights) {
+        int total = 0;
+        for (TaskWeight weight : weights) {
+            total += weight.getWeight();
+        }
+        return new TaskWeight(total);
+    }
+
+    /**
+     * Create a TaskWeight which represents this weight repeated several times.
+     *
+     * @param count the number of times the weight is repeated.
+     * @return a new TaskWeight with this weight multiplied by the count.
+     */
+    public TaskWeight multiply(int count) {
+        return new TaskWeight(weight * count);
+    }
+
     /**
      * Get the integer weight represented by this object.
      *
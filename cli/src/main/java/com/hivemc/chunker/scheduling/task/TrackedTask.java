@@ -2,24 +2,40 @@ package com.hivemc.chunker.scheduling.task;
 
 import com.hivemc.chunker.util.SneakyThrows;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Stack;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 
 /**
  * TrackedTask is a task which can track its depth and have children. It implements progressive task allowing progress
  * to be reported.
+ * <p>
+ * Progress is tracked incrementally, whenever a child is added or the progress of a child changes the difference is
+ * pushed to the parent. This allows {@link #getProgress()} to be read without locking or walking the children.
  *
  * @param <O> the type returned from the task.
  */
+@SuppressWarnings("rawtypes")
 public abstract class TrackedTask<O> implements ProgressiveTask<O> {
     private static final ThreadLocal<Stack<TrackedTask<?>>> currentTaskStack = ThreadLocal.withInitial(Stack::new);
+    private static final AtomicIntegerFieldUpdater<TrackedTask> CHILD_WEIGHT = AtomicIntegerFieldUpdater.newUpdater(TrackedTask.class, "childWeight");
+    private static final AtomicLongFieldUpdater<TrackedTask> CHILD_PROGRESS = AtomicLongFieldUpdater.newUpdater(TrackedTask.class, "childProgressBits");
+    private static final AtomicLongFieldUpdater<TrackedTask> PROGRESS = AtomicLongFieldUpdater.newUpdater(TrackedTask.class, "progressBits");
     private final String name;
     private final int weight;
-    private Task.TaskStatus status;
+    private volatile Task.TaskStatus status;
     private List<ProgressiveTask<?>> children;
     private int depth;
+    private volatile TrackedTask<?> parent;
+    // The total weight of the children
+    private volatile int childWeight;
+    // The sum of each child's progress multiplied by its weight (stored as double bits)
+    private volatile long childProgressBits;
+    // The progress of this task between 0-1 (stored as double bits)
+    private volatile long progressBits;
 
     /**
      * Create a new TrackedTask.
@@ -70,13 +86,62 @@ public abstract class TrackedTask<O> implements ProgressiveTask<O> {
                 throw new RuntimeException("Tried to launch a task after the parent completed, this shouldn't be possible.");
             }
             if (parentTask.children == null) {
-                parentTask.children = new LinkedList<>();
+                parentTask.children = new ArrayList<>();
             }
             parentTask.children.add(this);
         }
 
         // Setup depth
         depth = parentTask.getDepth() + 1;
+
+        // Add our weight to the parent, so it knows the total it's waiting for
+        parent = parentTask;
+        CHILD_WEIGHT.addAndGet(parentTask, getWeight());
+        parentTask.updateProgress();
+    }
+
+    /**
+     * Add to the weighted progress of the children of this task and update the progress.
+     *
+     * @param weightedDelta the change in progress of a child multiplied by the weight of the child.
+     */
+    private void addChildProgress(double weightedDelta) {
+        long previous;
+        long next;
+        do {
+            previous = childProgressBits;
+            next = Double.doubleToRawLongBits(Double.longBitsToDouble(previous) + weightedDelta);
+        } while (!CHILD_PROGRESS.compareAndSet(this, previous, next));
+
+        // Re-calculate our progress
+        updateProgress();
+    }
+
+    /**
+     * Re-calculate the progress of this task and push the difference to the parent.
+     */
+    private void updateProgress() {
+        while (true) {
+            long previousBits = progressBits;
+            double progress;
+            if (status == TaskStatus.DONE) {
+                progress = 1D;
+            } else {
+                int totalWeight = getSelfWeight() + childWeight;
+                progress = totalWeight == 0 ? 0D : Double.longBitsToDouble(childProgressBits) / totalWeight;
+                progress = Math.max(0D, Math.min(1D, progress));
+            }
+
+            // Only push the difference if we were the one to change the progress
+            if (PROGRESS.compareAndSet(this, previousBits, Double.doubleToRawLongBits(progress))) {
+                double delta = progress - Double.longBitsToDouble(previousBits);
+                TrackedTask<?> parentTask = parent;
+                if (delta != 0D && parentTask != null && getWeight() != 0) {
+                    parentTask.addChildProgress(delta * getWeight());
+                }
+                return;
+            }
+        }
     }
 
     /**
@@ -102,6 +167,10 @@ public abstract class TrackedTask<O> implements ProgressiveTask<O> {
             // To prevent memory leaks we'll clean up internal resources
             children = null;
         }
+
+        // Mark the progress as complete and let the parent know
+        updateProgress();
+        parent = null;
     }
 
     /**
@@ -162,27 +231,7 @@ public abstract class TrackedTask<O> implements ProgressiveTask<O> {
 
     @Override
     public double getProgress() {
-        synchronized (this) {
-            if (status == TaskStatus.PENDING) {
-                return 0; // No progress
-            } else if (status == TaskStatus.STARTED) {
-                if (children != null) {
-                    int totalWeight = getSelfWeight();
-                    double weightedProgressTotal = 0D;
-                    for (ProgressiveTask<?> task : children) {
-                        weightedProgressTotal += task.getProgress() * task.getWeight();
-                        totalWeight += task.getWeight();
-                    }
-                    return totalWeight == 0 ? 0 : weightedProgressTotal / totalWeight;
-                } else {
-                    return 0D; // There are no children so we can't infer progress
-                }
-            } else if (status == TaskStatus.DONE) {
-                return 1D; // done
-            }
-
-            throw new IllegalArgumentException("Unknown TaskStatus");
-        }
+        return Double.longBitsToDouble(progressBits);
     }
 
     @Override
@@ -1,6 +1,7 @@
 package com.hivemc.chunker.scheduling.task;
 
 import com.hivemc.chunker.scheduling.LoggedException;
+import com.hivemc.chunker.scheduling.TaskMetrics;
 import com.hivemc.chunker.scheduling.function.Invokable;
 import com.hivemc.chunker.scheduling.task.executor.TaskExecutor;
 import com.hivemc.chunker.util.SneakyThrows;
@@ -80,6 +81,8 @@ public class WrappedTask<I, O> extends TrackedTask<O> implements Function<I, O>,
     @Override
     public O apply(I input) {
         start();
+        TaskMetrics metrics = TaskExecutor.currentMetrics();
+        long startTime = metrics == null ? 0 : System.nanoTime();
         try {
             return onSelfComplete(lambda.invoke(input));
         } catch (Throwable t) {
@@ -88,6 +91,11 @@ public class WrappedTask<I, O> extends TrackedTask<O> implements Function<I, O>,
             return null;
         } finally {
             lambda = null;
+
+            // Record the time spent running this task (children are recorded separately)
+            if (metrics != null) {
+                metrics.recordExecution(getName(), System.nanoTime() - startTime);
+            }
         }
     }
 
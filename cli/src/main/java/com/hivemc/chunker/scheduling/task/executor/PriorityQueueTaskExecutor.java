@@ -0,0 +1,82 @@
+package com.hivemc.chunker.scheduling.task.executor;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Comparator;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * A TaskExecutor which uses a single shared priority queue that is polled by every worker thread.
+ * Note: The workers never block while waiting for tasks, so they will use CPU while idle. This is kept as a reference
+ * implementation, {@link WorkStealingTaskExecutor} should be preferred.
+ */
+public class PriorityQueueTaskExecutor extends TaskExecutor {
+    private static final Comparator<PriorityRunnable> COMPARATOR = Comparator.comparing(PriorityRunnable::getPriority).reversed();
+    private final PriorityBlockingQueue<PriorityRunnable> tasks = new PriorityBlockingQueue<>(100, COMPARATOR);
+    private final Thread[] pool;
+
+    /**
+     * Create a new PriorityQueueTaskExecutor to handle new tasks.
+     *
+     * @param threads          the number of threads to use and start.
+     * @param exceptionHandler the handler if present to use for exceptions that occur.
+     * @param signalConsumer   a consumer which can accept signals from tasks.
+     */
+    public PriorityQueueTaskExecutor(int threads, @Nullable Consumer<Throwable> exceptionHandler, @Nullable BiConsumer<String, Object> signalConsumer) {
+        super(exceptionHandler, signalConsumer);
+        pool = new Thread[threads];
+        for (int i = 0; i < pool.length; i++) {
+            pool[i] = new Thread(this::threadLoop, "Task Processor " + i);
+            pool[i].setUncaughtExceptionHandler(this::handleUncaughtException);
+            pool[i].start();
+        }
+    }
+
+    @Override
+    protected void schedule(PriorityRunnable task) {
+        tasks.add(task);
+    }
+
+    @Override
+    public boolean runPendingTask() {
+        PriorityRunnable task = tasks.poll();
+        if (task == null) return false;
+
+        // Run the task on the calling thread
+        task.run();
+        return true;
+    }
+
+    @Override
+    public void shutdown() {
+        for (Thread thread : pool) {
+            thread.interrupt();
+        }
+
+        // Clear any tasks
+        tasks.clear();
+    }
+
+    /**
+     * Used by the workers as the main thread loop.
+     * <p>
+     * When the thread is interrupted it will no longer poll tasks.
+     */
+    protected void threadLoop() {
+        // Setup thread local
+        setCurrentThreadExecutor();
+
+        // Main loop
+        while (!Thread.currentThread().isInterrupted()) {
+            PriorityRunnable task = tasks.poll();
+            if (task != null) {
+                task.run();
+            }
+        }
+
+        // Clear thread local
+        clearCurrentThreadExecutor();
+    }
+}
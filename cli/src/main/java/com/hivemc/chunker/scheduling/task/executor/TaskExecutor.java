@@ -1,44 +1,39 @@
 package com.hivemc.chunker.scheduling.task.executor;
 
 import com.google.common.base.Preconditions;
+import com.hivemc.chunker.scheduling.TaskMetrics;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Comparator;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.PriorityBlockingQueue;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 /**
- * TaskExecutor handles the execution of asynchronous tasks, these are scheduled by priority and then polled by the
+ * TaskExecutor handles the execution of asynchronous tasks, these are scheduled by priority and then executed by the
  * threads of the executor. ThreadLocals are used to assign the TaskExecutor so after creating a TaskExecutor the
  * {@link #setCurrentThreadExecutor()} method should be called in the relevant thread to ensure tasks are scheduled.
+ * <p>
+ * Implementations decide how tasks are queued and how worker threads wait for work, see
+ * {@link WorkStealingTaskExecutor} (the default) and {@link PriorityQueueTaskExecutor}.
  */
-public class TaskExecutor {
+public abstract class TaskExecutor {
     private static final ThreadLocal<TaskExecutor> EXECUTORS = new InheritableThreadLocal<>();
-    private static final Comparator<PriorityRunnable> COMPARATOR = Comparator.comparing(PriorityRunnable::getPriority).reversed();
-    private final PriorityBlockingQueue<PriorityRunnable> tasks = new PriorityBlockingQueue<>(100, COMPARATOR);
-    private final Thread[] pool;
     private final Consumer<Throwable> exceptionHandler;
     @Nullable
     private final BiConsumer<String, Object> signalConsumer;
+    @Nullable
+    private volatile TaskMetrics metrics;
 
     /**
      * Create a new TaskExecutor to handle new tasks.
+     * Note: Implementations are responsible for starting their worker threads once they are fully constructed.
      *
-     * @param threads          the number of threads to use and start.
      * @param exceptionHandler the handler if present to use for exceptions that occur.
      * @param signalConsumer   a consumer which can accept signals from tasks.
      */
-    public TaskExecutor(int threads, @Nullable Consumer<Throwable> exceptionHandler, @Nullable BiConsumer<String, Object> signalConsumer) {
-        pool = new Thread[threads];
-        for (int i = 0; i < pool.length; i++) {
-            pool[i] = new Thread(this::threadLoop, "Task Processor " + i);
-            pool[i].setUncaughtExceptionHandler(this::handleUncaughtException);
-            pool[i].start();
-        }
+    protected TaskExecutor(@Nullable Consumer<Throwable> exceptionHandler, @Nullable BiConsumer<String, Object> signalConsumer) {
         this.exceptionHandler = exceptionHandler;
         this.signalConsumer = signalConsumer;
     }
@@ -80,6 +75,17 @@ public class TaskExecutor {
         return executor;
     }
 
+    /**
+     * Get the metrics for the executor of the current thread.
+     *
+     * @return the metrics or null if there is no current executor or it isn't collecting metrics.
+     */
+    @Nullable
+    public static TaskMetrics currentMetrics() {
+        TaskExecutor executor = EXECUTORS.get();
+        return executor == null ? null : executor.metrics;
+    }
+
     /**
      * Set the executor for the current thread as this task executor.
      */
@@ -123,25 +129,83 @@ public class TaskExecutor {
     public <T> CompletableFuture<T> execute(Supplier<T> supplier, int priority) {
         // Create the future and wrapper
         CompletableFuture<T> future = new CompletableFuture<>();
-        TaskExecutorSupplier<T> wrapper = new TaskExecutorSupplier<>(priority, supplier, future);
+        TaskExecutorSupplier<T> wrapper = new TaskExecutorSupplier<>(priority, supplier, future, metrics);
 
         // Schedule the task
-        tasks.add(wrapper);
+        schedule(wrapper);
 
         // Return the future so it can be used
         return future;
     }
 
     /**
-     * Shutdown all the threads in the task executor (interrupt) and clear the queue.
+     * Add a task to be run by one of the worker threads.
+     *
+     * @param task the task to schedule.
      */
-    public void shutdown() {
-        for (Thread thread : pool) {
-            thread.interrupt();
-        }
+    protected abstract void schedule(PriorityRunnable task);
 
-        // Clear any tasks
-        tasks.clear();
+    /**
+     * Execute a task which performs blocking I/O with a priority.
+     *
+     * @param supplier the supplier which when executed runs the task and returns a result.
+     * @param priority the priority in relation to other I/O tasks which it should be executed (highest first).
+     * @param <T>      the type that the task returns when executed.
+     * @return the completable future for monitoring the task completion.
+     */
+    public <T> CompletableFuture<T> executeIO(Supplier<T> supplier, int priority) {
+        // Create the future and wrapper
+        CompletableFuture<T> future = new CompletableFuture<>();
+        TaskExecutorSupplier<T> wrapper = new TaskExecutorSupplier<>(priority, supplier, future, metrics);
+
+        // Schedule the task
+        scheduleIO(wrapper);
+
+        // Return the future so it can be used
+        return future;
+    }
+
+    /**
+     * Add a task which performs blocking I/O to be run, by default this uses the same worker threads as other tasks.
+     *
+     * @param task the task to schedule.
+     */
+    protected void scheduleIO(PriorityRunnable task) {
+        schedule(task);
+    }
+
+    /**
+     * Run a single queued task on the calling thread if one is available. This allows a task which is waiting for
+     * other tasks to make progress (e.g. waiting for admission) to help rather than holding a worker idle.
+     *
+     * @return true if a task was run, false if there was no task available.
+     */
+    public boolean runPendingTask() {
+        return false;
+    }
+
+    /**
+     * Shutdown all the threads in the task executor (interrupt) and clear any queued tasks.
+     */
+    public abstract void shutdown();
+
+    /**
+     * Get the metrics which tasks run by this executor are recorded to.
+     *
+     * @return the metrics or null if metrics aren't being collected.
+     */
+    @Nullable
+    public TaskMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Set the metrics which tasks run by this executor should be recorded to.
+     *
+     * @param metrics the metrics to record to, null to stop collecting metrics.
+     */
+    public void setMetrics(@Nullable TaskMetrics metrics) {
+        this.metrics = metrics;
     }
 
     /**
@@ -161,25 +225,4 @@ public class TaskExecutor {
             handleException(t);
         }
     }
-
-    /**
-     * Used by the workers as the main thread loop.
-     * <p>
-     * When the thread is interrupted it will no longer poll tasks.
-     */
-    protected void threadLoop() {
-        // Setup thread local
-        setCurrentThreadExecutor();
-
-        // Main loop
-        while (!Thread.currentThread().isInterrupted()) {
-            PriorityRunnable task = tasks.poll();
-            if (task != null) {
-                task.run();
-            }
-        }
-
-        // Clear thread local
-        clearCurrentThreadExecutor();
-    }
 }
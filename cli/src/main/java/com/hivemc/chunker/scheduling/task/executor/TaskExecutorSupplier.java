@@ -1,5 +1,9 @@
 package com.hivemc.chunker.scheduling.task.executor;
 
+import com.hivemc.chunker.scheduling.TaskMetrics;
+import com.hivemc.chunker.scheduling.task.TrackedTask;
+import org.jetbrains.annotations.Nullable;
+
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
 
@@ -11,6 +15,9 @@ import java.util.function.Supplier;
  */
 class TaskExecutorSupplier<T> implements PriorityRunnable {
     private final int priority;
+    @Nullable
+    private final TaskMetrics metrics;
+    private final long scheduledTime;
     private Supplier<? extends T> supplier;
     private CompletableFuture<T> future;
 
@@ -20,11 +27,14 @@ class TaskExecutorSupplier<T> implements PriorityRunnable {
      * @param priority the priority of the task (ordered by highest).
      * @param supplier the task as a supplier.
      * @param future   the future which should be used.
+     * @param metrics  the metrics to record the time spent queued to, null if not recorded.
      */
-    TaskExecutorSupplier(int priority, Supplier<? extends T> supplier, CompletableFuture<T> future) {
+    TaskExecutorSupplier(int priority, Supplier<? extends T> supplier, CompletableFuture<T> future, @Nullable TaskMetrics metrics) {
         this.priority = priority;
         this.supplier = supplier;
         this.future = future;
+        this.metrics = metrics;
+        scheduledTime = metrics == null ? 0 : System.nanoTime();
     }
 
     @Override
@@ -36,6 +46,11 @@ class TaskExecutorSupplier<T> implements PriorityRunnable {
             supplier = null;
             future = null;
 
+            // Record how long the task was waiting for a thread
+            if (metrics != null && localSupplier instanceof TrackedTask<?> trackedTask) {
+                metrics.recordQueueWait(trackedTask.getName(), System.nanoTime() - scheduledTime);
+            }
+
             // Fire the task if it's not been run
             if (!localFuture.isDone()) {
                 try {
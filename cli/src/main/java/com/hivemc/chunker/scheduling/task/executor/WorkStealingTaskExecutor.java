@@ -0,0 +1,349 @@
+package com.hivemc.chunker.scheduling.task.executor;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Comparator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * A TaskExecutor where each worker has its own deque of tasks and idle workers steal from the others.
+ * <p>
+ * Tasks scheduled by a worker are added to that worker's deque, the owner takes from the tail (the highest priority /
+ * most recently scheduled task) while other workers steal from the head. Tasks scheduled from outside the workers are
+ * added to a shared queue. When no work can be found a worker parks until new work is scheduled, so idle workers do
+ * not use any CPU.
+ * <p>
+ * Tasks which perform blocking I/O can be given a separate lane of threads, this ensures that workers blocked on disk
+ * don't prevent CPU work from being done and that CPU work doesn't delay the I/O.
+ */
+public class WorkStealingTaskExecutor extends TaskExecutor {
+    private static final Comparator<PriorityRunnable> IO_COMPARATOR = Comparator.comparing(PriorityRunnable::getPriority).reversed();
+    private final Queue<PriorityRunnable> externalTasks = new ConcurrentLinkedQueue<>();
+    private final Queue<Worker> idleWorkers = new ConcurrentLinkedQueue<>();
+    private final PriorityBlockingQueue<PriorityRunnable> ioTasks = new PriorityBlockingQueue<>(100, IO_COMPARATOR);
+    private final Worker[] pool;
+    private final Thread[] ioPool;
+    private volatile int activeWorkers;
+
+    /**
+     * Create a new WorkStealingTaskExecutor to handle new tasks.
+     *
+     * @param threads          the number of threads to use and start.
+     * @param exceptionHandler the handler if present to use for exceptions that occur.
+     * @param signalConsumer   a consumer which can accept signals from tasks.
+     */
+    public WorkStealingTaskExecutor(int threads, @Nullable Consumer<Throwable> exceptionHandler, @Nullable BiConsumer<String, Object> signalConsumer) {
+        this(threads, threads, exceptionHandler, signalConsumer);
+    }
+
+    /**
+     * Create a new WorkStealingTaskExecutor to handle new tasks where only some of the workers are initially active.
+     *
+     * @param threads          the number of threads to use and start (the maximum number of active workers).
+     * @param activeWorkers    the number of workers which should initially take tasks.
+     * @param exceptionHandler the handler if present to use for exceptions that occur.
+     * @param signalConsumer   a consumer which can accept signals from tasks.
+     */
+    public WorkStealingTaskExecutor(int threads, int activeWorkers, @Nullable Consumer<Throwable> exceptionHandler, @Nullable BiConsumer<String, Object> signalConsumer) {
+        this(threads, activeWorkers, 0, exceptionHandler, signalConsumer);
+    }
+
+    /**
+     * Create a new WorkStealingTaskExecutor to handle new tasks with a separate lane for I/O tasks.
+     *
+     * @param threads          the number of threads to use and start for CPU tasks (the maximum number of active
+     *                         workers).
+     * @param activeWorkers    the number of workers which should initially take tasks.
+     * @param ioThreads        the number of threads to use and start for I/O tasks, 0 to run I/O tasks on the workers.
+     * @param exceptionHandler the handler if present to use for exceptions that occur.
+     * @param signalConsumer   a consumer which can accept signals from tasks.
+     */
+    public WorkStealingTaskExecutor(int threads, int activeWorkers, int ioThreads, @Nullable Consumer<Throwable> exceptionHandler, @Nullable BiConsumer<String, Object> signalConsumer) {
+        super(exceptionHandler, signalConsumer);
+        this.activeWorkers = Math.max(1, Math.min(activeWorkers, threads));
+        pool = new Worker[threads];
+        for (int i = 0; i < pool.length; i++) {
+            pool[i] = new Worker(i);
+            pool[i].setUncaughtExceptionHandler(this::handleUncaughtException);
+        }
+
+        // Start the workers after they have all been created, so they can steal from each other
+        for (Worker worker : pool) {
+            worker.start();
+        }
+
+        // Start the I/O lane
+        ioPool = new Thread[ioThreads];
+        for (int i = 0; i < ioPool.length; i++) {
+            ioPool[i] = new Thread(this::ioThreadLoop, "Task I/O Processor " + i);
+            ioPool[i].setUncaughtExceptionHandler(this::handleUncaughtException);
+            ioPool[i].start();
+        }
+    }
+
+    @Override
+    protected void schedule(PriorityRunnable task) {
+        if (Thread.currentThread() instanceof Worker worker && worker.getExecutor() == this) {
+            // Higher priority tasks go to the tail so the owner runs them first, lower priority ones can be stolen
+            PriorityRunnable newest = worker.tasks.peekLast();
+            if (newest == null || task.getPriority() >= newest.getPriority()) {
+                worker.tasks.addLast(task);
+            } else {
+                worker.tasks.addFirst(task);
+            }
+        } else {
+            externalTasks.add(task);
+        }
+
+        // Wake up a worker to handle the task if one is idle
+        wakeIdleWorker();
+    }
+
+    @Override
+    protected void scheduleIO(PriorityRunnable task) {
+        if (ioPool.length == 0) {
+            // No I/O lane, so run it with the other tasks
+            schedule(task);
+        } else {
+            ioTasks.add(task);
+        }
+    }
+
+    /**
+     * Wake up one idle worker if there are any.
+     */
+    protected void wakeIdleWorker() {
+        Worker idle = idleWorkers.poll();
+        if (idle != null) {
+            LockSupport.unpark(idle);
+        }
+    }
+
+    /**
+     * Get the number of workers which are allowed to take tasks.
+     *
+     * @return the number of active workers.
+     */
+    public int getActiveWorkers() {
+        return activeWorkers;
+    }
+
+    /**
+     * Set the number of workers which are allowed to take tasks, inactive workers finish their current task and then
+     * park until they are activated again.
+     *
+     * @param activeWorkers the number of active workers, clamped between 1 and the number of threads.
+     */
+    public void setActiveWorkers(int activeWorkers) {
+        int previous = this.activeWorkers;
+        this.activeWorkers = Math.max(1, Math.min(activeWorkers, pool.length));
+
+        // Wake up any workers which are now active
+        for (int i = previous; i < this.activeWorkers; i++) {
+            LockSupport.unpark(pool[i]);
+        }
+    }
+
+    /**
+     * Get the number of worker threads in this executor.
+     *
+     * @return the number of threads, the maximum number of active workers.
+     */
+    public int getWorkerCount() {
+        return pool.length;
+    }
+
+    /**
+     * Get the number of threads in the I/O lane.
+     *
+     * @return the number of I/O threads, 0 if I/O tasks are run by the workers.
+     */
+    public int getIOThreadCount() {
+        return ioPool.length;
+    }
+
+    /**
+     * Get an estimate of the number of CPU tasks waiting to be run.
+     * Note: This traverses the queues so should not be called frequently.
+     *
+     * @return the number of queued tasks.
+     */
+    public int getQueuedTaskCount() {
+        int count = externalTasks.size();
+        for (Worker worker : pool) {
+            count += worker.tasks.size();
+        }
+        return count;
+    }
+
+    @Override
+    public boolean runPendingTask() {
+        PriorityRunnable task;
+        if (Thread.currentThread() instanceof Worker worker && worker.getExecutor() == this) {
+            task = findTask(worker);
+        } else {
+            task = externalTasks.poll();
+        }
+        if (task == null) return false;
+
+        // Run the task on the calling thread
+        task.run();
+        return true;
+    }
+
+    @Override
+    public void shutdown() {
+        for (Worker worker : pool) {
+            worker.interrupt();
+            worker.tasks.clear();
+        }
+
+        for (Thread thread : ioPool) {
+            thread.interrupt();
+        }
+
+        // Clear any tasks
+        externalTasks.clear();
+        ioTasks.clear();
+    }
+
+    /**
+     * Find the next task for a worker, first checking its own deque, then the shared queue and finally stealing from
+     * other workers.
+     *
+     * @param worker the worker looking for a task.
+     * @return the task or null if no task could be found.
+     */
+    @Nullable
+    protected PriorityRunnable findTask(Worker worker) {
+        // Own tasks first
+        PriorityRunnable task = worker.tasks.pollLast();
+        if (task != null) return task;
+
+        // Tasks scheduled from outside the pool
+        task = externalTasks.poll();
+        if (task != null) return task;
+
+        // Steal from other workers starting at a random worker to spread contention
+        int start = ThreadLocalRandom.current().nextInt(pool.length);
+        for (int i = 0; i < pool.length; i++) {
+            Worker victim = pool[(start + i) % pool.length];
+            if (victim == worker) continue;
+
+            task = victim.tasks.pollFirst();
+            if (task != null) return task;
+        }
+
+        // No work found
+        return null;
+    }
+
+    /**
+     * Used by the workers as the main thread loop.
+     * <p>
+     * When the thread is interrupted it will no longer poll tasks.
+     *
+     * @param worker the worker running the loop.
+     */
+    protected void threadLoop(Worker worker) {
+        // Setup thread local
+        setCurrentThreadExecutor();
+
+        // Main loop
+        while (!worker.isInterrupted()) {
+            // Inactive workers wait until they're activated, their queued tasks can still be stolen
+            if (worker.index >= activeWorkers) {
+                LockSupport.park(this);
+
+                // This worker may have been woken for a task, so pass it on to an active worker
+                wakeIdleWorker();
+                continue;
+            }
+
+            PriorityRunnable task = findTask(worker);
+            if (task == null) {
+                // Register as idle then check again, this ensures a task scheduled in-between isn't missed
+                idleWorkers.add(worker);
+                task = findTask(worker);
+                if (task == null) {
+                    LockSupport.park(this);
+                }
+                idleWorkers.remove(worker);
+
+                // If this worker was deactivated while parked the wake-up was meant for new work, pass it on
+                if (task == null && worker.index >= activeWorkers) {
+                    wakeIdleWorker();
+                }
+            }
+
+            // Run the task if one was found
+            if (task != null) {
+                task.run();
+            }
+        }
+
+        // Clear thread local
+        clearCurrentThreadExecutor();
+    }
+
+    /**
+     * Used by the I/O lane threads as the main thread loop, the threads block while there are no I/O tasks.
+     * <p>
+     * When the thread is interrupted it will no longer take tasks.
+     */
+    protected void ioThreadLoop() {
+        // Setup thread local (tasks scheduled by I/O tasks go to the workers)
+        setCurrentThreadExecutor();
+
+        // Main loop
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                ioTasks.take().run();
+            }
+        } catch (InterruptedException e) {
+            // The executor was shutdown
+        }
+
+        // Clear thread local
+        clearCurrentThreadExecutor();
+    }
+
+    /**
+     * A worker thread which owns a deque of tasks.
+     */
+    protected class Worker extends Thread {
+        private final ConcurrentLinkedDeque<PriorityRunnable> tasks = new ConcurrentLinkedDeque<>();
+        private final int index;
+
+        /**
+         * Create a new worker (not automatically started).
+         *
+         * @param index the index of the worker used for the name and whether it is active.
+         */
+        protected Worker(int index) {
+            super("Task Processor " + index);
+            this.index = index;
+        }
+
+        /**
+         * Get the executor which owns this worker.
+         *
+         * @return the executor instance.
+         */
+        protected WorkStealingTaskExecutor getExecutor() {
+            return WorkStealingTaskExecutor.this;
+        }
+
+        @Override
+        public void run() {
+            threadLoop(this);
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package com.hivemc.chunker.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * A set of zlib contexts and growable buffers which are reused by a thread when compressing and decompressing NBT, so
+ * a column can be encoded or decoded without allocating (and later having to clean up) native zlib memory.
+ * <p>
+ * Contexts are borrowed using {@link #acquire()} and given back to the thread by closing them. If a thread needs a
+ * second context while one is borrowed a new one is created, which has its native memory released when it's closed.
+ */
+public final class CompressionContext implements AutoCloseable {
+    /**
+     * The largest buffer which is kept for reuse, larger buffers are dropped when the context is given back.
+     */
+    public static final int MAX_RETAINED_BUFFER_SIZE = 4 << 20;
+    private static final int INITIAL_BUFFER_SIZE = 8192;
+    private static final int GZIP_MAGIC = 0x8B1F;
+    private static final int GZIP_FLAG_HEADER_CRC = 2;
+    private static final int GZIP_FLAG_EXTRA = 4;
+    private static final int GZIP_FLAG_NAME = 8;
+    private static final int GZIP_FLAG_COMMENT = 16;
+    private static final byte[] GZIP_HEADER = {0x1F, (byte) 0x8B, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xFF};
+    private static final ThreadLocal<CompressionContext> IDLE_CONTEXTS = new ThreadLocal<>();
+    private final Deflater[] deflaters = new Deflater[Deflater.BEST_COMPRESSION + 1];
+    private final CRC32 crc32 = new CRC32();
+    private final GrowableOutputStream output = new GrowableOutputStream();
+    private final DataOutputStream dataOutput = new DataOutputStream(output);
+    private Inflater inflater;
+    private Inflater gzipInflater;
+    private Deflater gzipDeflater;
+    private byte[] compressed = new byte[INITIAL_BUFFER_SIZE];
+    private byte[] decompressed = new byte[INITIAL_BUFFER_SIZE];
+    private boolean borrowed;
+
+    private CompressionContext() {
+    }
+
+    /**
+     * Borrow the context for the current thread.
+     *
+     * @return a context which is given back to the thread when closed.
+     */
+    public static CompressionContext acquire() {
+        CompressionContext context = IDLE_CONTEXTS.get();
+        if (context == null) {
+            context = new CompressionContext();
+        } else {
+            IDLE_CONTEXTS.set(null);
+        }
+        context.borrowed = true;
+        return context;
+    }
+
+    /**
+     * Start writing uncompressed bytes, any previously written bytes are discarded.
+     *
+     * @return the output which should be written to before calling one of the finish methods.
+     */
+    public DataOutputStream startOutput() {
+        output.reset();
+        return dataOutput;
+    }
+
+    /**
+     * Start writing a known number of uncompressed bytes straight into the reusable buffer, any previously written
+     * bytes are discarded.
+     *
+     * @param length the exact number of bytes which will be written.
+     * @return a buffer of the length which should be filled before calling one of the finish methods.
+     */
+    public ByteBuffer startOutput(int length) {
+        output.reset();
+        output.ensureCapacity(length);
+        output.count = length;
+        return ByteBuffer.wrap(output.buffer, 0, length);
+    }
+
+    /**
+     * Get a copy of the bytes written since the output was started.
+     *
+     * @return the uncompressed bytes.
+     */
+    public byte[] finishUncompressed() {
+        return Arrays.copyOf(output.buffer, output.count);
+    }
+
+    /**
+     * Compress the bytes written since the output was started using zlib.
+     *
+     * @param level the compression level from 0 (no compression) to 9 (best compression).
+     * @return the zlib compressed bytes.
+     */
+    public byte[] finishZLib(int level) {
+        if (level == Deflater.DEFAULT_COMPRESSION) {
+            level = 6; // The level used by zlib for the default
+        }
+        Deflater deflater = deflaters[level];
+        if (deflater == null) {
+            deflater = deflaters[level] = new Deflater(level);
+        }
+
+        // Deflate before reading the field as it's replaced if the output doesn't fit
+        int length = deflate(deflater, 0);
+        return Arrays.copyOf(compressed, length);
+    }
+
+    /**
+     * Compress the bytes written since the output was started using GZip.
+     *
+     * @return the GZip compressed bytes.
+     */
+    public byte[] finishGZip() {
+        if (gzipDeflater == null) {
+            gzipDeflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        }
+
+        // Header, raw deflate data then the CRC and size of the uncompressed data
+        ensureCompressedCapacity(GZIP_HEADER.length);
+        System.arraycopy(GZIP_HEADER, 0, compressed, 0, GZIP_HEADER.length);
+        int length = deflate(gzipDeflater, GZIP_HEADER.length);
+        crc32.reset();
+        crc32.update(output.buffer, 0, output.count);
+        ensureCompressedCapacity(length + 8);
+        ByteBuffer trailer = ByteBuffer.wrap(compressed, length, 8).order(ByteOrder.LITTLE_ENDIAN);
+        trailer.putInt((int) crc32.getValue());
+        trailer.putInt(output.count);
+        return Arrays.copyOf(compressed, length + 8);
+    }
+
+    /**
+     * Decompress zlib data into the reusable buffer of this context.
+     *
+     * @param input the compressed data, read from the current position to the limit.
+     * @return a buffer over the decompressed bytes, valid until the context is used again.
+     * @throws IOException if the data is truncated or isn't valid zlib data.
+     */
+    public ByteBuffer inflateZLib(ByteBuffer input) throws IOException {
+        if (inflater == null) {
+            inflater = new Inflater();
+        }
+        return inflate(inflater, input);
+    }
+
+    /**
+     * Decompress GZip data into the reusable buffer of this context.
+     *
+     * @param input the compressed data, read from the current position to the limit.
+     * @return a buffer over the decompressed bytes, valid until the context is used again.
+     * @throws IOException if the data is truncated, isn't valid GZip data or fails the CRC check.
+     */
+    public ByteBuffer inflateGZip(ByteBuffer input) throws IOException {
+        ByteBuffer buffer = input.slice().order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            // Check the header and skip the optional fields
+            if (Short.toUnsignedInt(buffer.getShort()) != GZIP_MAGIC) throw new ZipException("Not in GZIP format");
+            if (buffer.get() != Deflater.DEFLATED) throw new ZipException("Unsupported compression method");
+            int flags = buffer.get();
+            buffer.position(buffer.position() + 6); // Modification time, extra flags and OS
+            if ((flags & GZIP_FLAG_EXTRA) != 0) {
+                int extraLength = Short.toUnsignedInt(buffer.getShort());
+                buffer.position(buffer.position() + extraLength);
+            }
+            if ((flags & GZIP_FLAG_NAME) != 0) {
+                skipZeroTerminated(buffer);
+            }
+            if ((flags & GZIP_FLAG_COMMENT) != 0) {
+                skipZeroTerminated(buffer);
+            }
+            if ((flags & GZIP_FLAG_HEADER_CRC) != 0) {
+                buffer.getShort();
+            }
+
+            // Inflate the raw data, the inflater moves the position to the trailer
+            if (gzipInflater == null) {
+                gzipInflater = new Inflater(true);
+            }
+            ByteBuffer result = inflate(gzipInflater, buffer);
+            crc32.reset();
+            crc32.update(result.duplicate());
+            if (buffer.getInt() != (int) crc32.getValue()) throw new ZipException("Corrupt GZIP trailer");
+            if (buffer.getInt() != result.remaining()) throw new ZipException("Corrupt GZIP trailer");
+            return result;
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new EOFException("Unexpected end of GZIP input");
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!borrowed) return;
+        borrowed = false;
+
+        // Don't keep hold of large buffers after an unusually big column
+        if (output.buffer.length > MAX_RETAINED_BUFFER_SIZE) {
+            output.buffer = new byte[INITIAL_BUFFER_SIZE];
+        }
+        if (compressed.length > MAX_RETAINED_BUFFER_SIZE) {
+            compressed = new byte[INITIAL_BUFFER_SIZE];
+        }
+        if (decompressed.length > MAX_RETAINED_BUFFER_SIZE) {
+            decompressed = new byte[INITIAL_BUFFER_SIZE];
+        }
+        output.reset();
+
+        // Give the context back to the thread, or release it if the thread already has one
+        if (IDLE_CONTEXTS.get() == null) {
+            IDLE_CONTEXTS.set(this);
+        } else {
+            end();
+        }
+    }
+
+    private int deflate(Deflater deflater, int offset) {
+        deflater.reset();
+        deflater.setInput(output.buffer, 0, output.count);
+        deflater.finish();
+        int length = offset;
+        while (!deflater.finished()) {
+            ensureCompressedCapacity(length + 1);
+            length += deflater.deflate(compressed, length, compressed.length - length);
+        }
+        return length;
+    }
+
+    private ByteBuffer inflate(Inflater inflater, ByteBuffer input) throws IOException {
+        inflater.reset();
+        inflater.setInput(input);
+        int length = 0;
+        try {
+            while (!inflater.finished()) {
+                if (length == decompressed.length) {
+                    decompressed = Arrays.copyOf(decompressed, decompressed.length << 1);
+                }
+                int inflated = inflater.inflate(decompressed, length, decompressed.length - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new EOFException("Unexpected end of ZLIB input stream");
+                }
+                length += inflated;
+            }
+        } catch (DataFormatException e) {
+            throw new ZipException(e.getMessage());
+        }
+        return ByteBuffer.wrap(decompressed, 0, length);
+    }
+
+    private static void skipZeroTerminated(ByteBuffer buffer) {
+        byte value;
+        do {
+            value = buffer.get();
+        } while (value != 0);
+    }
+
+    private void ensureCompressedCapacity(int capacity) {
+        if (compressed.length < capacity) {
+            compressed = Arrays.copyOf(compressed, Math.max(capacity, compressed.length << 1));
+        }
+    }
+
+    private void end() {
+        for (Deflater deflater : deflaters) {
+            if (deflater != null) deflater.end();
+        }
+        if (gzipDeflater != null) gzipDeflater.end();
+        if (inflater != null) inflater.end();
+        if (gzipInflater != null) gzipInflater.end();
+    }
+
+    /**
+     * An unsynchronized growable output stream which exposes its buffer.
+     */
+    private static class GrowableOutputStream extends OutputStream {
+        private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+        private int count;
+
+        @Override
+        public void write(int b) {
+            ensureCapacity(count + 1);
+            buffer[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte @NotNull [] b, int off, int len) {
+            ensureCapacity(count + len);
+            System.arraycopy(b, off, buffer, count, len);
+            count += len;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (buffer.length < capacity) {
+                buffer = Arrays.copyOf(buffer, Math.max(capacity, buffer.length << 1));
+            }
+        }
+
+        private void reset() {
+            count = 0;
+        }
+    }
+}
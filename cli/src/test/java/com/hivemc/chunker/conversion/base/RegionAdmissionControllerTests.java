@@ -0,0 +1,78 @@
+package com.hivemc.chunker.conversion.base;
+
+import com.hivemc.chunker.conversion.encoding.base.reader.RegionAdmissionController;
+import com.hivemc.chunker.scheduling.MemoryGovernor;
+import com.hivemc.chunker.scheduling.task.Environment;
+import com.hivemc.chunker.scheduling.task.ProgressiveTask;
+import com.hivemc.chunker.scheduling.task.Task;
+import com.hivemc.chunker.scheduling.task.TaskWeight;
+import com.hivemc.chunker.scheduling.task.executor.WorkStealingTaskExecutor;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for limiting the number of in-flight regions.
+ */
+public class RegionAdmissionControllerTests {
+    private static final long GB = 1024L * 1024L * 1024L;
+
+    @Test
+    public void testHeapDerivedLimit() {
+        assertEquals(32, RegionAdmissionController.getHeapDerivedLimit(4 * GB));
+        assertEquals(RegionAdmissionController.MINIMUM_LIMIT, RegionAdmissionController.getHeapDerivedLimit(64L * 1024L * 1024L));
+        assertEquals(0, RegionAdmissionController.getHeapDerivedLimit(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testInFlightLimitWithSingleWorker() {
+        RegionAdmissionController controller = new RegionAdmissionController(2);
+        assertTrue(readRegions(controller) <= 2);
+    }
+
+    @Test
+    public void testMemoryThrottledAdmission() {
+        // A governor which always throttles should only allow one region at a time
+        MemoryGovernor memoryGovernor = new MemoryGovernor(0D, Double.MAX_VALUE);
+        memoryGovernor.start();
+        try {
+            RegionAdmissionController controller = new RegionAdmissionController(0, memoryGovernor);
+            assertEquals(1, readRegions(controller));
+            assertTrue(controller.getThrottledAdmissions() > 0);
+        } finally {
+            memoryGovernor.stop();
+        }
+    }
+
+    private static int readRegions(RegionAdmissionController controller) {
+        AtomicInteger maxInFlight = new AtomicInteger();
+        AtomicInteger flushed = new AtomicInteger();
+
+        // A single worker has to help run the regions while waiting for admission
+        Environment environment = Task.environment("Admission", new WorkStealingTaskExecutor(1, null, null));
+        try {
+            Task.async("Reading regions", TaskWeight.NORMAL, () -> {
+                for (int i = 0; i < 32; i++) {
+                    controller.acquire();
+                    maxInFlight.accumulateAndGet(controller.getInFlight(), Math::max);
+
+                    ProgressiveTask<Void> flushing = Task.async("Reading region", TaskWeight.NORMAL, () -> Thread.sleep(1))
+                            .then("Region - Flushing", TaskWeight.MEDIUM, () -> {
+                                flushed.incrementAndGet();
+                            });
+                    flushing.future().whenComplete((ignored, throwable) -> controller.release());
+                }
+            });
+        } finally {
+            environment.close();
+        }
+        environment.future().join();
+
+        assertEquals(32, flushed.get());
+        assertEquals(0, controller.getInFlight());
+        return maxInFlight.get();
+    }
+}
@@ -63,7 +63,7 @@ public class BedrockEncodersTests {
             lastWorldReader = worldReader.getClass();
 
             // Check column reader
-            BedrockColumnReader columnReader = worldReader.createColumnReader(null);
+            BedrockColumnReader columnReader = worldReader.createColumnReader(null, null);
             assertInstanceOf(lastColumnReader, columnReader, "ColumnReader " + columnReader.getClass() + " should extend " + lastColumnReader);
             lastColumnReader = columnReader.getClass();
 
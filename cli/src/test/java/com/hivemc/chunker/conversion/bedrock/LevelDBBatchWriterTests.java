@@ -0,0 +1,253 @@
+package com.hivemc.chunker.conversion.bedrock;
+
+import com.hivemc.chunker.conversion.encoding.bedrock.util.LevelDBBatchWriter;
+import org.iq80.leveldb.DB;
+import org.iq80.leveldb.DBException;
+import org.iq80.leveldb.DBIterator;
+import org.iq80.leveldb.Options;
+import org.iq80.leveldb.impl.Iq80DBFactory;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for committing puts using LevelDBBatchWriter.
+ */
+public class LevelDBBatchWriterTests {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testPutsVisibleAfterFlush() throws IOException {
+        try (DB database = open("db"); LevelDBBatchWriter batchWriter = new LevelDBBatchWriter(database)) {
+            batchWriter.start();
+            batchWriter.put(key(1), key(10));
+            batchWriter.put(key(2), key(20));
+
+            // The batch isn't full, so nothing is committed until flushing
+            assertNull(database.get(key(1)));
+
+            batchWriter.flush();
+            assertArrayEquals(key(10), database.get(key(1)));
+            assertArrayEquals(key(20), database.get(key(2)));
+            assertEquals(2, batchWriter.getCommittedWrites());
+        }
+    }
+
+    @Test
+    public void testLastPutWinsAcrossBatches() throws Exception {
+        try (DB database = open("db"); LevelDBBatchWriter batchWriter = new LevelDBBatchWriter(database, 64, 1)) {
+            batchWriter.start();
+
+            // Each thread overwrites its own keys, with small batches the puts are spread over many batches
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int thread = 0; thread < 4; thread++) {
+                    int threadID = thread;
+                    futures.add(executor.submit(() -> {
+                        for (int value = 0; value < 1000; value++) {
+                            batchWriter.put(key(threadID * 10 + (value % 10)), key(value));
+                        }
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } finally {
+                executor.shutdown();
+            }
+            batchWriter.flush();
+
+            // Batches are committed in the order they were filled, so the last value of each key is kept
+            for (int thread = 0; thread < 4; thread++) {
+                for (int i = 0; i < 10; i++) {
+                    assertArrayEquals(key(990 + i), database.get(key(thread * 10 + i)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCommittedInPutOrder() throws Exception {
+        try (DB database = open("db"); RecordingBatchWriter batchWriter = new RecordingBatchWriter(database, 8)) {
+            batchWriter.start();
+            for (int i = 0; i < 100; i++) {
+                batchWriter.put(key(i), key(i));
+            }
+            batchWriter.flush();
+
+            // Every put fills the batch, so each one is committed on its own in the order they were put
+            assertEquals(100, batchWriter.batches.size());
+            for (int i = 0; i < 100; i++) {
+                assertEquals(List.of(i), batchWriter.batches.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void testPutAllNotSplit() throws Exception {
+        try (DB database = open("db"); RecordingBatchWriter batchWriter = new RecordingBatchWriter(database, 8)) {
+            batchWriter.start();
+            batchWriter.putAll(new LevelDBBatchWriter.Puts()
+                    .put(key(1), key(1))
+                    .put(key(2), key(2))
+                    .put(key(3), key(3)));
+            batchWriter.put(key(4), key(4));
+            batchWriter.flush();
+
+            // The group is larger than a batch but is still committed together
+            assertEquals(List.of(List.of(1, 2, 3), List.of(4)), batchWriter.batches);
+        }
+    }
+
+    @Test
+    public void testCommitFailure() throws Exception {
+        try (DB database = open("db")) {
+            RecordingBatchWriter batchWriter = new RecordingBatchWriter(database, 8);
+            batchWriter.failing = true;
+            batchWriter.start();
+            batchWriter.put(key(1), key(1));
+
+            // The failure is reported when flushing and by any puts after it
+            IOException exception = assertThrows(IOException.class, batchWriter::flush);
+            assertEquals("Commit failed", exception.getCause().getMessage());
+            assertThrows(DBException.class, () -> batchWriter.put(key(2), key(2)));
+            assertThrows(IOException.class, batchWriter::close);
+        }
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        try (DB database = open("db")) {
+            LevelDBBatchWriter batchWriter = new LevelDBBatchWriter(database);
+            batchWriter.start();
+            batchWriter.put(key(1), key(1));
+
+            // Closing commits anything collected
+            batchWriter.close();
+            assertArrayEquals(key(1), database.get(key(1)));
+
+            // Puts after closing fail and flushing does nothing
+            assertThrows(DBException.class, () -> batchWriter.put(key(2), key(2)));
+            batchWriter.flush();
+            batchWriter.close();
+        }
+    }
+
+    @Test
+    public void testNotStarted() throws Exception {
+        try (DB database = open("db")) {
+            LevelDBBatchWriter batchWriter = new LevelDBBatchWriter(database);
+
+            // Puts are rejected until the committer is started, but closing is still allowed
+            assertThrows(DBException.class, () -> batchWriter.put(key(1), key(1)));
+            batchWriter.flush();
+            batchWriter.close();
+        }
+    }
+
+    @Tag("LongRunning")
+    @Test
+    public void benchmarkBatchWriter() throws Exception {
+        // Warm up both first
+        benchmark("Direct (warm up)", false, 20_000);
+        benchmark("Batched (warm up)", true, 20_000);
+
+        long direct = benchmark("Direct", false, 200_000);
+        long batched = benchmark("Batched", true, 200_000);
+        assertEquals(direct, batched);
+    }
+
+    private long benchmark(String name, boolean batched, int puts) throws Exception {
+        int threads = Runtime.getRuntime().availableProcessors();
+        byte[] value = new byte[1024];
+        try (DB database = open(name + "-" + System.nanoTime())) {
+            LevelDBBatchWriter batchWriter = batched ? new LevelDBBatchWriter(database) : null;
+            if (batchWriter != null) {
+                batchWriter.start();
+            }
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            long start = System.nanoTime();
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int thread = 0; thread < threads; thread++) {
+                    int threadID = thread;
+                    futures.add(executor.submit(() -> {
+                        for (int i = threadID; i < puts; i += threads) {
+                            if (batchWriter != null) {
+                                batchWriter.put(key(i), value);
+                            } else {
+                                database.put(key(i), value);
+                            }
+                        }
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+                if (batchWriter != null) {
+                    batchWriter.close();
+                }
+            } finally {
+                executor.shutdown();
+            }
+            double wall = (System.nanoTime() - start) / 1_000_000D;
+            System.out.printf("%s: %.2fms for %d puts on %d threads (%.0f puts/s)%n", name, wall, puts, threads, puts / (wall / 1000D));
+
+            // Count the keys to ensure every put was written
+            long count = 0;
+            try (DBIterator iterator = database.iterator()) {
+                iterator.seekToFirst();
+                while (iterator.hasNext()) {
+                    iterator.next();
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    private DB open(String name) throws IOException {
+        return new Iq80DBFactory().open(tempDir.resolve(name).toFile(), new Options().createIfMissing(true));
+    }
+
+    private static byte[] key(int i) {
+        return ByteBuffer.allocate(4).putInt(i).array();
+    }
+
+    /**
+     * A batch writer which records the keys of each committed batch rather than writing them to the database.
+     */
+    private static class RecordingBatchWriter extends LevelDBBatchWriter {
+        private final List<List<Integer>> batches = Collections.synchronizedList(new ArrayList<>());
+        private volatile boolean failing;
+
+        public RecordingBatchWriter(DB database, int batchBytes) {
+            super(database, batchBytes, 1);
+        }
+
+        @Override
+        protected void commit(List<byte[]> keys, List<byte[]> values) throws IOException {
+            if (failing) throw new IOException("Commit failed");
+
+            List<Integer> batch = new ArrayList<>();
+            for (byte[] key : keys) {
+                batch.add(ByteBuffer.wrap(key).getInt());
+            }
+            batches.add(batch);
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.hivemc.chunker.conversion.bedrock;
+
+import com.hivemc.chunker.conversion.encoding.bedrock.util.LevelDBBulkLoader;
+import com.hivemc.chunker.conversion.encoding.bedrock.util.LevelDBCompactionScheduler;
+import org.iq80.leveldb.DB;
+import org.iq80.leveldb.DBException;
+import org.iq80.leveldb.Options;
+import org.iq80.leveldb.WriteBatch;
+import org.iq80.leveldb.impl.Iq80DBFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for loading sorted runs into a database with LevelDBBulkLoader.
+ */
+public class LevelDBBulkLoaderTests {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testLastValueKept() throws IOException {
+        File runDirectory = tempDir.resolve("runs").toFile();
+        try (DB database = open()) {
+            // Each run holds 4 entries
+            try (LevelDBBulkLoader bulkLoader = new LevelDBBulkLoader(database, runDirectory, 32, null)) {
+                bulkLoader.start();
+
+                // Duplicates inside a single run
+                bulkLoader.put(key(1), key(10));
+                bulkLoader.put(key(1), key(11));
+                bulkLoader.put(key(2), key(20));
+                bulkLoader.put(key(3), key(30));
+
+                // Duplicates across runs
+                bulkLoader.put(key(2), key(21));
+                bulkLoader.put(key(3), key(31));
+                bulkLoader.put(key(4), key(40));
+                bulkLoader.put(key(5), key(50));
+                bulkLoader.put(key(3), key(32));
+
+                // Nothing is written until flushing
+                assertNull(database.get(key(1)));
+                bulkLoader.flush();
+            }
+
+            assertArrayEquals(key(11), database.get(key(1)));
+            assertArrayEquals(key(21), database.get(key(2)));
+            assertArrayEquals(key(32), database.get(key(3)));
+            assertArrayEquals(key(40), database.get(key(4)));
+            assertArrayEquals(key(50), database.get(key(5)));
+        }
+
+        // The runs are removed once the loader is closed
+        assertFalse(runDirectory.exists());
+    }
+
+    @Test
+    public void testTieredMerge() throws IOException {
+        File runDirectory = tempDir.resolve("runs").toFile();
+        int puts = LevelDBBulkLoader.MERGE_RUNS * LevelDBBulkLoader.MERGE_RUNS * 2 + 5;
+        Map<Integer, Integer> expected = new HashMap<>();
+        List<Integer> writtenKeys = new ArrayList<>();
+        try (DB database = open()) {
+            // Every put is spilled to its own run, so the runs are merged through more than one tier
+            try (LevelDBBulkLoader bulkLoader = new LevelDBBulkLoader(recording(database, writtenKeys), runDirectory, 8, null)) {
+                bulkLoader.start();
+                Random random = new Random(0);
+                for (int i = 0; i < puts; i++) {
+                    int key = random.nextInt(200);
+                    bulkLoader.put(key(key), key(i));
+                    expected.put(key, i);
+                }
+                bulkLoader.flush();
+
+                // Each tier rewrites an entry at most once, there are only two full tiers before flushing
+                assertTrue(bulkLoader.getRewrittenBytes() <= puts * 8L * 2L);
+            }
+
+            // The keys are written to the database once each in order
+            List<Integer> sortedKeys = new ArrayList<>(expected.keySet());
+            Collections.sort(sortedKeys);
+            assertEquals(sortedKeys, writtenKeys);
+            for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+                assertArrayEquals(key(entry.getValue()), database.get(key(entry.getKey())));
+            }
+        }
+        assertFalse(runDirectory.exists());
+    }
+
+    @Test
+    public void testRunsDeletedWhenFlushFails() throws IOException {
+        File runDirectory = tempDir.resolve("runs").toFile();
+        try (DB database = open()) {
+            DB failing = (DB) Proxy.newProxyInstance(DB.class.getClassLoader(), new Class[]{DB.class}, (proxy, method, args) -> {
+                if (method.getName().equals("write")) throw new DBException("Write failed");
+                return invoke(database, method, args);
+            });
+
+            LevelDBBulkLoader bulkLoader = new LevelDBBulkLoader(failing, runDirectory, 8, null);
+            bulkLoader.start();
+            for (int i = 0; i < 10; i++) {
+                bulkLoader.put(key(i), key(i));
+            }
+            assertThrows(IOException.class, bulkLoader::flush);
+            bulkLoader.close();
+        }
+
+        // The spilled runs should still be deleted
+        assertFalse(runDirectory.exists());
+    }
+
+    @Test
+    public void testCloseDiscardsRuns() throws IOException {
+        File runDirectory = tempDir.resolve("runs").toFile();
+        try (DB database = open()) {
+            DB writes = (DB) Proxy.newProxyInstance(DB.class.getClassLoader(), new Class[]{DB.class}, (proxy, method, args) -> {
+                if (method.getName().equals("write")) fail("Runs shouldn't be written when closing");
+                return invoke(database, method, args);
+            });
+
+            LevelDBBulkLoader bulkLoader = new LevelDBBulkLoader(writes, runDirectory, 8, null);
+            bulkLoader.start();
+            for (int i = 0; i < 10; i++) {
+                bulkLoader.put(key(i), key(i));
+            }
+
+            // Closing without flushing (e.g. a cancelled conversion) shouldn't merge the runs into the database
+            bulkLoader.close();
+            assertNull(database.get(key(0)));
+            assertThrows(DBException.class, () -> bulkLoader.put(key(10), key(10)));
+        }
+        assertFalse(runDirectory.exists());
+    }
+
+    @Test
+    public void testRangesFinishedInKeyOrder() throws IOException {
+        File runDirectory = tempDir.resolve("runs").toFile();
+        int[] ranges = {1, 3, 200};
+        List<Integer> compacted = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> missingKeys = Collections.synchronizedList(new ArrayList<>());
+        try (DB database = open()) {
+            // Check every key of a range has been written when it's compacted
+            LevelDBCompactionScheduler scheduler = new LevelDBCompactionScheduler((begin, end) -> {
+                int range = LevelDBCompactionScheduler.getRange(begin);
+                for (int i = 0; i < 4; i++) {
+                    if (Arrays.binarySearch(ranges, range) >= 0 && database.get(key(range << 24 | i)) == null) {
+                        missingKeys.add(range);
+                    }
+                }
+                compacted.add(range);
+            });
+            scheduler.start();
+
+            try (LevelDBBulkLoader bulkLoader = new LevelDBBulkLoader(database, runDirectory, 32, scheduler)) {
+                bulkLoader.start();
+
+                // Put the ranges out of order, so each run covers more than one range
+                for (int i = 0; i < 4; i++) {
+                    for (int j = ranges.length - 1; j >= 0; j--) {
+                        bulkLoader.put(key(ranges[j] << 24 | i), key(i));
+                    }
+                }
+                bulkLoader.flush();
+            }
+
+            // Every range before the last key is finished by the merge, the rest are left for the end
+            long deadline = System.currentTimeMillis() + 10000;
+            while (scheduler.getBackgroundCompactions() < 200 && System.currentTimeMillis() < deadline) {
+                Thread.yield();
+            }
+            assertEquals(200, scheduler.getBackgroundCompactions());
+            List<Double> progress = new ArrayList<>();
+            assertEquals(LevelDBCompactionScheduler.RANGES - 200, scheduler.compactRemaining(progress::add));
+            assertEquals(1D, (double) progress.get(progress.size() - 1));
+        }
+        assertEquals(List.of(), missingKeys);
+        assertEquals(LevelDBCompactionScheduler.RANGES, compacted.size());
+        assertEquals(LevelDBCompactionScheduler.RANGES, new HashSet<>(compacted).size());
+    }
+
+    /**
+     * Wrap a database so the keys put into its write batches are recorded.
+     *
+     * @param database the database to wrap.
+     * @param keys     the list to add each key to.
+     * @return the wrapped database.
+     */
+    private static DB recording(DB database, List<Integer> keys) {
+        // The database only accepts its own batches, so the wrapped batches are swapped back when writing
+        Map<Object, WriteBatch> writeBatches = new IdentityHashMap<>();
+        return (DB) Proxy.newProxyInstance(DB.class.getClassLoader(), new Class[]{DB.class}, (proxy, method, args) -> {
+            if (method.getName().equals("write")) {
+                args = args.clone();
+                args[0] = writeBatches.getOrDefault(args[0], (WriteBatch) args[0]);
+            }
+            Object result = invoke(database, method, args);
+            if (!(result instanceof WriteBatch writeBatch)) return result;
+            Object wrapped = Proxy.newProxyInstance(WriteBatch.class.getClassLoader(), new Class[]{WriteBatch.class}, (batchProxy, batchMethod, batchArgs) -> {
+                if (batchMethod.getName().equals("put")) {
+                    keys.add(ByteBuffer.wrap((byte[]) batchArgs[0]).getInt());
+                }
+                return invoke(writeBatch, batchMethod, batchArgs);
+            });
+            writeBatches.put(wrapped, writeBatch);
+            return wrapped;
+        });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private DB open() throws IOException {
+        return new Iq80DBFactory().open(tempDir.resolve("db").toFile(), new Options().createIfMissing(true));
+    }
+
+    private static byte[] key(int i) {
+        return ByteBuffer.allocate(4).putInt(i).array();
+    }
+}
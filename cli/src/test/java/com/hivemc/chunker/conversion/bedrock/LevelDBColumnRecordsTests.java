@@ -0,0 +1,168 @@
+package com.hivemc.chunker.conversion.bedrock;
+
+import com.hivemc.chunker.conversion.encoding.bedrock.util.LevelDBChunkType;
+import com.hivemc.chunker.conversion.encoding.bedrock.util.LevelDBColumnRecords;
+import com.hivemc.chunker.conversion.encoding.bedrock.util.LevelDBKey;
+import com.hivemc.chunker.conversion.intermediate.column.chunk.ChunkCoordPair;
+import com.hivemc.chunker.conversion.intermediate.world.Dimension;
+import org.iq80.leveldb.DB;
+import org.iq80.leveldb.DBIterator;
+import org.iq80.leveldb.Options;
+import org.iq80.leveldb.impl.Iq80DBFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for reading the records of a column with LevelDBColumnRecords.
+ */
+public class LevelDBColumnRecordsTests {
+    private static final ChunkCoordPair COLUMN = new ChunkCoordPair(5, 7);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testReadTypesAndSubChunks() throws IOException {
+        try (DB database = open()) {
+            put(database, Dimension.OVERWORLD, COLUMN, LevelDBChunkType.DATA_3D, "data3d");
+            put(database, Dimension.OVERWORLD, COLUMN, LevelDBChunkType.VERSION, "version");
+            put(database, Dimension.OVERWORLD, COLUMN, LevelDBChunkType.ENTITY, "entity");
+            database.put(LevelDBKey.key(Dimension.OVERWORLD, COLUMN, (byte) -4, LevelDBChunkType.SUB_CHUNK_PREFIX), bytes("sub-4"));
+            database.put(LevelDBKey.key(Dimension.OVERWORLD, COLUMN, (byte) 3, LevelDBChunkType.SUB_CHUNK_PREFIX), bytes("sub3"));
+
+            LevelDBColumnRecords records = LevelDBColumnRecords.read(database, Dimension.OVERWORLD, COLUMN, LevelDBChunkType.DATA_3D, LevelDBChunkType.ENTITY);
+            assertArrayEquals(bytes("data3d"), records.get(LevelDBChunkType.DATA_3D));
+            assertArrayEquals(bytes("version"), records.get(LevelDBChunkType.VERSION));
+            assertArrayEquals(bytes("entity"), records.get(LevelDBChunkType.ENTITY));
+            assertNull(records.get(LevelDBChunkType.BLOCK_ENTITY));
+            assertArrayEquals(bytes("sub-4"), records.getSubChunk((byte) -4));
+            assertArrayEquals(bytes("sub3"), records.getSubChunk((byte) 3));
+            assertNull(records.getSubChunk((byte) 0));
+        }
+    }
+
+    @Test
+    public void testStopsAfterLastType() throws IOException {
+        try (DB database = open()) {
+            put(database, Dimension.OVERWORLD, COLUMN, LevelDBChunkType.DATA_2D, "data2d");
+            put(database, Dimension.OVERWORLD, COLUMN, LevelDBChunkType.ENTITY, "entity");
+            put(database, Dimension.OVERWORLD, COLUMN, LevelDBChunkType.PENDING_TICKS, "ticks");
+            put(database, Dimension.OVERWORLD, COLUMN, LevelDBChunkType.CHECKSUMS, "checksums");
+
+            // Types past the last type are never recorded, even though they're for the same column
+            AtomicInteger visited = new AtomicInteger();
+            LevelDBColumnRecords records = LevelDBColumnRecords.read(counting(database, visited), Dimension.OVERWORLD, COLUMN, LevelDBChunkType.DATA_3D, LevelDBChunkType.BLOCK_ENTITY);
+            assertArrayEquals(bytes("data2d"), records.get(LevelDBChunkType.DATA_2D));
+            assertNull(records.get(LevelDBChunkType.ENTITY));
+            assertNull(records.get(LevelDBChunkType.PENDING_TICKS));
+
+            // The scan should stop at the entity key rather than reading the rest of the column
+            assertEquals(2, visited.get());
+        }
+    }
+
+    @Test
+    public void testStopsAtDifferentColumn() throws IOException {
+        try (DB database = open()) {
+            put(database, Dimension.OVERWORLD, COLUMN, LevelDBChunkType.DATA_3D, "column");
+
+            // Columns which only differ in the high byte of X or Z sort directly after the column
+            ChunkCoordPair highX = new ChunkCoordPair(COLUMN.chunkX() | 0x01000000, COLUMN.chunkZ());
+            ChunkCoordPair highZ = new ChunkCoordPair(COLUMN.chunkX(), COLUMN.chunkZ() | 0x01000000);
+            put(database, Dimension.OVERWORLD, highX, LevelDBChunkType.DATA_3D, "highX");
+            put(database, Dimension.OVERWORLD, highX, LevelDBChunkType.ENTITY, "highX");
+            put(database, Dimension.OVERWORLD, highZ, LevelDBChunkType.DATA_3D, "highZ");
+            put(database, Dimension.OVERWORLD, highZ, LevelDBChunkType.ENTITY, "highZ");
+
+            AtomicInteger visited = new AtomicInteger();
+            LevelDBColumnRecords records = LevelDBColumnRecords.read(counting(database, visited), Dimension.OVERWORLD, COLUMN, LevelDBChunkType.DATA_3D, LevelDBChunkType.ENTITY);
+            assertArrayEquals(bytes("column"), records.get(LevelDBChunkType.DATA_3D));
+            assertNull(records.get(LevelDBChunkType.ENTITY));
+
+            // The scan should stop at the first key of the next column
+            assertEquals(2, visited.get());
+
+            // The neighbours should still be read correctly
+            records = LevelDBColumnRecords.read(database, Dimension.OVERWORLD, highZ, LevelDBChunkType.DATA_3D, LevelDBChunkType.ENTITY);
+            assertArrayEquals(bytes("highZ"), records.get(LevelDBChunkType.DATA_3D));
+            assertArrayEquals(bytes("highZ"), records.get(LevelDBChunkType.ENTITY));
+            records = LevelDBColumnRecords.read(database, Dimension.OVERWORLD, highX, LevelDBChunkType.DATA_3D, LevelDBChunkType.ENTITY);
+            assertArrayEquals(bytes("highX"), records.get(LevelDBChunkType.DATA_3D));
+        }
+    }
+
+    @Test
+    public void testOverworldNextToNether() throws IOException {
+        try (DB database = open()) {
+            // The nether keys have the dimension after the co-ordinates, so they sort next to the overworld keys
+            put(database, Dimension.OVERWORLD, COLUMN, LevelDBChunkType.DATA_3D, "overworld");
+            put(database, Dimension.OVERWORLD, COLUMN, LevelDBChunkType.ENTITY, "overworld");
+            database.put(LevelDBKey.key(Dimension.OVERWORLD, COLUMN, (byte) 0, LevelDBChunkType.SUB_CHUNK_PREFIX), bytes("overworld"));
+            put(database, Dimension.NETHER, COLUMN, LevelDBChunkType.DATA_3D, "nether");
+            database.put(LevelDBKey.key(Dimension.NETHER, COLUMN, (byte) 0, LevelDBChunkType.SUB_CHUNK_PREFIX), bytes("nether"));
+
+            LevelDBColumnRecords overworld = LevelDBColumnRecords.read(database, Dimension.OVERWORLD, COLUMN, LevelDBChunkType.DATA_3D, LevelDBChunkType.ENTITY);
+            assertArrayEquals(bytes("overworld"), overworld.get(LevelDBChunkType.DATA_3D));
+            assertArrayEquals(bytes("overworld"), overworld.get(LevelDBChunkType.ENTITY));
+            assertArrayEquals(bytes("overworld"), overworld.getSubChunk((byte) 0));
+
+            AtomicInteger visited = new AtomicInteger();
+            LevelDBColumnRecords nether = LevelDBColumnRecords.read(counting(database, visited), Dimension.NETHER, COLUMN, LevelDBChunkType.DATA_3D, LevelDBChunkType.ENTITY);
+            assertArrayEquals(bytes("nether"), nether.get(LevelDBChunkType.DATA_3D));
+            assertArrayEquals(bytes("nether"), nether.getSubChunk((byte) 0));
+            assertNull(nether.get(LevelDBChunkType.ENTITY));
+
+            // The nether scan should stop at the first (shorter) overworld key
+            assertEquals(3, visited.get());
+        }
+    }
+
+    /**
+     * Wrap a database so the number of entries read from its iterators is counted.
+     *
+     * @param database the database to wrap.
+     * @param visited  the counter to increment for each entry.
+     * @return the wrapped database.
+     */
+    private static DB counting(DB database, AtomicInteger visited) {
+        return (DB) Proxy.newProxyInstance(DB.class.getClassLoader(), new Class[]{DB.class}, (proxy, method, args) -> {
+            Object result = invoke(database, method, args);
+            if (!(result instanceof DBIterator iterator)) return result;
+            return Proxy.newProxyInstance(DBIterator.class.getClassLoader(), new Class[]{DBIterator.class}, (iteratorProxy, iteratorMethod, iteratorArgs) -> {
+                if (iteratorMethod.getName().equals("next")) {
+                    visited.incrementAndGet();
+                }
+                return invoke(iterator, iteratorMethod, iteratorArgs);
+            });
+        });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private DB open() throws IOException {
+        return new Iq80DBFactory().open(tempDir.toFile(), new Options().createIfMissing(true));
+    }
+
+    private static void put(DB database, Dimension dimension, ChunkCoordPair column, LevelDBChunkType type, String value) {
+        database.put(LevelDBKey.key(dimension, column, type), bytes(value));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes();
+    }
+}
@@ -0,0 +1,108 @@
+package com.hivemc.chunker.conversion.bedrock;
+
+import com.hivemc.chunker.conversion.encoding.bedrock.util.LevelDBCompactionScheduler;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the ranges compacted by LevelDBCompactionScheduler.
+ */
+public class LevelDBCompactionSchedulerTests {
+    @Test
+    public void testCompactRemainingWithoutWrites() throws Exception {
+        List<Integer> compacted = Collections.synchronizedList(new ArrayList<>());
+        LevelDBCompactionScheduler scheduler = createScheduler(compacted);
+        List<Double> progress = new ArrayList<>();
+
+        // No ranges were finished, so every range is compacted at the end
+        assertEquals(LevelDBCompactionScheduler.RANGES, scheduler.compactRemaining(progress::add));
+        assertEquals(0, scheduler.getBackgroundCompactions());
+        assertEquals(LevelDBCompactionScheduler.RANGES, compacted.size());
+        assertEquals(LevelDBCompactionScheduler.RANGES, progress.size());
+        assertEquals(1D, (double) progress.get(progress.size() - 1));
+    }
+
+    @Test
+    public void testFinishedRangesCompactedInBackground() throws Exception {
+        List<Integer> compacted = Collections.synchronizedList(new ArrayList<>());
+        LevelDBCompactionScheduler scheduler = createScheduler(compacted);
+
+        // Finish every range other than two
+        for (int range = 0; range < LevelDBCompactionScheduler.RANGES; range++) {
+            if (range != 5 && range != 255) {
+                scheduler.markFinished(range);
+            }
+        }
+
+        // Wait for the background compactor to get through the finished ranges
+        awaitBackgroundCompactions(scheduler, LevelDBCompactionScheduler.RANGES - 2);
+        assertEquals(LevelDBCompactionScheduler.RANGES - 2, scheduler.getBackgroundCompactions());
+        assertFalse(compacted.contains(5));
+        assertFalse(compacted.contains(255));
+
+        // Only the ranges which weren't finished are left
+        List<Double> progress = new ArrayList<>();
+        assertEquals(2, scheduler.compactRemaining(progress::add));
+        assertEquals(List.of(0.5D, 1D), progress);
+        assertEquals(List.of(5, 255), compacted.subList(compacted.size() - 2, compacted.size()));
+    }
+
+    @Test
+    public void testRangeCompactedOncePerFinish() throws Exception {
+        List<Integer> compacted = Collections.synchronizedList(new ArrayList<>());
+        LevelDBCompactionScheduler scheduler = createScheduler(compacted);
+
+        // Only the finished range is compacted in the background
+        scheduler.markFinished(7);
+        awaitBackgroundCompactions(scheduler, 1);
+        Thread.sleep(100);
+        assertEquals(List.of(7), compacted);
+
+        // The range is only compacted again if it's finished again
+        scheduler.markFinished(7);
+        awaitBackgroundCompactions(scheduler, 2);
+        assertEquals(List.of(7, 7), compacted);
+
+        // The compacted range isn't compacted at the end
+        List<Double> progress = new ArrayList<>();
+        assertEquals(LevelDBCompactionScheduler.RANGES - 1, scheduler.compactRemaining(progress::add));
+        assertEquals(LevelDBCompactionScheduler.RANGES + 1, compacted.size());
+        assertEquals(2, Collections.frequency(compacted, 7));
+    }
+
+    @Test
+    public void testGetRange() {
+        assertEquals(0, LevelDBCompactionScheduler.getRange(new byte[0]));
+        assertEquals(7, LevelDBCompactionScheduler.getRange(new byte[]{7, 1}));
+        assertEquals(200, LevelDBCompactionScheduler.getRange(new byte[]{(byte) 200}));
+    }
+
+    /**
+     * Create and start a scheduler which records the ranges compacted rather than using a database.
+     *
+     * @param compacted the list to add the index of each compacted range to.
+     * @return the started scheduler.
+     */
+    private static LevelDBCompactionScheduler createScheduler(List<Integer> compacted) {
+        LevelDBCompactionScheduler scheduler = new LevelDBCompactionScheduler((begin, end) -> {
+            // Check the range covers every key starting with the byte
+            int range = LevelDBCompactionScheduler.getRange(begin);
+            assertEquals(range == LevelDBCompactionScheduler.RANGES - 1 ? -1 : range + 1, end == null ? -1 : LevelDBCompactionScheduler.getRange(end));
+            compacted.add(range);
+        });
+        scheduler.start();
+        return scheduler;
+    }
+
+    private static void awaitBackgroundCompactions(LevelDBCompactionScheduler scheduler, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (scheduler.getBackgroundCompactions() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.hivemc.chunker.conversion.integration;
+
+import com.google.common.io.Resources;
+import com.hivemc.chunker.nbt.tags.Tag;
+import com.hivemc.chunker.nbt.tags.collection.CompoundTag;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utilities for reading data from the integration sample worlds in tests.
+ */
+public class SampleWorlds {
+    /**
+     * Read every column from the region folder of the Java integration sample worlds.
+     *
+     * @return the decoded columns.
+     * @throws IOException if it failed to read a world.
+     */
+    public static List<CompoundTag> readJavaColumns() throws IOException {
+        List<CompoundTag> columns = new ArrayList<>();
+        for (String worldName : WorldConversionIntegrationTests.getWorldNames()) {
+            if (!worldName.startsWith("JAVA_")) continue;
+
+            Path unzipped = WorldConversionIntegrationTests.unzip(Resources.getResource("integration/worlds/" + worldName + ".zip"));
+            try {
+                File[] regionFiles = unzipped.resolve("region").toFile().listFiles((dir, name) -> name.endsWith(".mca"));
+                if (regionFiles == null) continue;
+
+                for (File regionFile : regionFiles) {
+                    ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(regionFile.toPath()));
+                    if (buffer.capacity() < 8192) continue;
+
+                    for (int i = 0; i < 1024; i++) {
+                        int location = buffer.getInt(i << 2);
+                        if (location == 0) continue;
+
+                        // Read the column using the length / compression type prefix (external columns are skipped)
+                        int position = (location >>> 8) << 12;
+                        int length = buffer.getInt(position);
+                        byte compressionType = buffer.get(position + 4);
+                        if ((compressionType & 0x80) != 0) continue;
+                        CompoundTag column = Tag.readCompressedJavaNBT(compressionType, buffer.slice(position + 5, length - 1));
+                        if (column != null) {
+                            columns.add(column);
+                        }
+                    }
+                }
+            } finally {
+                WorldConversionIntegrationTests.remove(unzipped);
+            }
+        }
+        return columns;
+    }
+}
@@ -0,0 +1,239 @@
+package com.hivemc.chunker.conversion.java;
+
+import com.hivemc.chunker.conversion.WorldConverter;
+import com.hivemc.chunker.conversion.encoding.java.JavaCompression;
+import com.hivemc.chunker.conversion.encoding.java.base.reader.JavaColumnReader;
+import com.hivemc.chunker.conversion.encoding.java.base.reader.util.MCAReader;
+import com.hivemc.chunker.conversion.encoding.java.base.writer.util.MCAWriter;
+import com.hivemc.chunker.conversion.intermediate.column.chunk.ChunkCoordPair;
+import com.hivemc.chunker.conversion.intermediate.column.chunk.RegionCoordPair;
+import com.hivemc.chunker.nbt.TagType;
+import com.hivemc.chunker.nbt.tags.Tag;
+import com.hivemc.chunker.nbt.tags.collection.CompoundTag;
+import com.hivemc.chunker.nbt.tags.collection.ListTag;
+import com.hivemc.chunker.scheduling.task.Environment;
+import com.hivemc.chunker.scheduling.task.Task;
+import com.hivemc.chunker.scheduling.task.TaskWeight;
+import com.hivemc.chunker.scheduling.task.executor.WorkStealingTaskExecutor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for reading .mca region files.
+ */
+public class MCAReaderTests {
+    @TempDir
+    File tempDir;
+
+    /**
+     * Write a region file where the columns are stored in a random sector order (like a region rewritten by the game).
+     *
+     * @param file    the file to write.
+     * @param columns the number of columns to write.
+     * @param padding the number of random bytes to put in each column (to make the columns span multiple sectors).
+     * @throws IOException if it failed to write.
+     */
+    static void writeFragmentedRegion(File file, int columns, int padding) throws IOException {
+        Random random = new Random(columns);
+        List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < columns; i++) {
+            indexes.add(i);
+        }
+        Collections.shuffle(indexes, random);
+
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            randomAccessFile.setLength(8192);
+            int sector = 2;
+            for (int index : indexes) {
+                CompoundTag column = new CompoundTag();
+                column.put("Index", index);
+                byte[] bytes = new byte[padding];
+                random.nextBytes(bytes);
+                column.put("Padding", bytes);
+                byte[] compressed = Tag.writeZLibJavaNBT(column);
+                int sectors = (compressed.length + 5 + 4095) / 4096;
+
+                // Write the column with length + compression type
+                randomAccessFile.seek(sector * 4096L);
+                randomAccessFile.writeInt(compressed.length + 1);
+                randomAccessFile.writeByte(2);
+                randomAccessFile.write(compressed);
+                randomAccessFile.setLength((long) (sector + sectors) << 12);
+
+                // Write the header entry
+                randomAccessFile.seek(index * 4L);
+                randomAccessFile.writeInt((sector << 8) | sectors);
+                sector += sectors;
+            }
+        }
+    }
+
+    /**
+     * Read every column in a region file.
+     *
+     * @param file         the region file.
+     * @param memoryMapped whether the file should be memory-mapped.
+     * @return a map of the header index to the index stored in the column.
+     */
+    static Map<Integer, Integer> readRegion(File file, boolean memoryMapped) {
+        return readRegion(file, memoryMapped, false, new AtomicInteger());
+    }
+
+    /**
+     * Read every column in a region file.
+     *
+     * @param file           the region file.
+     * @param memoryMapped   whether the file should be memory-mapped.
+     * @param sectorOrder    whether the columns should be read ahead and read in sector order rather than header order.
+     * @param readOperations the counter to add the number of reads issued to the file to.
+     * @return a map of the header index to the index stored in the column.
+     */
+    static Map<Integer, Integer> readRegion(File file, boolean memoryMapped, boolean sectorOrder, AtomicInteger readOperations) {
+        Map<Integer, Integer> results = new ConcurrentHashMap<>();
+        WorldConverter converter = new WorldConverter(UUID.randomUUID());
+        Environment environment = Task.environment("Reading", new WorkStealingTaskExecutor(4, null, null));
+        try {
+            Task.async("Reading region", TaskWeight.NORMAL, () -> {
+                try (MCAReader reader = new MCAReader(converter, file, memoryMapped)) {
+                    assertEquals(memoryMapped, reader.isMemoryMapped());
+                    int[] offsets = reader.readOffsetTable();
+
+                    // Sort the columns by their offset if reading in sector order
+                    int[] columnIndexes = IntStream.range(0, offsets.length).filter((i) -> offsets[i] > 0).toArray();
+                    if (sectorOrder) {
+                        columnIndexes = Arrays.stream(columnIndexes)
+                                .mapToLong((i) -> ((long) offsets[i] << 10) | i)
+                                .sorted()
+                                .mapToInt((packed) -> (int) (packed & 1023))
+                                .toArray();
+                        reader.readAhead(columnIndexes);
+                    }
+
+                    for (int index : columnIndexes) {
+                        reader.readColumn(new ChunkCoordPair(index & 31, index >> 5), offsets[index])
+                                .thenConsume("Recording column", TaskWeight.LOW, (column) -> results.put(index, column.getInt("Index")));
+                    }
+                    readOperations.addAndGet(reader.getReadOperations());
+                }
+            });
+        } finally {
+            environment.close();
+        }
+        environment.future().join();
+        return results;
+    }
+
+    @Test
+    public void testColumnFilterSkipsUnprocessedData() throws IOException {
+        CompoundTag column = new CompoundTag();
+        column.put("Index", 0);
+        column.put("Entities", new ListTag<>(TagType.COMPOUND, List.of(new CompoundTag())));
+        column.put("block_entities", new ListTag<>(TagType.COMPOUND, List.of(new CompoundTag())));
+        column.put("Heightmaps", new CompoundTag());
+        File file = new File(tempDir, "r.0.0.mca");
+        MCAWriter mcaWriter = new MCAWriter(file, new RegionCoordPair(0, 0), JavaCompression.ZLIB.getId());
+        mcaWriter.addColumn(new ChunkCoordPair(0, 0), Tag.writeZLibJavaNBT(column));
+        mcaWriter.write();
+
+        // Only entities are turned off, so block entities should still be decoded
+        WorldConverter converter = new WorldConverter(UUID.randomUUID());
+        converter.setProcessEntities(false);
+        AtomicReference<CompoundTag> result = new AtomicReference<>();
+        Environment environment = Task.environment("Reading", new WorkStealingTaskExecutor(1, null, null));
+        try {
+            Task.async("Reading region", TaskWeight.NORMAL, () -> {
+                try (MCAReader reader = new MCAReader(converter, file, true, JavaColumnReader.createColumnFilter(converter))) {
+                    reader.readColumn(new ChunkCoordPair(0, 0), reader.readOffsetTable()[0])
+                            .thenConsume("Recording column", TaskWeight.LOW, result::set);
+                }
+            });
+        } finally {
+            environment.close();
+        }
+        environment.future().join();
+
+        assertEquals(0, result.get().getInt("Index"));
+        assertFalse(result.get().contains("Entities"));
+        assertFalse(result.get().contains("Heightmaps"));
+        assertTrue(result.get().contains("block_entities"));
+    }
+
+    @Test
+    public void testMemoryMappedMatchesSeeking() throws IOException {
+        File file = new File(tempDir, "r.0.0.mca");
+        writeFragmentedRegion(file, 256, 6000);
+
+        Map<Integer, Integer> seeking = readRegion(file, false);
+        Map<Integer, Integer> mapped = readRegion(file, true);
+
+        // Every column should be read with the right data
+        assertEquals(256, seeking.size());
+        assertEquals(seeking, mapped);
+        assertTrue(mapped.entrySet().stream().allMatch(entry -> entry.getKey().equals(entry.getValue())));
+    }
+
+    @Test
+    public void testSectorOrderMatchesHeaderOrder() throws IOException {
+        File file = new File(tempDir, "r.0.0.mca");
+        writeFragmentedRegion(file, 256, 6000);
+
+        Map<Integer, Integer> headerOrder = readRegion(file, false);
+        AtomicInteger readOperations = new AtomicInteger();
+        Map<Integer, Integer> seeking = readRegion(file, false, true, readOperations);
+        Map<Integer, Integer> mapped = readRegion(file, true, true, new AtomicInteger());
+
+        // The same columns should be read using far fewer reads
+        assertEquals(256, headerOrder.size());
+        assertEquals(headerOrder, seeking);
+        assertEquals(headerOrder, mapped);
+        assertTrue(readOperations.get() < 256);
+    }
+
+    @org.junit.jupiter.api.Tag("LongRunning")
+    @Test
+    public void benchmarkFragmentedRegion() throws IOException {
+        File file = new File(tempDir, "r.0.0.mca");
+        writeFragmentedRegion(file, 1024, 6000);
+
+        // Warm up both orders first
+        readRegion(file, false, false, new AtomicInteger());
+        readRegion(file, false, true, new AtomicInteger());
+
+        int headerOrder = benchmark("Header order", file, false);
+        int sectorOrder = benchmark("Sector order", file, true);
+
+        // Reading sequentially should need far fewer reads than seeking to every column
+        assertTrue(sectorOrder * 10 < headerOrder);
+    }
+
+    private static int benchmark(String name, File file, boolean sectorOrder) {
+        AtomicInteger readOperations = new AtomicInteger();
+        long start = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            assertEquals(1024, readRegion(file, false, sectorOrder, readOperations).size());
+        }
+        double wall = (System.nanoTime() - start) / 1_000_000D / 10D;
+        int reads = readOperations.get() / 10;
+        System.out.printf("%s: %.2fms per region, %d reads per region%n", name, wall, reads);
+        return reads;
+    }
+}
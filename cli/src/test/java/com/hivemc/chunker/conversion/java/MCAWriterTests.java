@@ -0,0 +1,286 @@
+package com.hivemc.chunker.conversion.java;
+
+import com.google.common.io.Resources;
+import com.hivemc.chunker.conversion.WorldConverter;
+import com.hivemc.chunker.conversion.encoding.java.JavaCompression;
+import com.hivemc.chunker.conversion.encoding.java.base.writer.JavaWorldWriter;
+import com.hivemc.chunker.conversion.encoding.java.base.writer.util.MCAWriter;
+import com.hivemc.chunker.conversion.encoding.java.base.writer.util.RegionFileCache;
+import com.hivemc.chunker.conversion.integration.WorldConversionIntegrationTests;
+import com.hivemc.chunker.conversion.intermediate.column.chunk.ChunkCoordPair;
+import com.hivemc.chunker.conversion.intermediate.column.chunk.RegionCoordPair;
+import com.hivemc.chunker.conversion.intermediate.world.Dimension;
+import com.hivemc.chunker.nbt.tags.Tag;
+import com.hivemc.chunker.nbt.tags.collection.CompoundTag;
+import com.hivemc.chunker.scheduling.task.Environment;
+import com.hivemc.chunker.scheduling.task.Task;
+import com.hivemc.chunker.scheduling.task.TaskWeight;
+import com.hivemc.chunker.scheduling.task.executor.WorkStealingTaskExecutor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.zip.Deflater;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for writing .mca region files.
+ */
+public class MCAWriterTests {
+    @TempDir
+    File tempDir;
+
+    /**
+     * Create a column which records its index.
+     *
+     * @param index   the index of the column in the region.
+     * @param padding the number of random bytes to put in the column.
+     * @return the column data.
+     */
+    private static CompoundTag createColumn(int index, int padding) {
+        CompoundTag column = new CompoundTag();
+        column.put("Index", index);
+        byte[] bytes = new byte[padding];
+        new Random(index).nextBytes(bytes);
+        column.put("Padding", bytes);
+        return column;
+    }
+
+    @Test
+    public void testAssembledRegionIsPacked() throws IOException {
+        File file = new File(tempDir, "r.0.0.mca");
+        MCAWriter mcaWriter = new MCAWriter(file, new RegionCoordPair(0, 0), JavaCompression.ZLIB.getId());
+
+        // Add the columns in reverse order, they should still be read back correctly
+        long sectors = 2;
+        for (int i = 1023; i >= 0; i -= 3) {
+            byte[] bytes = Tag.writeZLibJavaNBT(createColumn(i, 6000));
+            mcaWriter.addColumn(new ChunkCoordPair(i & 31, i >> 5), bytes);
+            sectors += (bytes.length + 5 + 4095) / 4096;
+        }
+        mcaWriter.write();
+
+        // The file should only contain the header and the sectors used by the columns
+        assertEquals(sectors << 12, file.length());
+        Map<Integer, Integer> columns = MCAReaderTests.readRegion(file, false);
+        assertEquals(342, columns.size());
+        assertTrue(columns.entrySet().stream().allMatch(entry -> entry.getKey().equals(entry.getValue())));
+    }
+
+    @Test
+    public void testColumnsAfterFlushAreAppended() {
+        WorldConverter converter = new WorldConverter(UUID.randomUUID());
+        JavaWorldWriter writer = new JavaWorldWriter(tempDir, converter, null);
+        RegionCoordPair region = new RegionCoordPair(1, -1);
+
+        Environment environment = Task.environment("Writing", new WorkStealingTaskExecutor(4, null, null));
+        try {
+            Task.async("Writing region", TaskWeight.NORMAL, () -> {
+                for (int i = 0; i < 512; i++) {
+                    writer.writeMCAData(Dimension.OVERWORLD, region.getChunk(i & 31, i >> 5), createColumn(i, 100));
+                }
+            }).then("Flushing region", TaskWeight.NORMAL, () -> {
+                writer.flushRegion(Dimension.OVERWORLD, region);
+            }).then("Writing late columns", TaskWeight.NORMAL, () -> {
+                for (int i = 512; i < 1024; i++) {
+                    writer.writeMCAData(Dimension.OVERWORLD, region.getChunk(i & 31, i >> 5), createColumn(i, 100));
+                }
+            }).then("Flushing worlds", TaskWeight.NORMAL, writer::flushWorlds);
+        } finally {
+            environment.close();
+        }
+        environment.future().join();
+
+        // Both the assembled and appended columns should be present
+        Map<Integer, Integer> columns = MCAReaderTests.readRegion(new File(tempDir, "region/r.1.-1.mca"), true);
+        assertEquals(1024, columns.size());
+        assertTrue(columns.entrySet().stream().allMatch(entry -> entry.getKey().equals(entry.getValue())));
+    }
+
+    @Test
+    public void testFlushWaitsForQueuedWrites() {
+        WorldConverter converter = new WorldConverter(UUID.randomUUID());
+        JavaWorldWriter writer = new JavaWorldWriter(tempDir, converter, null);
+        RegionCoordPair region = new RegionCoordPair(0, 0);
+        File file = new File(tempDir, "region/r.0.0.mca");
+
+        Environment environment = Task.environment("Writing", new WorkStealingTaskExecutor(4, null, null));
+        try {
+            Task.async("Writing region", TaskWeight.NORMAL, () -> {
+                writer.addQueuedWrites(Dimension.OVERWORLD, region, 2);
+                writer.writeMCAData(Dimension.OVERWORLD, region.getChunk(0, 0), createColumn(0, 100));
+                writer.completeQueuedWrite(Dimension.OVERWORLD, region);
+
+                // The region is flushed while a column is still queued
+                writer.flushRegion(Dimension.OVERWORLD, region);
+            }).then("Writing queued column", TaskWeight.NORMAL, () -> {
+                assertFalse(file.exists());
+                writer.writeMCAData(Dimension.OVERWORLD, region.getChunk(1, 0), createColumn(1, 100));
+                writer.completeQueuedWrite(Dimension.OVERWORLD, region);
+            });
+        } finally {
+            environment.close();
+        }
+        environment.future().join();
+
+        // The region should be written once the queued column completed, without waiting for the worlds to flush
+        Map<Integer, Integer> columns = MCAReaderTests.readRegion(file, false);
+        assertEquals(Map.of(0, 0, 1, 1), columns);
+    }
+
+    @Test
+    public void testRegionFileCacheClosesLeastRecentlyUsed() throws IOException {
+        RegionFileCache cache = new RegionFileCache(2);
+        RandomAccessFile first = cache.open(new File(tempDir, "r.0.0.mca"));
+        RandomAccessFile second = cache.open(new File(tempDir, "r.1.0.mca"));
+
+        // Using the first file should make the second the least recently used
+        assertSame(first, cache.open(new File(tempDir, "r.0.0.mca")));
+        RandomAccessFile third = cache.open(new File(tempDir, "r.2.0.mca"));
+        assertEquals(2, cache.getOpenFiles());
+        assertFalse(second.getChannel().isOpen());
+        assertTrue(first.getChannel().isOpen());
+
+        // Closing the cache should close everything and prevent new files being opened
+        cache.close();
+        assertEquals(0, cache.getOpenFiles());
+        assertFalse(first.getChannel().isOpen());
+        assertFalse(third.getChannel().isOpen());
+        assertThrows(IOException.class, () -> cache.open(new File(tempDir, "r.3.0.mca")));
+    }
+
+    @ParameterizedTest
+    @EnumSource(JavaCompression.class)
+    public void testCompressedRegionIsReadable(JavaCompression compression) throws IOException {
+        File file = new File(tempDir, "r.0.0.mca");
+        MCAWriter mcaWriter = new MCAWriter(file, new RegionCoordPair(0, 0), compression.getId());
+        for (int i = 0; i < 1024; i += 2) {
+            byte[] bytes = Tag.writeCompressedJavaNBT(compression.getId(), Deflater.BEST_SPEED, createColumn(i, 1000));
+            mcaWriter.addColumn(new ChunkCoordPair(i & 31, i >> 5), bytes);
+        }
+        mcaWriter.write();
+
+        // Every column should be decoded using the compression type written before it
+        Map<Integer, Integer> columns = MCAReaderTests.readRegion(file, false);
+        assertEquals(512, columns.size());
+        assertTrue(columns.entrySet().stream().allMatch(entry -> entry.getKey().equals(entry.getValue())));
+    }
+
+    @Test
+    public void testUnsupportedCompressionFallsBackToZLib() {
+        WorldConverter converter = new WorldConverter(UUID.randomUUID());
+
+        // Uncompressed columns are readable from 1.15
+        converter.setJavaCompression(JavaCompression.NONE);
+        assertEquals(JavaCompression.ZLIB, new com.hivemc.chunker.conversion.encoding.java.v1_14.writer.WorldWriter(tempDir, converter, null).getCompression());
+        assertEquals(JavaCompression.NONE, new com.hivemc.chunker.conversion.encoding.java.v1_15.writer.WorldWriter(tempDir, converter, null).getCompression());
+
+        // LZ4 columns are readable from 1.20.5
+        converter.setJavaCompression(JavaCompression.LZ4);
+        assertEquals(JavaCompression.ZLIB, new com.hivemc.chunker.conversion.encoding.java.v1_20_3.writer.WorldWriter(tempDir, converter, null).getCompression());
+        assertEquals(JavaCompression.LZ4, new com.hivemc.chunker.conversion.encoding.java.v1_20_5.writer.WorldWriter(tempDir, converter, null).getCompression());
+        assertEquals(JavaCompression.LZ4, new com.hivemc.chunker.conversion.encoding.java.v1_21.writer.WorldWriter(tempDir, converter, null).getCompression());
+    }
+
+    /**
+     * Read every column from the region folder of the Java integration sample worlds.
+     *
+     * @return the decoded columns.
+     * @throws IOException if it failed to read a world.
+     */
+    private static List<CompoundTag> readSampleColumns() throws IOException {
+        List<CompoundTag> columns = new ArrayList<>();
+        for (String worldName : WorldConversionIntegrationTests.getWorldNames()) {
+            if (!worldName.startsWith("JAVA_")) continue;
+
+            Path unzipped = WorldConversionIntegrationTests.unzip(Resources.getResource("integration/worlds/" + worldName + ".zip"));
+            try {
+                File[] regionFiles = unzipped.resolve("region").toFile().listFiles((dir, name) -> name.endsWith(".mca"));
+                if (regionFiles == null) continue;
+
+                for (File regionFile : regionFiles) {
+                    ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(regionFile.toPath()));
+                    if (buffer.capacity() < 8192) continue;
+
+                    for (int i = 0; i < 1024; i++) {
+                        int location = buffer.getInt(i << 2);
+                        if (location == 0) continue;
+
+                        // Read the column using the length / compression type prefix (external columns are skipped)
+                        int position = (location >>> 8) << 12;
+                        int length = buffer.getInt(position);
+                        byte compressionType = buffer.get(position + 4);
+                        if ((compressionType & 0x80) != 0) continue;
+                        CompoundTag column = Tag.readCompressedJavaNBT(compressionType, buffer.slice(position + 5, length - 1));
+                        if (column != null) {
+                            columns.add(column);
+                        }
+                    }
+                }
+            } finally {
+                WorldConversionIntegrationTests.remove(unzipped);
+            }
+        }
+        return columns;
+    }
+
+    @org.junit.jupiter.api.Tag("LongRunning")
+    @Test
+    public void benchmarkCompression() throws IOException {
+        List<CompoundTag> columns = readSampleColumns();
+        assertFalse(columns.isEmpty());
+
+        // Warm up each compression first
+        for (JavaCompression compression : JavaCompression.values()) {
+            benchmark(compression.name(), columns, compression, Deflater.BEST_SPEED, 1);
+        }
+
+        long none = benchmark("None", columns, JavaCompression.NONE, Deflater.BEST_SPEED, 3);
+        long lz4 = benchmark("LZ4", columns, JavaCompression.LZ4, Deflater.BEST_SPEED, 3);
+        long fastest = benchmark("ZLib level 1", columns, JavaCompression.ZLIB, Deflater.BEST_SPEED, 3);
+        long defaultLevel = benchmark("ZLib level 6", columns, JavaCompression.ZLIB, 6, 3);
+        long smallest = benchmark("ZLib level 9", columns, JavaCompression.ZLIB, Deflater.BEST_COMPRESSION, 3);
+
+        // Compressing should always make the output smaller, with higher levels being at least as small
+        assertTrue(lz4 < none);
+        assertTrue(fastest < lz4);
+        assertTrue(defaultLevel <= fastest);
+        assertTrue(smallest <= defaultLevel);
+    }
+
+    private static long benchmark(String name, List<CompoundTag> columns, JavaCompression compression, int level, int iterations) throws IOException {
+        long bytes = 0;
+        long sectors = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            bytes = 0;
+            sectors = 0;
+            for (CompoundTag column : columns) {
+                int length = Tag.writeCompressedJavaNBT(compression.getId(), level, column).length;
+                bytes += length;
+                sectors += (length + 5 + 4095) >> 12;
+            }
+        }
+        double wall = (System.nanoTime() - start) / 1_000_000D / iterations;
+        System.out.printf("%s: %.2fms for %d columns (%.0f columns/s), %d bytes compressed, %d bytes in region sectors%n",
+                name, wall, columns.size(), columns.size() / (wall / 1000D), bytes, sectors << 12);
+        return bytes;
+    }
+}
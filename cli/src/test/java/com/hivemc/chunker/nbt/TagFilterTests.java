@@ -0,0 +1,144 @@
+package com.hivemc.chunker.nbt;
+
+import com.hivemc.chunker.nbt.io.Reader;
+import com.hivemc.chunker.nbt.tags.Tag;
+import com.hivemc.chunker.nbt.tags.collection.CompoundTag;
+import com.hivemc.chunker.nbt.tags.collection.ListTag;
+import com.hivemc.chunker.nbt.tags.primitive.IntTag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for decoding NBT with a filter.
+ */
+public class TagFilterTests {
+    /**
+     * Create a compound which has every type of tag in it.
+     *
+     * @return the new compound.
+     */
+    private static CompoundTag createAllTypes() {
+        CompoundTag compoundTag = new CompoundTag();
+        compoundTag.put("Byte", (byte) 1);
+        compoundTag.put("Short", (short) 2);
+        compoundTag.put("Int", 3);
+        compoundTag.put("Long", 4L);
+        compoundTag.put("Float", 5F);
+        compoundTag.put("Double", 6D);
+        compoundTag.put("String", "Hello");
+        compoundTag.put("ByteArray", new byte[]{1, 2, 3});
+        compoundTag.put("IntArray", new int[]{1, 2, 3});
+        compoundTag.put("LongArray", new long[]{1, 2, 3});
+        compoundTag.put("IntList", ListTag.fromValues(TagType.INT, List.of(1, 2, 3)));
+        compoundTag.put("EmptyList", new ListTag<>(TagType.END, List.of()));
+        return compoundTag;
+    }
+
+    /**
+     * Create a column like compound which has subtrees to filter.
+     *
+     * @return the new compound.
+     */
+    private static CompoundTag createColumn() {
+        CompoundTag section = new CompoundTag();
+        section.put("Y", (byte) 0);
+        section.put("biomes", createAllTypes());
+
+        CompoundTag entity = createAllTypes();
+        entity.put("Nested", createAllTypes());
+
+        CompoundTag column = new CompoundTag();
+        column.put("Entities", new ListTag<>(TagType.COMPOUND, List.of(entity, entity.clone())));
+        column.put("sections", new ListTag<>(TagType.COMPOUND, List.of(section, section.clone())));
+        column.put("Kept", createAllTypes());
+        column.put("After", 1234);
+        return column;
+    }
+
+    private static void assertFiltered(CompoundTag decoded) {
+        // The excluded tags should be removed but everything after them should still be decoded
+        assertFalse(decoded.contains("Entities"));
+        assertEquals(createAllTypes(), decoded.getCompound("Kept"));
+        assertEquals(1234, decoded.getInt("After"));
+        for (CompoundTag section : decoded.getList("sections", CompoundTag.class, null)) {
+            assertEquals((byte) 0, section.getByte("Y"));
+            assertFalse(section.contains("biomes"));
+        }
+    }
+
+    private static TagFilter createFilter() {
+        return TagFilter.builder()
+                .exclude("Entities")
+                .exclude("sections", "biomes")
+                .exclude("Missing", "Key")
+                .build();
+    }
+
+    @Test
+    public void testFilteredDecodeFromBuffer() throws IOException {
+        byte[] bytes = Tag.writeUncompressedJavaNBT(createColumn());
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        assertFiltered(Tag.decodeNamed(Reader.toJavaReader(buffer), CompoundTag.class, createFilter()).tag());
+
+        // The whole input should have been consumed
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    public void testFilteredDecodeFromStream() throws IOException {
+        byte[] bytes = Tag.writeUncompressedJavaNBT(createColumn());
+        try (DataInputStream dataInputStream = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            assertFiltered(Tag.decodeNamed(Reader.toJavaReader(dataInputStream), CompoundTag.class, createFilter()).tag());
+            assertEquals(-1, dataInputStream.read());
+        }
+    }
+
+    @Test
+    public void testEmptyFilterDecodesEverything() throws IOException {
+        CompoundTag column = createColumn();
+        byte[] bytes = Tag.writeUncompressedJavaNBT(column);
+        TagFilter filter = TagFilter.builder().build();
+        assertTrue(filter.isEmpty());
+        assertEquals(column, Tag.decodeNamed(Reader.toJavaReader(ByteBuffer.wrap(bytes)), CompoundTag.class, filter).tag());
+    }
+
+    @Test
+    public void testExcludedParentIgnoresChildren() {
+        TagFilter filter = TagFilter.builder()
+                .exclude("Level")
+                .exclude("Level", "Entities")
+                .build();
+        assertTrue(filter.getChild("Level").isExcluded());
+        assertNull(filter.getChild("Entities"));
+    }
+
+    @Test
+    public void testSkipTruncatedValue() throws IOException {
+        byte[] bytes = Tag.writeUncompressedJavaNBT(createColumn());
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, bytes.length - 8);
+        assertThrows(IOException.class, () -> Tag.decodeNamed(Reader.toJavaReader(buffer), CompoundTag.class, createFilter()));
+    }
+
+    @Test
+    public void testSkipValue() throws IOException {
+        IntTag intTag = new IntTag(5);
+        CompoundTag root = createAllTypes();
+        root.put("Last", intTag);
+
+        // Skipping the whole compound should leave the reader at the end
+        byte[] bytes = Tag.writeUncompressedJavaNBT(root);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        Reader reader = Reader.toJavaReader(buffer);
+        assertEquals(TagType.COMPOUND.getId(), reader.readUnsignedByte());
+        reader.readString(CompoundTag.MAX_NAME_LENGTH);
+        Tag.skipValue(reader, TagType.COMPOUND);
+        assertFalse(buffer.hasRemaining());
+    }
+}
@@ -0,0 +1,31 @@
+package com.hivemc.chunker.nbt.io;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.function.Function;
+
+/**
+ * Tests for reading big endian data from a heap ByteBuffer.
+ */
+public class ByteBufferBigEndianReaderWriterTests extends ReaderWriterTestsBase {
+    @Override
+    public Function<DataOutput, Writer> getWriter() {
+        return Writer::toBigEndianWriter;
+    }
+
+    @Override
+    public Function<DataInput, Reader> getReader() {
+        return (dataInput) -> {
+            try {
+                // Heap buffer which is already big endian
+                return Reader.toBigEndianReader(ByteBuffer.wrap(((InputStream) dataInput).readAllBytes()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+}
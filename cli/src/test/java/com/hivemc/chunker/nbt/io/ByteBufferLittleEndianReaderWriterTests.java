@@ -0,0 +1,34 @@
+package com.hivemc.chunker.nbt.io;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.function.Function;
+
+/**
+ * Tests for reading little endian data from a direct ByteBuffer.
+ */
+public class ByteBufferLittleEndianReaderWriterTests extends ReaderWriterTestsBase {
+    @Override
+    public Function<DataOutput, Writer> getWriter() {
+        return Writer::toLittleEndianWriter;
+    }
+
+    @Override
+    public Function<DataInput, Reader> getReader() {
+        return (dataInput) -> {
+            try {
+                // Direct buffer which is big endian, so every value has to be swapped by the reader
+                byte[] bytes = ((InputStream) dataInput).readAllBytes();
+                ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+                buffer.put(bytes).flip();
+                return Reader.toLittleEndianReader(buffer);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+}
@@ -0,0 +1,110 @@
+package com.hivemc.chunker.nbt.io;
+
+import com.hivemc.chunker.nbt.util.ThrowableBiConsumer;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for encoding straight into a ByteBuffer.
+ */
+public class ByteBufferWriterTests {
+    /**
+     * Write a mix of values which covers every method of the writer.
+     *
+     * @param writer the writer to write to.
+     * @throws IOException if it failed to write.
+     */
+    private static void writeValues(Writer writer) throws IOException {
+        writer.writeByte(-5);
+        writer.writeShort((short) -1337);
+        writer.writeInt(0x12345678);
+        writer.writeUnsignedInt24(0xABCDEF);
+        writer.writeLong(0x123456789ABCDEFL);
+        writer.writeFloat(-2.5F);
+        writer.writeDouble(Math.PI);
+        writer.writeString("Hello");
+        writer.writeString("caf\u00e9 \u2603 \uD83D\uDE00");
+        writer.writeString("");
+        writer.writeShortPrefixedBytes(new byte[]{1, 2, 3});
+        writer.writeBytes(new byte[]{4, 5, 6, 7}, 1, 2);
+    }
+
+    /**
+     * Write the values with a stream based writer.
+     *
+     * @param writerFunction the function to create the writer.
+     * @return the bytes written.
+     * @throws IOException if it failed to write.
+     */
+    private static byte[] writeToStream(Function<DataOutputStream, Writer> writerFunction) throws IOException {
+        try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
+             DataOutputStream dataOutputStream = new DataOutputStream(baos)) {
+            writeValues(writerFunction.apply(dataOutputStream));
+            dataOutputStream.flush();
+            return baos.toByteArray();
+        }
+    }
+
+    /**
+     * Write the values into a buffer and return the bytes written.
+     *
+     * @param buffer         the buffer to write to.
+     * @param writerFunction the function to create the writer.
+     * @return the bytes written.
+     * @throws IOException if it failed to write.
+     */
+    private static byte[] writeToBuffer(ByteBuffer buffer, Function<ByteBuffer, Writer> writerFunction) throws IOException {
+        writeValues(writerFunction.apply(buffer));
+        byte[] output = new byte[buffer.position()];
+        buffer.flip().get(output);
+        return output;
+    }
+
+    @Test
+    public void testBigEndianMatchesStream() throws IOException {
+        byte[] expected = writeToStream(Writer::toBigEndianWriter);
+        assertArrayEquals(expected, writeToBuffer(ByteBuffer.allocate(128), Writer::toBigEndianWriter));
+        assertArrayEquals(expected, writeToBuffer(ByteBuffer.allocateDirect(128).order(ByteOrder.LITTLE_ENDIAN), Writer::toBigEndianWriter));
+    }
+
+    @Test
+    public void testLittleEndianMatchesStream() throws IOException {
+        byte[] expected = writeToStream(Writer::toLittleEndianWriter);
+        assertArrayEquals(expected, writeToBuffer(ByteBuffer.allocate(128), Writer::toLittleEndianWriter));
+        assertArrayEquals(expected, writeToBuffer(ByteBuffer.allocateDirect(128).order(ByteOrder.LITTLE_ENDIAN), Writer::toLittleEndianWriter));
+    }
+
+    @Test
+    public void testBufferOrderIsUnchanged() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(128);
+        writeValues(Writer.toLittleEndianWriter(buffer));
+        assertEquals(ByteOrder.BIG_ENDIAN, buffer.order());
+    }
+
+    @Test
+    public void testOverflow() {
+        assertOverflow((writer, buffer) -> writer.writeInt(1));
+        assertOverflow((writer, buffer) -> writer.writeLong(1));
+        assertOverflow((writer, buffer) -> writer.writeString("Hello"));
+        assertOverflow((writer, buffer) -> writer.writeString("\u2603\u2603"));
+        assertOverflow((writer, buffer) -> writer.writeBytes(new byte[4]));
+    }
+
+    /**
+     * Assert that writing a value into a buffer which is too small throws an IOException.
+     *
+     * @param write the consumer which writes the value.
+     */
+    private static void assertOverflow(ThrowableBiConsumer<Writer, ByteBuffer> write) {
+        ByteBuffer buffer = ByteBuffer.allocate(3);
+        assertThrows(IOException.class, () -> write.accept(Writer.toBigEndianWriter(buffer), buffer));
+    }
+}
@@ -0,0 +1,147 @@
+package com.hivemc.chunker.nbt.io;
+
+import com.hivemc.chunker.conversion.integration.SampleWorlds;
+import com.hivemc.chunker.nbt.tags.Tag;
+import com.hivemc.chunker.nbt.tags.collection.CompoundTag;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the pool of compound keys used when decoding.
+ */
+public class CompoundKeyPoolTests {
+    @Test
+    public void testEqualBytesShareString() {
+        byte[] first = "xxNamexx".getBytes(StandardCharsets.UTF_8);
+        byte[] second = "Name".getBytes(StandardCharsets.UTF_8);
+
+        // The same key at a different offset should give the same instance
+        String key = CompoundKeyPool.get(first, 2, 4);
+        assertEquals("Name", key);
+        assertSame(key, CompoundKeyPool.get(second, 0, second.length));
+    }
+
+    @Test
+    public void testLongKeysAreNotPooled() {
+        byte[] bytes = "k".repeat(CompoundKeyPool.MAX_POOLED_LENGTH + 1).getBytes(StandardCharsets.UTF_8);
+        String key = CompoundKeyPool.get(bytes, 0, bytes.length);
+        assertEquals(bytes.length, key.length());
+        assertNotSame(key, CompoundKeyPool.get(bytes, 0, bytes.length));
+    }
+
+    @Test
+    public void testPoolIsBounded() {
+        // Filling the pool with unique keys should still return the right values
+        for (int i = 0; i < 100_000; i++) {
+            byte[] bytes = ("key" + i).getBytes(StandardCharsets.UTF_8);
+            assertEquals("key" + i, CompoundKeyPool.get(bytes, 0, bytes.length));
+        }
+    }
+
+    @org.junit.jupiter.api.Tag("LongRunning")
+    @Test
+    public void benchmarkKeyAllocation() throws IOException {
+        List<byte[]> columns = new ArrayList<>();
+        for (CompoundTag column : SampleWorlds.readJavaColumns()) {
+            columns.add(Tag.writeUncompressedJavaNBT(column));
+        }
+        assertFalse(columns.isEmpty());
+
+        // Warm up both paths first
+        benchmark("Allocated keys", columns, UnpooledReader::new, 1);
+        benchmark("Pooled keys", columns, Function.identity(), 1);
+
+        long allocated = benchmark("Allocated keys", columns, UnpooledReader::new, 3);
+        long pooled = benchmark("Pooled keys", columns, Function.identity(), 3);
+        assertTrue(pooled < allocated);
+    }
+
+    private static long benchmark(String name, List<byte[]> columns, Function<Reader, Reader> wrapper, int iterations) throws IOException {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long bytes = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            long allocatedBefore = threadMXBean.getCurrentThreadAllocatedBytes();
+            for (byte[] column : columns) {
+                Tag.decodeNamed(wrapper.apply(Reader.toJavaReader(ByteBuffer.wrap(column))), CompoundTag.class);
+            }
+            bytes = threadMXBean.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        }
+        double wall = (System.nanoTime() - start) / 1_000_000D / iterations;
+        System.out.printf("%s: %.2fms for %d columns, %d bytes allocated (%.0f bytes per column)%n",
+                name, wall, columns.size(), bytes, bytes / (double) columns.size());
+        return bytes;
+    }
+
+    /**
+     * A reader which decodes a new String for every key, used as the baseline for the benchmark.
+     */
+    private record UnpooledReader(Reader reader) implements Reader {
+        @NotNull
+        @Override
+        public String readKey(int maxLength) throws IOException {
+            return reader.readString(maxLength);
+        }
+
+        @NotNull
+        @Override
+        public String readString(int maxLength) throws IOException {
+            return reader.readString(maxLength);
+        }
+
+        @Override
+        public short readShort() throws IOException {
+            return reader.readShort();
+        }
+
+        @Override
+        public void readBytes(byte @NotNull [] array) throws IOException {
+            reader.readBytes(array);
+        }
+
+        @Override
+        public byte readByte() throws IOException {
+            return reader.readByte();
+        }
+
+        @Override
+        public int readUnsignedByte() throws IOException {
+            return reader.readUnsignedByte();
+        }
+
+        @Override
+        public int readInt() throws IOException {
+            return reader.readInt();
+        }
+
+        @Override
+        public int readUnsignedInt24() throws IOException {
+            return reader.readUnsignedInt24();
+        }
+
+        @Override
+        public long readLong() throws IOException {
+            return reader.readLong();
+        }
+
+        @Override
+        public float readFloat() throws IOException {
+            return reader.readFloat();
+        }
+
+        @Override
+        public double readDouble() throws IOException {
+            return reader.readDouble();
+        }
+    }
+}
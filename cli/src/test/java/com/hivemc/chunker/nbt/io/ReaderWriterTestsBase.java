@@ -15,6 +15,7 @@ import java.util.function.Function;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
 
 /**
@@ -70,6 +71,39 @@ public abstract class ReaderWriterTestsBase {
         }
     }
 
+    @ParameterizedTest
+    @ValueSource(strings = {"", "Name", "Properties", "caf\u00e9", "\u2603 snowman", "a key which is longer than the pooled key length limit of 64 bytes"})
+    public void testKeyEncode(String input) throws Exception {
+        assertEncodeDecodeEqual(input, Writer::writeString, (reader) -> reader.readKey(1024), getWriter(), getReader());
+    }
+
+    @Test
+    public void testKeyIsShared() throws Exception {
+        byte[] output;
+
+        // Writing
+        try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
+             DataOutputStream dataOutputStream = new DataOutputStream(baos)) {
+            Writer writer = getWriter().apply(dataOutputStream);
+
+            // Write the same key twice
+            writer.writeString("SharedKey");
+            writer.writeString("SharedKey");
+
+            // Gather the bytes
+            output = baos.toByteArray();
+        }
+
+        // Reading
+        try (ByteArrayInputStream bais = new ByteArrayInputStream(output);
+             DataInputStream dataOutputStream = new DataInputStream(bais)) {
+            Reader reader = getReader().apply(dataOutputStream);
+
+            // Both reads should give the same instance
+            assertSame(reader.readKey(1024), reader.readKey(1024));
+        }
+    }
+
     @ParameterizedTest
     @MethodSource("getByteArrayExamples")
     public void testShortPrefixedByteArrayEncode(byte[] input) throws Exception {
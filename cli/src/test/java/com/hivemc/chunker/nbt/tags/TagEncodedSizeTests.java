@@ -0,0 +1,124 @@
+package com.hivemc.chunker.nbt.tags;
+
+import com.hivemc.chunker.nbt.TagType;
+import com.hivemc.chunker.nbt.io.Writer;
+import com.hivemc.chunker.nbt.tags.collection.CompoundTag;
+import com.hivemc.chunker.nbt.tags.collection.ListTag;
+import com.hivemc.chunker.nbt.tags.primitive.IntTag;
+import com.hivemc.chunker.nbt.tags.primitive.StringTag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for computing the encoded size of tags and encoding into exactly sized arrays.
+ */
+public class TagEncodedSizeTests {
+    /**
+     * Create a compound which has every type of tag, lists and non-ASCII names.
+     *
+     * @return the new compound.
+     */
+    private static CompoundTag createCompound() {
+        CompoundTag compoundTag = new CompoundTag();
+        compoundTag.put("Byte", (byte) 1);
+        compoundTag.put("Short", (short) 2);
+        compoundTag.put("Int", 3);
+        compoundTag.put("Long", 4L);
+        compoundTag.put("Float", 5F);
+        compoundTag.put("Double", 6D);
+        compoundTag.put("String", "Hello");
+        compoundTag.put("Unicode caf\u00e9 \u2603", "\uD83D\uDE00 \u0000 \uD800");
+        compoundTag.put("ByteArray", new byte[]{1, 2, 3});
+        compoundTag.put("IntArray", new int[]{1, 2, 3});
+        compoundTag.put("LongArray", new long[]{1, 2, 3});
+        compoundTag.put("IntList", ListTag.fromValues(TagType.INT, List.of(1, 2, 3)));
+        compoundTag.put("DoubleList", ListTag.fromValues(TagType.DOUBLE, List.of(1D, 2D)));
+        compoundTag.put("StringList", new ListTag<>(TagType.STRING, List.of(new StringTag("A"), new StringTag("\u2603"))));
+        compoundTag.put("EmptyList", new ListTag<>());
+
+        CompoundTag nested = new CompoundTag();
+        nested.put("Name", "Nested");
+        nested.put("Value", 7);
+        compoundTag.put("Nested", nested);
+        compoundTag.put("CompoundList", new ListTag<>(TagType.COMPOUND, List.of(nested.clone(), new CompoundTag())));
+        return compoundTag;
+    }
+
+    /**
+     * Encode a named tag using a stream based writer.
+     *
+     * @param tag the tag to encode.
+     * @return the encoded bytes.
+     * @throws IOException if it failed to encode.
+     */
+    private static byte[] encodeToStream(Tag<?> tag) throws IOException {
+        try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
+             DataOutputStream dataOutputStream = new DataOutputStream(baos)) {
+            Tag.encodeNamed(Writer.toBedrockWriter(dataOutputStream), "root", tag);
+            return baos.toByteArray();
+        }
+    }
+
+    @Test
+    public void testEncodedSize() throws IOException {
+        CompoundTag compoundTag = createCompound();
+        assertEquals(encodeToStream(compoundTag).length, Tag.getEncodedSize("root", compoundTag));
+        for (Tag<?> tag : compoundTag.getValue().values()) {
+            assertEquals(encodeToStream(tag).length, Tag.getEncodedSize("root", tag));
+        }
+    }
+
+    @Test
+    public void testEncodedSizeEndTag() {
+        assertEquals(1, Tag.getEncodedSize("root", null));
+    }
+
+    @Test
+    public void testEncodedStringSize() {
+        assertEquals(2, Tag.getEncodedStringSize(""));
+        assertEquals(7, Tag.getEncodedStringSize("Hello"));
+        assertEquals(2 + 2, Tag.getEncodedStringSize("\u00e9"));
+        assertEquals(2 + 3, Tag.getEncodedStringSize("\u2603"));
+        assertEquals(2 + 4, Tag.getEncodedStringSize("\uD83D\uDE00"));
+        assertEquals(2 + 1, Tag.getEncodedStringSize("\uD800")); // Unpaired surrogates are replaced
+    }
+
+    @Test
+    public void testLazyEncodedSize() throws IOException {
+        byte[] bytes = Tag.writeBedrockNBT(createCompound());
+        CompoundTag lazy = Tag.readLazyBedrockNBT(bytes);
+        assertNotNull(lazy);
+        assertEquals(bytes.length, Tag.getEncodedSize("", lazy));
+
+        // Modifying an accessed child should change the size
+        lazy.getList("IntList", IntTag.class).add(new IntTag(4));
+        assertEquals(bytes.length + 4, Tag.getEncodedSize("", lazy));
+        assertEquals(Tag.writeBedrockNBT(lazy).length, Tag.getEncodedSize("", lazy));
+    }
+
+    @Test
+    public void testExactArrayMatchesStream() throws IOException {
+        CompoundTag compoundTag = createCompound();
+        byte[] bytes = new byte[Tag.getEncodedSize("root", compoundTag)];
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        Tag.encodeNamed(Writer.toBedrockWriter(buffer), "root", compoundTag);
+        assertFalse(buffer.hasRemaining());
+        assertArrayEquals(encodeToStream(compoundTag), bytes);
+    }
+
+    @Test
+    public void testWriteRoundTrip() throws IOException {
+        CompoundTag compoundTag = createCompound();
+        assertEquals(compoundTag, Tag.readBedrockNBT(Tag.writeBedrockNBT(compoundTag)));
+        assertEquals(compoundTag, Tag.readUncompressedJavaNBT(Tag.writeUncompressedJavaNBT(compoundTag)));
+        assertEquals(compoundTag, Tag.readZLibJavaNBT(Tag.writeZLibJavaNBT(compoundTag)));
+        assertEquals(compoundTag, Tag.readGZipJavaNBT(Tag.writeGZipJavaNBT(compoundTag)));
+    }
+}
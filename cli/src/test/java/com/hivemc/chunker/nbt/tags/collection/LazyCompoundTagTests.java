@@ -0,0 +1,137 @@
+package com.hivemc.chunker.nbt.tags.collection;
+
+import com.hivemc.chunker.nbt.TagType;
+import com.hivemc.chunker.nbt.tags.Tag;
+import com.hivemc.chunker.nbt.tags.primitive.IntTag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the CompoundTag which decodes children on access.
+ */
+public class LazyCompoundTagTests {
+    /**
+     * Create a compound which has every type of tag in it and a nested compound.
+     *
+     * @return the new compound.
+     */
+    private static CompoundTag createCompound() {
+        CompoundTag compoundTag = new CompoundTag();
+        compoundTag.put("Byte", (byte) 1);
+        compoundTag.put("Short", (short) 2);
+        compoundTag.put("Int", 3);
+        compoundTag.put("Long", 4L);
+        compoundTag.put("Float", 5F);
+        compoundTag.put("Double", 6D);
+        compoundTag.put("String", "Hello");
+        compoundTag.put("ByteArray", new byte[]{1, 2, 3});
+        compoundTag.put("IntArray", new int[]{1, 2, 3});
+        compoundTag.put("LongArray", new long[]{1, 2, 3});
+        compoundTag.put("IntList", ListTag.fromValues(TagType.INT, List.of(1, 2, 3)));
+
+        CompoundTag nested = new CompoundTag();
+        nested.put("Name", "Nested");
+        nested.put("Value", 7);
+        compoundTag.put("Nested", nested);
+        return compoundTag;
+    }
+
+    @Test
+    public void testAccess() throws IOException {
+        CompoundTag lazy = Tag.readLazyBedrockNBT(Tag.writeBedrockNBT(createCompound()));
+        assertInstanceOf(LazyCompoundTag.class, lazy);
+        assertEquals(12, lazy.size());
+        assertTrue(lazy.contains("IntList"));
+        assertFalse(lazy.contains("Missing"));
+        assertNull(lazy.get("Missing"));
+        assertEquals(3, lazy.getInt("Int"));
+        assertEquals("Hello", lazy.getString("String"));
+        assertArrayEquals(new long[]{1, 2, 3}, lazy.getLongArray("LongArray"));
+        assertEquals(List.of(1, 2, 3), lazy.getListValues("IntList", IntTag.class));
+
+        // Nested compounds should be lazy and the same instance on each access
+        CompoundTag nested = lazy.getCompound("Nested");
+        assertInstanceOf(LazyCompoundTag.class, nested);
+        assertSame(nested, lazy.getCompound("Nested"));
+        assertEquals("Nested", nested.getString("Name"));
+    }
+
+    @Test
+    public void testEquals() throws IOException {
+        CompoundTag compound = createCompound();
+        CompoundTag lazy = Tag.readLazyBedrockNBT(Tag.writeBedrockNBT(compound));
+        assertEquals(compound, lazy);
+        assertEquals(lazy, compound);
+        assertEquals(compound.toSNBT(), lazy.toSNBT());
+    }
+
+    @Test
+    public void testUntouchedEncodeCopiesBytes() throws IOException {
+        byte[] bytes = Tag.writeBedrockNBT(createCompound());
+        CompoundTag lazy = Tag.readLazyBedrockNBT(bytes);
+        assertArrayEquals(bytes, Tag.writeBedrockNBT(lazy));
+
+        // Accessing children shouldn't change the output
+        lazy.getInt("Int");
+        lazy.getCompound("Nested").getString("Name");
+        assertArrayEquals(bytes, Tag.writeBedrockNBT(lazy));
+    }
+
+    @Test
+    public void testModifiedChildIsEncoded() throws IOException {
+        CompoundTag lazy = Tag.readLazyBedrockNBT(Tag.writeBedrockNBT(createCompound()));
+
+        // Modify a nested compound and a list after accessing them
+        lazy.getCompound("Nested").put("Value", 8);
+        lazy.getList("IntList", IntTag.class).add(new IntTag(4));
+
+        CompoundTag expected = createCompound();
+        expected.getCompound("Nested").put("Value", 8);
+        expected.getList("IntList", IntTag.class).add(new IntTag(4));
+        assertEquals(expected, Tag.readBedrockNBT(Tag.writeBedrockNBT(lazy)));
+    }
+
+    @Test
+    public void testPutAndRemove() throws IOException {
+        CompoundTag lazy = Tag.readLazyBedrockNBT(Tag.writeBedrockNBT(createCompound()));
+        lazy.put("Added", 10);
+        lazy.remove("Byte");
+
+        CompoundTag expected = createCompound();
+        expected.put("Added", 10);
+        expected.remove("Byte");
+        assertEquals(expected, lazy);
+        assertEquals(12, lazy.size());
+        assertArrayEquals(Tag.writeBedrockNBT(expected), Tag.writeBedrockNBT(lazy));
+    }
+
+    @Test
+    public void testCrossEndianEncode() throws IOException {
+        CompoundTag compound = createCompound();
+        CompoundTag lazy = Tag.readLazyBedrockNBT(Tag.writeBedrockNBT(compound));
+
+        // Writing little endian bytes as big endian should decode the children
+        assertArrayEquals(Tag.writeUncompressedJavaNBT(compound), Tag.writeUncompressedJavaNBT(lazy));
+    }
+
+    @Test
+    public void testCloneIsIndependent() throws IOException {
+        CompoundTag lazy = Tag.readLazyBedrockNBT(Tag.writeBedrockNBT(createCompound()));
+        CompoundTag clone = lazy.clone();
+        clone.getCompound("Nested").put("Value", 8);
+        clone.put("Added", 10);
+        assertEquals(createCompound(), lazy);
+        assertNotEquals(lazy, clone);
+    }
+
+    @Test
+    public void testTruncated() throws IOException {
+        byte[] bytes = Tag.writeBedrockNBT(createCompound());
+        assertThrows(IOException.class, () -> LazyCompoundTag.decodeNamed(bytes, 0, bytes.length - 4, ByteOrder.LITTLE_ENDIAN));
+    }
+}
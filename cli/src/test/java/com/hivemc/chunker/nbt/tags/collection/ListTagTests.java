@@ -4,6 +4,8 @@ import com.hivemc.chunker.nbt.TagType;
 import com.hivemc.chunker.nbt.tags.Tag;
 import com.hivemc.chunker.nbt.tags.TagTestsBase;
 import com.hivemc.chunker.nbt.tags.TagWithName;
+import com.hivemc.chunker.nbt.tags.primitive.DoubleTag;
+import com.hivemc.chunker.nbt.tags.primitive.FloatTag;
 import com.hivemc.chunker.nbt.tags.primitive.IntTag;
 import com.hivemc.chunker.nbt.tags.primitive.StringTag;
 import org.junit.jupiter.api.Test;
@@ -143,6 +145,53 @@ public class ListTagTests extends TagTestsBase<ListTag<Tag<?>, ?>, List<Tag<?>>>
         assertEquals(2, iterations);
     }
 
+    @Test
+    public void testPrimitiveDecode() throws IOException {
+        CompoundTag compoundTag = new CompoundTag();
+        compoundTag.put("Bytes", ListTag.fromValues(TagType.BYTE, List.of((byte) 1, (byte) -2)));
+        compoundTag.put("Shorts", ListTag.fromValues(TagType.SHORT, List.of((short) 1, (short) -2)));
+        compoundTag.put("Ints", ListTag.fromValues(TagType.INT, List.of(1, -2, 3)));
+        compoundTag.put("Longs", ListTag.fromValues(TagType.LONG, List.of(1L, -2L)));
+        compoundTag.put("Floats", ListTag.fromValues(TagType.FLOAT, List.of(1F, -2.5F, Float.NaN)));
+        compoundTag.put("Doubles", ListTag.fromValues(TagType.DOUBLE, List.of(1D, -2.5D)));
+
+        // Decoding should use primitive storage and still equal the tag based lists
+        byte[] encoded = Tag.writeUncompressedJavaNBT(compoundTag);
+        CompoundTag decoded = Tag.readUncompressedJavaNBT(encoded);
+        assertNotNull(decoded);
+        assertInstanceOf(PrimitiveTagList.class, decoded.getList("Floats", FloatTag.class).getValue());
+        assertEquals(compoundTag, decoded);
+        assertEquals(List.of(1F, -2.5F, Float.NaN), decoded.getListValues("Floats", FloatTag.class));
+        assertEquals(new ListTag<>(TagType.INT, List.of(new IntTag(1), new IntTag(-2), new IntTag(3))), decoded.getList("Ints", IntTag.class));
+
+        // Encoding should give the same bytes
+        assertArrayEquals(encoded, Tag.writeUncompressedJavaNBT(decoded));
+    }
+
+    @Test
+    public void testPrimitiveModify() {
+        ListTag<DoubleTag, Double> list = ListTag.fromValues(TagType.DOUBLE, List.of(1D, 2D, 3D));
+        assertEquals(new DoubleTag(2D), list.set(1, new DoubleTag(5D)));
+        assertTrue(list.add(new DoubleTag(6D)));
+        list.getValue().add(0, new DoubleTag(0D));
+        assertEquals(new DoubleTag(3D), list.getValue().remove(3));
+        assertEquals(List.of(0D, 1D, 5D, 6D), list.toList());
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(4));
+    }
+
+    @Test
+    public void testPrimitiveCloneIsIndependent() {
+        ListTag<IntTag, Integer> list = new ListTag<>();
+        for (int i = 0; i < 10; i++) {
+            list.add(new IntTag(i));
+        }
+        ListTag<IntTag, Integer> clone = list.clone();
+        clone.set(0, new IntTag(100));
+        assertEquals(new IntTag(0), list.get(0));
+        assertEquals(new IntTag(100), clone.get(0));
+        assertEquals(10, clone.size());
+    }
+
     @Test
     protected void testLengthProtection() throws IOException {
         ArrayList<IntTag> values = new ArrayList<>();
@@ -0,0 +1,66 @@
+package com.hivemc.chunker.scheduling;
+
+import com.hivemc.chunker.scheduling.task.executor.WorkStealingTaskExecutor;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for the initial sizing used by the AdaptiveConcurrencyController and its use of the JVM memory pools.
+ */
+public class AdaptiveConcurrencyControllerTests {
+    private static final long GB = 1024L * 1024L * 1024L;
+
+    @Test
+    public void testInitialWorkersLimitedByProcessors() {
+        assertEquals(32, AdaptiveConcurrencyController.getInitialWorkers(32, 32 * GB));
+    }
+
+    @Test
+    public void testInitialWorkersLimitedByHeap() {
+        assertEquals(4, AdaptiveConcurrencyController.getInitialWorkers(32, 2 * GB));
+    }
+
+    @Test
+    public void testInitialWorkersMinimum() {
+        assertEquals(1, AdaptiveConcurrencyController.getInitialWorkers(8, 128L * 1024L * 1024L));
+    }
+
+    @Test
+    public void testMaxWorkers() {
+        assertEquals(2, AdaptiveConcurrencyController.getMaxWorkers(1));
+        assertEquals(16, AdaptiveConcurrencyController.getMaxWorkers(8));
+    }
+
+    @Test
+    public void testThresholdsRestoredWhenStopped() throws InterruptedException {
+        List<MemoryPoolMXBean> pools = new ArrayList<>();
+        List<Long> thresholds = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (!pool.isCollectionUsageThresholdSupported()) continue;
+            pools.add(pool);
+            thresholds.add(pool.getCollectionUsageThreshold());
+        }
+
+        WorkStealingTaskExecutor executor = new WorkStealingTaskExecutor(1, null, null);
+        try {
+            AdaptiveConcurrencyController controller = new AdaptiveConcurrencyController(executor, () -> 0);
+            controller.start();
+            Thread.sleep(100);
+            controller.interrupt();
+            controller.join();
+        } finally {
+            executor.shutdown();
+        }
+
+        // The thresholds are global to the JVM, so they shouldn't be left changed
+        for (int i = 0; i < pools.size(); i++) {
+            assertEquals((long) thresholds.get(i), pools.get(i).getCollectionUsageThreshold());
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.hivemc.chunker.scheduling;
+
+import com.google.gson.JsonObject;
+import com.hivemc.chunker.scheduling.function.ThrowableRunnable;
+import com.hivemc.chunker.scheduling.task.Environment;
+import com.hivemc.chunker.scheduling.task.ProgressiveTask;
+import com.hivemc.chunker.scheduling.task.Task;
+import com.hivemc.chunker.scheduling.task.TaskWeight;
+import com.hivemc.chunker.scheduling.task.executor.PriorityQueueTaskExecutor;
+import com.hivemc.chunker.scheduling.task.executor.TaskExecutor;
+import com.hivemc.chunker.scheduling.task.executor.WorkStealingTaskExecutor;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.zip.Deflater;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the TaskExecutor implementations, including a benchmark comparing the CPU time used per simulated column.
+ */
+public class TaskExecutorTests {
+    private static final int REGIONS = 64;
+    private static final int COLUMNS_PER_REGION = 256;
+
+    /**
+     * Run a workload shaped like a conversion: each region blocks (simulating I/O) before scheduling its columns, each
+     * column does some compression work and the environment ends with an idle period (simulating compaction).
+     *
+     * @param executor the executor to use.
+     * @param regions  the number of regions to schedule.
+     * @param idleMs   the milliseconds of blocking per region / at the end.
+     * @return the number of columns which were processed.
+     */
+    private static int runWorkload(TaskExecutor executor, int regions, int idleMs) {
+        AtomicInteger columns = new AtomicInteger();
+        Environment environment = Task.environment("Benchmark", executor);
+        try {
+            for (int region = 0; region < regions; region++) {
+                Task.async("Reading region", TaskWeight.NORMAL, () -> {
+                    Thread.sleep(idleMs);
+                    for (int column = 0; column < COLUMNS_PER_REGION; column++) {
+                        Task.async("Reading column", TaskWeight.NORMAL, () -> {
+                            compress();
+                            columns.incrementAndGet();
+                        });
+                    }
+                });
+            }
+            Task.async("Compacting", TaskWeight.NORMAL, () -> Thread.sleep(idleMs * 10L));
+        } finally {
+            environment.close();
+        }
+        environment.future().join();
+        return columns.get();
+    }
+
+    private static void compress() {
+        byte[] input = new byte[16384];
+        for (int i = 0; i < input.length; i++) {
+            input[i] = (byte) (i % 31);
+        }
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            byte[] output = new byte[input.length];
+            while (!deflater.finished()) {
+                deflater.deflate(output);
+            }
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static long getProcessCpuTime() {
+        return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean()).getProcessCpuTime();
+    }
+
+    private static double benchmark(String name, IntFunction<TaskExecutor> executorFactory) {
+        long cpuStart = getProcessCpuTime();
+        long wallStart = System.nanoTime();
+        int columns = runWorkload(executorFactory.apply(8), REGIONS, 50);
+        long cpu = getProcessCpuTime() - cpuStart;
+        long wall = System.nanoTime() - wallStart;
+
+        assertEquals(REGIONS * COLUMNS_PER_REGION, columns);
+        double cpuPerColumn = cpu / (double) columns / 1000D;
+        System.out.printf("%s: %d columns, wall %.2fms, CPU %.2fms, %.2fus CPU per column%n",
+                name, columns, wall / 1_000_000D, cpu / 1_000_000D, cpuPerColumn);
+        return cpuPerColumn;
+    }
+
+    @Test
+    public void testWorkStealingNestedTasks() {
+        int columns = runWorkload(new WorkStealingTaskExecutor(4, null, null), 4, 1);
+        assertEquals(4 * COLUMNS_PER_REGION, columns);
+    }
+
+    @Test
+    public void testWorkStealingActiveWorkers() {
+        WorkStealingTaskExecutor executor = new WorkStealingTaskExecutor(4, 1, null, null);
+        assertEquals(1, executor.getActiveWorkers());
+        int columns = runWorkload(executor, 4, 1);
+        assertEquals(4 * COLUMNS_PER_REGION, columns);
+
+        // Active workers are clamped to the pool size
+        executor.setActiveWorkers(10);
+        assertEquals(4, executor.getActiveWorkers());
+    }
+
+    @Test
+    public void testWorkStealingDeactivatedWhileIdle() throws InterruptedException {
+        WorkStealingTaskExecutor executor = new WorkStealingTaskExecutor(4, null, null);
+        Environment environment = Task.environment("Deactivated", executor);
+        try {
+            // Let every worker park as idle before most of them are deactivated
+            Thread.sleep(100);
+            executor.setActiveWorkers(1);
+
+            // Each task only wakes one worker, an inactive worker has to pass the wake-up on
+            for (int i = 0; i < 10; i++) {
+                CountDownLatch ran = new CountDownLatch(1);
+                Task.async("Task", TaskWeight.NORMAL, ran::countDown);
+                assertTrue(ran.await(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            environment.close();
+        }
+        environment.future().join();
+    }
+
+    @Test
+    public void testWorkStealingSignal() {
+        AtomicInteger signals = new AtomicInteger();
+        Environment environment = Task.environment("Signal", new WorkStealingTaskExecutor(2, null, (name, value) -> signals.addAndGet((Integer) value)));
+        try {
+            Task.async("Signal", TaskWeight.NORMAL, () -> Task.signal("test", 5));
+        } finally {
+            environment.close();
+        }
+        environment.future().join();
+        assertEquals(5, signals.get());
+    }
+
+    @Test
+    public void testProgressIsIncremental() {
+        Environment environment = Task.environment("Progress", new WorkStealingTaskExecutor(4, null, null));
+        double[] observed = new double[1];
+        try {
+            Task.async("Region", TaskWeight.NORMAL, () -> {
+                for (int column = 0; column < COLUMNS_PER_REGION; column++) {
+                    Task.async("Column", TaskWeight.NORMAL, TaskExecutorTests::compress);
+                }
+            }).then("Check", TaskWeight.NORMAL, () -> observed[0] = environment.getProgress());
+        } finally {
+            environment.close();
+        }
+        environment.future().join();
+
+        // Progress is pushed up as tasks complete
+        assertTrue(observed[0] > 0D && observed[0] < 1D);
+        assertEquals(1D, environment.getProgress());
+    }
+
+    @Test
+    public void testAsyncBatch() {
+        AtomicInteger units = new AtomicInteger();
+        List<ThrowableRunnable> batch = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            batch.add(units::incrementAndGet);
+        }
+
+        Environment environment = Task.environment("Batch", new WorkStealingTaskExecutor(2, null, null));
+        ProgressiveTask<Void> task;
+        try {
+            task = Task.asyncBatch("Batch", TaskWeight.NORMAL, batch);
+        } finally {
+            environment.close();
+        }
+        environment.future().join();
+
+        // Every unit runs and the batch has the weight of all the units
+        assertEquals(16, units.get());
+        assertEquals(16 * TaskWeight.NORMAL.getWeight(), task.getWeight());
+    }
+
+    @Test
+    public void testAsyncIOLane() {
+        AtomicInteger columns = new AtomicInteger();
+        List<String> ioThreads = new ArrayList<>();
+        WorkStealingTaskExecutor executor = new WorkStealingTaskExecutor(2, 2, 1, null, null);
+        assertEquals(1, executor.getIOThreadCount());
+
+        Environment environment = Task.environment("I/O", executor);
+        try {
+            for (int region = 0; region < 4; region++) {
+                Task.asyncIO("Reading region", TaskWeight.NORMAL, () -> {
+                    synchronized (ioThreads) {
+                        ioThreads.add(Thread.currentThread().getName());
+                    }
+
+                    // Tasks scheduled from the I/O lane are run by the workers
+                    for (int column = 0; column < COLUMNS_PER_REGION; column++) {
+                        Task.async("Reading column", TaskWeight.NORMAL, () -> {
+                            assertTrue(Thread.currentThread().getName().startsWith("Task Processor"));
+                            columns.incrementAndGet();
+                        });
+                    }
+                });
+            }
+        } finally {
+            environment.close();
+        }
+        environment.future().join();
+
+        assertEquals(4 * COLUMNS_PER_REGION, columns.get());
+        assertTrue(ioThreads.stream().allMatch(name -> name.startsWith("Task I/O Processor")));
+    }
+
+    @Test
+    public void testMetrics() {
+        TaskMetrics metrics = new TaskMetrics();
+        WorkStealingTaskExecutor executor = new WorkStealingTaskExecutor(2, null, null);
+        executor.setMetrics(metrics);
+
+        Environment environment = Task.environment("Metrics", executor);
+        try {
+            for (int column = 0; column < 16; column++) {
+                Task.async("Column", TaskWeight.NORMAL, () -> {
+                    compress();
+                    metrics.recordColumn();
+                }).then("After column", TaskWeight.NORMAL, () -> {
+                });
+            }
+        } finally {
+            environment.close();
+        }
+        environment.future().join();
+
+        // Both scheduled and chained tasks are recorded by name
+        JsonObject snapshot = metrics.snapshot();
+        JsonObject stages = snapshot.getAsJsonObject("stages");
+        assertEquals(16, snapshot.get("columns").getAsLong());
+        assertEquals(16, stages.getAsJsonObject("Column").getAsJsonObject("queueWait").get("count").getAsLong());
+        assertEquals(16, stages.getAsJsonObject("Column").getAsJsonObject("execution").get("count").getAsLong());
+        assertEquals(16, stages.getAsJsonObject("After column").getAsJsonObject("execution").get("count").getAsLong());
+        assertTrue(snapshot.get("columnsPerSecond").getAsDouble() > 0D);
+    }
+
+    @Tag("LongRunning")
+    @Test
+    public void benchmarkCpuTimePerColumn() {
+        // Warm up both implementations first
+        runWorkload(new PriorityQueueTaskExecutor(8, null, null), 4, 1);
+        runWorkload(new WorkStealingTaskExecutor(8, null, null), 4, 1);
+
+        double priorityQueue = benchmark("PriorityQueueTaskExecutor", (threads) -> new PriorityQueueTaskExecutor(threads, null, null));
+        double workStealing = benchmark("WorkStealingTaskExecutor", (threads) -> new WorkStealingTaskExecutor(threads, null, null));
+
+        // Idle workers should no longer be spinning
+        assertTrue(workStealing < priorityQueue);
+    }
+}
@@ -0,0 +1,133 @@
+package com.hivemc.chunker.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests to ensure the reusable CompressionContext is compatible with the JDK zlib streams.
+ */
+public class CompressionContextTests {
+    private static byte[] createInput(int length) {
+        // Half random, half repeated so the data compresses a little
+        byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+        Arrays.fill(bytes, length / 2, length, (byte) 7);
+        return bytes;
+    }
+
+    private static byte[] toArray(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static byte[] compress(CompressionContext context, byte[] input, boolean gzip) throws IOException {
+        context.startOutput().write(input);
+        return gzip ? context.finishGZip() : context.finishZLib(9);
+    }
+
+    @Test
+    public void testZLibMatchesJDK() throws IOException {
+        byte[] input = createInput(100_000);
+        try (CompressionContext context = CompressionContext.acquire()) {
+            byte[] compressed = compress(context, input, false);
+            assertArrayEquals(input, new InflaterInputStream(new ByteArrayInputStream(compressed)).readAllBytes());
+
+            // Reading back should give the same bytes even after the buffer has been reused
+            assertArrayEquals(input, toArray(context.inflateZLib(ByteBuffer.wrap(compressed))));
+        }
+    }
+
+    @Test
+    public void testGZipMatchesJDK() throws IOException {
+        byte[] input = createInput(100_000);
+        try (CompressionContext context = CompressionContext.acquire()) {
+            // Written by the context and read by the JDK
+            byte[] compressed = compress(context, input, true);
+            assertArrayEquals(input, new GZIPInputStream(new ByteArrayInputStream(compressed)).readAllBytes());
+
+            // Written by the JDK and read by the context
+            ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(byteArrayOutputStream)) {
+                gzipOutputStream.write(input);
+            }
+            assertArrayEquals(input, toArray(context.inflateGZip(ByteBuffer.wrap(byteArrayOutputStream.toByteArray()))));
+        }
+    }
+
+    @Test
+    public void testZLibLargerThanInitialBuffer() throws IOException {
+        // Random bytes don't compress, so the output has to grow past the initial buffer while deflating
+        byte[] input = new byte[64 * 1024];
+        new Random(0).nextBytes(input);
+        try (CompressionContext outer = CompressionContext.acquire();
+             CompressionContext context = CompressionContext.acquire()) {
+            // The nested context is always new, so it starts with the initial buffer
+            byte[] compressed = compress(context, input, false);
+            assertTrue(compressed.length > 8 * 1024);
+            assertArrayEquals(input, new InflaterInputStream(new ByteArrayInputStream(compressed)).readAllBytes());
+        }
+    }
+
+    @Test
+    public void testStartOutputWithLength() throws IOException {
+        byte[] input = createInput(100_000);
+        try (CompressionContext context = CompressionContext.acquire()) {
+            // Any previous output should be discarded
+            context.startOutput().write(createInput(10));
+            ByteBuffer buffer = context.startOutput(input.length);
+            assertEquals(input.length, buffer.remaining());
+            buffer.put(input);
+
+            assertArrayEquals(input, context.finishUncompressed());
+            assertArrayEquals(input, new GZIPInputStream(new ByteArrayInputStream(context.finishGZip())).readAllBytes());
+        }
+    }
+
+    @Test
+    public void testCorruptInputIsRejected() throws IOException {
+        byte[] input = createInput(10_000);
+        try (CompressionContext context = CompressionContext.acquire()) {
+            byte[] gzip = compress(context, input, true);
+            byte[] zlib = compress(context, input, false);
+
+            // Truncated data
+            assertThrows(EOFException.class, () -> context.inflateZLib(ByteBuffer.wrap(zlib, 0, zlib.length / 2)));
+            assertThrows(EOFException.class, () -> context.inflateGZip(ByteBuffer.wrap(gzip, 0, gzip.length / 2)));
+
+            // Corrupt CRC in the trailer
+            gzip[gzip.length - 8] ^= 1;
+            assertThrows(ZipException.class, () -> context.inflateGZip(ByteBuffer.wrap(gzip)));
+        }
+    }
+
+    @Test
+    public void testNestedAcquireUsesSeparateContexts() {
+        try (CompressionContext outer = CompressionContext.acquire();
+             CompressionContext inner = CompressionContext.acquire()) {
+            assertNotSame(outer, inner);
+        }
+
+        // One of the contexts should have been kept for the thread
+        CompressionContext first;
+        try (CompressionContext context = CompressionContext.acquire()) {
+            first = context;
+        }
+        try (CompressionContext context = CompressionContext.acquire()) {
+            assertSame(first, context);
+        }
+    }
+}